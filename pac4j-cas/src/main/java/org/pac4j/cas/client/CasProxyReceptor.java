@@ -9,6 +9,7 @@ import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.store.GuavaStore;
 import org.pac4j.core.store.Store;
+import org.pac4j.core.store.StoreRegistry;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,7 +36,7 @@ public final class CasProxyReceptor extends IndirectClient<TokenCredentials, Com
 
     private static final Logger logger = LoggerFactory.getLogger(CasProxyReceptor.class);
 
-    private Store<String, String> store = new GuavaStore<>(1000, 1, TimeUnit.MINUTES);
+    private Store<String, String> store = StoreRegistry.register(this, new GuavaStore<>(1000, 1, TimeUnit.MINUTES));
 
     @Override
     protected void clientInit() {
@@ -18,8 +18,12 @@ import org.pac4j.core.http.callback.NoParameterCallbackUrlResolver;
 import org.pac4j.core.http.url.DefaultUrlResolver;
 import org.pac4j.core.http.url.UrlResolver;
 import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.AsyncHelper;
 import org.pac4j.core.util.CommonHelper;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 /**
  * <p>This class is the direct client to authenticate users on a CAS server for a web application in a stateless way: when trying to access
  * a protected area, the user will be redirected to the CAS server for login and then back directly to this originally requested url.</p>
@@ -96,6 +100,24 @@ public class DirectCasClient extends DirectClient<TokenCredentials, CommonProfil
         }
     }
 
+    /**
+     * The ticket is validated by a new {@link CasAuthenticator} in {@link #retrieveCredentials(WebContext)}, which is run
+     * on the asynchronous executor.
+     */
+    @Override
+    protected CompletionStage<TokenCredentials> retrieveCredentialsAsync(final WebContext context) {
+        try {
+            return CompletableFuture.supplyAsync(() -> retrieveCredentials(context), getAsyncExecutor());
+        } catch (final RuntimeException e) {
+            return AsyncHelper.failedStage(e);
+        }
+    }
+
+    @Override
+    public boolean isValidationSeparable() {
+        return false;
+    }
+
     @Override
     protected void defaultAuthenticator(final Authenticator authenticator) {
         throw new TechnicalException("You can not set an Authenticator for the DirectCasClient at startup. A new CasAuthenticator is "
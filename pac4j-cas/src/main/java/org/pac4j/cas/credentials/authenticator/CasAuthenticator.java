@@ -4,7 +4,9 @@ import org.jasig.cas.client.authentication.AttributePrincipal;
 import org.jasig.cas.client.validation.Assertion;
 import org.jasig.cas.client.validation.TicketValidationException;
 import org.pac4j.cas.config.CasConfiguration;
+import org.pac4j.cas.profile.CasProfile;
 import org.pac4j.cas.profile.CasProfileDefinition;
+import org.pac4j.cas.profile.CasProxyProfile;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.credentials.TokenCredentials;
 import org.pac4j.core.credentials.authenticator.Authenticator;
@@ -13,6 +15,7 @@ import org.pac4j.core.http.callback.CallbackUrlResolver;
 import org.pac4j.core.http.url.UrlResolver;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.profile.InternalAttributeHandler;
+import org.pac4j.core.profile.ProfileFactoryRegistry;
 import org.pac4j.core.profile.ProfileHelper;
 import org.pac4j.core.profile.definition.ProfileDefinitionAware;
 import org.pac4j.core.util.CommonHelper;
@@ -32,6 +35,11 @@ public class CasAuthenticator extends ProfileDefinitionAware<CommonProfile> impl
 
     private static final Logger logger = LoggerFactory.getLogger(CasAuthenticator.class);
 
+    static {
+        ProfileFactoryRegistry.register(CasProfile.class, CasProfile::new);
+        ProfileFactoryRegistry.register(CasProxyProfile.class, CasProxyProfile::new);
+    }
+
     protected CasConfiguration configuration;
 
     protected String clientName;
@@ -7,6 +7,7 @@ import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.profile.ProfileManager;
 import org.pac4j.core.store.GuavaStore;
 import org.pac4j.core.store.Store;
+import org.pac4j.core.store.StoreRegistry;
 import org.pac4j.core.util.CommonHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,7 +24,7 @@ public class DefaultCasLogoutHandler<C extends WebContext> implements CasLogoutH
 
     protected static final Logger logger = LoggerFactory.getLogger(DefaultCasLogoutHandler.class);
 
-    private Store<String, Object> store = new GuavaStore<>(10000, 30, TimeUnit.MINUTES);
+    private Store<String, Object> store = StoreRegistry.register(this, new GuavaStore<>(10000, 30, TimeUnit.MINUTES));
 
     private boolean destroySession;
 
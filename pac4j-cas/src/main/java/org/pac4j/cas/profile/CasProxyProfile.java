@@ -9,6 +9,8 @@ import org.slf4j.LoggerFactory;
  * <p>It is returned by the {@link org.pac4j.cas.client.CasClient} coupled with the {@link org.pac4j.cas.client.CasProxyReceptor}.</p>
  * <p>After the CAS principal has been set through the {@link #setPrincipal(AttributePrincipal)} method, proxy tickets can be retrieved for
  * various CAS services by using the {@link #getProxyTicketFor(String)} method.</p>
+ * <p>The CAS principal is not kept when the profile is encoded or serialized: proxy tickets can only be retrieved from the profile
+ * returned by the authentication.</p>
  * 
  * @see org.pac4j.cas.client.CasClient
  * @see org.pac4j.cas.client.CasProxyReceptor
@@ -19,9 +21,9 @@ public class CasProxyProfile extends CasProfile {
     
     private static final long serialVersionUID = 4956675835922254493L;
 
-    protected final Logger logger = LoggerFactory.getLogger(getClass());
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
 
-    protected AttributePrincipal attributePrincipal = null;
+    protected transient AttributePrincipal attributePrincipal = null;
     
     /**
      * Store the CAS principal.
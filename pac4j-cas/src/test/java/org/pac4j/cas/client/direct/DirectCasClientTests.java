@@ -13,6 +13,8 @@ import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
 
+import java.util.concurrent.CompletionException;
+
 import static org.junit.Assert.*;
 import static org.pac4j.core.util.CommonHelper.*;
 
@@ -81,4 +83,39 @@ public final class DirectCasClientTests implements TestsConstants {
         assertTrue(profile instanceof CasProfile);
         assertEquals(TICKET, profile.getId());
     }
+
+    @Test
+    public void testAsyncNoTokenRedirectionExpected() {
+        final CasConfiguration configuration = new CasConfiguration();
+        configuration.setLoginUrl(LOGIN_URL);
+        final DirectCasClient client = new DirectCasClient(configuration);
+        final MockWebContext context = MockWebContext.create();
+        context.setFullRequestURL(CALLBACK_URL);
+        final Exception e = TestsHelper.expectException(() -> client.getCredentialsAsync(context).toCompletableFuture().join());
+        assertTrue(e instanceof CompletionException);
+        assertEquals(302, ((HttpAction) e.getCause()).getCode());
+        assertEquals(addParameter(LOGIN_URL, CasConfiguration.SERVICE_PARAMETER, CALLBACK_URL),
+            context.getResponseHeaders().get(HttpConstants.LOCATION_HEADER));
+    }
+
+    @Test
+    public void testAsyncTicketExistsValidationOccurs() {
+        final CasConfiguration configuration = new CasConfiguration();
+        configuration.setLoginUrl(LOGIN_URL);
+        configuration.setDefaultTicketValidator((ticket, service) -> {
+            if (TICKET.equals(ticket) && CALLBACK_URL.equals(service)) {
+                return new AssertionImpl(TICKET);
+            }
+            throw new TechnicalException("Bad ticket or service");
+        });
+        final DirectCasClient client = new DirectCasClient(configuration);
+        final MockWebContext context = MockWebContext.create();
+        context.setFullRequestURL(CALLBACK_URL + "?" + CasConfiguration.TICKET_PARAMETER + "=" + TICKET);
+        context.addRequestParameter(CasConfiguration.TICKET_PARAMETER, TICKET);
+        final TokenCredentials credentials = client.getCredentialsAsync(context).toCompletableFuture().join();
+        assertEquals(TICKET, credentials.getToken());
+        final CommonProfile profile = credentials.getUserProfile();
+        assertTrue(profile instanceof CasProfile);
+        assertEquals(TICKET, profile.getId());
+    }
 }
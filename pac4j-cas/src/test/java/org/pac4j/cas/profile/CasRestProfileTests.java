@@ -1,8 +1,16 @@
 package org.pac4j.cas.profile;
 
 import org.junit.Test;
+import org.pac4j.core.credentials.UsernamePasswordCredentials;
+import org.pac4j.core.credentials.authenticator.CoalescingAuthenticator;
 import org.pac4j.core.util.TestsConstants;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.Assert.*;
 
 /**
@@ -19,4 +27,42 @@ public final class CasRestProfileTests implements TestsConstants {
         profile.clearSensitiveData();
         assertNull(profile.getTicketGrantingTicketId());
     }
+
+    @Test
+    public void testCoalescedValidationsKeepTicketGrantingTicket() throws InterruptedException {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final CoalescingAuthenticator<UsernamePasswordCredentials> authenticator = new CoalescingAuthenticator<>(
+            (credentials, context) -> {
+                calls.incrementAndGet();
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                credentials.setUserProfile(new CasRestProfile(ID, credentials.getUsername()));
+            });
+        final List<CasRestProfile> profiles = new CopyOnWriteArrayList<>();
+        final Thread[] threads = new Thread[3];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                final UsernamePasswordCredentials credentials = new UsernamePasswordCredentials(USERNAME, PASSWORD);
+                authenticator.validate(credentials, null);
+                profiles.add((CasRestProfile) credentials.getUserProfile());
+            });
+            threads[i].start();
+        }
+        Thread.sleep(200);
+        latch.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1, calls.get());
+        assertEquals(3, profiles.size());
+        for (final CasRestProfile profile : profiles) {
+            assertEquals(USERNAME, profile.getId());
+            assertEquals(ID, profile.getTicketGrantingTicketId());
+            assertEquals(ID.hashCode(), profile.hashCode());
+        }
+    }
 }
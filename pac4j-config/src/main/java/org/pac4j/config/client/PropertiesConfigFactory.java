@@ -99,7 +99,11 @@ public class PropertiesConfigFactory extends AbstractBuilder implements ConfigFa
             directClientBuilder.tryCreateAnonymousClient(clients);
             directClientBuilder.tryCreateDirectBasciAuthClient(clients);
         }
-        return new Config(callbackUrl, clients);
+        final Config config = new Config(callbackUrl, clients);
+        if (isNotBlank(getProperty(WARMUP_PARALLELISM))) {
+            config.warmUp(Integer.parseInt(getProperty(WARMUP_PARALLELISM)));
+        }
+        return config;
     }
 
     protected boolean hasShiroEncoder() {
@@ -174,4 +174,6 @@ public interface PropertiesConstants {
     String SHIRO_ENCODER_HASH_ALGORITHM_NAME = "encoder.shiro.hashAlgorithmName";
     String SHIRO_ENCODER_HASH_ITERATIONS = "encoder.shiro.hashIterations";
     String SHIRO_ENCODER_PRIVATE_SALT = "encoder.shiro.privateSalt";
+
+    String WARMUP_PARALLELISM = "warmup.parallelism";
 }
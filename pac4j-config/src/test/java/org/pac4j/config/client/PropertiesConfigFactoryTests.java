@@ -42,6 +42,19 @@ import static org.pac4j.ldap.test.tools.LdapServer.*;
  */
 public final class PropertiesConfigFactoryTests implements TestsConstants {
 
+    @Test
+    public void testWarmUp() {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(FORMCLIENT_LOGIN_URL, LOGIN_URL);
+        properties.put(FORMCLIENT_AUTHENTICATOR, "testUsernamePassword");
+        properties.put(WARMUP_PARALLELISM, "2");
+
+        final Config config = new PropertiesConfigFactory(CALLBACK_URL, properties).build();
+        final FormClient formClient = (FormClient) config.getClients().getClients().get(0);
+        assertEquals(CALLBACK_URL, formClient.getCallbackUrl());
+        assertNotNull(formClient.getCredentialsExtractor());
+    }
+
     @Test
     public void test() {
         final Map<String, String> properties = new HashMap<>();
@@ -1,6 +1,7 @@
 package org.pac4j.core.authorization.checker;
 
 import org.pac4j.core.authorization.authorizer.Authorizer;
+import org.pac4j.core.config.Config;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.profile.CommonProfile;
 
@@ -25,4 +26,16 @@ public interface AuthorizationChecker {
      * @return whether the user is authorized.
      */
     boolean isAuthorized(WebContext context, List<CommonProfile> profiles, String authorizerNames, Map<String, Authorizer> authorizersMap);
+
+    /**
+     * Compile the authorizers names into a single authorizer which can be reused across requests.
+     *
+     * @param authorizerNames the authorizers
+     * @param config the configuration
+     * @return the compiled authorizer
+     */
+    default Authorizer<CommonProfile> compile(final String authorizerNames, final Config config) {
+        final Map<String, Authorizer> authorizersMap = config.getAuthorizers();
+        return (context, profiles) -> isAuthorized(context, profiles, authorizerNames, authorizersMap);
+    }
 }
@@ -2,6 +2,7 @@ package org.pac4j.core.authorization.checker;
 
 import org.pac4j.core.authorization.authorizer.*;
 import org.pac4j.core.authorization.authorizer.csrf.*;
+import org.pac4j.core.config.Config;
 import org.pac4j.core.context.DefaultAuthorizers;
 import org.pac4j.core.context.Pac4jConstants;
 import org.pac4j.core.context.WebContext;
@@ -51,9 +52,69 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
         CORS_AUTHORIZER.setAllowMethods(methods);
     }
 
+    private final static Map<String, List<Authorizer>> DEFAULT_AUTHORIZERS = new HashMap<>();
+
+    static {
+        addDefaultAuthorizers(DefaultAuthorizers.HSTS, STRICT_TRANSPORT_SECURITY_HEADER);
+        addDefaultAuthorizers(DefaultAuthorizers.NOSNIFF, X_CONTENT_TYPE_OPTIONS_HEADER);
+        addDefaultAuthorizers(DefaultAuthorizers.NOFRAME, X_FRAME_OPTIONS_HEADER);
+        addDefaultAuthorizers(DefaultAuthorizers.XSSPROTECTION, XSS_PROTECTION_HEADER);
+        addDefaultAuthorizers(DefaultAuthorizers.NOCACHE, CACHE_CONTROL_HEADER);
+        addDefaultAuthorizers(DefaultAuthorizers.SECURITYHEADERS, CACHE_CONTROL_HEADER, X_CONTENT_TYPE_OPTIONS_HEADER,
+            STRICT_TRANSPORT_SECURITY_HEADER, X_FRAME_OPTIONS_HEADER, XSS_PROTECTION_HEADER);
+        addDefaultAuthorizers(DefaultAuthorizers.CSRF_TOKEN, CSRF_TOKEN_GENERATOR_AUTHORIZER);
+        addDefaultAuthorizers(DefaultAuthorizers.CSRF_CHECK, CSRF_AUTHORIZER);
+        addDefaultAuthorizers(DefaultAuthorizers.CSRF, CSRF_TOKEN_GENERATOR_AUTHORIZER, CSRF_AUTHORIZER);
+        addDefaultAuthorizers(DefaultAuthorizers.ALLOW_AJAX_REQUESTS, CORS_AUTHORIZER);
+        addDefaultAuthorizers(DefaultAuthorizers.IS_ANONYMOUS, IS_ANONYMOUS_AUTHORIZER);
+        addDefaultAuthorizers(DefaultAuthorizers.IS_AUTHENTICATED, IS_AUTHENTICATED_AUTHORIZER);
+        addDefaultAuthorizers(DefaultAuthorizers.IS_FULLY_AUTHENTICATED, IS_FULLY_AUTHENTICATED_AUTHORIZER);
+        addDefaultAuthorizers(DefaultAuthorizers.IS_REMEMBERED, IS_REMEMBERED_AUTHORIZER);
+    }
+
+    private static void addDefaultAuthorizers(final String name, final Authorizer... authorizers) {
+        DEFAULT_AUTHORIZERS.put(name.toLowerCase(Locale.ROOT), Collections.unmodifiableList(Arrays.asList(authorizers)));
+    }
+
+    /**
+     * Return the default authorizers indexed by their lower-cased names.
+     *
+     * @return the default authorizers
+     */
+    public static Map<String, List<Authorizer>> getDefaultAuthorizers() {
+        return Collections.unmodifiableMap(DEFAULT_AUTHORIZERS);
+    }
+
     @Override
     public boolean isAuthorized(final WebContext context, final List<CommonProfile> profiles, final String authorizerNames,
         final Map<String, Authorizer> authorizersMap) {
+        return isAuthorized(context, profiles, resolveAuthorizers(authorizerNames, authorizersMap));
+    }
+
+    @Override
+    public Authorizer<CommonProfile> compile(final String authorizerNames, final Config config) {
+        final List<Authorizer> authorizers = new ArrayList<>();
+        // if we have an authorizer name (which may be a list of authorizer names)
+        if (isNotBlank(authorizerNames)) {
+            final Map<String, List<Authorizer>> authorizersIndex = config.getAuthorizersIndex();
+            for (final String name : authorizerNames.split(Pac4jConstants.ELEMENT_SEPRATOR)) {
+                final List<Authorizer> result = authorizersIndex.get(name.toLowerCase(Locale.ROOT).trim());
+                // we must have an authorizer defined for this name
+                assertNotNull("authorizersMap['" + name.trim() + "']", result);
+                authorizers.addAll(result);
+            }
+        }
+        return (context, profiles) -> isAuthorized(context, profiles, authorizers);
+    }
+
+    /**
+     * Resolve the authorizers names into authorizers.
+     *
+     * @param authorizerNames the authorizers
+     * @param authorizersMap the map of authorizers
+     * @return the authorizers
+     */
+    protected List<Authorizer> resolveAuthorizers(final String authorizerNames, final Map<String, Authorizer> authorizersMap) {
         final List<Authorizer> authorizers = new ArrayList<>();
         // if we have an authorizer name (which may be a list of authorizer names)
         if (isNotBlank(authorizerNames)) {
@@ -61,39 +122,9 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
             final int nb = names.length;
             for (int i = 0; i < nb; i++) {
                 final String name = names[i].trim();
-                if (DefaultAuthorizers.HSTS.equalsIgnoreCase(name)) {
-                    authorizers.add(STRICT_TRANSPORT_SECURITY_HEADER);
-                } else if (DefaultAuthorizers.NOSNIFF.equalsIgnoreCase(name)) {
-                    authorizers.add(X_CONTENT_TYPE_OPTIONS_HEADER);
-                } else if (DefaultAuthorizers.NOFRAME.equalsIgnoreCase(name)) {
-                    authorizers.add(X_FRAME_OPTIONS_HEADER);
-                } else if (DefaultAuthorizers.XSSPROTECTION.equalsIgnoreCase(name)) {
-                    authorizers.add(XSS_PROTECTION_HEADER);
-                } else if (DefaultAuthorizers.NOCACHE.equalsIgnoreCase(name)) {
-                    authorizers.add(CACHE_CONTROL_HEADER);
-                } else if (DefaultAuthorizers.SECURITYHEADERS.equalsIgnoreCase(name)) {
-                    authorizers.add(CACHE_CONTROL_HEADER);
-                    authorizers.add(X_CONTENT_TYPE_OPTIONS_HEADER);
-                    authorizers.add(STRICT_TRANSPORT_SECURITY_HEADER);
-                    authorizers.add(X_FRAME_OPTIONS_HEADER);
-                    authorizers.add(XSS_PROTECTION_HEADER);
-                } else if (DefaultAuthorizers.CSRF_TOKEN.equalsIgnoreCase(name)) {
-                    authorizers.add(CSRF_TOKEN_GENERATOR_AUTHORIZER);
-                } else if (DefaultAuthorizers.CSRF_CHECK.equalsIgnoreCase(name)) {
-                    authorizers.add(CSRF_AUTHORIZER);
-                } else if (DefaultAuthorizers.CSRF.equalsIgnoreCase(name)) {
-                    authorizers.add(CSRF_TOKEN_GENERATOR_AUTHORIZER);
-                    authorizers.add(CSRF_AUTHORIZER);
-                } else if (DefaultAuthorizers.ALLOW_AJAX_REQUESTS.equalsIgnoreCase(name)) {
-                    authorizers.add(CORS_AUTHORIZER);
-                } else if (DefaultAuthorizers.IS_ANONYMOUS.equalsIgnoreCase(name)) {
-                    authorizers.add(IS_ANONYMOUS_AUTHORIZER);
-                } else if (DefaultAuthorizers.IS_AUTHENTICATED.equalsIgnoreCase(name)) {
-                    authorizers.add(IS_AUTHENTICATED_AUTHORIZER);
-                } else if (DefaultAuthorizers.IS_FULLY_AUTHENTICATED.equalsIgnoreCase(name)) {
-                    authorizers.add(IS_FULLY_AUTHENTICATED_AUTHORIZER);
-                } else if (DefaultAuthorizers.IS_REMEMBERED.equalsIgnoreCase(name)) {
-                    authorizers.add(IS_REMEMBERED_AUTHORIZER);
+                final List<Authorizer> defaultAuthorizers = DEFAULT_AUTHORIZERS.get(name.toLowerCase(Locale.ROOT));
+                if (defaultAuthorizers != null) {
+                    authorizers.addAll(defaultAuthorizers);
                 } else {
                     // we must have authorizers
                     assertNotNull("authorizersMap", authorizersMap);
@@ -110,7 +141,7 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
                 }
             }
         }
-        return isAuthorized(context, profiles, authorizers);
+        return authorizers;
     }
 
     protected boolean isAuthorized(final WebContext context, final List<CommonProfile> profiles, final List<Authorizer> authorizers) {
@@ -5,16 +5,24 @@ import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 import org.pac4j.core.authorization.generator.AuthorizationGenerator;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.credentials.authenticator.AsyncAuthenticator;
+import org.pac4j.core.credentials.authenticator.AsyncAuthenticatorAdapter;
 import org.pac4j.core.credentials.authenticator.Authenticator;
 import org.pac4j.core.credentials.extractor.CredentialsExtractor;
 import org.pac4j.core.exception.CredentialsException;
 import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.creator.AsyncProfileCreator;
+import org.pac4j.core.profile.creator.AsyncProfileCreatorAdapter;
 import org.pac4j.core.profile.creator.AuthenticatorProfileCreator;
 import org.pac4j.core.profile.creator.ProfileCreator;
+import org.pac4j.core.util.AsyncHelper;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.InitializableObject;
 import org.slf4j.Logger;
@@ -33,6 +41,9 @@ import org.slf4j.LoggerFactory;
  * {@link #credentialsExtractor} and {@link #authenticator} components</li>
  * <li>The user profile retrieval in the {@link #getUserProfile(Credentials, WebContext)} method is ensured by the {@link #profileCreator}
  * component.</li>
+ * <li>The {@link #retrieveCredentialsAsync(WebContext)} and {@link #getUserProfileAsync(Credentials, WebContext)} methods do the same
+ * without blocking the calling thread: the {@link AsyncAuthenticator} and {@link AsyncProfileCreator} components are used directly,
+ * the blocking ones are run on the {@link #asyncExecutor}.</li>
  * </ul>
  *
  * @author Jerome Leleu
@@ -54,6 +65,8 @@ public abstract class BaseClient<C extends Credentials, U extends CommonProfile>
 
     private Map<String, Object> customProperties = new LinkedHashMap<>();
 
+    private Executor asyncExecutor;
+
     /**
      * Retrieve the credentials.
      *
@@ -61,24 +74,47 @@ public abstract class BaseClient<C extends Credentials, U extends CommonProfile>
      * @return the credentials
      */
     protected C retrieveCredentials(final WebContext context) {
+        final C credentials = extractCredentials(context);
+        if (credentials == null) {
+            return null;
+        }
+        return validateCredentials(credentials, context);
+    }
+
+    /**
+     * Extract the credentials, without validating them.
+     *
+     * @param context the web context
+     * @return the credentials (<code>null</code> if they are missing)
+     */
+    protected C extractCredentials(final WebContext context) {
         try {
-            final C credentials = this.credentialsExtractor.extract(context);
-            if (credentials == null) {
-                return null;
-            }
-            final long t0 = System.currentTimeMillis();
-            try {
-                this.authenticator.validate(credentials, context);
-            } finally {
-                final long t1 = System.currentTimeMillis();
-                logger.debug("Credentials validation took: {} ms", t1 - t0);
-            }
-            return credentials;
-        } catch (CredentialsException e) {
-            logger.info("Failed to retrieve or validate credentials: {}", e.getMessage());
-            logger.debug("Failed to retrieve or validate credentials", e);
+            return this.credentialsExtractor.extract(context);
+        } catch (final CredentialsException e) {
+            logger.info("Failed to retrieve credentials: {}", e.getMessage());
+            logger.debug("Failed to retrieve credentials", e);
+            return null;
+        }
+    }
 
+    /**
+     * Validate the extracted credentials.
+     *
+     * @param credentials the credentials
+     * @param context the web context
+     * @return the credentials (<code>null</code> if they are invalid)
+     */
+    protected C validateCredentials(final C credentials, final WebContext context) {
+        final long t0 = System.currentTimeMillis();
+        try {
+            this.authenticator.validate(credentials, context);
+            return credentials;
+        } catch (final CredentialsException e) {
+            logger.info("Failed to validate credentials: {}", e.getMessage());
+            logger.debug("Failed to validate credentials", e);
             return null;
+        } finally {
+            logger.debug("Credentials validation took: {} ms", System.currentTimeMillis() - t0);
         }
     }
 
@@ -90,7 +126,34 @@ public abstract class BaseClient<C extends Credentials, U extends CommonProfile>
             return null;
         }
 
-        U profile = retrieveUserProfile(credentials, context);
+        return generateAuthorizations(retrieveUserProfile(credentials, context), context);
+    }
+
+    /**
+     * Get the user profile without blocking the calling thread.
+     *
+     * @param credentials the credentials
+     * @param context the web context
+     * @return the stage completed with the user profile
+     */
+    public final CompletionStage<U> getUserProfileAsync(final C credentials, final WebContext context) {
+        try {
+            init();
+            logger.debug("credentials : {}", credentials);
+            if (credentials == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return getAsyncProfileCreator().createAsync(credentials, context).thenApply(profile -> {
+                logger.debug("profile: {}", profile);
+                return generateAuthorizations(profile, context);
+            });
+        } catch (final RuntimeException e) {
+            return AsyncHelper.failedStage(e);
+        }
+    }
+
+    private U generateAuthorizations(final U retrievedProfile, final WebContext context) {
+        U profile = retrievedProfile;
         if (profile != null) {
             profile.setClientName(getName());
             if (this.authorizationGenerators != null) {
@@ -102,6 +165,74 @@ public abstract class BaseClient<C extends Credentials, U extends CommonProfile>
         return profile;
     }
 
+    /**
+     * Retrieve the credentials without blocking the calling thread for their validation.
+     *
+     * The clients which override {@link #retrieveCredentials(WebContext)} must override this method accordingly.
+     *
+     * @param context the web context
+     * @return the stage completed with the credentials (<code>null</code> if they are missing or invalid)
+     */
+    protected CompletionStage<C> retrieveCredentialsAsync(final WebContext context) {
+        final C credentials;
+        try {
+            credentials = extractCredentials(context);
+        } catch (final RuntimeException e) {
+            return AsyncHelper.failedStage(e);
+        }
+        if (credentials == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final long t0 = System.currentTimeMillis();
+        final CompletionStage<Void> validation;
+        try {
+            validation = getAsyncAuthenticator().validateAsync(credentials, context);
+        } catch (final RuntimeException e) {
+            return AsyncHelper.failedStage(e);
+        }
+        final CompletableFuture<C> result = new CompletableFuture<>();
+        validation.whenComplete((v, t) -> {
+            logger.debug("Credentials validation took: {} ms", System.currentTimeMillis() - t0);
+            if (t == null) {
+                result.complete(credentials);
+            } else {
+                final Throwable cause = AsyncHelper.unwrap(t);
+                if (cause instanceof CredentialsException) {
+                    logger.info("Failed to validate credentials: {}", cause.getMessage());
+                    logger.debug("Failed to validate credentials", cause);
+                    result.complete(null);
+                } else {
+                    result.completeExceptionally(cause);
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Get the authenticator as an asynchronous one.
+     *
+     * @return the asynchronous authenticator
+     */
+    protected AsyncAuthenticator<C> getAsyncAuthenticator() {
+        if (this.authenticator instanceof AsyncAuthenticator) {
+            return (AsyncAuthenticator<C>) this.authenticator;
+        }
+        return new AsyncAuthenticatorAdapter<>(this.authenticator, getAsyncExecutor());
+    }
+
+    /**
+     * Get the profile creator as an asynchronous one.
+     *
+     * @return the asynchronous profile creator
+     */
+    protected AsyncProfileCreator<C, U> getAsyncProfileCreator() {
+        if (this.profileCreator instanceof AsyncProfileCreator) {
+            return (AsyncProfileCreator<C, U>) this.profileCreator;
+        }
+        return new AsyncProfileCreatorAdapter<>(this.profileCreator, getAsyncExecutor());
+    }
+
     /**
      * Retrieve a user userprofile.
      *
@@ -220,6 +351,19 @@ public abstract class BaseClient<C extends Credentials, U extends CommonProfile>
         this.customProperties =  customProperties;
     }
 
+    /**
+     * Get the executor which runs the blocking authenticator and profile creator asynchronously.
+     *
+     * @return the executor (by default, {@link AsyncHelper#getDefaultExecutor()})
+     */
+    public Executor getAsyncExecutor() {
+        return asyncExecutor != null ? asyncExecutor : AsyncHelper.getDefaultExecutor();
+    }
+
+    public void setAsyncExecutor(final Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
     @Override
     public String toString() {
         return CommonHelper.toNiceString(this.getClass(), "name", getName(), "credentialsExtractor", this.credentialsExtractor,
@@ -1,6 +1,7 @@
 package org.pac4j.core.client;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.pac4j.core.authorization.generator.AuthorizationGenerator;
 import org.pac4j.core.exception.TechnicalException;
@@ -9,6 +10,8 @@ import org.pac4j.core.http.callback.CallbackUrlResolver;
 import org.pac4j.core.http.url.UrlResolver;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.InitializableObject;
+import org.pac4j.core.util.InitializationReport;
+import org.pac4j.core.util.ParallelInitializer;
 
 /**
  * <p>This class is made to group multiple clients, generally on one callback url.</p>
@@ -38,6 +41,8 @@ public class Clients extends InitializableObject {
 
     private String defaultSecurityClients;
 
+    private final AtomicLong version = new AtomicLong();
+
     public Clients() {
     }
 
@@ -160,6 +165,38 @@ public class Clients extends InitializableObject {
         return getClients();
     }
 
+    /**
+     * Initialize eagerly all the clients, then their authenticators and profile creators, in parallel.
+     *
+     * @param parallelism the maximum number of components initialized at the same time
+     * @return the initialization report
+     */
+    public InitializationReport warmUp(final int parallelism) {
+        init();
+        final Map<String, InitializableObject> initializableClients = new LinkedHashMap<>();
+        for (final Client client : getClients()) {
+            if (client instanceof InitializableObject) {
+                initializableClients.put(client.getName(), (InitializableObject) client);
+            }
+        }
+        final InitializationReport report = ParallelInitializer.initialize(initializableClients, parallelism);
+
+        final Map<String, InitializableObject> components = new LinkedHashMap<>();
+        for (final Client client : getClients()) {
+            if (client instanceof BaseClient && !report.getFailures().containsKey(client.getName())) {
+                final BaseClient baseClient = (BaseClient) client;
+                if (baseClient.getAuthenticator() instanceof InitializableObject) {
+                    components.put(client.getName() + ".authenticator", (InitializableObject) baseClient.getAuthenticator());
+                }
+                if (baseClient.getProfileCreator() instanceof InitializableObject) {
+                    components.put(client.getName() + ".profileCreator", (InitializableObject) baseClient.getProfileCreator());
+                }
+            }
+        }
+        report.add(ParallelInitializer.initialize(components, parallelism));
+        return report;
+    }
+
     public String getCallbackUrl() {
         return this.callbackUrl;
     }
@@ -170,10 +207,12 @@ public class Clients extends InitializableObject {
 
     public void setClients(final List<Client> clients) {
         this.clients = clients;
+        version.incrementAndGet();
     }
 
     public void setClients(final Client... clients) {
         this.clients = Arrays.asList(clients);
+        version.incrementAndGet();
     }
 
     public List<Client> getClients() {
@@ -225,6 +264,17 @@ public class Clients extends InitializableObject {
 
     public void setDefaultSecurityClients(final String defaultSecurityClients) {
         this.defaultSecurityClients = defaultSecurityClients;
+        version.incrementAndGet();
+    }
+
+    /**
+     * Return the version of the clients, incremented each time the clients or the default security clients are set.
+     * It allows the data derived from the clients to be invalidated.
+     *
+     * @return the version of the clients
+     */
+    public long getVersion() {
+        return version.get();
     }
 
     public UrlResolver getUrlResolver() {
@@ -6,8 +6,11 @@ import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.credentials.Credentials;
 import org.pac4j.core.redirect.RedirectAction;
+import org.pac4j.core.util.AsyncHelper;
 import org.pac4j.core.util.CommonHelper;
 
+import java.util.concurrent.CompletionStage;
+
 /**
  * Direct client: credentials are passed and authentication occurs for every HTTP request.
  *
@@ -42,6 +45,57 @@ public abstract class DirectClient<C extends Credentials, U extends CommonProfil
         return retrieveCredentials(context);
     }
 
+    /**
+     * Whether the credentials are retrieved by an extraction followed by their validation by the authenticator, so that
+     * both steps can be performed separately ({@link #getCredentialsWithoutValidation(WebContext)} and
+     * {@link #getValidatedCredentials(Credentials, WebContext)}).
+     *
+     * The clients which override {@link #retrieveCredentials(WebContext)} must return <code>false</code>.
+     *
+     * @return whether the validation can be performed separately
+     */
+    public boolean isValidationSeparable() {
+        return true;
+    }
+
+    /**
+     * Get the credentials without validating them.
+     *
+     * @param context the web context
+     * @return the credentials (<code>null</code> if they are missing)
+     */
+    public final C getCredentialsWithoutValidation(final WebContext context) {
+        init();
+        return extractCredentials(context);
+    }
+
+    /**
+     * Validate the credentials returned by {@link #getCredentialsWithoutValidation(WebContext)}.
+     *
+     * @param credentials the credentials
+     * @param context the web context
+     * @return the credentials (<code>null</code> if they are missing or invalid)
+     */
+    public final C getValidatedCredentials(final C credentials, final WebContext context) {
+        init();
+        return credentials != null ? validateCredentials(credentials, context) : null;
+    }
+
+    /**
+     * Get the credentials without blocking the calling thread for their validation.
+     *
+     * @param context the web context
+     * @return the stage completed with the credentials (<code>null</code> if they are missing or invalid)
+     */
+    public final CompletionStage<C> getCredentialsAsync(final WebContext context) {
+        try {
+            init();
+        } catch (final RuntimeException e) {
+            return AsyncHelper.failedStage(e);
+        }
+        return retrieveCredentialsAsync(context);
+    }
+
     @Override
     public final RedirectAction getLogoutAction(final WebContext context, final U currentProfile, final String targetUrl) {
         return null;
@@ -5,6 +5,7 @@ import org.pac4j.core.client.Clients;
 import org.pac4j.core.context.WebContext;
 
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * The way to find the client.
@@ -15,4 +16,15 @@ import java.util.List;
 public interface ClientFinder {
 
     List<Client> find(Clients clients, WebContext context, String clientNames);
+
+    /**
+     * Compile the clients names into a finder which can be reused across requests.
+     *
+     * @param clients the clients
+     * @param clientNames the clients names
+     * @return the compiled finder
+     */
+    default Function<WebContext, List<Client>> compile(final Clients clients, final String clientNames) {
+        return context -> find(clients, context, clientNames);
+    }
 }
@@ -11,7 +11,9 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -27,8 +29,31 @@ public class DefaultSecurityClientFinder implements ClientFinder {
     private String clientNameParameter = Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER;
 
     public List<Client> find(final Clients clients, final WebContext context, final String clientNames) {
-        final List<Client> result = new ArrayList<>();
+        return find(clients, context, resolveClientNames(clients, clientNames), null);
+    }
+
+    @Override
+    public Function<WebContext, List<Client>> compile(final Clients clients, final String clientNames) {
+        final List<String> names = resolveClientNames(clients, clientNames);
+        List<Client> allowedClients;
+        try {
+            allowedClients = resolveClients(clients, names);
+        } catch (final TechnicalException e) {
+            // a name may only be valid on request: the error will be raised when all clients are requested
+            allowedClients = null;
+        }
+        final List<Client> finalAllowedClients = allowedClients;
+        return context -> find(clients, context, names, finalAllowedClients);
+    }
 
+    /**
+     * Resolve the names of the allowed clients.
+     *
+     * @param clients the clients
+     * @param clientNames the clients names
+     * @return the names of the allowed clients
+     */
+    protected List<String> resolveClientNames(final Clients clients, final String clientNames) {
         String securityClientNames = clientNames;
         // we don't have defined clients to secure the URL, use the general default security ones from the Clients if they exist
         // we check the nullity and not the blankness to allow the blank string to mean no client
@@ -45,7 +70,41 @@ public class DefaultSecurityClientFinder implements ClientFinder {
         }
 
         if (CommonHelper.isNotBlank(securityClientNames)) {
-            final List<String> names = Arrays.asList(securityClientNames.split(Pac4jConstants.ELEMENT_SEPRATOR));
+            return Arrays.asList(securityClientNames.split(Pac4jConstants.ELEMENT_SEPRATOR));
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Resolve the allowed clients from their names.
+     *
+     * @param clients the clients
+     * @param names the names of the allowed clients
+     * @return the allowed clients
+     */
+    protected List<Client> resolveClients(final Clients clients, final List<String> names) {
+        final List<Client> result = new ArrayList<>();
+        for (final String name : names) {
+            // from its name
+            final Client client = clients.findClient(name);
+            result.add(client);
+        }
+        return result;
+    }
+
+    /**
+     * Find the clients among the allowed ones.
+     *
+     * @param clients the clients
+     * @param context the web context
+     * @param names the names of the allowed clients
+     * @param allowedClients the allowed clients if they are already resolved
+     * @return the found clients
+     */
+    protected List<Client> find(final Clients clients, final WebContext context, final List<String> names,
+                                final List<Client> allowedClients) {
+        final List<Client> result = new ArrayList<>();
+        if (!names.isEmpty()) {
             // if a "client_name" parameter is provided on the request, get the client
             // and check if it is allowed (defined in the list of the clients)
             final String clientNameOnRequest = context.getRequestParameter(clientNameParameter);
@@ -66,16 +125,16 @@ public class DefaultSecurityClientFinder implements ClientFinder {
                 if (!found) {
                     throw new TechnicalException("Client not allowed: " + nameFound);
                 }
-            } else {
+            } else if (allowedClients != null) {
                 // no client provided, return all
-                for (final String name : names) {
-                    // from its name
-                    final Client client = clients.findClient(name);
-                    result.add(client);
-                }
+                result.addAll(allowedClients);
+            } else {
+                result.addAll(resolveClients(clients, names));
             }
         }
-        logger.debug("result: {}", result.stream().map(c -> c.getName()).collect(Collectors.toList()));
+        if (logger.isDebugEnabled()) {
+            logger.debug("result: {}", result.stream().map(c -> c.getName()).collect(Collectors.toList()));
+        }
         return result;
     }
 
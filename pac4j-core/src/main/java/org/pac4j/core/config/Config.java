@@ -1,6 +1,7 @@
 package org.pac4j.core.config;
 
 import org.pac4j.core.authorization.authorizer.Authorizer;
+import org.pac4j.core.authorization.checker.DefaultAuthorizationChecker;
 import org.pac4j.core.client.Client;
 import org.pac4j.core.client.Clients;
 import org.pac4j.core.context.WebContext;
@@ -8,18 +9,28 @@ import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.engine.CallbackLogic;
 import org.pac4j.core.engine.LogoutLogic;
 import org.pac4j.core.engine.SecurityLogic;
+import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.http.adapter.HttpActionAdapter;
 import org.pac4j.core.matching.Matcher;
 import org.pac4j.core.profile.ProfileManager;
 import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializationReport;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 /**
- * The default configuration with clients, authorizers and matchers.
+ * <p>The default configuration with clients, authorizers and matchers.</p>
+ *
+ * <p>The authorizers (including the default ones) and the matchers are also available as immutable indexes
+ * by lower-cased and trimmed names. These indexes are rebuilt after any change made through the setters of this configuration:
+ * the authorizers and matchers can only be changed through them, which reject the names which are blank or only differ
+ * from an existing one by their case or surrounding spaces.</p>
  *
  * @author Jerome Leleu
  * @since 1.8.0
@@ -44,6 +55,12 @@ public class Config {
 
     protected Function<WebContext, ProfileManager> profileManagerFactory;
 
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Map<String, List<Authorizer>> authorizersIndex;
+
+    private volatile Map<String, Matcher> matchersIndex;
+
     public Config() {}
 
     public Config(final Client client) {
@@ -109,42 +126,66 @@ public class Config {
 
     public void setClients(final Clients clients) {
         this.clients = clients;
+        updateVersion();
+    }
+
+    /**
+     * Initialize eagerly all the clients and their components, in parallel.
+     *
+     * @param parallelism the maximum number of components initialized at the same time
+     * @return the initialization report
+     */
+    public InitializationReport warmUp(final int parallelism) {
+        CommonHelper.assertNotNull("clients", clients);
+        return clients.warmUp(parallelism);
     }
 
     public Map<String, Authorizer> getAuthorizers() {
-        return authorizers;
+        return Collections.unmodifiableMap(authorizers);
     }
 
     public void setAuthorizer(final Authorizer authorizer) {
         CommonHelper.assertNotNull("authorizer", authorizer);
-        this.authorizers.put(authorizer.getClass().getSimpleName(), authorizer);
+        final String name = authorizer.getClass().getSimpleName();
+        assertUniqueName(this.authorizers, name, "authorizers");
+        this.authorizers.put(name, authorizer);
+        updateVersion();
     }
 
     public void setAuthorizers(final Map<String, Authorizer> authorizers) {
         CommonHelper.assertNotNull("authorizers", authorizers);
-        this.authorizers = authorizers;
+        this.authorizers = copyWithUniqueNames(authorizers, "authorizers");
+        updateVersion();
     }
 
     public void addAuthorizer(final String name, final Authorizer authorizer) {
+        assertUniqueName(authorizers, name, "authorizers");
         authorizers.put(name, authorizer);
+        updateVersion();
     }
 
     public Map<String, Matcher> getMatchers() {
-        return matchers;
+        return Collections.unmodifiableMap(matchers);
     }
 
     public void setMatcher(final Matcher matcher) {
         CommonHelper.assertNotNull("matcher", matcher);
-        this.matchers.put(matcher.getClass().getSimpleName(), matcher);
+        final String name = matcher.getClass().getSimpleName();
+        assertUniqueName(this.matchers, name, "matchers");
+        this.matchers.put(name, matcher);
+        updateVersion();
     }
 
     public void setMatchers(final Map<String, Matcher> matchers) {
         CommonHelper.assertNotNull("matchers", matchers);
-        this.matchers = matchers;
+        this.matchers = copyWithUniqueNames(matchers, "matchers");
+        updateVersion();
     }
 
     public void addMatcher(final String name, final Matcher matcher) {
+        assertUniqueName(matchers, name, "matchers");
         matchers.put(name, matcher);
+        updateVersion();
     }
 
     public SessionStore getSessionStore() {
@@ -194,4 +235,99 @@ public class Config {
     public void setProfileManagerFactory(final Function<WebContext, ProfileManager> profileManagerFactory) {
         this.profileManagerFactory = profileManagerFactory;
     }
+
+    /**
+     * Return the version of the configuration, incremented each time the clients, authorizers or matchers are changed
+     * through this configuration. It allows the data derived from the configuration to be invalidated, along with
+     * {@link Clients#getVersion()} for the changes made on the clients themselves.
+     *
+     * @return the version of the configuration
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Increment the version of the configuration and reset the indexes.
+     */
+    protected synchronized void updateVersion() {
+        version.incrementAndGet();
+        authorizersIndex = null;
+        matchersIndex = null;
+    }
+
+    /**
+     * Return the immutable index of the authorizers by lower-cased and trimmed names, including the default authorizers
+     * which take precedence over the defined ones.
+     *
+     * @return the authorizers index
+     */
+    public Map<String, List<Authorizer>> getAuthorizersIndex() {
+        Map<String, List<Authorizer>> index = authorizersIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = authorizersIndex;
+                if (index == null) {
+                    final Map<String, List<Authorizer>> map = new HashMap<>();
+                    for (final Map.Entry<String, Authorizer> entry : authorizers.entrySet()) {
+                        final Authorizer authorizer = entry.getValue();
+                        CommonHelper.assertNotNull("authorizers['" + entry.getKey() + "']", authorizer);
+                        map.put(normalizeName(entry.getKey()), Collections.singletonList(authorizer));
+                    }
+                    map.putAll(DefaultAuthorizationChecker.getDefaultAuthorizers());
+                    index = Collections.unmodifiableMap(map);
+                    authorizersIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Return the immutable index of the matchers by lower-cased and trimmed names.
+     *
+     * @return the matchers index
+     */
+    public Map<String, Matcher> getMatchersIndex() {
+        Map<String, Matcher> index = matchersIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = matchersIndex;
+                if (index == null) {
+                    final Map<String, Matcher> map = new HashMap<>();
+                    for (final Map.Entry<String, Matcher> entry : matchers.entrySet()) {
+                        final Matcher matcher = entry.getValue();
+                        CommonHelper.assertNotNull("matchers['" + entry.getKey() + "']", matcher);
+                        map.put(normalizeName(entry.getKey()), matcher);
+                    }
+                    index = Collections.unmodifiableMap(map);
+                    matchersIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    private static <T> Map<String, T> copyWithUniqueNames(final Map<String, T> values, final String type) {
+        final Map<String, T> copy = new HashMap<>();
+        for (final Map.Entry<String, T> entry : values.entrySet()) {
+            assertUniqueName(copy, entry.getKey(), type);
+            copy.put(entry.getKey(), entry.getValue());
+        }
+        return copy;
+    }
+
+    private static void assertUniqueName(final Map<String, ?> values, final String name, final String type) {
+        final String normalizedName = normalizeName(name);
+        for (final String existingName : values.keySet()) {
+            if (!existingName.equals(name) && normalizeName(existingName).equals(normalizedName)) {
+                throw new TechnicalException("Duplicate name in " + type + ": " + name);
+            }
+        }
+    }
+
+    private static String normalizeName(final String name) {
+        CommonHelper.assertNotBlank("name", name);
+        return name.toLowerCase(Locale.ROOT).trim();
+    }
 }
@@ -0,0 +1,193 @@
+package org.pac4j.core.context.session;
+
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>Session store buffering the reads and writes of another session store for the duration of a request.</p>
+ *
+ * <p>Values read are cached, writes are kept in memory and the redundant ones (the same immutable value as the one read,
+ * or the removal of a value known as absent) are dropped. The remaining updates are sent at once through
+ * {@link SessionStore#setAll(WebContext, Map)} when {@link #flush(WebContext)} is called, which the pac4j logics do before
+ * handing over the request. After the flush, the writes of the request (by the application for example) go directly
+ * to the underlying session store.</p>
+ *
+ * <p>The buffer is kept in a request attribute of the web context: a single instance can be shared by all requests.</p>
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public class BufferedSessionStore<C extends WebContext> implements SessionStore<C> {
+
+    private final SessionStore<C> sessionStore;
+
+    private final String bufferAttribute;
+
+    public BufferedSessionStore(final SessionStore<C> sessionStore) {
+        CommonHelper.assertNotNull("sessionStore", sessionStore);
+        this.sessionStore = sessionStore;
+        this.bufferAttribute = BufferedSessionStore.class.getName() + "@" + Integer.toHexString(System.identityHashCode(this));
+    }
+
+    /**
+     * Get the buffer of the current request, creating it if necessary.
+     *
+     * @param context the web context
+     * @return the buffer
+     */
+    protected Buffer getBuffer(final C context) {
+        Buffer buffer = (Buffer) context.getRequestAttribute(bufferAttribute);
+        if (buffer == null) {
+            buffer = new Buffer();
+            context.setRequestAttribute(bufferAttribute, buffer);
+        }
+        return buffer;
+    }
+
+    @Override
+    public String getOrCreateSessionId(final C context) {
+        return sessionStore.getOrCreateSessionId(context);
+    }
+
+    @Override
+    public Object get(final C context, final String key) {
+        final Buffer buffer = getBuffer(context);
+        if (buffer.pendingValues.containsKey(key)) {
+            return buffer.pendingValues.get(key);
+        }
+        if (buffer.readValues.containsKey(key)) {
+            return buffer.readValues.get(key);
+        }
+        final Object value = sessionStore.get(context, key);
+        buffer.readValues.put(key, value);
+        return value;
+    }
+
+    @Override
+    public void set(final C context, final String key, final Object value) {
+        final Buffer buffer = getBuffer(context);
+        if (buffer.flushed) {
+            sessionStore.set(context, key, value);
+            buffer.readValues.put(key, value);
+        } else {
+            buffer.pendingValues.put(key, value);
+        }
+    }
+
+    @Override
+    public void setAll(final C context, final Map<String, Object> values) {
+        final Buffer buffer = getBuffer(context);
+        if (buffer.flushed) {
+            sessionStore.setAll(context, values);
+            buffer.readValues.putAll(values);
+        } else {
+            buffer.pendingValues.putAll(values);
+        }
+    }
+
+    /**
+     * Send the pending updates to the underlying session store. The next writes of the request are not buffered.
+     *
+     * @param context the web context
+     */
+    public void flush(final C context) {
+        final Buffer buffer = getBuffer(context);
+        buffer.flushed = true;
+        if (buffer.pendingValues.isEmpty()) {
+            return;
+        }
+        final Map<String, Object> updates = new LinkedHashMap<>();
+        for (final Map.Entry<String, Object> entry : buffer.pendingValues.entrySet()) {
+            final String key = entry.getKey();
+            final Object value = entry.getValue();
+            if (!isRedundant(buffer, key, value)) {
+                updates.put(key, value);
+            }
+            buffer.readValues.put(key, value);
+        }
+        buffer.pendingValues.clear();
+        if (!updates.isEmpty()) {
+            sessionStore.setAll(context, updates);
+        }
+    }
+
+    /**
+     * Whether the update is known to leave the underlying session store unchanged. Mutable values are always written
+     * as they may have been changed in place.
+     *
+     * @param buffer the buffer of the request
+     * @param key the key of the object
+     * @param value the new value
+     * @return whether the update is redundant
+     */
+    protected boolean isRedundant(final Buffer buffer, final String key, final Object value) {
+        if (!buffer.readValues.containsKey(key)) {
+            return false;
+        }
+        final Object readValue = buffer.readValues.get(key);
+        if (value == null) {
+            return readValue == null;
+        }
+        return (value instanceof String || value instanceof Number || value instanceof Boolean) && value.equals(readValue);
+    }
+
+    /**
+     * Whether some updates are waiting to be flushed for this request.
+     *
+     * @param context the web context
+     * @return whether some updates are pending
+     */
+    public boolean hasPendingUpdates(final C context) {
+        return !getBuffer(context).pendingValues.isEmpty();
+    }
+
+    @Override
+    public boolean destroySession(final C context) {
+        final Buffer buffer = getBuffer(context);
+        buffer.pendingValues.clear();
+        buffer.readValues.clear();
+        return sessionStore.destroySession(context);
+    }
+
+    @Override
+    public Object getTrackableSession(final C context) {
+        flush(context);
+        return sessionStore.getTrackableSession(context);
+    }
+
+    @Override
+    public SessionStore<C> buildFromTrackableSession(final C context, final Object trackableSession) {
+        return sessionStore.buildFromTrackableSession(context, trackableSession);
+    }
+
+    @Override
+    public boolean renewSession(final C context) {
+        flush(context);
+        return sessionStore.renewSession(context);
+    }
+
+    public SessionStore<C> getSessionStore() {
+        return sessionStore;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "sessionStore", sessionStore);
+    }
+
+    /**
+     * The values read and written during a request.
+     */
+    protected static final class Buffer {
+
+        private final Map<String, Object> readValues = new HashMap<>();
+
+        private final Map<String, Object> pendingValues = new LinkedHashMap<>();
+
+        private boolean flushed;
+    }
+}
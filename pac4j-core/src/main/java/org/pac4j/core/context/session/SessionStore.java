@@ -2,6 +2,8 @@ package org.pac4j.core.context.session;
 
 import org.pac4j.core.context.WebContext;
 
+import java.util.Map;
+
 /**
  * To store data in session.
  *
@@ -36,6 +38,19 @@ public interface SessionStore<C extends WebContext> {
      */
     void set(C context, String key, Object value);
 
+    /**
+     * Save several objects in the store at once (a <code>null</code> value removes the object).
+     * Session stores which can batch updates should override this method.
+     *
+     * @param context the web context
+     * @param values the values to save in store by their keys
+     */
+    default void setAll(final C context, final Map<String, Object> values) {
+        for (final Map.Entry<String, Object> entry : values.entrySet()) {
+            set(context, entry.getKey(), entry.getValue());
+        }
+    }
+
     /**
      * Destroy the web session.
      *
@@ -0,0 +1,29 @@
+package org.pac4j.core.credentials.authenticator;
+
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.exception.CredentialsException;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * An asynchronous authenticator validates {@link Credentials} without blocking the calling thread: the returned stage
+ * should complete exceptionally with a {@link CredentialsException} if the authentication fails.
+ *
+ * A blocking {@link Authenticator} can be used asynchronously through an {@link AsyncAuthenticatorAdapter}.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+@FunctionalInterface
+public interface AsyncAuthenticator<C extends Credentials> {
+
+    /**
+     * Validate the credentials asynchronously.
+     *
+     * @param credentials the given credentials
+     * @param context the web context
+     * @return the stage completed when the credentials are validated
+     */
+    CompletionStage<Void> validateAsync(C credentials, WebContext context);
+}
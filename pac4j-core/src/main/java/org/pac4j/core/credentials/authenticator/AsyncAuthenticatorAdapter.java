@@ -0,0 +1,52 @@
+package org.pac4j.core.credentials.authenticator;
+
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.util.AsyncHelper;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * Run a blocking {@link Authenticator} on an executor (by default, {@link AsyncHelper#getDefaultExecutor()}).
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public class AsyncAuthenticatorAdapter<C extends Credentials> implements AsyncAuthenticator<C> {
+
+    private final Authenticator<C> authenticator;
+
+    private final Executor executor;
+
+    public AsyncAuthenticatorAdapter(final Authenticator<C> authenticator) {
+        this(authenticator, AsyncHelper.getDefaultExecutor());
+    }
+
+    public AsyncAuthenticatorAdapter(final Authenticator<C> authenticator, final Executor executor) {
+        CommonHelper.assertNotNull("authenticator", authenticator);
+        CommonHelper.assertNotNull("executor", executor);
+        this.authenticator = authenticator;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletionStage<Void> validateAsync(final C credentials, final WebContext context) {
+        return CompletableFuture.runAsync(() -> authenticator.validate(credentials, context), executor);
+    }
+
+    public Authenticator<C> getAuthenticator() {
+        return authenticator;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "authenticator", authenticator, "executor", executor);
+    }
+}
@@ -0,0 +1,196 @@
+package org.pac4j.core.credentials.authenticator;
+
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.codec.BinaryProfileCodec;
+import org.pac4j.core.profile.codec.ProfileCodec;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+import org.pac4j.core.util.SingleFlight;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * An authenticator which coalesces the concurrent validations of equal credentials: only one call to the delegate
+ * authenticator is in flight per key, the other threads wait for its result and decode their own copy of the profile,
+ * encoded by the validating thread before it returns. If the profile cannot be encoded or decoded, the waiting threads
+ * validate the credentials themselves.
+ *
+ * By default, the credentials themselves are the key. A waiting thread which times out validates the credentials itself.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public class CoalescingAuthenticator<T extends Credentials> extends InitializableObject implements Authenticator<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoalescingAuthenticator.class);
+
+    private Authenticator<T> delegate;
+
+    private Function<T, Object> keyExtractor = credentials -> credentials;
+
+    private long waitTimeout = 10;
+
+    private TimeUnit timeUnit = TimeUnit.SECONDS;
+
+    private ProfileCodec profileCodec = new BinaryProfileCodec();
+
+    private final SingleFlight<Object, EncodedProfile> singleFlight = new SingleFlight<>();
+
+    public CoalescingAuthenticator() {}
+
+    public CoalescingAuthenticator(final Authenticator<T> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    protected void internalInit() {
+        CommonHelper.assertNotNull("delegate", delegate);
+        CommonHelper.assertNotNull("keyExtractor", keyExtractor);
+        CommonHelper.assertTrue(waitTimeout > 0, "waitTimeout must be greater than zero");
+        CommonHelper.assertNotNull("timeUnit", timeUnit);
+        CommonHelper.assertNotNull("profileCodec", profileCodec);
+
+        if (delegate instanceof InitializableObject) {
+            ((InitializableObject) delegate).init();
+        }
+    }
+
+    @Override
+    public void validate(final T credentials, final WebContext context) {
+        init();
+
+        final Object key = keyExtractor.apply(credentials);
+        if (key == null) {
+            delegate.validate(credentials, context);
+            return;
+        }
+
+        final SingleFlight.Result<EncodedProfile> result;
+        try {
+            result = singleFlight.execute(key, () -> {
+                delegate.validate(credentials, context);
+                return encode(credentials.getUserProfile());
+            }, waitTimeout, timeUnit);
+        } catch (final TimeoutException e) {
+            logger.warn("Timeout waiting for the validation in progress, validating the credentials directly");
+            delegate.validate(credentials, context);
+            return;
+        }
+        if (result.isShared()) {
+            final EncodedProfile encodedProfile = result.getValue();
+            if (encodedProfile.bytes == null) {
+                logger.debug("Reusing the validation in progress of the same credentials: no profile");
+                credentials.setUserProfile(null);
+                return;
+            }
+            final CommonProfile profile = decode(encodedProfile);
+            if (profile != null) {
+                logger.debug("Reusing the validation in progress of the same credentials");
+                credentials.setUserProfile(profile);
+            } else {
+                logger.debug("Profile of the validation in progress not reusable, validating the credentials directly");
+                delegate.validate(credentials, context);
+            }
+        }
+    }
+
+    /**
+     * Encode the profile of the validating thread before it is returned (and possibly modified).
+     */
+    private EncodedProfile encode(final CommonProfile profile) {
+        if (profile == null) {
+            return EncodedProfile.NO_PROFILE;
+        }
+        try {
+            return new EncodedProfile(profileCodec.encode(profile));
+        } catch (final TechnicalException e) {
+            logger.debug("Cannot encode profile", e);
+            return EncodedProfile.NOT_ENCODABLE;
+        }
+    }
+
+    private CommonProfile decode(final EncodedProfile encodedProfile) {
+        if (encodedProfile == EncodedProfile.NOT_ENCODABLE) {
+            return null;
+        }
+        return profileCodec.decode(encodedProfile.bytes);
+    }
+
+    /**
+     * Get the number of validations which have waited for another one instead of calling the delegate.
+     *
+     * @return the number of coalesced validations
+     */
+    public long getCoalescedCount() {
+        return singleFlight.getSharedCount();
+    }
+
+    public Authenticator<T> getDelegate() {
+        return delegate;
+    }
+
+    public void setDelegate(final Authenticator<T> delegate) {
+        this.delegate = delegate;
+    }
+
+    public Function<T, Object> getKeyExtractor() {
+        return keyExtractor;
+    }
+
+    public void setKeyExtractor(final Function<T, Object> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    public long getWaitTimeout() {
+        return waitTimeout;
+    }
+
+    public void setWaitTimeout(final long waitTimeout) {
+        this.waitTimeout = waitTimeout;
+    }
+
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+
+    public void setTimeUnit(final TimeUnit timeUnit) {
+        this.timeUnit = timeUnit;
+    }
+
+    public ProfileCodec getProfileCodec() {
+        return profileCodec;
+    }
+
+    public void setProfileCodec(final ProfileCodec profileCodec) {
+        this.profileCodec = profileCodec;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "delegate", delegate, "waitTimeout", waitTimeout,
+            "timeUnit", timeUnit, "profileCodec", profileCodec);
+    }
+
+    /**
+     * The profile of a validation, encoded so that each waiting thread gets its own copy.
+     */
+    private static final class EncodedProfile {
+
+        private static final EncodedProfile NO_PROFILE = new EncodedProfile(null);
+
+        private static final EncodedProfile NOT_ENCODABLE = new EncodedProfile(new byte[0]);
+
+        private final byte[] bytes;
+
+        private EncodedProfile(final byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
+}
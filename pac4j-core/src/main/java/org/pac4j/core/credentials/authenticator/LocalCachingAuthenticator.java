@@ -5,6 +5,7 @@ import org.pac4j.core.credentials.Credentials;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.store.GuavaStore;
 import org.pac4j.core.store.Store;
+import org.pac4j.core.store.StoreRegistry;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.InitializableObject;
 import org.slf4j.Logger;
@@ -67,7 +68,7 @@ public class LocalCachingAuthenticator<T extends Credentials> extends Initializa
     @Override
     protected void internalInit() {
         if (this.store == null) {
-            this.store = new GuavaStore<>(cacheSize, timeout, timeUnit);
+            this.store = StoreRegistry.register(this, new GuavaStore<>(cacheSize, timeout, timeUnit));
         }
 
         if (delegate instanceof InitializableObject) {
@@ -0,0 +1,440 @@
+package org.pac4j.core.credentials.authenticator;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.credentials.UsernamePasswordCredentials;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+import org.pac4j.core.util.SingleFlight;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An authenticator that caches the result of an authentication event locally, like the {@link LocalCachingAuthenticator},
+ * but:
+ * <ul>
+ *     <li>the entries are keyed on a salted SHA-256 digest of the credentials: no password or token is kept as a key</li>
+ *     <li>the authentication failures ({@link CredentialsException}) are cached for a shorter time
+ *     (<code>failureTimeout</code>)</li>
+ *     <li>optionally, the entries hit after a given ratio of their lifetime (<code>refreshRatio</code>) are refreshed
+ *     asynchronously (with a copy of the credentials and no web context: only for delegates which do not use it)</li>
+ *     <li>concurrent misses on the same credentials share a single call to the delegate</li>
+ *     <li>hit / miss / load counters are available.</li>
+ * </ul>
+ *
+ * Add the <code>guava</code> dependency to use this class.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public class SecureLocalCachingAuthenticator<T extends Credentials> extends InitializableObject implements Authenticator<T> {
+
+    protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private Authenticator<T> delegate;
+
+    private int cacheSize;
+
+    private int timeout;
+
+    private int failureTimeout;
+
+    private TimeUnit timeUnit;
+
+    private double refreshRatio = 1;
+
+    private ExecutorService refreshExecutor;
+
+    private byte[] salt;
+
+    private Cache<String, CacheEntry> cache;
+
+    private final SingleFlight<String, CacheEntry> loads = new SingleFlight<>();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder failureHitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder loadCount = new LongAdder();
+
+    private final LongAdder loadFailureCount = new LongAdder();
+
+    private final LongAdder totalLoadTime = new LongAdder();
+
+    private final LongAdder refreshCount = new LongAdder();
+
+    public SecureLocalCachingAuthenticator() {}
+
+    public SecureLocalCachingAuthenticator(final Authenticator<T> delegate, final int cacheSize, final int timeout,
+                                           final int failureTimeout, final TimeUnit timeUnit) {
+        this.delegate = delegate;
+        this.cacheSize = cacheSize;
+        this.timeout = timeout;
+        this.failureTimeout = failureTimeout;
+        this.timeUnit = timeUnit;
+    }
+
+    @Override
+    protected void internalInit() {
+        CommonHelper.assertNotNull("delegate", delegate);
+        CommonHelper.assertTrue(cacheSize > 0, "cacheSize must be greater than zero");
+        CommonHelper.assertTrue(timeout > 0, "timeout must be greater than zero");
+        CommonHelper.assertTrue(failureTimeout >= 0 && failureTimeout <= timeout,
+            "failureTimeout must be between zero and timeout");
+        CommonHelper.assertNotNull("timeUnit", timeUnit);
+        CommonHelper.assertTrue(refreshRatio > 0 && refreshRatio <= 1, "refreshRatio must be in ]0, 1]");
+
+        salt = new byte[16];
+        new SecureRandom().nextBytes(salt);
+        cache = CacheBuilder.newBuilder().maximumSize(cacheSize).expireAfterWrite(timeout, timeUnit).build();
+        if (refreshRatio < 1 && refreshExecutor == null) {
+            refreshExecutor = Executors.newSingleThreadExecutor(r -> {
+                final Thread thread = new Thread(r, "pac4j-authenticator-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        if (delegate instanceof InitializableObject) {
+            ((InitializableObject) delegate).init();
+        }
+    }
+
+    @Override
+    public void validate(final T credentials, final WebContext context) {
+        init();
+
+        final String key = computeKey(credentials);
+        final long now = System.nanoTime();
+        CacheEntry entry = cache.getIfPresent(key);
+        if (entry != null && entry.isExpired(now)) {
+            cache.asMap().remove(key, entry);
+            entry = null;
+        }
+
+        if (entry != null) {
+            if (entry.failure != null) {
+                failureHitCount.increment();
+                logger.debug("Found cached authentication failure");
+                throw new CredentialsException(entry.failure);
+            }
+            hitCount.increment();
+            logger.debug("Found cached credential. Using cached profile {}...", entry.profile);
+            if (entry.needsRefresh(now)) {
+                refresh(key, entry, credentials);
+            }
+        } else {
+            missCount.increment();
+            entry = loadOnce(key, credentials, context);
+            if (entry.failure != null) {
+                throw new CredentialsException(entry.failure);
+            }
+        }
+        credentials.setUserProfile(entry.profile);
+    }
+
+    /**
+     * Load and cache the entry by calling the delegate, unless another thread is already doing it for the same key.
+     */
+    private CacheEntry loadOnce(final String key, final T credentials, final WebContext context) {
+        return loads.execute(key, () -> {
+            final CacheEntry entry = load(credentials, context);
+            cache.put(key, entry);
+            return entry;
+        }).getValue();
+    }
+
+    private CacheEntry load(final T credentials, final WebContext context) {
+        logger.debug("No cached credentials found. Delegating authentication to {}...", delegate);
+        final long start = System.nanoTime();
+        CacheEntry entry;
+        try {
+            delegate.validate(credentials, context);
+            final CommonProfile profile = credentials.getUserProfile();
+            entry = new CacheEntry(profile, null, start, timeUnit.toNanos(timeout), refreshRatio);
+            loadCount.increment();
+            logger.debug("Caching credential. Using profile {}...", profile);
+        } catch (final CredentialsException e) {
+            loadFailureCount.increment();
+            if (failureTimeout <= 0) {
+                throw e;
+            }
+            entry = new CacheEntry(null, e.getMessage() != null ? e.getMessage() : e.getClass().getName(), start,
+                timeUnit.toNanos(failureTimeout), 1);
+            logger.debug("Caching authentication failure: {}", entry.failure);
+        } finally {
+            totalLoadTime.add(System.nanoTime() - start);
+        }
+        return entry;
+    }
+
+    /**
+     * Refresh asynchronously a hot entry with a copy of the credentials. The current entry is kept until it expires
+     * if the refresh fails.
+     */
+    private void refresh(final String key, final CacheEntry entry, final T credentials) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        final T copy = copyCredentials(credentials);
+        if (copy == null) {
+            entry.refreshing.set(false);
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refreshCount.increment();
+                    final CacheEntry newEntry = load(copy, null);
+                    if (newEntry.failure == null) {
+                        cache.asMap().replace(key, entry, newEntry);
+                        logger.debug("Refreshed cached entry: {}", newEntry.profile);
+                    } else {
+                        logger.debug("Refresh failed: {}, keeping the cached entry", newEntry.failure);
+                        entry.refreshing.set(false);
+                    }
+                } catch (final RuntimeException e) {
+                    logger.warn("Cannot refresh cached entry: {}, keeping it", e.getMessage());
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            logger.debug("Refresh rejected", e);
+            entry.refreshing.set(false);
+        }
+    }
+
+    /**
+     * Compute the cache key: a salted SHA-256 digest of the credentials.
+     *
+     * @param credentials the credentials
+     * @return the cache key
+     */
+    protected String computeKey(final T credentials) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt);
+            digest.update(credentials.getClass().getName().getBytes(StandardCharsets.UTF_8));
+            if (credentials instanceof UsernamePasswordCredentials) {
+                final UsernamePasswordCredentials upc = (UsernamePasswordCredentials) credentials;
+                update(digest, upc.getUsername());
+                update(digest, upc.getPassword());
+            } else if (credentials.getClass() == TokenCredentials.class) {
+                update(digest, ((TokenCredentials) credentials).getToken());
+            } else {
+                digest.update(serializeWithoutProfile(credentials));
+            }
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (final NoSuchAlgorithmException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        if (value != null) {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            digest.update((byte) 1);
+            digest.update(bytes);
+        }
+        digest.update((byte) 0);
+    }
+
+    private byte[] serializeWithoutProfile(final T credentials) {
+        final CommonProfile profile = credentials.getUserProfile();
+        credentials.setUserProfile(null);
+        try (final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+             final ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(credentials);
+            oos.flush();
+            return baos.toByteArray();
+        } catch (final IOException e) {
+            throw new TechnicalException("Cannot serialize credentials to compute cache key", e);
+        } finally {
+            credentials.setUserProfile(profile);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T copyCredentials(final T credentials) {
+        try (final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(serializeWithoutProfile(credentials)))) {
+            return (T) ois.readObject();
+        } catch (final IOException | ClassNotFoundException | TechnicalException e) {
+            logger.debug("Cannot copy credentials for refresh", e);
+            return null;
+        }
+    }
+
+    public void removeFromCache(final T credentials) {
+        init();
+        this.cache.invalidate(computeKey(credentials));
+    }
+
+    public boolean isCached(final T credentials) {
+        init();
+        final CacheEntry entry = this.cache.getIfPresent(computeKey(credentials));
+        return entry != null && entry.failure == null && !entry.isExpired(System.nanoTime());
+    }
+
+    public void clearCache() {
+        init();
+        this.cache.invalidateAll();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getFailureHitCount() {
+        return failureHitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getLoadCount() {
+        return loadCount.sum();
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailureCount.sum();
+    }
+
+    public long getRefreshCount() {
+        return refreshCount.sum();
+    }
+
+    /**
+     * Get the total time spent in the delegate (nanoseconds).
+     *
+     * @return the total load time
+     */
+    public long getTotalLoadTime() {
+        return totalLoadTime.sum();
+    }
+
+    public Authenticator<T> getDelegate() {
+        return delegate;
+    }
+
+    public void setDelegate(final Authenticator<T> delegate) {
+        this.delegate = delegate;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(final int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(final int timeout) {
+        this.timeout = timeout;
+    }
+
+    public int getFailureTimeout() {
+        return failureTimeout;
+    }
+
+    public void setFailureTimeout(final int failureTimeout) {
+        this.failureTimeout = failureTimeout;
+    }
+
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+
+    public void setTimeUnit(final TimeUnit timeUnit) {
+        this.timeUnit = timeUnit;
+    }
+
+    public double getRefreshRatio() {
+        return refreshRatio;
+    }
+
+    /**
+     * Define after which ratio of their lifetime the hit entries are refreshed asynchronously (1, the default, disables
+     * the refresh). The refresh calls the delegate without web context: only enable it for delegates which do not use it.
+     *
+     * @param refreshRatio the refresh ratio
+     */
+    public void setRefreshRatio(final double refreshRatio) {
+        this.refreshRatio = refreshRatio;
+    }
+
+    public ExecutorService getRefreshExecutor() {
+        return refreshExecutor;
+    }
+
+    public void setRefreshExecutor(final ExecutorService refreshExecutor) {
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "delegate", delegate, "cacheSize", cacheSize, "timeout", timeout,
+            "failureTimeout", failureTimeout, "timeUnit", timeUnit, "refreshRatio", refreshRatio);
+    }
+
+    /**
+     * A cached authentication result: a profile or a failure message.
+     */
+    private static final class CacheEntry {
+
+        private final CommonProfile profile;
+
+        private final String failure;
+
+        private final long refreshAt;
+
+        private final long expiresAt;
+
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private CacheEntry(final CommonProfile profile, final String failure, final long loadedAt, final long lifetime,
+                           final double refreshRatio) {
+            this.profile = profile;
+            this.failure = failure;
+            this.refreshAt = loadedAt + (long) (lifetime * refreshRatio);
+            this.expiresAt = loadedAt + lifetime;
+        }
+
+        private boolean isExpired(final long now) {
+            return now - expiresAt >= 0;
+        }
+
+        private boolean needsRefresh(final long now) {
+            return now - refreshAt >= 0 && !refreshing.get();
+        }
+    }
+}
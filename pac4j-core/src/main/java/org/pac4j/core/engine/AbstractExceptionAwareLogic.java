@@ -1,6 +1,8 @@
 package org.pac4j.core.engine;
 
 import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.BufferedSessionStore;
+import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.exception.HttpAction;
 import org.pac4j.core.http.adapter.HttpActionAdapter;
 import org.pac4j.core.profile.ProfileManagerFactoryAware;
@@ -36,7 +38,9 @@ public abstract class AbstractExceptionAwareLogic<R, C extends WebContext> exten
     protected R handleException(final Exception e, final HttpActionAdapter<R, C> httpActionAdapter, final C context) {
         if (httpActionAdapter == null || context == null) {
             throw runtimeException(e);
-        } else if (e instanceof HttpAction) {
+        }
+        flushSessionStore(context);
+        if (e instanceof HttpAction) {
             final HttpAction action = (HttpAction) e;
             logger.debug("extra HTTP action required in security: {}", action.getCode());
             return httpActionAdapter.adapt(action.getCode(), context);
@@ -50,6 +54,18 @@ public abstract class AbstractExceptionAwareLogic<R, C extends WebContext> exten
         }
     }
 
+    /**
+     * Flush the updates of the session store if it buffers them, before the request is handed over.
+     *
+     * @param context the web context
+     */
+    protected void flushSessionStore(final C context) {
+        final SessionStore<C> sessionStore = context.getSessionStore();
+        if (sessionStore instanceof BufferedSessionStore) {
+            ((BufferedSessionStore<C>) sessionStore).flush(context);
+        }
+    }
+
     /**
      * Wrap an Exception into a RuntimeException.
      *
@@ -0,0 +1,34 @@
+package org.pac4j.core.engine;
+
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.http.adapter.HttpActionAdapter;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Security logic to protect an url, without blocking the calling thread during the authentication.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public interface AsyncSecurityLogic<R, C extends WebContext> {
+
+    /**
+     * Perform the security logic asynchronously.
+     *
+     * @param context the web context
+     * @param config the configuration
+     * @param securityGrantedAccessAdapter the success adapter
+     * @param httpActionAdapter the HTTP action adapter
+     * @param clients the defined clients
+     * @param authorizers the defined authorizers
+     * @param matchers the defined matchers
+     * @param multiProfile whether multi profiles are supported
+     * @param parameters additional parameters
+     * @return the stage completed with the resulting action of the security
+     */
+    CompletionStage<R> performAsync(C context, Config config, SecurityGrantedAccessAdapter<R, C> securityGrantedAccessAdapter,
+                                    HttpActionAdapter<R, C> httpActionAdapter,
+                                    String clients, String authorizers, String matchers, Boolean multiProfile, Object... parameters);
+}
@@ -0,0 +1,170 @@
+package org.pac4j.core.engine;
+
+import org.pac4j.core.client.Client;
+import org.pac4j.core.client.Clients;
+import org.pac4j.core.client.DirectClient;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.http.adapter.HttpActionAdapter;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.ProfileManager;
+import org.pac4j.core.util.AsyncHelper;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static org.pac4j.core.util.CommonHelper.*;
+
+/**
+ * <p>Default asynchronous security logic: the same logic as the {@link DefaultSecurityLogic}, except that the direct clients
+ * authenticate the user through their asynchronous methods, so that the calling thread is never blocked
+ * by an authentication.</p>
+ *
+ * <p>The direct clients are still tried one after the other. The next steps are run by the thread completing the authentication,
+ * so the web context must support being accessed from another thread than the one receiving the request.</p>
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public class DefaultAsyncSecurityLogic<R, C extends WebContext> extends DefaultSecurityLogic<R, C> implements AsyncSecurityLogic<R, C> {
+
+    @Override
+    public CompletionStage<R> performAsync(final C context, final Config config,
+                                           final SecurityGrantedAccessAdapter<R, C> securityGrantedAccessAdapter,
+                                           final HttpActionAdapter<R, C> httpActionAdapter,
+                                           final String clients, final String authorizers, final String matchers,
+                                           final Boolean inputMultiProfile, final Object... parameters) {
+
+        logger.debug("=== ASYNC SECURITY ===");
+
+        try {
+
+            // default value
+            final boolean multiProfile = inputMultiProfile != null && inputMultiProfile;
+
+            // checks
+            assertNotNull("context", context);
+            assertNotNull("config", config);
+            assertNotNull("httpActionAdapter", httpActionAdapter);
+            assertNotNull("clientFinder", getClientFinder());
+            assertNotNull("authorizationChecker", getAuthorizationChecker());
+            assertNotNull("matchingChecker", getMatchingChecker());
+            assertNotNull("profileStorageDecision", getProfileStorageDecision());
+            final Clients configClients = config.getClients();
+            assertNotNull("configClients", configClients);
+
+            // logic
+            final SecurityPlan plan = getSecurityPlan(config, clients, authorizers, matchers);
+            logger.debug("url: {}", context.getFullRequestURL());
+            logger.debug("matchers: {}", matchers);
+            if (!plan.getMatcher().matches(context)) {
+                logger.debug("no matching for this request -> grant access");
+                flushSessionStore(context);
+                return CompletableFuture.completedFuture(securityGrantedAccessAdapter.adapt(context, Arrays.asList(), parameters));
+            }
+
+            logger.debug("clients: {}", clients);
+            final List<Client> currentClients = plan.getClientFinder().apply(context);
+            logger.debug("currentClients: {}", currentClients);
+
+            final boolean loadProfilesFromSession = getProfileStorageDecision().mustLoadProfilesFromSession(context, currentClients);
+            logger.debug("loadProfilesFromSession: {}", loadProfilesFromSession);
+            final ProfileManager manager = getProfileManager(context, config);
+            final List<CommonProfile> profiles = manager.getAll(loadProfilesFromSession);
+            logger.debug("profiles: {}", profiles);
+
+            final CompletionStage<List<CommonProfile>> authentication;
+            // no profile and some current clients
+            if (isEmpty(profiles) && isNotEmpty(currentClients)) {
+                authentication = authenticate(context, currentClients, 0, manager, multiProfile, false).thenApply(updated -> {
+                    if (updated) {
+                        final List<CommonProfile> newProfiles = manager.getAll(loadProfilesFromSession);
+                        logger.debug("new profiles: {}", newProfiles);
+                        return newProfiles;
+                    }
+                    return profiles;
+                });
+            } else {
+                authentication = CompletableFuture.completedFuture(profiles);
+            }
+
+            final CompletableFuture<R> result = new CompletableFuture<>();
+            authentication.whenComplete((currentProfiles, t) -> {
+                try {
+                    if (t != null) {
+                        result.complete(handleException(toException(t), httpActionAdapter, context));
+                    } else {
+                        result.complete(grantOrDenyAccess(context, plan, currentClients, currentProfiles, securityGrantedAccessAdapter,
+                            httpActionAdapter, authorizers, parameters));
+                    }
+                } catch (final Exception e) {
+                    try {
+                        result.complete(handleException(e, httpActionAdapter, context));
+                    } catch (final RuntimeException e2) {
+                        result.completeExceptionally(e2);
+                    }
+                }
+            });
+            return result;
+
+        } catch (final Exception e) {
+            try {
+                return CompletableFuture.completedFuture(handleException(e, httpActionAdapter, context));
+            } catch (final RuntimeException e2) {
+                return AsyncHelper.failedStage(e2);
+            }
+        }
+    }
+
+    /**
+     * Authenticate the user with the direct clients, starting from the given one.
+     *
+     * @param context the web context
+     * @param currentClients the current clients
+     * @param index the index of the first client to try
+     * @param manager the profile manager
+     * @param multiProfile whether multi profiles are supported
+     * @param updated whether a profile has already been saved
+     * @return the stage completed with whether a profile has been saved
+     */
+    @SuppressWarnings("unchecked")
+    protected CompletionStage<Boolean> authenticate(final C context, final List<Client> currentClients, final int index,
+                                                    final ProfileManager manager, final boolean multiProfile, final boolean updated) {
+        for (int i = index; i < currentClients.size(); i++) {
+            final Client currentClient = currentClients.get(i);
+            if (currentClient instanceof DirectClient) {
+                logger.debug("Performing authentication for direct client: {}", currentClient);
+                final DirectClient<Credentials, CommonProfile> directClient = (DirectClient<Credentials, CommonProfile>) currentClient;
+                final int next = i + 1;
+                return directClient.getCredentialsAsync(context)
+                    .thenCompose(credentials -> {
+                        logger.debug("credentials: {}", credentials);
+                        return directClient.getUserProfileAsync(credentials, context);
+                    })
+                    .thenCompose(profile -> {
+                        logger.debug("profile: {}", profile);
+                        if (profile != null) {
+                            saveProfile(context, currentClients, directClient, profile, manager, multiProfile);
+                            if (!multiProfile) {
+                                return CompletableFuture.completedFuture(true);
+                            }
+                            return authenticate(context, currentClients, next, manager, true, true);
+                        }
+                        return authenticate(context, currentClients, next, manager, multiProfile, updated);
+                    });
+            }
+        }
+        return CompletableFuture.completedFuture(updated);
+    }
+
+    private Exception toException(final Throwable t) {
+        final Throwable cause = AsyncHelper.unwrap(t);
+        if (cause instanceof Exception) {
+            return (Exception) cause;
+        }
+        return new RuntimeException(cause);
+    }
+}
@@ -98,6 +98,7 @@ public class DefaultCallbackLogic<R, C extends WebContext> extends AbstractExcep
             return handleException(e, httpActionAdapter, context);
         }
 
+        flushSessionStore(context);
         return httpActionAdapter.adapt(action.getCode(), context);
     }
 
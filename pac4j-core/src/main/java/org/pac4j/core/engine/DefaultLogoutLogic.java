@@ -145,6 +145,7 @@ public class DefaultLogoutLogic<R, C extends WebContext> extends AbstractExcepti
             return handleException(e, httpActionAdapter, context);
         }
 
+        flushSessionStore(context);
         return httpActionAdapter.adapt(action.getCode(), context);
     }
 
@@ -1,5 +1,6 @@
 package org.pac4j.core.engine;
 
+import org.pac4j.core.authorization.authorizer.Authorizer;
 import org.pac4j.core.authorization.checker.AuthorizationChecker;
 import org.pac4j.core.authorization.checker.DefaultAuthorizationChecker;
 import org.pac4j.core.client.Client;
@@ -15,15 +16,24 @@ import org.pac4j.core.engine.decision.DefaultProfileStorageDecision;
 import org.pac4j.core.engine.decision.ProfileStorageDecision;
 import org.pac4j.core.credentials.Credentials;
 import org.pac4j.core.exception.HttpAction;
+import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.http.adapter.HttpActionAdapter;
 import org.pac4j.core.matching.RequireAllMatchersChecker;
 import org.pac4j.core.http.ajax.AjaxRequestResolver;
 import org.pac4j.core.http.ajax.DefaultAjaxRequestResolver;
+import org.pac4j.core.matching.Matcher;
 import org.pac4j.core.matching.MatchingChecker;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.profile.ProfileManager;
+import org.pac4j.core.util.AsyncHelper;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 
 import static org.pac4j.core.util.CommonHelper.*;
 
@@ -42,6 +52,13 @@ import static org.pac4j.core.util.CommonHelper.*;
  * <p>Finally, if the user is still not authenticated (no profile), he is redirected to the appropriate identity provider
  * if the first defined client is an indirect one in the <code>clients</code> configuration. Otherwise, a 401 error page is displayed.</p>
  *
+ * <p>The <code>clients</code>, <code>authorizers</code> and <code>matchers</code> configuration is compiled once into a
+ * {@link SecurityPlan} which is cached (up to {@link #maxSecurityPlans} entries) until the {@link Config} changes.</p>
+ *
+ * <p>With {@link #parallelDirectClients}, the direct clients authenticate the user at the same time, so the latencies of their
+ * authentications do not add up. The credentials are still extracted one after the other on the request thread: only their
+ * validations and the profile creations run in parallel, on the {@link #directClientsExecutor} which must then be defined.</p>
+ *
  * @author Jerome Leleu
  * @since 1.9.0
  */
@@ -57,6 +74,14 @@ public class DefaultSecurityLogic<R, C extends WebContext> extends AbstractExcep
 
     private AjaxRequestResolver ajaxRequestResolver = new DefaultAjaxRequestResolver();
 
+    private int maxSecurityPlans = 1000;
+
+    private boolean parallelDirectClients = false;
+
+    private Executor directClientsExecutor;
+
+    private final Map<SecurityPlanKey, SecurityPlan> securityPlans = new ConcurrentHashMap<>();
+
     @Override
     public R perform(final C context, final Config config, final SecurityGrantedAccessAdapter<R, C> securityGrantedAccessAdapter,
                      final HttpActionAdapter<R, C> httpActionAdapter,
@@ -65,7 +90,6 @@ public class DefaultSecurityLogic<R, C extends WebContext> extends AbstractExcep
 
         logger.debug("=== SECURITY ===");
 
-        HttpAction action;
         try {
 
             // default value
@@ -84,16 +108,20 @@ public class DefaultSecurityLogic<R, C extends WebContext> extends AbstractExcep
             assertNotNull("authorizationChecker", authorizationChecker);
             assertNotNull("matchingChecker", matchingChecker);
             assertNotNull("profileStorageDecision", profileStorageDecision);
+            if (parallelDirectClients) {
+                assertNotNull("directClientsExecutor", directClientsExecutor);
+            }
             final Clients configClients = config.getClients();
             assertNotNull("configClients", configClients);
 
             // logic
+            final SecurityPlan plan = getSecurityPlan(config, clients, authorizers, matchers);
             logger.debug("url: {}", context.getFullRequestURL());
             logger.debug("matchers: {}", matchers);
-            if (matchingChecker.matches(context, matchers, config.getMatchers())) {
+            if (plan.getMatcher().matches(context)) {
 
                 logger.debug("clients: {}", clients);
-                final List<Client> currentClients = clientFinder.find(configClients, context, clients);
+                final List<Client> currentClients = plan.getClientFinder().apply(context);
                 logger.debug("currentClients: {}", currentClients);
 
                 final boolean loadProfilesFromSession = profileStorageDecision.mustLoadProfilesFromSession(context, currentClients);
@@ -104,27 +132,11 @@ public class DefaultSecurityLogic<R, C extends WebContext> extends AbstractExcep
 
                 // no profile and some current clients
                 if (isEmpty(profiles) && isNotEmpty(currentClients)) {
-                    boolean updated = false;
-                    // loop on all clients searching direct ones to perform authentication
-                    for (final Client currentClient : currentClients) {
-                        if (currentClient instanceof DirectClient) {
-                            logger.debug("Performing authentication for direct client: {}", currentClient);
-
-                            final Credentials credentials = currentClient.getCredentials(context);
-                            logger.debug("credentials: {}", credentials);
-                            final CommonProfile profile = currentClient.getUserProfile(credentials, context);
-                            logger.debug("profile: {}", profile);
-                            if (profile != null) {
-                                final boolean saveProfileInSession = profileStorageDecision.mustSaveProfileInSession(context,
-                                    currentClients, (DirectClient) currentClient, profile);
-                                logger.debug("saveProfileInSession: {} / multiProfile: {}", saveProfileInSession, multiProfile);
-                                manager.save(saveProfileInSession, profile, multiProfile);
-                                updated = true;
-                                if (!multiProfile) {
-                                    break;
-                                }
-                            }
-                        }
+                    final boolean updated;
+                    if (parallelDirectClients) {
+                        updated = authenticateInParallel(context, currentClients, manager, multiProfile);
+                    } else {
+                        updated = authenticate(context, currentClients, manager, multiProfile);
                     }
                     if (updated) {
                         profiles = manager.getAll(loadProfilesFromSession);
@@ -132,40 +144,265 @@ public class DefaultSecurityLogic<R, C extends WebContext> extends AbstractExcep
                     }
                 }
 
-                // we have profile(s) -> check authorizations
-                if (isNotEmpty(profiles)) {
-                    logger.debug("authorizers: {}", authorizers);
-                    if (authorizationChecker.isAuthorized(context, profiles, authorizers, config.getAuthorizers())) {
-                        logger.debug("authenticated and authorized -> grant access");
-                        return securityGrantedAccessAdapter.adapt(context, profiles, parameters);
-                    } else {
-                        logger.debug("forbidden");
-                        action = forbidden(context, currentClients, profiles, authorizers);
-                    }
-                } else {
-                    if (startAuthentication(context, currentClients)) {
-                        logger.debug("Starting authentication");
-                        saveRequestedUrl(context, currentClients);
-                        action = redirectToIdentityProvider(context, currentClients);
-                    } else {
-                        logger.debug("unauthorized");
-                        action = unauthorized(context, currentClients);
-                    }
-                }
+                return grantOrDenyAccess(context, plan, currentClients, profiles, securityGrantedAccessAdapter, httpActionAdapter,
+                    authorizers, parameters);
 
             } else {
 
                 logger.debug("no matching for this request -> grant access");
+                flushSessionStore(context);
                 return securityGrantedAccessAdapter.adapt(context, Arrays.asList(), parameters);
             }
 
         } catch (final Exception e) {
             return handleException(e, httpActionAdapter, context);
         }
+    }
+
+    /**
+     * Perform the authentication with the direct clients, one after the other.
+     *
+     * @param context the web context
+     * @param currentClients the current clients
+     * @param manager the profile manager
+     * @param multiProfile whether multi profiles are supported
+     * @return whether a profile has been saved
+     */
+    protected boolean authenticate(final C context, final List<Client> currentClients, final ProfileManager manager,
+                                   final boolean multiProfile) {
+        boolean updated = false;
+        // loop on all clients searching direct ones to perform authentication
+        for (final Client currentClient : currentClients) {
+            if (currentClient instanceof DirectClient) {
+                logger.debug("Performing authentication for direct client: {}", currentClient);
+
+                final Credentials credentials = currentClient.getCredentials(context);
+                logger.debug("credentials: {}", credentials);
+                final CommonProfile profile = currentClient.getUserProfile(credentials, context);
+                logger.debug("profile: {}", profile);
+                if (profile != null) {
+                    saveProfile(context, currentClients, (DirectClient) currentClient, profile, manager, multiProfile);
+                    updated = true;
+                    if (!multiProfile) {
+                        break;
+                    }
+                }
+            }
+        }
+        return updated;
+    }
 
+    /**
+     * Perform the authentication with all the direct clients at the same time: the credentials are extracted on the request thread,
+     * then validated and turned into profiles on the {@link #directClientsExecutor} (on the request thread if it rejects them).
+     * The direct clients whose validation cannot be separated from the extraction ({@link DirectClient#isValidationSeparable()})
+     * authenticate on the request thread, in turn.
+     * The profiles are saved in the order of the clients. Without multi profiles, the first client (in order) returning
+     * a profile wins and the authentications of the next clients are cancelled.
+     *
+     * @param context the web context
+     * @param currentClients the current clients
+     * @param manager the profile manager
+     * @param multiProfile whether multi profiles are supported
+     * @return whether a profile has been saved
+     */
+    protected boolean authenticateInParallel(final C context, final List<Client> currentClients, final ProfileManager manager,
+                                             final boolean multiProfile) {
+        final List<DirectClient> directClients = new ArrayList<>();
+        for (final Client currentClient : currentClients) {
+            if (currentClient instanceof DirectClient) {
+                directClients.add((DirectClient) currentClient);
+            }
+        }
+        if (directClients.size() <= 1) {
+            return authenticate(context, currentClients, manager, multiProfile);
+        }
+
+        final List<FutureTask<CommonProfile>> tasks = new ArrayList<>();
+        boolean updated = false;
+        try {
+            for (final DirectClient directClient : directClients) {
+                FutureTask<CommonProfile> task = null;
+                if (directClient.isValidationSeparable()) {
+                    logger.debug("Extracting credentials for direct client: {}", directClient);
+                    final Credentials credentials = directClient.getCredentialsWithoutValidation(context);
+                    logger.debug("credentials: {}", credentials);
+                    if (credentials != null) {
+                        task = new FutureTask<>(() -> directClient.getUserProfile(directClient.getValidatedCredentials(credentials, context),
+                            context));
+                        try {
+                            directClientsExecutor.execute(task);
+                        } catch (final RejectedExecutionException e) {
+                            logger.debug("Direct clients executor saturated, authenticating on the request thread");
+                            task.run();
+                        }
+                    }
+                }
+                tasks.add(task);
+            }
+
+            for (int i = 0; i < tasks.size(); i++) {
+                final DirectClient directClient = directClients.get(i);
+                final CommonProfile profile;
+                if (directClient.isValidationSeparable()) {
+                    profile = tasks.get(i) != null ? tasks.get(i).get() : null;
+                } else {
+                    logger.debug("Performing authentication for direct client: {}", directClient);
+                    final Credentials credentials = directClient.getCredentials(context);
+                    logger.debug("credentials: {}", credentials);
+                    profile = directClient.getUserProfile(credentials, context);
+                }
+                logger.debug("profile: {}", profile);
+                if (profile != null) {
+                    saveProfile(context, currentClients, directClient, profile, manager, multiProfile);
+                    updated = true;
+                    if (!multiProfile) {
+                        break;
+                    }
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TechnicalException(e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = AsyncHelper.unwrap(e);
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw runtimeException((Exception) cause);
+        } finally {
+            for (final FutureTask<CommonProfile> task : tasks) {
+                if (task != null) {
+                    task.cancel(true);
+                }
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Save the profile returned by a direct client.
+     *
+     * @param context the web context
+     * @param currentClients the current clients
+     * @param directClient the direct client
+     * @param profile the profile
+     * @param manager the profile manager
+     * @param multiProfile whether multi profiles are supported
+     */
+    protected void saveProfile(final C context, final List<Client> currentClients, final DirectClient directClient,
+                               final CommonProfile profile, final ProfileManager manager, final boolean multiProfile) {
+        final boolean saveProfileInSession = profileStorageDecision.mustSaveProfileInSession(context, currentClients, directClient,
+            profile);
+        logger.debug("saveProfileInSession: {} / multiProfile: {}", saveProfileInSession, multiProfile);
+        manager.save(saveProfileInSession, profile, multiProfile);
+    }
+
+    /**
+     * Check the authorizations if the user is authenticated, start the login process or return an unauthorized error otherwise.
+     *
+     * @param context the web context
+     * @param plan the security plan
+     * @param currentClients the current clients
+     * @param profiles the current profiles
+     * @param securityGrantedAccessAdapter the success adapter
+     * @param httpActionAdapter the HTTP action adapter
+     * @param authorizers the defined authorizers
+     * @param parameters additional parameters
+     * @return the resulting action of the security
+     * @throws Exception any exception
+     */
+    protected R grantOrDenyAccess(final C context, final SecurityPlan plan, final List<Client> currentClients,
+                                  final List<CommonProfile> profiles, final SecurityGrantedAccessAdapter<R, C> securityGrantedAccessAdapter,
+                                  final HttpActionAdapter<R, C> httpActionAdapter, final String authorizers,
+                                  final Object... parameters) throws Exception {
+        final HttpAction action;
+        // we have profile(s) -> check authorizations
+        if (isNotEmpty(profiles)) {
+            logger.debug("authorizers: {}", authorizers);
+            if (plan.getAuthorizer().isAuthorized(context, profiles)) {
+                logger.debug("authenticated and authorized -> grant access");
+                flushSessionStore(context);
+                return securityGrantedAccessAdapter.adapt(context, profiles, parameters);
+            } else {
+                logger.debug("forbidden");
+                action = forbidden(context, currentClients, profiles, authorizers);
+            }
+        } else {
+            if (startAuthentication(context, currentClients)) {
+                logger.debug("Starting authentication");
+                saveRequestedUrl(context, currentClients);
+                action = redirectToIdentityProvider(context, currentClients);
+            } else {
+                logger.debug("unauthorized");
+                action = unauthorized(context, currentClients);
+            }
+        }
+
+        flushSessionStore(context);
         return httpActionAdapter.adapt(action.getCode(), context);
     }
 
+    /**
+     * Get the compiled security plan for the configuration, from the cache if neither the configuration nor its clients
+     * have changed.
+     *
+     * @param config the configuration
+     * @param clients the defined clients
+     * @param authorizers the defined authorizers
+     * @param matchers the defined matchers
+     * @return the security plan
+     */
+    protected SecurityPlan getSecurityPlan(final Config config, final String clients, final String authorizers, final String matchers) {
+        final SecurityPlanKey key = new SecurityPlanKey(config, clients, authorizers, matchers);
+        SecurityPlan plan = securityPlans.get(key);
+        final long version = config.getVersion();
+        final long clientsVersion = config.getClients() != null ? config.getClients().getVersion() : 0;
+        if (plan == null || plan.getConfigVersion() != version || plan.getClientsVersion() != clientsVersion) {
+            plan = compileSecurityPlan(config, version, clientsVersion, clients, authorizers, matchers);
+            if (securityPlans.size() >= maxSecurityPlans) {
+                logger.debug("Too many security plans: clearing cache");
+                securityPlans.clear();
+            }
+            securityPlans.put(key, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Compile the security plan. Unknown authorizers or matchers fail the compilation while clients which cannot be compiled
+     * are found on each request as some of them may only be requested by name.
+     *
+     * @param config the configuration
+     * @param version the version of the configuration
+     * @param clientsVersion the version of the clients of the configuration
+     * @param clients the defined clients
+     * @param authorizers the defined authorizers
+     * @param matchers the defined matchers
+     * @return the security plan
+     */
+    protected SecurityPlan compileSecurityPlan(final Config config, final long version, final long clientsVersion,
+                                               final String clients, final String authorizers, final String matchers) {
+        final Clients configClients = config.getClients();
+        Function<WebContext, List<Client>> finder;
+        try {
+            finder = clientFinder.compile(configClients, clients);
+        } catch (final RuntimeException e) {
+            logger.debug("Cannot compile clients: {}", clients, e);
+            finder = context -> clientFinder.find(configClients, context, clients);
+        }
+        final Authorizer<CommonProfile> authorizer = authorizationChecker.compile(authorizers, config);
+        final Matcher matcher = matchingChecker.compile(matchers, config);
+        return new SecurityPlan(version, clientsVersion, finder, authorizer, matcher);
+    }
+
+    /**
+     * Clear the cached security plans.
+     */
+    public void clearSecurityPlans() {
+        securityPlans.clear();
+    }
+
     /**
      * Return a forbidden error.
      *
@@ -234,6 +471,7 @@ public class DefaultSecurityLogic<R, C extends WebContext> extends AbstractExcep
 
     public void setClientFinder(final ClientFinder clientFinder) {
         this.clientFinder = clientFinder;
+        clearSecurityPlans();
     }
 
     public AuthorizationChecker getAuthorizationChecker() {
@@ -242,6 +480,7 @@ public class DefaultSecurityLogic<R, C extends WebContext> extends AbstractExcep
 
     public void setAuthorizationChecker(final AuthorizationChecker authorizationChecker) {
         this.authorizationChecker = authorizationChecker;
+        clearSecurityPlans();
     }
 
     public MatchingChecker getMatchingChecker() {
@@ -250,6 +489,7 @@ public class DefaultSecurityLogic<R, C extends WebContext> extends AbstractExcep
 
     public void setMatchingChecker(final MatchingChecker matchingChecker) {
         this.matchingChecker = matchingChecker;
+        clearSecurityPlans();
     }
 
     public ProfileStorageDecision getProfileStorageDecision() {
@@ -268,10 +508,93 @@ public class DefaultSecurityLogic<R, C extends WebContext> extends AbstractExcep
         this.ajaxRequestResolver = ajaxRequestResolver;
     }
 
+    public boolean isParallelDirectClients() {
+        return parallelDirectClients;
+    }
+
+    /**
+     * Define whether the direct clients authenticate the user at the same time instead of one after the other.
+     *
+     * @param parallelDirectClients whether the direct clients authenticate in parallel
+     */
+    public void setParallelDirectClients(final boolean parallelDirectClients) {
+        this.parallelDirectClients = parallelDirectClients;
+    }
+
+    public Executor getDirectClientsExecutor() {
+        return directClientsExecutor;
+    }
+
+    /**
+     * Define the executor of the parallel authentications, required with {@link #parallelDirectClients}. As it is shared
+     * by all the requests, it should have a bounded number of threads and a bounded queue: when it rejects an authentication,
+     * it is performed on the request thread.
+     *
+     * @param directClientsExecutor the executor of the parallel authentications
+     */
+    public void setDirectClientsExecutor(final Executor directClientsExecutor) {
+        this.directClientsExecutor = directClientsExecutor;
+    }
+
+    public int getMaxSecurityPlans() {
+        return maxSecurityPlans;
+    }
+
+    public void setMaxSecurityPlans(final int maxSecurityPlans) {
+        this.maxSecurityPlans = maxSecurityPlans;
+    }
+
     @Override
     public String toString() {
         return toNiceString(this.getClass(), "clientFinder", this.clientFinder, "authorizationChecker", this.authorizationChecker,
             "matchingChecker", this.matchingChecker, "profileStorageDecision", this.profileStorageDecision,
-            "errorUrl", getErrorUrl(), "ajaxRequestResolver", this.ajaxRequestResolver);
+            "errorUrl", getErrorUrl(), "ajaxRequestResolver", this.ajaxRequestResolver, "maxSecurityPlans", this.maxSecurityPlans,
+            "parallelDirectClients", this.parallelDirectClients, "directClientsExecutor", this.directClientsExecutor);
+    }
+
+    /**
+     * The key of a cached security plan.
+     */
+    private static final class SecurityPlanKey {
+
+        private final Config config;
+
+        private final String clients;
+
+        private final String authorizers;
+
+        private final String matchers;
+
+        private final int hash;
+
+        private SecurityPlanKey(final Config config, final String clients, final String authorizers, final String matchers) {
+            this.config = config;
+            this.clients = clients;
+            this.authorizers = authorizers;
+            this.matchers = matchers;
+            int h = System.identityHashCode(config);
+            h = 31 * h + Objects.hashCode(clients);
+            h = 31 * h + Objects.hashCode(authorizers);
+            h = 31 * h + Objects.hashCode(matchers);
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SecurityPlanKey)) {
+                return false;
+            }
+            final SecurityPlanKey that = (SecurityPlanKey) o;
+            return config == that.config && Objects.equals(clients, that.clients) && Objects.equals(authorizers, that.authorizers)
+                && Objects.equals(matchers, that.matchers);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
     }
 }
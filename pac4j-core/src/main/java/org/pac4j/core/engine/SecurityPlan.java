@@ -0,0 +1,67 @@
+package org.pac4j.core.engine;
+
+import org.pac4j.core.authorization.authorizer.Authorizer;
+import org.pac4j.core.client.Client;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.matching.Matcher;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The compiled form of the <code>clients</code>, <code>authorizers</code> and <code>matchers</code> configuration
+ * of the {@link DefaultSecurityLogic}, for a given version of the {@link org.pac4j.core.config.Config} and of its
+ * {@link org.pac4j.core.client.Clients}.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class SecurityPlan {
+
+    private final long configVersion;
+
+    private final long clientsVersion;
+
+    private final Function<WebContext, List<Client>> clientFinder;
+
+    private final Authorizer<CommonProfile> authorizer;
+
+    private final Matcher matcher;
+
+    public SecurityPlan(final long configVersion, final long clientsVersion, final Function<WebContext, List<Client>> clientFinder,
+                        final Authorizer<CommonProfile> authorizer, final Matcher matcher) {
+        this.configVersion = configVersion;
+        this.clientsVersion = clientsVersion;
+        this.clientFinder = clientFinder;
+        this.authorizer = authorizer;
+        this.matcher = matcher;
+    }
+
+    public long getConfigVersion() {
+        return configVersion;
+    }
+
+    public long getClientsVersion() {
+        return clientsVersion;
+    }
+
+    public Function<WebContext, List<Client>> getClientFinder() {
+        return clientFinder;
+    }
+
+    public Authorizer<CommonProfile> getAuthorizer() {
+        return authorizer;
+    }
+
+    public Matcher getMatcher() {
+        return matcher;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "configVersion", configVersion, "clientsVersion", clientsVersion,
+            "clientFinder", clientFinder, "authorizer", authorizer, "matcher", matcher);
+    }
+}
@@ -1,5 +1,6 @@
 package org.pac4j.core.matching;
 
+import org.pac4j.core.config.Config;
 import org.pac4j.core.context.WebContext;
 
 import java.util.Map;
@@ -21,4 +22,16 @@ public interface MatchingChecker {
      * @return whether the web context matches
      */
     boolean matches(WebContext context, String matcherNames, Map<String, Matcher> matchersMap);
+
+    /**
+     * Compile the matchers names into a single matcher which can be reused across requests.
+     *
+     * @param matcherNames the matchers
+     * @param config the configuration
+     * @return the compiled matcher
+     */
+    default Matcher compile(final String matcherNames, final Config config) {
+        final Map<String, Matcher> matchersMap = config.getMatchers();
+        return context -> matches(context, matcherNames, matchersMap);
+    }
 }
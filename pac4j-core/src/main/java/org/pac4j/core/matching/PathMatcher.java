@@ -7,12 +7,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.regex.Pattern;
 
 /**
- * Matches all request paths except whitelisted (excluded) paths.
+ * <p>Matches all request paths except whitelisted (excluded) paths.</p>
+ *
+ * <p>The excluded branches and the regular expressions (indexed by their literal prefix) are stored in a trie of path segments,
+ * so only the regular expressions which may match a path are evaluated.</p>
  *
  * @author Rob Ward
  * @since 2.0.0
@@ -21,6 +25,7 @@ public class PathMatcher implements Matcher {
     private final static Logger logger = LoggerFactory.getLogger(PathMatcher.class);
     private final Set<String> excludedPaths = new HashSet<>();
     private final Set<Pattern> excludedPatterns = new HashSet<>();
+    private final PathSegmentTrie excludedTrie = new PathSegmentTrie();
 
     public PathMatcher() {}
 
@@ -48,7 +53,13 @@ public class PathMatcher implements Matcher {
      */
     public PathMatcher excludeBranch(final String path) {
         validatePath(path);
-        excludedPatterns.add(Pattern.compile("^" + path + "(/.*)?$"));
+        final Pattern pattern = Pattern.compile("^" + path + "(/.*)?$");
+        excludedPatterns.add(pattern);
+        if (PathSegmentTrie.isLiteral(path)) {
+            excludedTrie.addBranch(path);
+        } else {
+            excludedTrie.addPattern(pattern);
+        }
         return this;
     }
 
@@ -68,7 +79,9 @@ public class PathMatcher implements Matcher {
                 "to define a full path matching");
         }
 
-        excludedPatterns.add(Pattern.compile(regex));
+        final Pattern pattern = Pattern.compile(regex);
+        excludedPatterns.add(pattern);
+        excludedTrie.addPattern(pattern);
         return this;
     }
 
@@ -84,13 +97,7 @@ public class PathMatcher implements Matcher {
             return false;
         }
 
-        for (Pattern pattern : excludedPatterns) {
-            if (pattern.matcher(path).matches()) {
-                return false;
-            }
-        }
-
-        return true;
+        return !excludedTrie.excludes(path);
     }
 
     public Set<String> getExcludedPaths() {
@@ -98,7 +105,7 @@ public class PathMatcher implements Matcher {
     }
 
     public Set<Pattern> getExcludedPatterns() {
-        return excludedPatterns;
+        return Collections.unmodifiableSet(excludedPatterns);
     }
 
     public void setExcludedPaths(Collection<String> paths) {
@@ -108,6 +115,7 @@ public class PathMatcher implements Matcher {
 
     public void setExcludedPatterns(Collection<String> regularExpressions) {
         excludedPatterns.clear();
+        excludedTrie.clear();
         regularExpressions.forEach(regex -> excludeRegex(regex));
     }
 
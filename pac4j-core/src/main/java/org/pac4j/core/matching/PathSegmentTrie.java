@@ -0,0 +1,203 @@
+package org.pac4j.core.matching;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Trie of path segments used by the {@link PathMatcher} to find the excluded branches and the regular expressions
+ * which may match a path, so that the matching time does not depend on the number of exclusions.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+final class PathSegmentTrie {
+
+    private static final String REGEX_META_CHARS = "\\^$.|?*+()[]{}";
+
+    private final Node root = new Node();
+
+    /**
+     * Add a branch: a literal path (starting with a /) excluding itself and all its sub-paths.
+     *
+     * @param path the branch path
+     */
+    void addBranch(final String path) {
+        Node node = root;
+        for (final String segment : split(path)) {
+            node = node.children.computeIfAbsent(segment, k -> new Node());
+        }
+        node.branch = true;
+    }
+
+    /**
+     * Add a regular expression: it is stored under the node of the segments of its literal prefix.
+     *
+     * @param pattern the regular expression
+     */
+    void addPattern(final Pattern pattern) {
+        Node node = root;
+        if (pattern.flags() == 0) {
+            for (final String segment : literalSegments(pattern.pattern())) {
+                node = node.children.computeIfAbsent(segment, k -> new Node());
+            }
+        }
+        node.patterns.add(pattern);
+    }
+
+    void clear() {
+        root.children.clear();
+        root.patterns.clear();
+        root.branch = false;
+    }
+
+    /**
+     * Whether the path is excluded by a branch or by a regular expression.
+     *
+     * @param path the path
+     * @return whether the path is excluded
+     */
+    boolean excludes(final String path) {
+        Node node = root;
+        if (matchesAny(node.patterns, path)) {
+            return true;
+        }
+        if (path == null || !path.startsWith("/")) {
+            return false;
+        }
+        int start = 1;
+        while (true) {
+            final int end = path.indexOf('/', start);
+            final String segment = end < 0 ? path.substring(start) : path.substring(start, end);
+            node = node.children.get(segment);
+            if (node == null) {
+                return false;
+            }
+            if (node.branch || matchesAny(node.patterns, path)) {
+                return true;
+            }
+            if (end < 0) {
+                return false;
+            }
+            start = end + 1;
+        }
+    }
+
+    private static boolean matchesAny(final List<Pattern> patterns, final String path) {
+        for (final Pattern pattern : patterns) {
+            if (pattern.matcher(path).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> split(final String path) {
+        final List<String> segments = new ArrayList<>();
+        int start = 1;
+        while (true) {
+            final int end = path.indexOf('/', start);
+            if (end < 0) {
+                segments.add(path.substring(start));
+                return segments;
+            }
+            segments.add(path.substring(start, end));
+            start = end + 1;
+        }
+    }
+
+    /**
+     * Whether the text has no regular expression meta character.
+     *
+     * @param text the text
+     * @return whether the text is literal
+     */
+    static boolean isLiteral(final String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (REGEX_META_CHARS.indexOf(text.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compute the complete path segments any match of the regular expression must start with.
+     *
+     * @param regex the regular expression (starting with a ^)
+     * @return the literal segments
+     */
+    static List<String> literalSegments(final String regex) {
+        final List<String> segments = new ArrayList<>();
+        if (!regex.startsWith("^") || regex.contains("\\Q") || hasTopLevelAlternation(regex)) {
+            return segments;
+        }
+        final StringBuilder prefix = new StringBuilder();
+        int lastAtom = 0;
+        int i = 1;
+        boolean complete = false;
+        while (i < regex.length()) {
+            final char c = regex.charAt(i);
+            if (c == '\\' && i + 1 < regex.length() && !Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                lastAtom = prefix.length();
+                prefix.append(regex.charAt(i + 1));
+                i += 2;
+            } else if (REGEX_META_CHARS.indexOf(c) < 0) {
+                lastAtom = prefix.length();
+                prefix.append(c);
+                i++;
+            } else {
+                if (c == '?' || c == '*' || c == '+' || c == '{') {
+                    // the last literal character is optional or repeated
+                    prefix.setLength(lastAtom);
+                } else if (c == '$' && i == regex.length() - 1) {
+                    complete = true;
+                }
+                break;
+            }
+        }
+        if (prefix.length() == 0 || prefix.charAt(0) != '/') {
+            return segments;
+        }
+        final int last = complete ? prefix.length() : prefix.lastIndexOf("/");
+        if (last > 0) {
+            segments.addAll(split(prefix.substring(0, last)));
+        }
+        return segments;
+    }
+
+    private static boolean hasTopLevelAlternation(final String regex) {
+        int depth = 0;
+        int classDepth = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                classDepth++;
+            } else if (c == ']' && classDepth > 0) {
+                classDepth--;
+            } else if (classDepth == 0) {
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                } else if (c == '|' && depth == 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+
+        private final List<Pattern> patterns = new ArrayList<>();
+
+        private boolean branch;
+    }
+}
@@ -1,11 +1,14 @@
 package org.pac4j.core.matching;
 
+import org.pac4j.core.config.Config;
 import org.pac4j.core.context.Pac4jConstants;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.util.CommonHelper;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -18,6 +21,33 @@ public class RequireAllMatchersChecker implements MatchingChecker {
 
     @Override
     public boolean matches(final WebContext context, final String matcherNames, final Map<String, Matcher> matchersMap) {
+        return matches(context, resolveMatchers(matcherNames, matchersMap));
+    }
+
+    @Override
+    public Matcher compile(final String matcherNames, final Config config) {
+        final List<Matcher> matchers = new ArrayList<>();
+        // if we have a matcher name (which may be a list of matchers names)
+        if (CommonHelper.isNotBlank(matcherNames)) {
+            final Map<String, Matcher> matchersIndex = config.getMatchersIndex();
+            for (final String name : matcherNames.split(Pac4jConstants.ELEMENT_SEPRATOR)) {
+                final Matcher result = matchersIndex.get(name.toLowerCase(Locale.ROOT).trim());
+                // we must have an matcher defined for this name
+                CommonHelper.assertNotNull("matchersMap['" + name + "']", result);
+                matchers.add(result);
+            }
+        }
+        return context -> matches(context, matchers);
+    }
+
+    /**
+     * Resolve the matchers names into matchers.
+     *
+     * @param matcherNames the matchers
+     * @param matchersMap the map of matchers
+     * @return the matchers
+     */
+    protected List<Matcher> resolveMatchers(final String matcherNames, final Map<String, Matcher> matchersMap) {
         // if we have a matcher name (which may be a list of matchers names)
         if (CommonHelper.isNotBlank(matcherNames)) {
             final List<Matcher> matchers = new ArrayList<>();
@@ -38,13 +68,23 @@ public class RequireAllMatchersChecker implements MatchingChecker {
                 CommonHelper.assertNotNull("matchersMap['" + name + "']", result);
                 matchers.add(result);
             }
-            if (!matchers.isEmpty()) {
-                // check matching using matchers: all must be satisfied
-                for (Matcher matcher : matchers) {
-                    if (!matcher.matches(context)) {
-                        return false;
-                    }
-                }
+            return matchers;
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Check that all the matchers are satisfied.
+     *
+     * @param context the web context
+     * @param matchers the matchers
+     * @return whether the web context matches
+     */
+    protected boolean matches(final WebContext context, final List<Matcher> matchers) {
+        // check matching using matchers: all must be satisfied
+        for (final Matcher matcher : matchers) {
+            if (!matcher.matches(context)) {
+                return false;
             }
         }
         return true;
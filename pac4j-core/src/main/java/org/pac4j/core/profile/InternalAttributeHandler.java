@@ -1,5 +1,6 @@
 package org.pac4j.core.profile;
 
+import org.pac4j.core.profile.codec.ProfileCodec;
 import org.pac4j.core.profile.converter.Converters;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.JavaSerializationHelper;
@@ -30,9 +31,12 @@ public class InternalAttributeHandler {
     public transient static final String PREFIX_DATE = PREFIX + "date}";
     public transient static final String PREFIX_URI = PREFIX + "uri}";
     public transient static final String PREFIX_SB64 = PREFIX + "sb64}";
+    public transient static final String PREFIX_PROFILE = PREFIX + "prof}";
 
     private JavaSerializationHelper serializationHelper = new JavaSerializationHelper();
 
+    private ProfileCodec profileCodec;
+
     private boolean stringify = false;
 
     /**
@@ -55,6 +59,8 @@ public class InternalAttributeHandler {
                 return PREFIX_DATE.concat(newSdf().format((Date) value));
             } else if (value instanceof URI) {
                 return PREFIX_URI.concat(value.toString());
+            } else if (value instanceof CommonProfile && profileCodec != null) {
+                return PREFIX_PROFILE.concat(profileCodec.encodeToBase64((CommonProfile) value));
             } else {
                 return PREFIX_SB64.concat(serializationHelper.serializeToBase64((Serializable) value));
             }
@@ -93,6 +99,8 @@ public class InternalAttributeHandler {
                     }
                 } else if (sValue.startsWith(PREFIX_SB64)) {
                     return serializationHelper.unserializeFromBase64(sValue.substring(PREFIX_SB64.length()));
+                } else if (sValue.startsWith(PREFIX_PROFILE) && profileCodec != null) {
+                    return profileCodec.decodeFromBase64(sValue.substring(PREFIX_PROFILE.length()));
                 }
             }
         }
@@ -111,6 +119,19 @@ public class InternalAttributeHandler {
         this.serializationHelper = serializationHelper;
     }
 
+    public ProfileCodec getProfileCodec() {
+        return profileCodec;
+    }
+
+    /**
+     * Define the codec used to stringify the profiles stored as attributes (Java serialization if not defined).
+     *
+     * @param profileCodec the profile codec
+     */
+    public void setProfileCodec(final ProfileCodec profileCodec) {
+        this.profileCodec = profileCodec;
+    }
+
     public boolean isStringify() {
         return stringify;
     }
@@ -127,6 +148,7 @@ public class InternalAttributeHandler {
 
     @Override
     public String toString() {
-        return CommonHelper.toNiceString(this.getClass(), "serializationHelper", serializationHelper, "stringify", stringify);
+        return CommonHelper.toNiceString(this.getClass(), "serializationHelper", serializationHelper, "profileCodec", profileCodec,
+            "stringify", stringify);
     }
 }
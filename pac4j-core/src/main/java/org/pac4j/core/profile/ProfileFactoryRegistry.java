@@ -0,0 +1,127 @@
+package org.pac4j.core.profile;
+
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the profile factories by profile class name, to build profiles without reflection.
+ *
+ * The factory of a class which has not been registered is generated on first use from its default constructor.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class ProfileFactoryRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfileFactoryRegistry.class);
+
+    private static final Map<String, Supplier<? extends CommonProfile>> factories = new ConcurrentHashMap<>();
+
+    static {
+        register(CommonProfile.class, CommonProfile::new);
+        register(AnonymousProfile.class, AnonymousProfile::new);
+    }
+
+    private ProfileFactoryRegistry() {}
+
+    /**
+     * Register the factory of a profile class.
+     *
+     * @param clazz the profile class
+     * @param factory the factory
+     * @param <U> the kind of profile
+     */
+    public static <U extends CommonProfile> void register(final Class<U> clazz, final Supplier<U> factory) {
+        CommonHelper.assertNotNull("clazz", clazz);
+        CommonHelper.assertNotNull("factory", factory);
+        factories.put(clazz.getName(), factory);
+    }
+
+    /**
+     * Get the factory of a profile class, generated if it has not been registered.
+     *
+     * @param className the profile class name
+     * @return the factory
+     */
+    public static Supplier<? extends CommonProfile> getFactory(final String className) {
+        final Supplier<? extends CommonProfile> factory = factories.get(className);
+        if (factory != null) {
+            return factory;
+        }
+        final Supplier<? extends CommonProfile> newFactory = buildFactory(className);
+        final Supplier<? extends CommonProfile> previous = factories.putIfAbsent(className, newFactory);
+        return previous != null ? previous : newFactory;
+    }
+
+    /**
+     * Build a new profile by its class name.
+     *
+     * @param className the profile class name
+     * @return the new profile
+     */
+    public static CommonProfile newProfile(final String className) {
+        return getFactory(className).get();
+    }
+
+    /**
+     * Whether a factory is available for this profile class without generating it.
+     *
+     * @param className the profile class name
+     * @return whether the factory is available
+     */
+    public static boolean isRegistered(final String className) {
+        return factories.containsKey(className);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<? extends CommonProfile> buildFactory(final String className) {
+        final Class<? extends CommonProfile> clazz;
+        final Constructor<? extends CommonProfile> constructor;
+        try {
+            final ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+            final Class<?> c = tccl == null ? Class.forName(className) : Class.forName(className, true, tccl);
+            if (!CommonProfile.class.isAssignableFrom(c)) {
+                throw new TechnicalException("Not a profile class: " + className);
+            }
+            clazz = (Class<? extends CommonProfile>) c;
+            constructor = clazz.getDeclaredConstructor();
+        } catch (final ClassNotFoundException | NoSuchMethodException e) {
+            throw new TechnicalException(e);
+        }
+
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            final MethodHandle handle = lookup.unreflectConstructor(constructor);
+            final CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+                MethodType.methodType(Object.class), handle, MethodType.methodType(clazz));
+            final Supplier<? extends CommonProfile> factory = (Supplier<? extends CommonProfile>) site.getTarget().invoke();
+            // the generated factory may not see the class if it belongs to another class loader
+            factory.get();
+            logger.debug("Generated factory for profile class: {}", className);
+            return factory;
+        } catch (final Throwable t) {
+            logger.debug("Cannot generate factory for profile class: {}, using its constructor", className, t);
+        }
+
+        return () -> {
+            try {
+                return constructor.newInstance();
+            } catch (final IllegalAccessException | InvocationTargetException | InstantiationException e) {
+                throw new TechnicalException(e);
+            }
+        };
+    }
+}
@@ -1,9 +1,6 @@
 package org.pac4j.core.profile;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.definition.ProfileDefinition;
@@ -21,8 +18,6 @@ public final class ProfileHelper {
 
     private static final Logger logger = LoggerFactory.getLogger(ProfileHelper.class);
 
-    private static final Map<String, Constructor<? extends CommonProfile>> constructorsCache = new ConcurrentHashMap<>();
-
     private ProfileHelper() {}
 
     private static InternalAttributeHandler internalAttributeHandler = new InternalAttributeHandler();
@@ -60,8 +55,9 @@ public final class ProfileHelper {
 
         logger.info("Building user profile based on typedId: {}", typedId);
         final CommonProfile profile;
-        if (typedId.contains(CommonProfile.SEPARATOR)) {
-            final String className = CommonHelper.substringBefore(typedId, CommonProfile.SEPARATOR);
+        final int separatorIndex = typedId.indexOf(CommonProfile.SEPARATOR);
+        if (separatorIndex >= 0) {
+            final String className = typedId.substring(0, separatorIndex);
             try {
                 profile = buildUserProfileByClassCompleteName(className);
             } catch (final TechnicalException e) {
@@ -85,43 +81,7 @@ public final class ProfileHelper {
      * @return the built user profile
      */
     public static CommonProfile buildUserProfileByClassCompleteName(final String completeName) {
-        try {
-            final Constructor<? extends CommonProfile> constructor = getConstructor(completeName);
-            return constructor.newInstance();
-        } catch (final ClassNotFoundException | NoSuchMethodException | IllegalAccessException | InvocationTargetException
-                 | InstantiationException e) {
-            throw new TechnicalException(e);
-        }
-    }
-
-    /**
-     * Get the constructor of the class.
-     *
-     * @param name the name of the class
-     * @return the constructor
-     * @throws ClassNotFoundException class not found
-     * @throws NoSuchMethodException method not found
-     */
-    @SuppressWarnings("unchecked")
-    private static Constructor<? extends CommonProfile> getConstructor(final String name)
-        throws ClassNotFoundException, NoSuchMethodException {
-        Constructor<? extends CommonProfile> constructor = constructorsCache.get(name);
-        if (constructor == null) {
-            synchronized (constructorsCache) {
-                constructor = constructorsCache.get(name);
-                if (constructor == null) {
-                    ClassLoader tccl = Thread.currentThread().getContextClassLoader();
-
-                    if (tccl == null) {
-                        constructor = (Constructor<? extends CommonProfile>) Class.forName(name).getDeclaredConstructor();
-                    } else {
-                        constructor = (Constructor<? extends CommonProfile>) Class.forName(name, true, tccl).getDeclaredConstructor();
-                    }
-                    constructorsCache.put(name, constructor);
-                }
-            }
-        }
-        return constructor;
+        return ProfileFactoryRegistry.newProfile(completeName);
     }
 
     /**
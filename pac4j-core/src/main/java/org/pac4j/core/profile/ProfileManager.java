@@ -12,7 +12,10 @@ import org.pac4j.core.util.CommonHelper;
 import java.util.*;
 
 /**
- * This class is a generic way to manage the current user profile(s), i.e. the one(s) of the current authenticated user.
+ * <p>This class is a generic way to manage the current user profile(s), i.e. the one(s) of the current authenticated user.</p>
+ *
+ * <p>The retrieved profiles are cached for the current request (in a request attribute) until they are saved or removed
+ * through a profile manager: the user profiles saved in the session must not be updated directly during the request.</p>
  *
  * @author Jerome Leleu
  * @since 1.8.0
@@ -21,6 +24,8 @@ public class ProfileManager<U extends CommonProfile> {
 
     private final Authorizer<U> IS_AUTHENTICATED_AUTHORIZER = new IsAuthenticatedAuthorizer<U>();
 
+    private static final String CACHED_PROFILES = Pac4jConstants.USER_PROFILES + "Cache";
+
     protected final WebContext context;
 
     protected final SessionStore sessionStore;
@@ -45,7 +50,7 @@ public class ProfileManager<U extends CommonProfile> {
      * @return the user profile
      */
     public Optional<U> get(final boolean readFromSession) {
-        final LinkedHashMap<String, U> allProfiles = retrieveAll(readFromSession);
+        final Map<String, U> allProfiles = retrieveAllCached(readFromSession);
         return ProfileHelper.flatIntoOneProfile(allProfiles.values());
     }
 
@@ -56,10 +61,60 @@ public class ProfileManager<U extends CommonProfile> {
      * @return the user profiles
      */
     public List<U> getAll(final boolean readFromSession) {
-        final LinkedHashMap<String, U> profiles = retrieveAll(readFromSession);
+        final Map<String, U> profiles = retrieveAllCached(readFromSession);
         return ProfileHelper.flatIntoAProfileList(profiles);
     }
 
+    /**
+     * Retrieve a read-only view of all user profiles, for callers which only iterate over them.
+     *
+     * @param readFromSession if the user profiles must be read from session
+     * @return the read-only user profiles
+     */
+    public Collection<U> getAllView(final boolean readFromSession) {
+        return retrieveAllCached(readFromSession).values();
+    }
+
+    /**
+     * Retrieve the read-only map of profiles from the cache of the request or from {@link #retrieveAll(boolean)}.
+     *
+     * @param readFromSession if the user profiles must be read from session
+     * @return the read-only map of profiles
+     */
+    protected Map<String, U> retrieveAllCached(final boolean readFromSession) {
+        final Object request = this.context.getRequestAttribute(Pac4jConstants.USER_PROFILES);
+        CachedProfiles<U> cache = null;
+        final Object cacheAttribute = this.context.getRequestAttribute(CACHED_PROFILES);
+        if (cacheAttribute instanceof CachedProfiles) {
+            cache = (CachedProfiles<U>) cacheAttribute;
+            // the cache must have been built for the same session store and request profiles
+            if (cache.sessionStore != this.sessionStore || cache.request != request) {
+                cache = null;
+            }
+        }
+        if (cache == null) {
+            cache = new CachedProfiles<>(this.sessionStore, request);
+            this.context.setRequestAttribute(CACHED_PROFILES, cache);
+        }
+        Map<String, U> profiles = readFromSession ? cache.withSession : cache.withoutSession;
+        if (profiles == null) {
+            profiles = Collections.unmodifiableMap(retrieveAll(readFromSession));
+            if (readFromSession) {
+                cache.withSession = profiles;
+            } else {
+                cache.withoutSession = profiles;
+            }
+        }
+        return profiles;
+    }
+
+    /**
+     * Invalidate the profiles cached for the current request.
+     */
+    protected void invalidateCache() {
+        this.context.setRequestAttribute(CACHED_PROFILES, null);
+    }
+
     /**
      * Retrieve the map of profiles from the session or the request.
      *
@@ -107,6 +162,7 @@ public class ProfileManager<U extends CommonProfile> {
      * @param removeFromSession if the user profile(s) must be removed from session
      */
     public void remove(final boolean removeFromSession) {
+        invalidateCache();
         if (removeFromSession) {
             this.sessionStore.set(this.context, Pac4jConstants.USER_PROFILES, new LinkedHashMap<String, U>());
         }
@@ -125,13 +181,14 @@ public class ProfileManager<U extends CommonProfile> {
 
         final String clientName = retrieveClientName(profile);
         if (multiProfile) {
-            profiles = retrieveAll(saveInSession);
+            profiles = new LinkedHashMap<>(retrieveAllCached(saveInSession));
             profiles.remove(clientName);
         } else {
             profiles = new LinkedHashMap<>();
         }
         profiles.put(clientName, profile);
 
+        invalidateCache();
         if (saveInSession) {
             this.sessionStore.set(this.context, Pac4jConstants.USER_PROFILES, profiles);
         }
@@ -165,4 +222,23 @@ public class ProfileManager<U extends CommonProfile> {
             throw new TechnicalException(e);
         }
     }
+
+    /**
+     * The profiles retrieved during the current request.
+     */
+    private static final class CachedProfiles<U extends CommonProfile> {
+
+        private final SessionStore sessionStore;
+
+        private final Object request;
+
+        private Map<String, U> withSession;
+
+        private Map<String, U> withoutSession;
+
+        private CachedProfiles(final SessionStore sessionStore, final Object request) {
+            this.sessionStore = sessionStore;
+            this.request = request;
+        }
+    }
 }
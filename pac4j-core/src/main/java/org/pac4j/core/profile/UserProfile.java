@@ -5,7 +5,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.net.URI;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class is the user profile retrieved from a provider after successful authentication: it's an identifier (string) and attributes
@@ -39,6 +41,10 @@ public abstract class UserProfile implements Serializable, Externalizable {
 
     private String linkedId;
 
+    private transient AttributesView attributesView;
+
+    private transient AttributesView authenticationAttributesView;
+
     /**
      * Build a profile from user identifier and attributes.
      *
@@ -62,11 +68,16 @@ public abstract class UserProfile implements Serializable, Externalizable {
         addAuthenticationAttributes(authenticationAttributes);
     }
 
-    private void addAttributeToMap(final Map<String, Object> map, final String key, Object value)
+    private void addAttributeToMap(final Map<String, Object> map, final AttributesView view, final String key, Object value)
     {
         if (value != null) {
-            logger.debug("adding => key: {} / value: {} / {}", key, value, value.getClass());
+            if (logger.isDebugEnabled()) {
+                logger.debug("adding => key: {} / value: {} / {}", key, value, value.getClass());
+            }
             map.put(key, ProfileHelper.getInternalAttributeHandler().prepare(value));
+            if (view != null) {
+                view.invalidate(key);
+            }
         }
     }
 
@@ -77,7 +88,7 @@ public abstract class UserProfile implements Serializable, Externalizable {
      * @param value value of the attribute
      */
     public void addAttribute(final String key, Object value) {
-        addAttributeToMap(this.attributes, key, value);
+        addAttributeToMap(this.attributes, this.attributesView, key, value);
     }
 
     /**
@@ -87,7 +98,7 @@ public abstract class UserProfile implements Serializable, Externalizable {
      * @param value the attribute value
      */
     public void addAuthenticationAttribute(final String key, Object value) {
-        addAttributeToMap(this.authenticationAttributes, key, value);
+        addAttributeToMap(this.authenticationAttributes, this.authenticationAttributesView, key, value);
     }
 
 
@@ -124,6 +135,9 @@ public abstract class UserProfile implements Serializable, Externalizable {
     public void removeAttribute(final String key) {
         CommonHelper.assertNotNull("key", key);
         attributes.remove(key);
+        if (attributesView != null) {
+            attributesView.invalidate(key);
+        }
     }
 
     /**
@@ -134,6 +148,9 @@ public abstract class UserProfile implements Serializable, Externalizable {
     public void removeAuthenticationAttribute(final String key) {
         CommonHelper.assertNotNull("key", key);
         authenticationAttributes.remove(key);
+        if (authenticationAttributesView != null) {
+            authenticationAttributesView.invalidate(key);
+        }
     }
 
     /**
@@ -171,7 +188,7 @@ public abstract class UserProfile implements Serializable, Externalizable {
      * @return the immutable attributes
      */
     public Map<String, Object> getAttributes() {
-        return getAttributeMap(this.attributes);
+        return new HashMap<>(getAttributesView());
     }
 
     /**
@@ -180,17 +197,33 @@ public abstract class UserProfile implements Serializable, Externalizable {
      * @return the immutable authentication attributes
      */
     public Map<String, Object> getAuthenticationAttributes() {
-        return getAttributeMap(this.authenticationAttributes);
+        return new HashMap<>(getAuthenticationAttributesView());
     }
 
-    private static Map<String, Object> getAttributeMap(Map<String, Object> attributeMap) {
-        final Map<String, Object> newAttributes = new HashMap<>();
-        for (Map.Entry<String, Object> entries : attributeMap.entrySet()) {
-            final String key = entries.getKey();
-            final Object value = ProfileHelper.getInternalAttributeHandler().restore(attributeMap.get(key));
-            newAttributes.put(key, value);
+    /**
+     * Get a read-only view of the attributes: the values are restored on first access and then cached.
+     *
+     * @return the read-only view of the attributes
+     * @since 3.0.0
+     */
+    public Map<String, Object> getAttributesView() {
+        if (attributesView == null) {
+            attributesView = new AttributesView(this.attributes);
         }
-        return newAttributes;
+        return attributesView;
+    }
+
+    /**
+     * Get a read-only view of the authentication attributes: the values are restored on first access and then cached.
+     *
+     * @return the read-only view of the authentication attributes
+     * @since 3.0.0
+     */
+    public Map<String, Object> getAuthenticationAttributesView() {
+        if (authenticationAttributesView == null) {
+            authenticationAttributesView = new AttributesView(this.authenticationAttributes);
+        }
+        return authenticationAttributesView;
     }
 
     /**
@@ -200,7 +233,7 @@ public abstract class UserProfile implements Serializable, Externalizable {
      * @return the attribute with name
      */
     public Object getAttribute(final String name) {
-        return ProfileHelper.getInternalAttributeHandler().restore(this.attributes.get(name));
+        return getAttributesView().get(name);
     }
 
     /**
@@ -210,7 +243,79 @@ public abstract class UserProfile implements Serializable, Externalizable {
      * @return the authentication attribute with name
      */
     public Object getAuthenticationAttribute(final String name) {
-        return ProfileHelper.getInternalAttributeHandler().restore(this.authenticationAttributes.get(name));
+        return getAuthenticationAttributesView().get(name);
+    }
+
+    /**
+     * Return the attribute with name as a boolean.
+     *
+     * @param name attribute name
+     * @param defaultValue the value returned if the attribute is not defined
+     * @return the attribute with name as a boolean
+     * @since 3.0.0
+     */
+    public boolean getAttributeAsBoolean(final String name, final boolean defaultValue) {
+        final Object attribute = getAttribute(name);
+        if (attribute == null) {
+            return defaultValue;
+        } else if (attribute instanceof Boolean) {
+            return (Boolean) attribute;
+        } else if (attribute instanceof String) {
+            return Boolean.parseBoolean((String) attribute);
+        }
+        return getAttributeByType(name, Boolean.class, attribute);
+    }
+
+    /**
+     * Return the attribute with name as an int.
+     *
+     * @param name attribute name
+     * @param defaultValue the value returned if the attribute is not defined
+     * @return the attribute with name as an int
+     * @since 3.0.0
+     */
+    public int getAttributeAsInt(final String name, final int defaultValue) {
+        final Object attribute = getAttribute(name);
+        if (attribute == null) {
+            return defaultValue;
+        } else if (attribute instanceof Number) {
+            return ((Number) attribute).intValue();
+        } else if (attribute instanceof String) {
+            return Integer.parseInt((String) attribute);
+        }
+        return getAttributeByType(name, Integer.class, attribute);
+    }
+
+    /**
+     * Return the attribute with name as a long.
+     *
+     * @param name attribute name
+     * @param defaultValue the value returned if the attribute is not defined
+     * @return the attribute with name as a long
+     * @since 3.0.0
+     */
+    public long getAttributeAsLong(final String name, final long defaultValue) {
+        final Object attribute = getAttribute(name);
+        if (attribute == null) {
+            return defaultValue;
+        } else if (attribute instanceof Number) {
+            return ((Number) attribute).longValue();
+        } else if (attribute instanceof String) {
+            return Long.parseLong((String) attribute);
+        }
+        return getAttributeByType(name, Long.class, attribute);
+    }
+
+    /**
+     * Return the attribute with name as a string.
+     *
+     * @param name attribute name
+     * @return the attribute with name as a string
+     * @since 3.0.0
+     */
+    public String getAttributeAsString(final String name) {
+        final Object attribute = getAttribute(name);
+        return attribute == null ? null : attribute.toString();
     }
 
     /**
@@ -402,6 +507,8 @@ public abstract class UserProfile implements Serializable, Externalizable {
         this.permissions = (Set) in.readObject();
         this.clientName = (String) in.readObject();
         this.linkedId = (String) in.readObject();
+        this.attributesView = null;
+        this.authenticationAttributesView = null;
     }
 
     public void clearSensitiveData() {
@@ -423,4 +530,109 @@ public abstract class UserProfile implements Serializable, Externalizable {
     public void setLinkedId(final String linkedId) {
         this.linkedId = linkedId;
     }
+
+    /**
+     * Read-only view of an attributes map which restores the values on access. Only the immutable restored values are cached
+     * (the dates are copied on each access): the others, like the Java-serialized objects, are restored again on each access
+     * so that a caller cannot change the value seen by the next ones.
+     */
+    private static final class AttributesView extends AbstractMap<String, Object> {
+
+        private final Map<String, Object> attributes;
+
+        private final Map<String, Object> restoredValues = new ConcurrentHashMap<>();
+
+        private Set<Entry<String, Object>> entrySet;
+
+        private AttributesView(final Map<String, Object> attributes) {
+            this.attributes = attributes;
+        }
+
+        private Object restore(final Object key, final Object value) {
+            if (value == null) {
+                return null;
+            }
+            final Object cached = restoredValues.get(key);
+            if (cached != null) {
+                return copy(cached);
+            }
+            final Object restored = ProfileHelper.getInternalAttributeHandler().restore(value);
+            // only cache the values which needed to be decoded
+            if (restored != value && isCacheable(restored)) {
+                restoredValues.put((String) key, copy(restored));
+            }
+            return restored;
+        }
+
+        private static boolean isCacheable(final Object value) {
+            return value instanceof String || value instanceof Boolean || value instanceof Integer || value instanceof Long
+                || value instanceof URI || value instanceof Date;
+        }
+
+        private static Object copy(final Object value) {
+            if (value instanceof Date) {
+                return new Date(((Date) value).getTime());
+            }
+            return value;
+        }
+
+        private void invalidate(final String key) {
+            restoredValues.remove(key);
+        }
+
+        @Override
+        public Object get(final Object key) {
+            return restore(key, attributes.get(key));
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return attributes.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return attributes.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return attributes.isEmpty();
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return Collections.unmodifiableSet(attributes.keySet());
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            if (entrySet == null) {
+                entrySet = new AbstractSet<Entry<String, Object>>() {
+                    @Override
+                    public Iterator<Entry<String, Object>> iterator() {
+                        final Iterator<Entry<String, Object>> iterator = attributes.entrySet().iterator();
+                        return new Iterator<Entry<String, Object>>() {
+                            @Override
+                            public boolean hasNext() {
+                                return iterator.hasNext();
+                            }
+
+                            @Override
+                            public Entry<String, Object> next() {
+                                final Entry<String, Object> entry = iterator.next();
+                                return new SimpleImmutableEntry<>(entry.getKey(), restore(entry.getKey(), entry.getValue()));
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return attributes.size();
+                    }
+                };
+            }
+            return entrySet;
+        }
+    }
 }
@@ -0,0 +1,460 @@
+package org.pac4j.core.profile.codec;
+
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.ProfileHelper;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.JavaSerializationHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact and versioned binary profile codec.
+ *
+ * Strings, booleans, numbers, dates, URIs, lists, sets and maps are written natively, the other attribute values
+ * are Java serialized and only restored if their classes belong to the trusted packages of the
+ * {@link JavaSerializationHelper}. Profiles previously encoded with the Java serialization can still be decoded.
+ *
+ * The fields declared by the subclasses of the {@link CommonProfile} (like the ticket granting ticket of a CAS REST profile)
+ * are written by name, so that their state is not lost (the Java serialization of the profiles does not keep them),
+ * except the transient ones: the fields which cannot be restored (like a live security context) must be transient.
+ *
+ * A profile which could not be restored identically is rejected when it is encoded, with a {@link TechnicalException}:
+ * a field or attribute value which is neither natively written nor Java serializable with a trusted class.
+ * Bytes which cannot be decoded (invalid bytes, untrusted class, unsupported version) are decoded as <code>null</code>.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public class BinaryProfileCodec implements ProfileCodec {
+
+    public static final byte MAGIC = (byte) 0x50;
+
+    public static final byte VERSION = 1;
+
+    private static final byte JAVA_SERIALIZATION_MAGIC = (byte) 0xAC;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte TRUE = 2;
+    private static final byte FALSE = 3;
+    private static final byte INTEGER = 4;
+    private static final byte LONG = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte FLOAT = 7;
+    private static final byte DATE = 8;
+    private static final byte URI_VALUE = 9;
+    private static final byte LIST = 10;
+    private static final byte SET = 11;
+    private static final byte MAP = 12;
+    private static final byte SERIALIZED = 13;
+
+    private static final Logger logger = LoggerFactory.getLogger(BinaryProfileCodec.class);
+
+    private JavaSerializationHelper javaSerializationHelper;
+
+    private final Map<Class<?>, List<Field>> profileFields = new ConcurrentHashMap<>();
+
+    public BinaryProfileCodec() {
+        this(new JavaSerializationHelper());
+    }
+
+    public BinaryProfileCodec(final JavaSerializationHelper javaSerializationHelper) {
+        this.javaSerializationHelper = javaSerializationHelper;
+    }
+
+    @Override
+    public byte[] encode(final CommonProfile profile) {
+        CommonHelper.assertNotNull("profile", profile);
+
+        final Output out = new Output();
+        out.write(MAGIC);
+        out.write(VERSION);
+        out.writeString(profile.getClass().getName());
+        out.writeString(profile.getId());
+        out.writeString(profile.getClientName());
+        out.writeString(profile.getLinkedId());
+        out.write(profile.isRemembered() ? TRUE : FALSE);
+        writeStrings(out, profile.getRoles());
+        writeStrings(out, profile.getPermissions());
+        writeAttributes(out, profile.getAttributesView());
+        writeAttributes(out, profile.getAuthenticationAttributesView());
+        final List<Field> fields = getProfileFields(profile.getClass());
+        out.writeVarInt(fields.size());
+        for (final Field field : fields) {
+            out.writeString(field.getName());
+            try {
+                writeValue(out, field.get(profile));
+            } catch (final IllegalAccessException e) {
+                throw new TechnicalException(e);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Get the instance fields declared by the profile class and its superclasses, below the {@link CommonProfile}.
+     *
+     * @param clazz the profile class
+     * @return the fields
+     */
+    protected List<Field> getProfileFields(final Class<?> clazz) {
+        return profileFields.computeIfAbsent(clazz, c -> {
+            final List<Field> fields = new ArrayList<>();
+            for (Class<?> current = c; current != null && current != CommonProfile.class; current = current.getSuperclass()) {
+                for (final Field field : current.getDeclaredFields()) {
+                    final int modifiers = field.getModifiers();
+                    if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            return fields;
+        });
+    }
+
+    private void writeStrings(final Output out, final Collection<String> strings) {
+        out.writeVarInt(strings.size());
+        for (final String s : strings) {
+            out.writeString(s);
+        }
+    }
+
+    private void writeAttributes(final Output out, final Map<String, Object> attributes) {
+        out.writeVarInt(attributes.size());
+        for (final Map.Entry<String, Object> entry : attributes.entrySet()) {
+            out.writeString(entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    private void writeValue(final Output out, final Object value) {
+        if (value == null) {
+            out.write(NULL);
+        } else if (value instanceof String) {
+            out.write(STRING);
+            out.writeString((String) value);
+        } else if (value instanceof Boolean) {
+            out.write((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Integer) {
+            out.write(INTEGER);
+            out.writeVarLong(zigZag((Integer) value));
+        } else if (value instanceof Long) {
+            out.write(LONG);
+            out.writeVarLong(zigZag((Long) value));
+        } else if (value instanceof Double) {
+            out.write(DOUBLE);
+            out.writeLong(Double.doubleToLongBits((Double) value));
+        } else if (value instanceof Float) {
+            out.write(FLOAT);
+            out.writeVarLong(Float.floatToIntBits((Float) value) & 0xFFFFFFFFL);
+        } else if (value.getClass() == Date.class) {
+            out.write(DATE);
+            out.writeVarLong(zigZag(((Date) value).getTime()));
+        } else if (value instanceof URI) {
+            out.write(URI_VALUE);
+            out.writeString(value.toString());
+        } else if (value instanceof List) {
+            out.write(LIST);
+            writeValues(out, (List<?>) value);
+        } else if (value instanceof Set) {
+            out.write(SET);
+            writeValues(out, (Set<?>) value);
+        } else if (value instanceof Map) {
+            out.write(MAP);
+            final Map<?, ?> map = (Map<?, ?>) value;
+            out.writeVarInt(map.size());
+            for (final Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(out, entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } else if (value instanceof Serializable) {
+            if (!isTrusted(value.getClass().getName())) {
+                throw new TechnicalException("Value of untrusted class cannot be decoded: " + value.getClass().getName());
+            }
+            final byte[] bytes = javaSerializationHelper.serializeToBytes((Serializable) value);
+            if (bytes == null) {
+                throw new TechnicalException("Cannot serialize attribute value: " + value);
+            }
+            out.write(SERIALIZED);
+            out.writeByteArray(bytes);
+        } else {
+            throw new TechnicalException("Attribute value is not serializable: " + value.getClass().getName());
+        }
+    }
+
+    private void writeValues(final Output out, final Collection<?> values) {
+        out.writeVarInt(values.size());
+        for (final Object value : values) {
+            writeValue(out, value);
+        }
+    }
+
+    @Override
+    public CommonProfile decode(final byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return internalDecode(bytes);
+        } catch (final RuntimeException e) {
+            logger.warn("Cannot decode profile: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private CommonProfile internalDecode(final byte[] bytes) {
+        if (bytes.length < 2) {
+            throw new TechnicalException("Invalid encoded profile");
+        }
+        if (bytes[0] == JAVA_SERIALIZATION_MAGIC) {
+            final Serializable o = javaSerializationHelper.unserializeFromBytes(bytes);
+            if (!(o instanceof CommonProfile)) {
+                throw new TechnicalException("Cannot deserialize profile (untrusted or invalid class)");
+            }
+            return (CommonProfile) o;
+        }
+        if (bytes[0] != MAGIC) {
+            throw new TechnicalException("Not an encoded profile");
+        }
+        if (bytes[1] != VERSION) {
+            throw new TechnicalException("Unsupported profile codec version: " + bytes[1]);
+        }
+
+        try {
+            final ByteBuffer in = ByteBuffer.wrap(bytes, 2, bytes.length - 2);
+            final String className = readString(in);
+            if (!isTrusted(className)) {
+                throw new TechnicalException("Untrusted profile class: " + className);
+            }
+            final CommonProfile profile = ProfileHelper.buildUserProfileByClassCompleteName(className);
+            profile.setId(readString(in));
+            profile.setClientName(readString(in));
+            profile.setLinkedId(readString(in));
+            profile.setRemembered(in.get() == TRUE);
+            int nb = readVarInt(in);
+            for (int i = 0; i < nb; i++) {
+                profile.addRole(readString(in));
+            }
+            nb = readVarInt(in);
+            for (int i = 0; i < nb; i++) {
+                profile.addPermission(readString(in));
+            }
+            nb = readVarInt(in);
+            for (int i = 0; i < nb; i++) {
+                profile.addAttribute(readString(in), readValue(in));
+            }
+            nb = readVarInt(in);
+            for (int i = 0; i < nb; i++) {
+                profile.addAuthenticationAttribute(readString(in), readValue(in));
+            }
+            // the fields of the subclass, if any
+            if (in.hasRemaining()) {
+                nb = readVarInt(in);
+                for (int i = 0; i < nb; i++) {
+                    setField(profile, readString(in), readValue(in));
+                }
+            }
+            return profile;
+        } catch (final BufferUnderflowException | URISyntaxException e) {
+            throw new TechnicalException("Invalid encoded profile", e);
+        }
+    }
+
+    private void setField(final CommonProfile profile, final String name, final Object value) {
+        for (final Field field : getProfileFields(profile.getClass())) {
+            if (field.getName().equals(name)) {
+                try {
+                    field.set(profile, value);
+                } catch (final IllegalAccessException | IllegalArgumentException e) {
+                    throw new TechnicalException("Cannot restore field: " + name, e);
+                }
+                return;
+            }
+        }
+    }
+
+    private boolean isTrusted(final String className) {
+        for (final String p : javaSerializationHelper.getTrustedPackages()) {
+            if (className != null && className.startsWith(p)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Object readValue(final ByteBuffer in) throws URISyntaxException {
+        final byte type = in.get();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(in);
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case INTEGER:
+                return (int) unZigZag(readVarLong(in));
+            case LONG:
+                return unZigZag(readVarLong(in));
+            case DOUBLE:
+                return Double.longBitsToDouble(in.getLong());
+            case FLOAT:
+                return Float.intBitsToFloat((int) readVarLong(in));
+            case DATE:
+                return new Date(unZigZag(readVarLong(in)));
+            case URI_VALUE:
+                return new URI(readString(in));
+            case LIST: {
+                final int nb = readVarInt(in);
+                final List<Object> list = new ArrayList<>(nb);
+                for (int i = 0; i < nb; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            }
+            case SET: {
+                final int nb = readVarInt(in);
+                final Set<Object> set = new LinkedHashSet<>();
+                for (int i = 0; i < nb; i++) {
+                    set.add(readValue(in));
+                }
+                return set;
+            }
+            case MAP: {
+                final int nb = readVarInt(in);
+                final Map<Object, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < nb; i++) {
+                    map.put(readValue(in), readValue(in));
+                }
+                return map;
+            }
+            case SERIALIZED: {
+                final byte[] bytes = new byte[readVarInt(in)];
+                in.get(bytes);
+                final Serializable value = javaSerializationHelper.unserializeFromBytes(bytes);
+                if (value == null) {
+                    throw new TechnicalException("Cannot deserialize value (untrusted or invalid class)");
+                }
+                return value;
+            }
+            default:
+                throw new TechnicalException("Unknown value type: " + type);
+        }
+    }
+
+    private static String readString(final ByteBuffer in) {
+        final int length = readVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        final String s = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return s;
+    }
+
+    private static int readVarInt(final ByteBuffer in) {
+        final long value = readVarLong(in);
+        if (value < 0 || value > in.remaining() + 1) {
+            throw new TechnicalException("Invalid encoded length: " + value);
+        }
+        return (int) value;
+    }
+
+    private static long readVarLong(final ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new TechnicalException("Invalid variable-length number");
+    }
+
+    private static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public JavaSerializationHelper getJavaSerializationHelper() {
+        return javaSerializationHelper;
+    }
+
+    public void setJavaSerializationHelper(final JavaSerializationHelper javaSerializationHelper) {
+        this.javaSerializationHelper = javaSerializationHelper;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "javaSerializationHelper", javaSerializationHelper);
+    }
+
+    /**
+     * Growable output buffer.
+     */
+    private static final class Output extends ByteArrayOutputStream {
+
+        private Output() {
+            super(256);
+        }
+
+        private void writeVarInt(final int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        private void writeLong(final long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+        }
+
+        private void writeByteArray(final byte[] bytes) {
+            writeVarInt(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+
+        private void writeString(final String s) {
+            if (s == null) {
+                writeVarInt(0);
+            } else {
+                final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(bytes.length + 1);
+                write(bytes, 0, bytes.length);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.pac4j.core.profile.codec;
+
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.JavaSerializationHelper;
+
+import java.io.Serializable;
+
+/**
+ * Profile codec relying on the standard Java serialization: the fields declared by the subclasses of the {@link CommonProfile}
+ * are not kept as the profiles are externalizable.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public class JavaSerializationProfileCodec implements ProfileCodec {
+
+    private JavaSerializationHelper javaSerializationHelper;
+
+    public JavaSerializationProfileCodec() {
+        this(new JavaSerializationHelper());
+    }
+
+    public JavaSerializationProfileCodec(final JavaSerializationHelper javaSerializationHelper) {
+        this.javaSerializationHelper = javaSerializationHelper;
+    }
+
+    @Override
+    public byte[] encode(final CommonProfile profile) {
+        final byte[] bytes = javaSerializationHelper.serializeToBytes(profile);
+        if (bytes == null) {
+            throw new TechnicalException("Cannot serialize profile: " + profile);
+        }
+        return bytes;
+    }
+
+    @Override
+    public CommonProfile decode(final byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        final Serializable o;
+        try {
+            o = javaSerializationHelper.unserializeFromBytes(bytes);
+        } catch (final RuntimeException e) {
+            return null;
+        }
+        return o instanceof CommonProfile ? (CommonProfile) o : null;
+    }
+
+    public JavaSerializationHelper getJavaSerializationHelper() {
+        return javaSerializationHelper;
+    }
+
+    public void setJavaSerializationHelper(final JavaSerializationHelper javaSerializationHelper) {
+        this.javaSerializationHelper = javaSerializationHelper;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "javaSerializationHelper", javaSerializationHelper);
+    }
+}
@@ -0,0 +1,56 @@
+package org.pac4j.core.profile.codec;
+
+import org.pac4j.core.profile.CommonProfile;
+
+import java.util.Base64;
+
+/**
+ * Encode / decode a user profile into / from bytes.
+ *
+ * A profile which cannot be encoded raises a {@link org.pac4j.core.exception.TechnicalException} while bytes which cannot
+ * be decoded (invalid, untrusted class) are decoded as <code>null</code>: decoding never fails as the bytes may come
+ * from an untrusted source.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public interface ProfileCodec {
+
+    /**
+     * Encode a profile into bytes.
+     *
+     * @param profile the profile
+     * @return the bytes
+     * @throws org.pac4j.core.exception.TechnicalException if the profile cannot be encoded
+     */
+    byte[] encode(CommonProfile profile);
+
+    /**
+     * Decode bytes into a profile.
+     *
+     * @param bytes the bytes
+     * @return the profile or <code>null</code> if it cannot be decoded
+     */
+    CommonProfile decode(byte[] bytes);
+
+    /**
+     * Encode a profile into a base64 string.
+     *
+     * @param profile the profile
+     * @return the base64 string
+     * @throws org.pac4j.core.exception.TechnicalException if the profile cannot be encoded
+     */
+    default String encodeToBase64(final CommonProfile profile) {
+        return Base64.getEncoder().encodeToString(encode(profile));
+    }
+
+    /**
+     * Decode a base64 string into a profile.
+     *
+     * @param base64 the base64 string
+     * @return the profile or <code>null</code> if it cannot be decoded
+     */
+    default CommonProfile decodeFromBase64(final String base64) {
+        return decode(Base64.getDecoder().decode(base64));
+    }
+}
@@ -0,0 +1,29 @@
+package org.pac4j.core.profile.creator;
+
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.profile.CommonProfile;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * This interface is responsible to create a {@link CommonProfile} from a {@link Credentials} without blocking the calling thread.
+ * The returned stage is completed with <code>null</code> if no profile can be found / created.
+ *
+ * A blocking {@link ProfileCreator} can be used asynchronously through an {@link AsyncProfileCreatorAdapter}.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+@FunctionalInterface
+public interface AsyncProfileCreator<C extends Credentials, U extends CommonProfile> {
+
+    /**
+     * Create a profile from a credentials asynchronously.
+     *
+     * @param credentials the given credentials
+     * @param context the web context
+     * @return the stage completed with the created profile
+     */
+    CompletionStage<U> createAsync(C credentials, WebContext context);
+}
@@ -0,0 +1,62 @@
+package org.pac4j.core.profile.creator;
+
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.AsyncHelper;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * Run a blocking {@link ProfileCreator} on an executor (by default, {@link AsyncHelper#getDefaultExecutor()}).
+ *
+ * The {@link AuthenticatorProfileCreator} does not block: it is called directly.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public class AsyncProfileCreatorAdapter<C extends Credentials, U extends CommonProfile> implements AsyncProfileCreator<C, U> {
+
+    private final ProfileCreator<C, U> profileCreator;
+
+    private final Executor executor;
+
+    public AsyncProfileCreatorAdapter(final ProfileCreator<C, U> profileCreator) {
+        this(profileCreator, AsyncHelper.getDefaultExecutor());
+    }
+
+    public AsyncProfileCreatorAdapter(final ProfileCreator<C, U> profileCreator, final Executor executor) {
+        CommonHelper.assertNotNull("profileCreator", profileCreator);
+        CommonHelper.assertNotNull("executor", executor);
+        this.profileCreator = profileCreator;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletionStage<U> createAsync(final C credentials, final WebContext context) {
+        if (profileCreator instanceof AuthenticatorProfileCreator) {
+            try {
+                return CompletableFuture.completedFuture(profileCreator.create(credentials, context));
+            } catch (final RuntimeException e) {
+                return AsyncHelper.failedStage(e);
+            }
+        }
+        return CompletableFuture.supplyAsync(() -> profileCreator.create(credentials, context), executor);
+    }
+
+    public ProfileCreator<C, U> getProfileCreator() {
+        return profileCreator;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "profileCreator", profileCreator, "executor", executor);
+    }
+}
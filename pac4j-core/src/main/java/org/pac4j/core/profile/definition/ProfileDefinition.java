@@ -61,15 +61,17 @@ public abstract class ProfileDefinition<P extends CommonProfile> {
             final AttributeConverter<? extends Object> converter = this.converters.get(name);
             if (converter != null) {
                 convertedValue = converter.convert(value);
-                if (convertedValue != null) {
+                if (convertedValue != null && logger.isDebugEnabled()) {
                     logger.debug("converted to => key: {} / value: {} / {}", name, convertedValue, convertedValue.getClass());
                 }
             } else {
                 convertedValue = value;
-                logger.debug("no conversion => key: {} / value: {} / {}", name, convertedValue, convertedValue.getClass());
+                if (logger.isDebugEnabled()) {
+                    logger.debug("no conversion => key: {} / value: {} / {}", name, convertedValue, convertedValue.getClass());
+                }
             }
 
-            if (attributeLocation.equals(AUTHENTICATION_ATTRIBUTE)) {
+            if (attributeLocation == AUTHENTICATION_ATTRIBUTE) {
                 profile.addAuthenticationAttribute(name, convertedValue);
             } else {
                 profile.addAttribute(name, convertedValue);
@@ -88,12 +90,14 @@ public abstract class ProfileDefinition<P extends CommonProfile> {
             final Map<String, Object> profileAttributes,
             final Map<String, Object> authenticationAttributes) {
         if (profileAttributes != null) {
-            profileAttributes.entrySet().stream()
-                .forEach(entry -> convertAndAdd(profile, PROFILE_ATTRIBUTE, entry.getKey(), entry.getValue()));
+            for (final Map.Entry<String, Object> entry : profileAttributes.entrySet()) {
+                convertAndAdd(profile, PROFILE_ATTRIBUTE, entry.getKey(), entry.getValue());
+            }
         }
         if (authenticationAttributes != null) {
-            authenticationAttributes.entrySet().stream()
-                .forEach(entry -> convertAndAdd(profile, AUTHENTICATION_ATTRIBUTE, entry.getKey(), entry.getValue()));
+            for (final Map.Entry<String, Object> entry : authenticationAttributes.entrySet()) {
+                convertAndAdd(profile, AUTHENTICATION_ATTRIBUTE, entry.getKey(), entry.getValue());
+            }
         }
     }
 
@@ -7,6 +7,7 @@ import org.pac4j.core.credentials.password.PasswordEncoder;
 import org.pac4j.core.exception.*;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.profile.ProfileHelper;
+import org.pac4j.core.profile.codec.ProfileCodec;
 import org.pac4j.core.profile.definition.ProfileDefinitionAware;
 import org.pac4j.core.util.JavaSerializationHelper;
 import org.slf4j.Logger;
@@ -43,6 +44,8 @@ public abstract class AbstractProfileService<U extends CommonProfile> extends Pr
 
     private JavaSerializationHelper javaSerializationHelper = new JavaSerializationHelper();
 
+    private ProfileCodec profileCodec;
+
     private String attributes;
 
     protected String[] attributeNames;
@@ -142,7 +145,11 @@ public abstract class AbstractProfileService<U extends CommonProfile> extends Pr
             }
         } else {
             // new behaviour (>= v2.0): save the serialized profile
-            storageAttributes.put(SERIALIZED_PROFILE, javaSerializationHelper.serializeToBase64(profile));
+            if (profileCodec != null) {
+                storageAttributes.put(SERIALIZED_PROFILE, profileCodec.encodeToBase64(profile));
+            } else {
+                storageAttributes.put(SERIALIZED_PROFILE, javaSerializationHelper.serializeToBase64(profile));
+            }
         }
         return storageAttributes;
     }
@@ -245,7 +252,12 @@ public abstract class AbstractProfileService<U extends CommonProfile> extends Pr
                 throw new TechnicalException("No serialized profile found. You should certainly define the explicit attribute names you " +
                     "want to retrieve");
             }
-            final U profile = (U) javaSerializationHelper.unserializeFromBase64(serializedProfile);
+            final U profile;
+            if (profileCodec != null) {
+                profile = (U) profileCodec.decodeFromBase64(serializedProfile);
+            } else {
+                profile = (U) javaSerializationHelper.unserializeFromBase64(serializedProfile);
+            }
             if (profile == null) {
                 throw new TechnicalException("No deserialized profile available. You should certainly define the explicit attribute " +
                     "names you want to retrieve");
@@ -345,6 +357,19 @@ public abstract class AbstractProfileService<U extends CommonProfile> extends Pr
         this.javaSerializationHelper = javaSerializationHelper;
     }
 
+    public ProfileCodec getProfileCodec() {
+        return profileCodec;
+    }
+
+    /**
+     * Define the codec of the <code>serializedprofile</code> attribute (Java serialization by default).
+     *
+     * @param profileCodec the profile codec
+     */
+    public void setProfileCodec(final ProfileCodec profileCodec) {
+        this.profileCodec = profileCodec;
+    }
+
     public String getUsernameAttribute() {
         return usernameAttribute;
     }
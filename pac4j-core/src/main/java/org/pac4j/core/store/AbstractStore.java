@@ -3,6 +3,12 @@ package org.pac4j.core.store;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.InitializableObject;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Abstract store.
  *
@@ -43,9 +49,98 @@ public abstract class AbstractStore<K, O> extends InitializableObject implements
         internalRemove(key);
     }
 
+    @Override
+    public void set(final K key, final O value, final long ttl, final TimeUnit timeUnit) {
+        CommonHelper.assertNotNull("key", key);
+        CommonHelper.assertNotNull("timeUnit", timeUnit);
+        init();
+
+        if (value == null || ttl <= 0) {
+            internalRemove(key);
+        } else {
+            internalSet(key, value, ttl, timeUnit);
+        }
+    }
+
+    @Override
+    public Map<K, O> getAll(final Collection<K> keys) {
+        CommonHelper.assertNotNull("keys", keys);
+        init();
+
+        return internalGetAll(keys);
+    }
+
+    @Override
+    public void setAll(final Map<K, O> values) {
+        CommonHelper.assertNotNull("values", values);
+        init();
+
+        internalSetAll(values);
+    }
+
+    @Override
+    public boolean putIfAbsent(final K key, final O value) {
+        CommonHelper.assertNotNull("key", key);
+        CommonHelper.assertNotNull("value", value);
+        init();
+
+        return internalPutIfAbsent(key, value);
+    }
+
+    @Override
+    public boolean remove(final K key, final O expectedValue) {
+        CommonHelper.assertNotNull("key", key);
+        init();
+
+        return expectedValue != null && internalRemove(key, expectedValue);
+    }
+
     protected abstract O internalGet(final K key);
 
     protected abstract void internalSet(final K key, final O value);
 
     protected abstract void internalRemove(final K key);
+
+    protected void internalSet(final K key, final O value, final long ttl, final TimeUnit timeUnit) {
+        internalSet(key, value);
+    }
+
+    protected Map<K, O> internalGetAll(final Collection<K> keys) {
+        final Map<K, O> values = new LinkedHashMap<>();
+        for (final K key : keys) {
+            CommonHelper.assertNotNull("key", key);
+            final O value = internalGet(key);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return values;
+    }
+
+    protected void internalSetAll(final Map<K, O> values) {
+        for (final Map.Entry<K, O> entry : values.entrySet()) {
+            CommonHelper.assertNotNull("key", entry.getKey());
+            if (entry.getValue() == null) {
+                internalRemove(entry.getKey());
+            } else {
+                internalSet(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    protected boolean internalPutIfAbsent(final K key, final O value) {
+        if (internalGet(key) == null) {
+            internalSet(key, value);
+            return true;
+        }
+        return false;
+    }
+
+    protected boolean internalRemove(final K key, final O expectedValue) {
+        if (Objects.equals(internalGet(key), expectedValue)) {
+            internalRemove(key);
+            return true;
+        }
+        return false;
+    }
 }
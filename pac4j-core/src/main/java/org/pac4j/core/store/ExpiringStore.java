@@ -0,0 +1,295 @@
+package org.pac4j.core.store;
+
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Store short-lived data in memory: the entries are indexed in a concurrent map and scheduled on a hierarchical
+ * timing wheel, which expires them in constant time.
+ *
+ * The wheel has 4 levels of 64 lock-free buckets, the first level covering 64 ticks of <code>tickDuration</code>.
+ * It is advanced by the threads using the store: no background thread is needed. An expired entry is never returned,
+ * even if its bucket has not been processed yet.
+ *
+ * This store has no size limit: the entries are only removed when they expire or are removed.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public class ExpiringStore<K, O> extends AbstractStore<K, O> {
+
+    private static final int BITS = 6;
+
+    private static final int SLOTS = 1 << BITS;
+
+    private static final int MASK = SLOTS - 1;
+
+    private static final int LEVELS = 4;
+
+    private int timeout = -1;
+
+    private TimeUnit timeUnit;
+
+    private long tickDuration = 100;
+
+    private TimeUnit tickTimeUnit = TimeUnit.MILLISECONDS;
+
+    private final ConcurrentHashMap<K, Node<K, O>> map = new ConcurrentHashMap<>();
+
+    private final ReentrantLock advanceLock = new ReentrantLock();
+
+    private Queue<Node<K, O>>[][] wheels;
+
+    private long startTime;
+
+    private long tickNanos;
+
+    private volatile long currentTick;
+
+    public ExpiringStore() {}
+
+    public ExpiringStore(final int timeout, final TimeUnit timeUnit) {
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void internalInit() {
+        CommonHelper.assertTrue(this.timeout > 0, "timeout must be greater than zero");
+        CommonHelper.assertNotNull("timeUnit", this.timeUnit);
+        CommonHelper.assertTrue(this.tickDuration > 0, "tickDuration must be greater than zero");
+        CommonHelper.assertNotNull("tickTimeUnit", this.tickTimeUnit);
+
+        this.tickNanos = tickTimeUnit.toNanos(tickDuration);
+        this.startTime = System.nanoTime();
+        this.wheels = new Queue[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheels[level][slot] = new ConcurrentLinkedQueue<>();
+            }
+        }
+    }
+
+    @Override
+    protected O internalGet(final K key) {
+        final long now = System.nanoTime();
+        advance(now);
+        final Node<K, O> node = map.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (node.isExpired(now)) {
+            map.remove(key, node);
+            return null;
+        }
+        return node.value;
+    }
+
+    @Override
+    protected void internalSet(final K key, final O value) {
+        internalSet(key, value, timeout, timeUnit);
+    }
+
+    @Override
+    protected void internalSet(final K key, final O value, final long ttl, final TimeUnit ttlUnit) {
+        final long now = System.nanoTime();
+        advance(now);
+        final Node<K, O> node = newNode(key, value, now, ttlUnit.toNanos(ttl));
+        map.put(key, node);
+        schedule(node, currentTick);
+    }
+
+    @Override
+    protected boolean internalPutIfAbsent(final K key, final O value) {
+        final long now = System.nanoTime();
+        advance(now);
+        final Node<K, O> node = newNode(key, value, now, timeUnit.toNanos(timeout));
+        while (true) {
+            final Node<K, O> existing = map.putIfAbsent(key, node);
+            if (existing == null || existing.isExpired(now) && map.replace(key, existing, node)) {
+                schedule(node, currentTick);
+                return true;
+            }
+            if (!existing.isExpired(now)) {
+                return false;
+            }
+        }
+    }
+
+    @Override
+    protected void internalRemove(final K key) {
+        map.remove(key);
+    }
+
+    @Override
+    protected boolean internalRemove(final K key, final O expectedValue) {
+        final Node<K, O> node = map.get(key);
+        return node != null && !node.isExpired(System.nanoTime()) && Objects.equals(node.value, expectedValue)
+            && map.remove(key, node);
+    }
+
+    private Node<K, O> newNode(final K key, final O value, final long now, final long ttlNanos) {
+        final long expiresAt = now + ttlNanos;
+        return new Node<>(key, value, expiresAt, (expiresAt - startTime + tickNanos - 1) / tickNanos);
+    }
+
+    /**
+     * Put the node in the bucket of the lowest level which covers its deadline.
+     */
+    private void schedule(final Node<K, O> node, final long tick) {
+        final long delta = Math.max(node.deadlineTick - tick, 1);
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (BITS * (level + 1))) {
+                final long deadlineTick = tick + delta;
+                wheels[level][(int) ((deadlineTick >>> (BITS * level)) & MASK)].offer(node);
+                return;
+            }
+        }
+        // beyond the wheel: the last bucket of the top level, cascaded again later
+        final int top = LEVELS - 1;
+        wheels[top][(int) (((tick >>> (BITS * top)) - 1) & MASK)].offer(node);
+    }
+
+    /**
+     * Advance the wheel up to the current tick, unless another thread is doing it.
+     */
+    private void advance(final long now) {
+        final long nowTick = (now - startTime) / tickNanos;
+        if (nowTick <= currentTick || !advanceLock.tryLock()) {
+            return;
+        }
+        try {
+            if (nowTick - currentTick > SLOTS * SLOTS) {
+                rebuild(nowTick, now);
+                return;
+            }
+            while (currentTick < nowTick) {
+                final long tick = currentTick + 1;
+                for (int level = 1; level < LEVELS; level++) {
+                    if ((tick & ((1L << (BITS * level)) - 1)) != 0) {
+                        break;
+                    }
+                    drain(wheels[level][(int) ((tick >>> (BITS * level)) & MASK)], tick, now);
+                }
+                drain(wheels[0][(int) (tick & MASK)], tick, now);
+                currentTick = tick;
+            }
+        } finally {
+            advanceLock.unlock();
+        }
+    }
+
+    private void drain(final Queue<Node<K, O>> bucket, final long tick, final long now) {
+        Node<K, O> node;
+        while ((node = bucket.poll()) != null) {
+            if (map.get(node.key) != node) {
+                continue;
+            }
+            if (node.deadlineTick <= tick || node.isExpired(now)) {
+                map.remove(node.key, node);
+            } else {
+                schedule(node, tick);
+            }
+        }
+    }
+
+    /**
+     * After a long inactivity, reschedule all the live entries instead of replaying the elapsed ticks.
+     */
+    private void rebuild(final long nowTick, final long now) {
+        for (final Queue<Node<K, O>>[] level : wheels) {
+            for (final Queue<Node<K, O>> bucket : level) {
+                bucket.clear();
+            }
+        }
+        currentTick = nowTick;
+        for (final Node<K, O> node : map.values()) {
+            if (node.isExpired(now)) {
+                map.remove(node.key, node);
+            } else {
+                schedule(node, nowTick);
+            }
+        }
+    }
+
+    /**
+     * Get the number of entries, including the expired ones which have not been removed yet.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        init();
+        advance(System.nanoTime());
+        return map.size();
+    }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(final int timeout) {
+        this.timeout = timeout;
+    }
+
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+
+    public void setTimeUnit(final TimeUnit timeUnit) {
+        this.timeUnit = timeUnit;
+    }
+
+    public long getTickDuration() {
+        return tickDuration;
+    }
+
+    public void setTickDuration(final long tickDuration) {
+        this.tickDuration = tickDuration;
+    }
+
+    public TimeUnit getTickTimeUnit() {
+        return tickTimeUnit;
+    }
+
+    public void setTickTimeUnit(final TimeUnit tickTimeUnit) {
+        this.tickTimeUnit = tickTimeUnit;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "timeout", timeout, "timeUnit", timeUnit, "tickDuration", tickDuration,
+            "tickTimeUnit", tickTimeUnit);
+    }
+
+    /**
+     * An entry of the store.
+     */
+    private static final class Node<K, O> {
+
+        private final K key;
+
+        private final O value;
+
+        private final long expiresAt;
+
+        private final long deadlineTick;
+
+        private Node(final K key, final O value, final long expiresAt, final long deadlineTick) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.deadlineTick = deadlineTick;
+        }
+
+        private boolean isExpired(final long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -2,13 +2,27 @@ package org.pac4j.core.store;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
 import org.pac4j.core.util.CommonHelper;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Store data in a Guava cache.
  *
+ * The entries expire after the global timeout, or before if they are set with a shorter time to live.
+ * The statistics of the cache are recorded.
+ *
  * Add the <code>guava</code> dependency to use this store.
  *
  * @author Jerome Leleu
@@ -16,6 +30,14 @@ import java.util.concurrent.TimeUnit;
  */
 public class GuavaStore<K, O> extends AbstractStore<K, O> {
 
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private static final int OBJECT_SIZE = 64;
+
+    private static final int MEMORY_SAMPLE_SIZE = 100;
+
+    private static final long MEMORY_SAMPLE_INTERVAL = 10000;
+
     private Cache<K, O> cache;
 
     private int size = 0;
@@ -24,6 +46,16 @@ public class GuavaStore<K, O> extends AbstractStore<K, O> {
 
     private TimeUnit timeUnit;
 
+    private final Map<K, Expiration<O>> expirations = new ConcurrentHashMap<>();
+
+    private final Map<RemovalCause, LongAdder> removals = new EnumMap<>(RemovalCause.class);
+
+    private final LongAdder ttlExpirations = new LongAdder();
+
+    private final LongAdder ttlExpiredReads = new LongAdder();
+
+    private volatile MemorySample memorySample;
+
     public GuavaStore() {}
 
     public GuavaStore(final int size, final int timeout, final TimeUnit timeUnit) {
@@ -38,13 +70,45 @@ public class GuavaStore<K, O> extends AbstractStore<K, O> {
         CommonHelper.assertTrue(this.timeout >= 0, "timeout must be greater than zero");
         CommonHelper.assertNotNull("timeUnit", this.timeUnit);
 
+        for (final RemovalCause cause : RemovalCause.values()) {
+            removals.put(cause, new LongAdder());
+        }
         this.cache = CacheBuilder.newBuilder().maximumSize(this.size)
-                .expireAfterWrite(this.timeout, this.timeUnit).build();
+                .expireAfterWrite(this.timeout, this.timeUnit)
+                .recordStats()
+                .<K, O>removalListener(this::onRemoval)
+                .build();
+    }
+
+    private void onRemoval(final RemovalNotification<K, O> notification) {
+        removals.get(notification.getCause()).increment();
+        expirations.computeIfPresent(notification.getKey(), (k, e) -> e.value == notification.getValue() ? null : e);
     }
 
     @Override
     protected O internalGet(final K key) {
-        return cache.getIfPresent(key);
+        final O value = cache.getIfPresent(key);
+        final O checkedValue = checkExpiration(key, value, System.nanoTime());
+        if (value != null && checkedValue == null) {
+            ttlExpiredReads.increment();
+        }
+        return checkedValue;
+    }
+
+    /**
+     * Check whether a value set with a specific time to live has expired, in which case it is removed.
+     */
+    private O checkExpiration(final K key, final O value, final long now) {
+        if (value != null && !expirations.isEmpty()) {
+            final Expiration<O> expiration = expirations.get(key);
+            if (expiration != null && expiration.value == value && now - expiration.deadline >= 0) {
+                if (cache.asMap().remove(key, value)) {
+                    ttlExpirations.increment();
+                }
+                return null;
+            }
+        }
+        return value;
     }
 
     @Override
@@ -52,11 +116,128 @@ public class GuavaStore<K, O> extends AbstractStore<K, O> {
         cache.put(key, value);
     }
 
+    @Override
+    protected void internalSet(final K key, final O value, final long ttl, final TimeUnit ttlUnit) {
+        cache.put(key, value);
+        expirations.put(key, new Expiration<>(value, System.nanoTime() + ttlUnit.toNanos(ttl)));
+    }
+
     @Override
     protected void internalRemove(final K key) {
         cache.invalidate(key);
     }
 
+    @Override
+    protected Map<K, O> internalGetAll(final Collection<K> keys) {
+        final Map<K, O> values = cache.getAllPresent(keys);
+        if (expirations.isEmpty()) {
+            return values;
+        }
+        final long now = System.nanoTime();
+        final List<K> expiredKeys = new ArrayList<>();
+        for (final Map.Entry<K, O> entry : values.entrySet()) {
+            if (checkExpiration(entry.getKey(), entry.getValue(), now) == null) {
+                expiredKeys.add(entry.getKey());
+            }
+        }
+        if (expiredKeys.isEmpty()) {
+            return values;
+        }
+        ttlExpiredReads.add(expiredKeys.size());
+        final Map<K, O> result = new LinkedHashMap<>(values);
+        result.keySet().removeAll(expiredKeys);
+        return result;
+    }
+
+    @Override
+    protected void internalSetAll(final Map<K, O> values) {
+        final Map<K, O> nonNullValues = new LinkedHashMap<>();
+        for (final Map.Entry<K, O> entry : values.entrySet()) {
+            CommonHelper.assertNotNull("key", entry.getKey());
+            if (entry.getValue() == null) {
+                cache.invalidate(entry.getKey());
+            } else {
+                nonNullValues.put(entry.getKey(), entry.getValue());
+            }
+        }
+        cache.putAll(nonNullValues);
+    }
+
+    @Override
+    protected boolean internalPutIfAbsent(final K key, final O value) {
+        checkExpiration(key, cache.asMap().get(key), System.nanoTime());
+        return cache.asMap().putIfAbsent(key, value) == null;
+    }
+
+    @Override
+    protected boolean internalRemove(final K key, final O expectedValue) {
+        return checkExpiration(key, cache.asMap().get(key), System.nanoTime()) != null
+            && cache.asMap().remove(key, expectedValue);
+    }
+
+    @Override
+    public StoreStatistics getStatistics() {
+        init();
+        final CacheStats stats = cache.stats();
+        final long ttlExpired = ttlExpirations.sum();
+        final Map<String, Long> evictions = new LinkedHashMap<>();
+        evictions.put(StoreStatistics.EVICTION_SIZE, removals.get(RemovalCause.SIZE).sum());
+        evictions.put(StoreStatistics.EVICTION_EXPIRED, removals.get(RemovalCause.EXPIRED).sum() + ttlExpired);
+        evictions.put(StoreStatistics.EVICTION_EXPLICIT, Math.max(0, removals.get(RemovalCause.EXPLICIT).sum() - ttlExpired));
+        evictions.put(StoreStatistics.EVICTION_REPLACED, removals.get(RemovalCause.REPLACED).sum());
+        evictions.put(StoreStatistics.EVICTION_COLLECTED, removals.get(RemovalCause.COLLECTED).sum());
+        final long expiredReads = ttlExpiredReads.sum();
+        final long size = cache.size();
+        return new StoreStatistics(stats.hitCount() - expiredReads, stats.missCount() + expiredReads, evictions, size,
+            estimateMemory(size));
+    }
+
+    /**
+     * Estimate the memory used by the entries from the average size of a sample of them, sampled at most once per
+     * {@link #MEMORY_SAMPLE_INTERVAL} milliseconds.
+     */
+    private long estimateMemory(final long size) {
+        if (size == 0) {
+            return 0;
+        }
+        final long now = System.currentTimeMillis();
+        MemorySample sample = memorySample;
+        if (sample == null || now - sample.time >= MEMORY_SAMPLE_INTERVAL) {
+            sample = sampleMemory(now);
+            memorySample = sample;
+        }
+        return sample.bytesPerEntry * size;
+    }
+
+    private MemorySample sampleMemory(final long now) {
+        long sampledBytes = 0;
+        int sampled = 0;
+        for (final Map.Entry<K, O> entry : cache.asMap().entrySet()) {
+            sampledBytes += ENTRY_OVERHEAD + estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+            if (++sampled >= MEMORY_SAMPLE_SIZE) {
+                break;
+            }
+        }
+        return new MemorySample(now, sampled == 0 ? ENTRY_OVERHEAD : sampledBytes / sampled);
+    }
+
+    /**
+     * Estimate the size of a key or value: only the simple types are measured, the other objects get a flat size
+     * (serializing them would cost more than the statistics are worth).
+     */
+    private static long estimateSize(final Object o) {
+        if (o instanceof String) {
+            return 40 + 2L * ((String) o).length();
+        } else if (o instanceof byte[]) {
+            return 16 + ((byte[]) o).length;
+        } else if (o instanceof char[]) {
+            return 16 + 2L * ((char[]) o).length;
+        } else if (o instanceof Number || o instanceof Boolean) {
+            return 16;
+        }
+        return OBJECT_SIZE;
+    }
+
     public Cache<K, O> getCache() {
         return cache;
     }
@@ -89,4 +270,34 @@ public class GuavaStore<K, O> extends AbstractStore<K, O> {
     public String toString() {
         return CommonHelper.toNiceString(this.getClass(), "size", size, "timeout", timeout, "timeUnit", timeUnit);
     }
+
+    /**
+     * The deadline of a value set with a specific time to live.
+     */
+    private static final class Expiration<O> {
+
+        private final O value;
+
+        private final long deadline;
+
+        private Expiration(final O value, final long deadline) {
+            this.value = value;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * The average size of an entry, sampled at a given time.
+     */
+    private static final class MemorySample {
+
+        private final long time;
+
+        private final long bytesPerEntry;
+
+        private MemorySample(final long time, final long bytesPerEntry) {
+            this.time = time;
+            this.bytesPerEntry = bytesPerEntry;
+        }
+    }
 }
@@ -0,0 +1,57 @@
+package org.pac4j.core.store;
+
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.JavaSerializationHelper;
+
+import java.io.Serializable;
+
+/**
+ * Store codec based on the Java serialization: only the classes of the trusted packages can be decoded.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public class JavaSerializationStoreCodec<T> implements StoreCodec<T> {
+
+    private JavaSerializationHelper javaSerializationHelper;
+
+    public JavaSerializationStoreCodec() {
+        this(new JavaSerializationHelper());
+    }
+
+    public JavaSerializationStoreCodec(final JavaSerializationHelper javaSerializationHelper) {
+        this.javaSerializationHelper = javaSerializationHelper;
+    }
+
+    @Override
+    public byte[] encode(final T o) {
+        if (!(o instanceof Serializable)) {
+            throw new TechnicalException("Not serializable: " + (o == null ? null : o.getClass().getName()));
+        }
+        final byte[] bytes = javaSerializationHelper.serializeToBytes((Serializable) o);
+        if (bytes == null) {
+            throw new TechnicalException("Cannot serialize: " + o);
+        }
+        return bytes;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T decode(final byte[] bytes) {
+        return (T) javaSerializationHelper.unserializeFromBytes(bytes);
+    }
+
+    public JavaSerializationHelper getJavaSerializationHelper() {
+        return javaSerializationHelper;
+    }
+
+    public void setJavaSerializationHelper(final JavaSerializationHelper javaSerializationHelper) {
+        this.javaSerializationHelper = javaSerializationHelper;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "javaSerializationHelper", javaSerializationHelper);
+    }
+}
@@ -0,0 +1,700 @@
+package org.pac4j.core.store;
+
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Store data in a memory-mapped, append-only file, so that they survive restarts.
+ *
+ * Each write appends a checksummed record to the file and updates an in-memory index of the live values. On startup,
+ * the file is replayed to rebuild the index: a torn or corrupted record ends the replay. When enough records are dead
+ * (overwritten, removed or expired), the live records are copied into a new file which atomically replaces the old one.
+ *
+ * The entries expire after the timeout (0 means no expiration) or the specific time to live they have been set with.
+ * The expired entries are dropped when they are read and by a sweep of the index, run after a number of writes at least
+ * equal to the number of entries, so that the records of the keys which are never read again are compacted too.
+ * When the number of entries exceeds <code>maxEntries</code> (0 means no limit), the oldest written entries are evicted.
+ * The keys and values are encoded with the {@link StoreCodec}s (Java serialization by default).
+ *
+ * The records are written in the memory mapping: they survive a crash of the JVM, but not of the operating system
+ * unless <code>syncOnWrite</code> is enabled.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public class MappedFileStore<K, O> extends AbstractStore<K, O> implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedFileStore.class);
+
+    private static final int MAGIC = 0x50344A53;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 8;
+
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private static final byte PUT = 1;
+
+    private static final byte REMOVE = 2;
+
+    private static final int MIN_SWEEP_INTERVAL = 1024;
+
+    private String path;
+
+    private int timeout = 0;
+
+    private TimeUnit timeUnit = TimeUnit.SECONDS;
+
+    private int initialCapacity = 1024 * 1024;
+
+    private double compactionRatio = 0.5;
+
+    private int minCompactionSize = 1024 * 1024;
+
+    private int maxEntries = 0;
+
+    private boolean syncOnWrite = false;
+
+    private StoreCodec<K> keyCodec = new JavaSerializationStoreCodec<>();
+
+    private StoreCodec<O> valueCodec = new JavaSerializationStoreCodec<>();
+
+    private final Map<K, Entry> index = new ConcurrentHashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final AtomicLong deadBytes = new AtomicLong();
+
+    private FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    private int position;
+
+    private int writesSinceSweep;
+
+    public MappedFileStore() {}
+
+    public MappedFileStore(final String path) {
+        this.path = path;
+    }
+
+    public MappedFileStore(final String path, final int timeout, final TimeUnit timeUnit) {
+        this.path = path;
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+    }
+
+    @Override
+    protected void internalInit() {
+        CommonHelper.assertNotBlank("path", path);
+        CommonHelper.assertTrue(timeout >= 0, "timeout cannot be negative");
+        CommonHelper.assertNotNull("timeUnit", timeUnit);
+        CommonHelper.assertTrue(initialCapacity > HEADER_SIZE, "initialCapacity must be greater than " + HEADER_SIZE);
+        CommonHelper.assertTrue(compactionRatio > 0 && compactionRatio < 1, "compactionRatio must be in ]0, 1[");
+        CommonHelper.assertTrue(maxEntries >= 0, "maxEntries cannot be negative");
+        CommonHelper.assertNotNull("keyCodec", keyCodec);
+        CommonHelper.assertNotNull("valueCodec", valueCodec);
+
+        try {
+            final Path file = Paths.get(path);
+            Files.deleteIfExists(compactionPath());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            final long size = channel.size();
+            buffer = map(channel, Math.max(initialCapacity, size));
+            if (size == 0 || buffer.getInt(0) == 0) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+            } else if (buffer.getInt(0) != MAGIC) {
+                throw new TechnicalException("Not a store file: " + path);
+            } else if (buffer.getInt(4) != VERSION) {
+                throw new TechnicalException("Unsupported store file version: " + buffer.getInt(4));
+            }
+        } catch (final IOException e) {
+            throw new TechnicalException("Cannot open store file: " + path, e);
+        }
+        recover();
+        lock.writeLock().lock();
+        try {
+            evictIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Path compactionPath() {
+        return Paths.get(path + ".compact");
+    }
+
+    private static MappedByteBuffer map(final FileChannel channel, final long capacity) throws IOException {
+        if (capacity > Integer.MAX_VALUE) {
+            throw new TechnicalException("Store file too large: " + capacity);
+        }
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    /**
+     * Replay the records to rebuild the index.
+     */
+    private void recover() {
+        final long now = System.currentTimeMillis();
+        final int capacity = buffer.capacity();
+        int pos = HEADER_SIZE;
+        int nbRecords = 0;
+        while (pos + RECORD_HEADER_SIZE <= capacity) {
+            final int length = buffer.getInt(pos);
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || pos + RECORD_HEADER_SIZE + (long) length > capacity
+                || buffer.getInt(pos + 4) != crc(buffer, pos + RECORD_HEADER_SIZE, length)) {
+                logger.warn("Corrupted record at position {} in store file: {}, discarding the end of the file", pos, path);
+                final ByteBuffer tail = buffer.duplicate();
+                tail.position(pos);
+                while (tail.hasRemaining()) {
+                    tail.put((byte) 0);
+                }
+                break;
+            }
+            replay(pos, length, now);
+            pos += RECORD_HEADER_SIZE + length;
+            nbRecords++;
+        }
+        position = pos;
+        logger.debug("Recovered {} live entries from {} records in store file: {}", index.size(), nbRecords, path);
+    }
+
+    private void replay(final int pos, final int length, final long now) {
+        final ByteBuffer record = buffer.duplicate();
+        record.position(pos + RECORD_HEADER_SIZE);
+        final byte type = record.get();
+        final long expiresAt = record.getLong();
+        final byte[] keyBytes = new byte[record.getInt()];
+        record.get(keyBytes);
+        final int recordLength = RECORD_HEADER_SIZE + length;
+
+        final K key;
+        try {
+            key = keyCodec.decode(keyBytes);
+        } catch (final RuntimeException e) {
+            logger.warn("Cannot decode key at position {} in store file: {}", pos, path, e);
+            deadBytes.addAndGet(recordLength);
+            return;
+        }
+        final Entry previous;
+        if (type == PUT && key != null && (expiresAt == 0 || expiresAt > now)) {
+            final int valueLength = record.getInt();
+            previous = index.put(key, new Entry(pos, recordLength, record.position(), valueLength, expiresAt));
+        } else {
+            previous = key != null ? index.remove(key) : null;
+            deadBytes.addAndGet(recordLength);
+        }
+        if (previous != null) {
+            deadBytes.addAndGet(previous.recordLength);
+        }
+    }
+
+    private static int crc(final ByteBuffer buffer, final int offset, final int length) {
+        final ByteBuffer data = buffer.duplicate();
+        data.position(offset);
+        data.limit(offset + length);
+        final CRC32 crc = new CRC32();
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+
+    @Override
+    protected O internalGet(final K key) {
+        lock.readLock().lock();
+        try {
+            return read(key, System.currentTimeMillis());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private O read(final K key, final long now) {
+        checkOpen();
+        final Entry entry = index.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(now)) {
+            if (index.remove(key, entry)) {
+                deadBytes.addAndGet(entry.recordLength);
+            }
+            return null;
+        }
+        final ByteBuffer data = buffer.duplicate();
+        data.position(entry.valueOffset);
+        final byte[] bytes = new byte[entry.valueLength];
+        data.get(bytes);
+        return valueCodec.decode(bytes);
+    }
+
+    @Override
+    protected Map<K, O> internalGetAll(final Collection<K> keys) {
+        final long now = System.currentTimeMillis();
+        final Map<K, O> values = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (final K key : keys) {
+                CommonHelper.assertNotNull("key", key);
+                final O value = read(key, now);
+                if (value != null) {
+                    values.put(key, value);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return values;
+    }
+
+    @Override
+    protected void internalSet(final K key, final O value) {
+        internalSet(key, value, timeout, timeUnit);
+    }
+
+    @Override
+    protected void internalSet(final K key, final O value, final long ttl, final TimeUnit ttlUnit) {
+        lock.writeLock().lock();
+        try {
+            write(key, value, ttl > 0 ? System.currentTimeMillis() + ttlUnit.toMillis(ttl) : 0);
+            sync();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected void internalSetAll(final Map<K, O> values) {
+        final long expiresAt = expiresAt();
+        lock.writeLock().lock();
+        try {
+            for (final Map.Entry<K, O> e : values.entrySet()) {
+                CommonHelper.assertNotNull("key", e.getKey());
+                if (e.getValue() == null) {
+                    delete(e.getKey());
+                } else {
+                    write(e.getKey(), e.getValue(), expiresAt);
+                }
+            }
+            sync();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected boolean internalPutIfAbsent(final K key, final O value) {
+        lock.writeLock().lock();
+        try {
+            if (read(key, System.currentTimeMillis()) != null) {
+                return false;
+            }
+            write(key, value, expiresAt());
+            sync();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected void internalRemove(final K key) {
+        lock.writeLock().lock();
+        try {
+            delete(key);
+            sync();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected boolean internalRemove(final K key, final O expectedValue) {
+        lock.writeLock().lock();
+        try {
+            if (!Objects.equals(read(key, System.currentTimeMillis()), expectedValue)) {
+                return false;
+            }
+            delete(key);
+            sync();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long expiresAt() {
+        return timeout > 0 ? System.currentTimeMillis() + timeUnit.toMillis(timeout) : 0;
+    }
+
+    private void write(final K key, final O value, final long expiresAt) {
+        checkOpen();
+        final Entry entry = append(PUT, keyCodec.encode(key), valueCodec.encode(value), expiresAt);
+        final Entry previous = index.put(key, entry);
+        if (previous != null) {
+            deadBytes.addAndGet(previous.recordLength);
+        }
+        if (++writesSinceSweep >= Math.max(MIN_SWEEP_INTERVAL, index.size())) {
+            sweep(System.currentTimeMillis());
+        }
+        evictIfNeeded();
+        compactIfNeeded();
+    }
+
+    private void delete(final K key) {
+        checkOpen();
+        if (removeEntry(key)) {
+            compactIfNeeded();
+        }
+    }
+
+    private boolean removeEntry(final K key) {
+        final Entry previous = index.remove(key);
+        if (previous == null) {
+            return false;
+        }
+        final Entry tombstone = append(REMOVE, keyCodec.encode(key), null, 0);
+        deadBytes.addAndGet(previous.recordLength + tombstone.recordLength);
+        return true;
+    }
+
+    /**
+     * Drop the expired entries from the index: their records become dead. No tombstone is needed as they are
+     * also ignored on recovery.
+     */
+    private void sweep(final long now) {
+        writesSinceSweep = 0;
+        for (final Map.Entry<K, Entry> e : index.entrySet()) {
+            final Entry entry = e.getValue();
+            if (entry.isExpired(now) && index.remove(e.getKey(), entry)) {
+                deadBytes.addAndGet(entry.recordLength);
+            }
+        }
+    }
+
+    /**
+     * Evict the expired entries, then the oldest written ones: a tenth of <code>maxEntries</code> more than the excess
+     * is evicted so that the entries are not scanned on each write once the limit is reached.
+     */
+    private void evictIfNeeded() {
+        if (maxEntries == 0 || index.size() <= maxEntries) {
+            return;
+        }
+        sweep(System.currentTimeMillis());
+        final int excess = index.size() - maxEntries;
+        if (excess <= 0) {
+            return;
+        }
+        final Collection<K> oldestKeys = index.entrySet().stream()
+            .sorted(Comparator.comparingInt(e -> e.getValue().recordOffset))
+            .limit(excess + maxEntries / 10)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+        for (final K key : oldestKeys) {
+            removeEntry(key);
+        }
+        logger.debug("Evicted {} entries from store file: {}", oldestKeys.size(), path);
+    }
+
+    /**
+     * Append a record: its length is written last so that a torn record is ignored on recovery.
+     */
+    private Entry append(final byte type, final byte[] key, final byte[] value, final long expiresAt) {
+        final int length = 1 + 8 + 4 + key.length + (value != null ? 4 + value.length : 0);
+        final int recordLength = RECORD_HEADER_SIZE + length;
+        ensureCapacity((long) position + recordLength);
+
+        final int pos = position;
+        final ByteBuffer record = buffer.duplicate();
+        record.position(pos + RECORD_HEADER_SIZE);
+        record.put(type);
+        record.putLong(expiresAt);
+        record.putInt(key.length);
+        record.put(key);
+        int valueOffset = 0;
+        if (value != null) {
+            record.putInt(value.length);
+            valueOffset = record.position();
+            record.put(value);
+        }
+        buffer.putInt(pos + 4, crc(buffer, pos + RECORD_HEADER_SIZE, length));
+        buffer.putInt(pos, length);
+        position += recordLength;
+        return new Entry(pos, recordLength, valueOffset, value != null ? value.length : 0, expiresAt);
+    }
+
+    private void ensureCapacity(final long required) {
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        long capacity = buffer.capacity();
+        while (capacity < required) {
+            capacity *= 2;
+        }
+        try {
+            buffer.force();
+            buffer = map(channel, capacity);
+        } catch (final IOException e) {
+            throw new TechnicalException("Cannot grow store file: " + path, e);
+        }
+    }
+
+    private void compactIfNeeded() {
+        final long dead = deadBytes.get();
+        if (dead >= minCompactionSize && dead >= compactionRatio * position) {
+            compact();
+        }
+    }
+
+    /**
+     * Copy the live records into a new file which replaces the current one.
+     */
+    public void compact() {
+        init();
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            final long now = System.currentTimeMillis();
+            long liveBytes = HEADER_SIZE;
+            for (final Entry entry : index.values()) {
+                liveBytes += entry.recordLength;
+            }
+            long capacity = initialCapacity;
+            while (capacity < 2 * liveBytes) {
+                capacity *= 2;
+            }
+
+            final Path target = compactionPath();
+            final FileChannel newChannel = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            final MappedByteBuffer newBuffer;
+            final Map<K, Entry> newEntries = new LinkedHashMap<>();
+            int pos = HEADER_SIZE;
+            try {
+                newBuffer = map(newChannel, capacity);
+                newBuffer.putInt(0, MAGIC);
+                newBuffer.putInt(4, VERSION);
+                for (final Map.Entry<K, Entry> e : index.entrySet()) {
+                    final Entry entry = e.getValue();
+                    if (entry.isExpired(now)) {
+                        continue;
+                    }
+                    final ByteBuffer record = buffer.duplicate();
+                    record.position(entry.recordOffset);
+                    record.limit(entry.recordOffset + entry.recordLength);
+                    final ByteBuffer destination = newBuffer.duplicate();
+                    destination.position(pos);
+                    destination.put(record);
+                    newEntries.put(e.getKey(), new Entry(pos, entry.recordLength, pos + entry.valueOffset - entry.recordOffset,
+                        entry.valueLength, entry.expiresAt));
+                    pos += entry.recordLength;
+                }
+                newBuffer.force();
+                Files.move(target, Paths.get(path), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final IOException | RuntimeException e) {
+                newChannel.close();
+                Files.deleteIfExists(target);
+                throw e;
+            }
+
+            channel.close();
+            channel = newChannel;
+            buffer = newBuffer;
+            position = pos;
+            index.clear();
+            index.putAll(newEntries);
+            deadBytes.set(0);
+            logger.debug("Compacted store file: {} to {} live entries", path, newEntries.size());
+        } catch (final IOException e) {
+            throw new TechnicalException("Cannot compact store file: " + path, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void sync() {
+        if (syncOnWrite) {
+            buffer.force();
+        }
+    }
+
+    private void checkOpen() {
+        if (channel == null) {
+            throw new TechnicalException("Store is closed: " + path);
+        }
+    }
+
+    /**
+     * Get the number of entries in the index, including the expired ones which have not been read or swept yet.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        init();
+        return index.size();
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (channel != null) {
+                buffer.force();
+                channel.close();
+                channel = null;
+                buffer = null;
+                index.clear();
+            }
+        } catch (final IOException e) {
+            throw new TechnicalException("Cannot close store file: " + path, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(final String path) {
+        this.path = path;
+    }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(final int timeout) {
+        this.timeout = timeout;
+    }
+
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+
+    public void setTimeUnit(final TimeUnit timeUnit) {
+        this.timeUnit = timeUnit;
+    }
+
+    public int getInitialCapacity() {
+        return initialCapacity;
+    }
+
+    public void setInitialCapacity(final int initialCapacity) {
+        this.initialCapacity = initialCapacity;
+    }
+
+    public double getCompactionRatio() {
+        return compactionRatio;
+    }
+
+    public void setCompactionRatio(final double compactionRatio) {
+        this.compactionRatio = compactionRatio;
+    }
+
+    public int getMinCompactionSize() {
+        return minCompactionSize;
+    }
+
+    public void setMinCompactionSize(final int minCompactionSize) {
+        this.minCompactionSize = minCompactionSize;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(final int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public boolean isSyncOnWrite() {
+        return syncOnWrite;
+    }
+
+    public void setSyncOnWrite(final boolean syncOnWrite) {
+        this.syncOnWrite = syncOnWrite;
+    }
+
+    public StoreCodec<K> getKeyCodec() {
+        return keyCodec;
+    }
+
+    public void setKeyCodec(final StoreCodec<K> keyCodec) {
+        this.keyCodec = keyCodec;
+    }
+
+    public StoreCodec<O> getValueCodec() {
+        return valueCodec;
+    }
+
+    public void setValueCodec(final StoreCodec<O> valueCodec) {
+        this.valueCodec = valueCodec;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "path", path, "timeout", timeout, "timeUnit", timeUnit,
+            "initialCapacity", initialCapacity, "compactionRatio", compactionRatio, "minCompactionSize", minCompactionSize,
+            "maxEntries", maxEntries, "syncOnWrite", syncOnWrite, "keyCodec", keyCodec, "valueCodec", valueCodec);
+    }
+
+    /**
+     * The location of a live record in the file.
+     */
+    private static final class Entry {
+
+        private final int recordOffset;
+
+        private final int recordLength;
+
+        private final int valueOffset;
+
+        private final int valueLength;
+
+        private final long expiresAt;
+
+        private Entry(final int recordOffset, final int recordLength, final int valueOffset, final int valueLength,
+                      final long expiresAt) {
+            this.recordOffset = recordOffset;
+            this.recordLength = recordLength;
+            this.valueOffset = valueOffset;
+            this.valueLength = valueLength;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(final long now) {
+            return expiresAt != 0 && expiresAt <= now;
+        }
+    }
+}
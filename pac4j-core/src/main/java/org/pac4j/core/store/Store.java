@@ -1,5 +1,11 @@
 package org.pac4j.core.store;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Store data.
  *
@@ -30,4 +36,95 @@ public interface Store<K, O> {
      * @param key the key
      */
     void remove(K key);
+
+    /**
+     * Set a value by its key with a specific time to live.
+     *
+     * A time to live lower than or equal to zero means that the value is already expired: the key is removed.
+     * Otherwise, by default, the time to live is ignored and the expiration policy of the store applies.
+     *
+     * @param key the key
+     * @param value the value
+     * @param ttl the time to live
+     * @param timeUnit the time unit of the time to live
+     */
+    default void set(final K key, final O value, final long ttl, final TimeUnit timeUnit) {
+        if (ttl <= 0) {
+            remove(key);
+        } else {
+            set(key, value);
+        }
+    }
+
+    /**
+     * Get the values of several keys.
+     *
+     * @param keys the keys
+     * @return the found values by key (the missing keys are not in the map)
+     */
+    default Map<K, O> getAll(final Collection<K> keys) {
+        final Map<K, O> values = new LinkedHashMap<>();
+        for (final K key : keys) {
+            final O value = get(key);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Set several values by their keys.
+     *
+     * @param values the values by key
+     */
+    default void setAll(final Map<K, O> values) {
+        for (final Map.Entry<K, O> entry : values.entrySet()) {
+            set(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Set a value by its key if no value is associated to the key.
+     *
+     * The default implementation is not atomic.
+     *
+     * @param key the key
+     * @param value the value
+     * @return whether the value has been set
+     */
+    default boolean putIfAbsent(final K key, final O value) {
+        if (get(key) == null) {
+            set(key, value);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remove the value associated to the key if it is equal to the expected value.
+     *
+     * The default implementation is not atomic.
+     *
+     * @param key the key
+     * @param expectedValue the expected value
+     * @return whether the value has been removed
+     */
+    default boolean remove(final K key, final O expectedValue) {
+        final O value = get(key);
+        if (value != null && Objects.equals(value, expectedValue)) {
+            remove(key);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the statistics of the store.
+     *
+     * @return the statistics or <code>null</code> if the store does not record statistics
+     */
+    default StoreStatistics getStatistics() {
+        return null;
+    }
 }
@@ -0,0 +1,26 @@
+package org.pac4j.core.store;
+
+/**
+ * Encode / decode the keys or values of a store into / from bytes.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public interface StoreCodec<T> {
+
+    /**
+     * Encode an object into bytes.
+     *
+     * @param o the object
+     * @return the bytes
+     */
+    byte[] encode(T o);
+
+    /**
+     * Decode bytes into an object.
+     *
+     * @param bytes the bytes
+     * @return the object or <code>null</code> if it cannot be decoded
+     */
+    T decode(byte[] bytes);
+}
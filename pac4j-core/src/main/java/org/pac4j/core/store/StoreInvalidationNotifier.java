@@ -0,0 +1,27 @@
+package org.pac4j.core.store;
+
+import java.util.function.Consumer;
+
+/**
+ * Propagate the invalidations of the keys of a store between nodes (for example via a messaging system), so that their
+ * local copies can be evicted.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public interface StoreInvalidationNotifier<K> {
+
+    /**
+     * Register a listener called when a key is invalidated (on this node or on another one).
+     *
+     * @param listener the listener
+     */
+    void addListener(Consumer<K> listener);
+
+    /**
+     * Notify the invalidation of a key.
+     *
+     * @param key the key
+     */
+    void notifyInvalidation(K key);
+}
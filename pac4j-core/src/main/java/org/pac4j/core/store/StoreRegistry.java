@@ -0,0 +1,97 @@
+package org.pac4j.core.store;
+
+import org.pac4j.core.util.CommonHelper;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the stores created internally by pac4j, to monitor their statistics.
+ *
+ * The stores are weakly referenced: they are unregistered once they are garbage collected.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class StoreRegistry {
+
+    private static final Map<String, WeakReference<Store<?, ?>>> stores = new ConcurrentHashMap<>();
+
+    private StoreRegistry() {}
+
+    /**
+     * Register a store created by a component.
+     *
+     * @param owner the component which owns the store
+     * @param store the store
+     * @param <S> the kind of store
+     * @return the store
+     */
+    public static <S extends Store<?, ?>> S register(final Object owner, final S store) {
+        CommonHelper.assertNotNull("owner", owner);
+        return register(owner.getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(owner)), store);
+    }
+
+    /**
+     * Register a store by name.
+     *
+     * @param name the name of the store
+     * @param store the store
+     * @param <S> the kind of store
+     * @return the store
+     */
+    public static <S extends Store<?, ?>> S register(final String name, final S store) {
+        CommonHelper.assertNotBlank("name", name);
+        CommonHelper.assertNotNull("store", store);
+        stores.put(name, new WeakReference<>(store));
+        return store;
+    }
+
+    /**
+     * Unregister a store.
+     *
+     * @param name the name of the store
+     */
+    public static void unregister(final String name) {
+        stores.remove(name);
+    }
+
+    /**
+     * Get the registered stores which are still in use, by name.
+     *
+     * @return the stores
+     */
+    public static Map<String, Store<?, ?>> getStores() {
+        final Map<String, Store<?, ?>> result = new TreeMap<>();
+        final Iterator<Map.Entry<String, WeakReference<Store<?, ?>>>> iterator = stores.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<String, WeakReference<Store<?, ?>>> entry = iterator.next();
+            final Store<?, ?> store = entry.getValue().get();
+            if (store == null) {
+                iterator.remove();
+            } else {
+                result.put(entry.getKey(), store);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the statistics of the registered stores which record them, by name.
+     *
+     * @return the statistics
+     */
+    public static Map<String, StoreStatistics> getStatistics() {
+        final Map<String, StoreStatistics> result = new TreeMap<>();
+        for (final Map.Entry<String, Store<?, ?>> entry : getStores().entrySet()) {
+            final StoreStatistics statistics = entry.getValue().getStatistics();
+            if (statistics != null) {
+                result.put(entry.getKey(), statistics);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,101 @@
+package org.pac4j.core.store;
+
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A snapshot of the statistics of a store.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class StoreStatistics {
+
+    public static final String EVICTION_SIZE = "size";
+
+    public static final String EVICTION_EXPIRED = "expired";
+
+    public static final String EVICTION_EXPLICIT = "explicit";
+
+    public static final String EVICTION_REPLACED = "replaced";
+
+    public static final String EVICTION_COLLECTED = "collected";
+
+    private final long hitCount;
+
+    private final long missCount;
+
+    private final Map<String, Long> evictionCounts;
+
+    private final long size;
+
+    private final long estimatedMemory;
+
+    public StoreStatistics(final long hitCount, final long missCount, final Map<String, Long> evictionCounts, final long size,
+                           final long estimatedMemory) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCounts = Collections.unmodifiableMap(evictionCounts);
+        this.size = size;
+        this.estimatedMemory = estimatedMemory;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Get the ratio of the reads which have found a value.
+     *
+     * @return the hit rate
+     */
+    public double getHitRate() {
+        final long total = hitCount + missCount;
+        return total == 0 ? 1.0 : (double) hitCount / total;
+    }
+
+    /**
+     * Get the number of removed entries by cause (<code>EVICTION_*</code> constants).
+     *
+     * @return the number of removed entries by cause
+     */
+    public Map<String, Long> getEvictionCounts() {
+        return evictionCounts;
+    }
+
+    /**
+     * Get the number of removed entries for a given cause.
+     *
+     * @param cause the cause
+     * @return the number of removed entries
+     */
+    public long getEvictionCount(final String cause) {
+        final Long count = evictionCounts.get(cause);
+        return count != null ? count : 0;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Get the approximate memory used by the entries, in bytes (-1 if unknown).
+     *
+     * @return the estimated memory
+     */
+    public long getEstimatedMemory() {
+        return estimatedMemory;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "hitCount", hitCount, "missCount", missCount,
+            "evictionCounts", evictionCounts, "size", size, "estimatedMemory", estimatedMemory);
+    }
+}
@@ -0,0 +1,300 @@
+package org.pac4j.core.store;
+
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two-tier store: a small in-process store (L1) in front of another store (L2), typically a remote one.
+ *
+ * The reads go to the L1 store first, then to the L2 store whose values are copied into the L1 store. The writes go
+ * to the L2 store, then to the L1 store. The L1 store must have a shorter timeout than the L2 store: by default,
+ * it is a Guava cache of <code>l1Size</code> entries expiring after <code>l1Timeout</code> milliseconds.
+ *
+ * The written or removed keys are notified through the {@link StoreInvalidationNotifier} (if defined) so that
+ * the other nodes evict them from their L1 stores.
+ *
+ * Each write or invalidation of a key increments its invalidation counter (shared by the keys of the same stripe):
+ * a value read from the L2 store is only kept in the L1 store if the counter has not changed during the read,
+ * so that a concurrent read cannot put back into the L1 store a value which has just been removed or replaced.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public class TieredStore<K, O> extends AbstractStore<K, O> {
+
+    private static final int INVALIDATION_STRIPES = 256;
+
+    private Store<K, O> l2;
+
+    private Store<K, O> l1;
+
+    private int l1Size = 1000;
+
+    private int l1Timeout = 5000;
+
+    private StoreInvalidationNotifier<K> invalidationNotifier;
+
+    private final LongAdder l1Hits = new LongAdder();
+
+    private final LongAdder l2Hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+
+    public TieredStore() {}
+
+    public TieredStore(final Store<K, O> l2) {
+        this.l2 = l2;
+    }
+
+    public TieredStore(final Store<K, O> l2, final StoreInvalidationNotifier<K> invalidationNotifier) {
+        this.l2 = l2;
+        this.invalidationNotifier = invalidationNotifier;
+    }
+
+    @Override
+    protected void internalInit() {
+        CommonHelper.assertNotNull("l2", l2);
+        if (l1 == null) {
+            CommonHelper.assertTrue(l1Size > 0, "l1Size must be greater than zero");
+            CommonHelper.assertTrue(l1Timeout > 0, "l1Timeout must be greater than zero");
+            l1 = StoreRegistry.register(this, new GuavaStore<>(l1Size, l1Timeout, TimeUnit.MILLISECONDS));
+        }
+        if (invalidationNotifier != null) {
+            invalidationNotifier.addListener(this::invalidate);
+        }
+    }
+
+    @Override
+    protected O internalGet(final K key) {
+        O value = l1.get(key);
+        if (value != null) {
+            l1Hits.increment();
+            return value;
+        }
+        final long invalidation = invalidation(key);
+        value = l2.get(key);
+        if (value != null) {
+            l2Hits.increment();
+            fillL1(key, value, invalidation);
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    @Override
+    protected Map<K, O> internalGetAll(final Collection<K> keys) {
+        final Map<K, O> values = new LinkedHashMap<>(l1.getAll(keys));
+        l1Hits.add(values.size());
+        if (values.size() < keys.size()) {
+            final Map<K, Long> missingKeys = new LinkedHashMap<>();
+            for (final K key : keys) {
+                if (!values.containsKey(key)) {
+                    missingKeys.put(key, invalidation(key));
+                }
+            }
+            final Map<K, O> l2Values = l2.getAll(missingKeys.keySet());
+            l2Hits.add(l2Values.size());
+            misses.add(missingKeys.size() - l2Values.size());
+            for (final Map.Entry<K, O> entry : l2Values.entrySet()) {
+                fillL1(entry.getKey(), entry.getValue(), missingKeys.get(entry.getKey()));
+            }
+            values.putAll(l2Values);
+        }
+        return values;
+    }
+
+    @Override
+    protected void internalSet(final K key, final O value) {
+        l2.set(key, value);
+        notifyInvalidation(key);
+        incrementInvalidation(key);
+        l1.set(key, value);
+    }
+
+    @Override
+    protected void internalSet(final K key, final O value, final long ttl, final TimeUnit timeUnit) {
+        l2.set(key, value, ttl, timeUnit);
+        notifyInvalidation(key);
+        incrementInvalidation(key);
+        l1.set(key, value, ttl, timeUnit);
+    }
+
+    @Override
+    protected void internalSetAll(final Map<K, O> values) {
+        l2.setAll(values);
+        for (final K key : values.keySet()) {
+            notifyInvalidation(key);
+            incrementInvalidation(key);
+        }
+        l1.setAll(values);
+    }
+
+    @Override
+    protected boolean internalPutIfAbsent(final K key, final O value) {
+        if (l2.putIfAbsent(key, value)) {
+            notifyInvalidation(key);
+            incrementInvalidation(key);
+            l1.set(key, value);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected void internalRemove(final K key) {
+        l2.remove(key);
+        evictFromL1(key);
+        notifyInvalidation(key);
+    }
+
+    @Override
+    protected boolean internalRemove(final K key, final O expectedValue) {
+        final boolean removed = l2.remove(key, expectedValue);
+        evictFromL1(key);
+        if (removed) {
+            notifyInvalidation(key);
+        }
+        return removed;
+    }
+
+    private void notifyInvalidation(final K key) {
+        if (invalidationNotifier != null) {
+            invalidationNotifier.notifyInvalidation(key);
+        }
+    }
+
+    /**
+     * Evict a key from the L1 store only.
+     *
+     * @param key the key
+     */
+    public void invalidate(final K key) {
+        init();
+        evictFromL1(key);
+    }
+
+    private void evictFromL1(final K key) {
+        incrementInvalidation(key);
+        l1.remove(key);
+    }
+
+    /**
+     * Copy a value read from the L2 store into the L1 store, unless the key has been written or invalidated since the read:
+     * the check is done again after the copy as an invalidation may remove the key between the check and the copy.
+     *
+     * @param key the key
+     * @param value the value read from the L2 store
+     * @param invalidation the invalidation counter of the key before the read
+     */
+    private void fillL1(final K key, final O value, final long invalidation) {
+        if (invalidation(key) == invalidation) {
+            l1.set(key, value);
+            if (invalidation(key) != invalidation) {
+                l1.remove(key);
+            }
+        }
+    }
+
+    private long invalidation(final K key) {
+        return invalidations.get(stripe(key));
+    }
+
+    private void incrementInvalidation(final K key) {
+        invalidations.incrementAndGet(stripe(key));
+    }
+
+    private static int stripe(final Object key) {
+        final int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (INVALIDATION_STRIPES - 1);
+    }
+
+    public long getL1HitCount() {
+        return l1Hits.sum();
+    }
+
+    public long getL2HitCount() {
+        return l2Hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the ratio of the reads served by the L1 store.
+     *
+     * @return the L1 hit rate
+     */
+    public double getL1HitRate() {
+        return rate(l1Hits.sum());
+    }
+
+    /**
+     * Get the ratio of the reads served by the L2 store.
+     *
+     * @return the L2 hit rate
+     */
+    public double getL2HitRate() {
+        return rate(l2Hits.sum());
+    }
+
+    private double rate(final long hits) {
+        final long total = l1Hits.sum() + l2Hits.sum() + misses.sum();
+        return total == 0 ? 1.0 : (double) hits / total;
+    }
+
+    public Store<K, O> getL2() {
+        return l2;
+    }
+
+    public void setL2(final Store<K, O> l2) {
+        this.l2 = l2;
+    }
+
+    public Store<K, O> getL1() {
+        return l1;
+    }
+
+    public void setL1(final Store<K, O> l1) {
+        this.l1 = l1;
+    }
+
+    public int getL1Size() {
+        return l1Size;
+    }
+
+    public void setL1Size(final int l1Size) {
+        this.l1Size = l1Size;
+    }
+
+    public int getL1Timeout() {
+        return l1Timeout;
+    }
+
+    public void setL1Timeout(final int l1Timeout) {
+        this.l1Timeout = l1Timeout;
+    }
+
+    public StoreInvalidationNotifier<K> getInvalidationNotifier() {
+        return invalidationNotifier;
+    }
+
+    public void setInvalidationNotifier(final StoreInvalidationNotifier<K> invalidationNotifier) {
+        this.invalidationNotifier = invalidationNotifier;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "l2", l2, "l1", l1, "l1Size", l1Size, "l1Timeout", l1Timeout,
+            "invalidationNotifier", invalidationNotifier);
+    }
+}
@@ -0,0 +1,80 @@
+package org.pac4j.core.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Helper methods for the asynchronous components.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class AsyncHelper {
+
+    private AsyncHelper() {}
+
+    /**
+     * The default executor to run the blocking components asynchronously: a pool of daemon threads
+     * (twice the number of processors, at least 8) released when idle.
+     */
+    private static final class DefaultExecutorHolder {
+
+        private static final Executor INSTANCE = createDefaultExecutor();
+
+        private static Executor createDefaultExecutor() {
+            final int nbThreads = Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
+            final AtomicInteger threadNumber = new AtomicInteger();
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(nbThreads, nbThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    final Thread thread = new Thread(r, "pac4j-async-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
+    /**
+     * Get the default executor for the blocking components.
+     *
+     * @return the default executor
+     */
+    public static Executor getDefaultExecutor() {
+        return DefaultExecutorHolder.INSTANCE;
+    }
+
+    /**
+     * Build a stage completed with an exception.
+     *
+     * @param t the exception
+     * @param <T> the kind of result
+     * @return the failed stage
+     */
+    public static <T> CompletionStage<T> failedStage(final Throwable t) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(t);
+        return future;
+    }
+
+    /**
+     * Get the original exception of a failed stage.
+     *
+     * @param t the exception of the stage
+     * @return the original exception
+     */
+    public static Throwable unwrap(final Throwable t) {
+        Throwable cause = t;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,82 @@
+package org.pac4j.core.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The report of the initialization of several components: their initialization times and failures, by name.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class InitializationReport {
+
+    private final Map<String, Long> durations = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private final Map<String, Exception> failures = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private long totalDuration;
+
+    void success(final String name, final long duration) {
+        durations.put(name, duration);
+    }
+
+    void failure(final String name, final long duration, final Exception e) {
+        durations.put(name, duration);
+        failures.put(name, e);
+    }
+
+    void setTotalDuration(final long totalDuration) {
+        this.totalDuration = totalDuration;
+    }
+
+    /**
+     * Add the results of another initialization, run after this one.
+     *
+     * @param report the other report
+     */
+    public void add(final InitializationReport report) {
+        CommonHelper.assertNotNull("report", report);
+        durations.putAll(report.getDurations());
+        failures.putAll(report.getFailures());
+        totalDuration += report.getTotalDuration();
+    }
+
+    /**
+     * Get the initialization time of the components, in milliseconds.
+     *
+     * @return the initialization times by name
+     */
+    public Map<String, Long> getDurations() {
+        return Collections.unmodifiableMap(durations);
+    }
+
+    /**
+     * Get the failures of the components which could not be initialized.
+     *
+     * @return the failures by name
+     */
+    public Map<String, Exception> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * Get the total time of the initialization, in milliseconds.
+     *
+     * @return the total time
+     */
+    public long getTotalDuration() {
+        return totalDuration;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "totalDuration", totalDuration, "durations", durations,
+            "failures", failures.keySet());
+    }
+}
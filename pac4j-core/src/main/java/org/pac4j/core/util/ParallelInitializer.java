@@ -0,0 +1,99 @@
+package org.pac4j.core.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Initialize several components in parallel on a bounded pool of threads, instead of lazily on first use.
+ *
+ * A component which fails to initialize is reported and will be initialized again on first use.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class ParallelInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelInitializer.class);
+
+    private static final AtomicInteger poolNumber = new AtomicInteger();
+
+    private ParallelInitializer() {}
+
+    /**
+     * Initialize the components.
+     *
+     * @param components the components by name (a component registered several times is only initialized once)
+     * @param parallelism the maximum number of components initialized at the same time
+     * @return the initialization report
+     */
+    public static InitializationReport initialize(final Map<String, ? extends InitializableObject> components, final int parallelism) {
+        CommonHelper.assertNotNull("components", components);
+        CommonHelper.assertTrue(parallelism > 0, "parallelism must be greater than zero");
+
+        final InitializationReport report = new InitializationReport();
+        final long start = System.nanoTime();
+        final Map<InitializableObject, Boolean> seen = new IdentityHashMap<>();
+        final List<Map.Entry<String, ? extends InitializableObject>> toInitialize = new ArrayList<>();
+        for (final Map.Entry<String, ? extends InitializableObject> entry : components.entrySet()) {
+            if (entry.getValue() != null && seen.put(entry.getValue(), Boolean.TRUE) == null) {
+                toInitialize.add(entry);
+            }
+        }
+
+        if (!toInitialize.isEmpty()) {
+            final int nbThreads = Math.min(parallelism, toInitialize.size());
+            final String prefix = "pac4j-init-" + poolNumber.incrementAndGet() + "-";
+            final AtomicInteger threadNumber = new AtomicInteger();
+            final ExecutorService executor = Executors.newFixedThreadPool(nbThreads, r -> {
+                final Thread thread = new Thread(r, prefix + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                final List<Future<?>> futures = new ArrayList<>();
+                for (final Map.Entry<String, ? extends InitializableObject> entry : toInitialize) {
+                    futures.add(executor.submit(() -> initialize(entry.getKey(), entry.getValue(), report)));
+                }
+                for (final Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Interrupted while initializing the components");
+            } catch (final ExecutionException e) {
+                logger.error("Unexpected initialization error", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        report.setTotalDuration((System.nanoTime() - start) / 1000000);
+        logger.info("Initialized {} components in {} ms, {} failure(s)", toInitialize.size(), report.getTotalDuration(),
+            report.getFailures().size());
+        return report;
+    }
+
+    private static void initialize(final String name, final InitializableObject component, final InitializationReport report) {
+        final long start = System.nanoTime();
+        try {
+            component.init();
+            final long duration = (System.nanoTime() - start) / 1000000;
+            logger.debug("Initialized {} in {} ms", name, duration);
+            report.success(name, duration);
+        } catch (final Exception e) {
+            final long duration = (System.nanoTime() - start) / 1000000;
+            logger.warn("Cannot initialize {}: {}", name, e.getMessage());
+            report.failure(name, duration, e);
+        }
+    }
+}
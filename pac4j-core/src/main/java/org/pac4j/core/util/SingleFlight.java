@@ -0,0 +1,121 @@
+package org.pac4j.core.util;
+
+import org.pac4j.core.exception.TechnicalException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one computation per key at a time: the concurrent callers for the same key wait for the result
+ * of the computation in progress instead of running their own.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder sharedCount = new LongAdder();
+
+    /**
+     * Run the computation for the key or wait for the one in progress, without time limit.
+     *
+     * @param key the key
+     * @param computation the computation
+     * @return the result
+     */
+    public Result<V> execute(final K key, final Supplier<V> computation) {
+        try {
+            return execute(key, computation, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    /**
+     * Run the computation for the key or wait for the one in progress.
+     *
+     * @param key the key
+     * @param computation the computation
+     * @param timeout the maximum time to wait for the computation in progress
+     * @param timeUnit the time unit of the timeout
+     * @return the result
+     * @throws TimeoutException if the computation in progress has not finished in time
+     */
+    public Result<V> execute(final K key, final Supplier<V> computation, final long timeout, final TimeUnit timeUnit)
+        throws TimeoutException {
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        final CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            sharedCount.increment();
+            try {
+                return new Result<>(existing.get(timeout, timeUnit), true);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TechnicalException(e);
+            } catch (final ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new TechnicalException(cause);
+            }
+        }
+
+        try {
+            final V value = computation.get();
+            future.complete(value);
+            return new Result<>(value, false);
+        } catch (final Throwable t) {
+            future.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Get the number of calls which have waited for the computation of another one.
+     *
+     * @return the number of shared calls
+     */
+    public long getSharedCount() {
+        return sharedCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "inFlight", inFlight.size(), "sharedCount", sharedCount.sum());
+    }
+
+    /**
+     * The result of a call: the value and whether it has been computed by another call.
+     */
+    public static final class Result<V> {
+
+        private final V value;
+
+        private final boolean shared;
+
+        private Result(final V value, final boolean shared) {
+            this.value = value;
+            this.shared = shared;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public boolean isShared() {
+            return shared;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.Test;
 import org.pac4j.core.authorization.authorizer.Authorizer;
 import org.pac4j.core.authorization.authorizer.RequireAnyRoleAuthorizer;
 import org.pac4j.core.authorization.authorizer.csrf.DefaultCsrfTokenGenerator;
+import org.pac4j.core.config.Config;
 import org.pac4j.core.context.*;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.AnonymousProfile;
@@ -153,6 +154,23 @@ public final class DefaultAuthorizationCheckerTests implements TestsConstants {
         assertFalse(checker.isAuthorized(null, profiles, authorizers));
     }
 
+    @Test
+    public void testCompileCaseTrim() {
+        profile.setId(VALUE);
+        final Config config = new Config();
+        config.addAuthorizer(NAME, new IdAuthorizer());
+        final Authorizer<CommonProfile> authorizer = checker.compile("  NaMe , " + DefaultAuthorizers.IS_AUTHENTICATED.toUpperCase(),
+            config);
+        assertTrue(authorizer.isAuthorized(null, profiles));
+    }
+
+    @Test(expected = TechnicalException.class)
+    public void testCompileAuthorizerDoesNotExist() {
+        final Config config = new Config();
+        config.addAuthorizer(NAME, new IdAuthorizer());
+        checker.compile(VALUE, config);
+    }
+
     @Test(expected = TechnicalException.class)
     public void testNullProfile() {
         checker.isAuthorized(null, null, new ArrayList<>());
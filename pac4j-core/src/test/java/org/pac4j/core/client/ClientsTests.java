@@ -5,7 +5,9 @@ import java.util.List;
 
 import org.junit.Test;
 import org.pac4j.core.authorization.generator.AuthorizationGenerator;
+import org.pac4j.core.context.WebContext;
 import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.credentials.authenticator.Authenticator;
 import org.pac4j.core.http.ajax.AjaxRequestResolver;
 import org.pac4j.core.http.ajax.DefaultAjaxRequestResolver;
 import org.pac4j.core.http.callback.CallbackUrlResolver;
@@ -14,6 +16,8 @@ import org.pac4j.core.http.url.DefaultUrlResolver;
 import org.pac4j.core.http.url.UrlResolver;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.redirect.RedirectAction;
+import org.pac4j.core.util.InitializableObject;
+import org.pac4j.core.util.InitializationReport;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
 
@@ -157,4 +161,33 @@ public final class ClientsTests implements TestsConstants {
         final Clients clients = new Clients(facebookClient, yahooClient);
         assertNotNull(clients.findClient(" FacebookClient          "));
     }
+
+    @Test
+    public void testWarmUp() {
+        final MockIndirectClient facebookClient = newFacebookClient();
+        final MockDirectClient directClient = new MockDirectClient(NAME);
+        final CounterAuthenticator authenticator = new CounterAuthenticator();
+        directClient.setAuthenticator(authenticator);
+        final Clients clients = new Clients(CALLBACK_URL, facebookClient, directClient);
+        final InitializationReport report = clients.warmUp(2);
+        assertTrue(report.isSuccessful());
+        assertTrue(report.getDurations().containsKey("FacebookClient"));
+        assertTrue(report.getDurations().containsKey(NAME));
+        assertTrue(report.getDurations().containsKey(NAME + ".authenticator"));
+        assertEquals(CALLBACK_URL, facebookClient.getCallbackUrl());
+        assertEquals(1, authenticator.counter);
+    }
+
+    private static final class CounterAuthenticator extends InitializableObject implements Authenticator<Credentials> {
+
+        private int counter;
+
+        @Override
+        protected void internalInit() {
+            counter++;
+        }
+
+        @Override
+        public void validate(final Credentials credentials, final WebContext context) {}
+    }
 }
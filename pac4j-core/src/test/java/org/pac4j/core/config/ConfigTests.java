@@ -4,12 +4,17 @@ import org.junit.Test;
 import org.pac4j.core.authorization.authorizer.Authorizer;
 import org.pac4j.core.authorization.authorizer.RequireAnyRoleAuthorizer;
 import org.pac4j.core.client.MockIndirectClient;
+import org.pac4j.core.context.DefaultAuthorizers;
+import org.pac4j.core.matching.Matcher;
 import org.pac4j.core.redirect.RedirectAction;
 import org.pac4j.core.credentials.Credentials;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.*;
@@ -49,4 +54,80 @@ public final class ConfigTests implements TestsConstants {
         assertEquals(CALLBACK_URL, config.getClients().getCallbackUrl());
         assertEquals(client, config.getClients().findAllClients().get(0));
     }
+
+    @Test
+    public void testAuthorizersIndex() {
+        final Config config = new Config();
+        final RequireAnyRoleAuthorizer authorizer = new RequireAnyRoleAuthorizer();
+        config.addAuthorizer(" NaMe ", authorizer);
+        final Map<String, List<Authorizer>> index = config.getAuthorizersIndex();
+        assertEquals(authorizer, index.get(NAME).get(0));
+        assertEquals(2, index.get(DefaultAuthorizers.CSRF).size());
+        assertSame(index, config.getAuthorizersIndex());
+    }
+
+    @Test
+    public void testAuthorizersIndexRebuilt() {
+        final Config config = new Config();
+        final long version = config.getVersion();
+        assertNull(config.getAuthorizersIndex().get(NAME));
+        config.addAuthorizer(NAME, new RequireAnyRoleAuthorizer());
+        assertNotEquals(version, config.getVersion());
+        assertNotNull(config.getAuthorizersIndex().get(NAME));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAuthorizersOnlyChangedThroughSetters() {
+        new Config().getAuthorizers().put(NAME, new RequireAnyRoleAuthorizer());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testMatchersOnlyChangedThroughSetters() {
+        new Config().getMatchers().put(NAME, context -> true);
+    }
+
+    @Test
+    public void testDuplicateAuthorizer() {
+        final Config config = new Config();
+        config.addAuthorizer(NAME, new RequireAnyRoleAuthorizer());
+        config.addAuthorizer(NAME, new RequireAnyRoleAuthorizer());
+        TestsHelper.expectException(() -> config.addAuthorizer(" " + NAME.toUpperCase(), new RequireAnyRoleAuthorizer()),
+            TechnicalException.class, "Duplicate name in authorizers:  NAME");
+    }
+
+    @Test
+    public void testDuplicateAuthorizers() {
+        final Map<String, Authorizer> authorizers = new LinkedHashMap<>();
+        authorizers.put(NAME, new RequireAnyRoleAuthorizer());
+        authorizers.put(NAME.toUpperCase(), new RequireAnyRoleAuthorizer());
+        TestsHelper.expectException(() -> new Config().setAuthorizers(authorizers), TechnicalException.class,
+            "Duplicate name in authorizers: NAME");
+    }
+
+    @Test
+    public void testDuplicateMatchers() {
+        final Map<String, Matcher> matchers = new LinkedHashMap<>();
+        matchers.put(NAME, context -> true);
+        matchers.put(NAME.toUpperCase(), context -> true);
+        TestsHelper.expectException(() -> new Config().setMatchers(matchers), TechnicalException.class,
+            "Duplicate name in matchers: NAME");
+        final Config config = new Config();
+        config.addMatcher(NAME, context -> true);
+        TestsHelper.expectException(() -> config.addMatcher(NAME.toUpperCase(), context -> true), TechnicalException.class,
+            "Duplicate name in matchers: NAME");
+    }
+
+    @Test
+    public void testBlankMatcherName() {
+        TestsHelper.expectException(() -> new Config().addMatcher(" ", context -> true), TechnicalException.class,
+            "name cannot be blank");
+    }
+
+    @Test
+    public void testMatchersIndex() {
+        final Config config = new Config();
+        final Matcher matcher = context -> true;
+        config.addMatcher(NAME.toUpperCase(), matcher);
+        assertEquals(matcher, config.getMatchersIndex().get(NAME));
+    }
 }
@@ -0,0 +1,138 @@
+package org.pac4j.core.context.session;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link BufferedSessionStore}.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class BufferedSessionStoreTests implements TestsConstants {
+
+    private MockWebContext context;
+
+    private final List<Map<String, Object>> batches = new ArrayList<>();
+
+    private int nbReads;
+
+    private MockSessionStore delegate;
+
+    private BufferedSessionStore<MockWebContext> sessionStore;
+
+    @Before
+    public void setUp() {
+        context = MockWebContext.create();
+        batches.clear();
+        nbReads = 0;
+        delegate = new MockSessionStore() {
+            @Override
+            public Object get(final MockWebContext context, final String key) {
+                nbReads++;
+                return super.get(context, key);
+            }
+
+            @Override
+            public void setAll(final MockWebContext context, final Map<String, Object> values) {
+                batches.add(new LinkedHashMap<>(values));
+                super.setAll(context, values);
+            }
+        };
+        sessionStore = new BufferedSessionStore<>(delegate);
+    }
+
+    @Test
+    public void testReadsAreCached() {
+        delegate.set(context, KEY, VALUE);
+        assertEquals(VALUE, sessionStore.get(context, KEY));
+        assertEquals(VALUE, sessionStore.get(context, KEY));
+        assertNull(sessionStore.get(context, NAME));
+        assertNull(sessionStore.get(context, NAME));
+        assertEquals(2, nbReads);
+    }
+
+    @Test
+    public void testWritesAreBatched() {
+        sessionStore.set(context, KEY, VALUE);
+        sessionStore.set(context, NAME, VALUE);
+        assertEquals(VALUE, sessionStore.get(context, KEY));
+        assertNull(delegate.get(context, KEY));
+        assertTrue(sessionStore.hasPendingUpdates(context));
+        sessionStore.flush(context);
+        assertFalse(sessionStore.hasPendingUpdates(context));
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals(VALUE, delegate.get(context, KEY));
+        assertEquals(VALUE, delegate.get(context, NAME));
+    }
+
+    @Test
+    public void testRedundantWritesAreDropped() {
+        delegate.set(context, KEY, VALUE);
+        assertEquals(VALUE, sessionStore.get(context, KEY));
+        assertNull(sessionStore.get(context, NAME));
+        sessionStore.set(context, KEY, VALUE);
+        sessionStore.set(context, NAME, VALUE);
+        sessionStore.set(context, NAME, null);
+        sessionStore.flush(context);
+        assertEquals(0, batches.size());
+    }
+
+    @Test
+    public void testMutableValuesAreWritten() {
+        final List<String> list = new ArrayList<>();
+        delegate.set(context, KEY, list);
+        assertEquals(list, sessionStore.get(context, KEY));
+        list.add(VALUE);
+        sessionStore.set(context, KEY, list);
+        sessionStore.flush(context);
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    public void testDestroySessionDropsPendingWrites() {
+        sessionStore.set(context, KEY, VALUE);
+        sessionStore.destroySession(context);
+        sessionStore.flush(context);
+        assertEquals(0, batches.size());
+        assertNull(sessionStore.get(context, KEY));
+    }
+
+    @Test
+    public void testRenewSessionFlushes() {
+        sessionStore.set(context, KEY, VALUE);
+        sessionStore.renewSession(context);
+        assertEquals(1, batches.size());
+        assertEquals(VALUE, delegate.get(context, KEY));
+    }
+
+    @Test
+    public void testWritesAfterFlushAreNotBuffered() {
+        sessionStore.set(context, KEY, VALUE);
+        sessionStore.flush(context);
+        sessionStore.set(context, NAME, VALUE);
+        assertFalse(sessionStore.hasPendingUpdates(context));
+        assertEquals(VALUE, delegate.get(context, NAME));
+    }
+
+    @Test
+    public void testBuffersArePerRequest() {
+        final MockWebContext otherContext = MockWebContext.create();
+        sessionStore.set(context, KEY, VALUE);
+        assertNull(sessionStore.get(otherContext, KEY));
+        assertFalse(sessionStore.hasPendingUpdates(otherContext));
+        sessionStore.flush(otherContext);
+        assertEquals(0, batches.size());
+        assertTrue(sessionStore.hasPendingUpdates(context));
+    }
+}
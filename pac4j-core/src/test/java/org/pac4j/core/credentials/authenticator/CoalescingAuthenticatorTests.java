@@ -0,0 +1,181 @@
+package org.pac4j.core.credentials.authenticator;
+
+import org.junit.Test;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.credentials.UsernamePasswordCredentials;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.codec.BinaryProfileCodec;
+import org.pac4j.core.profile.codec.BinaryProfileCodecTests;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link CoalescingAuthenticator}.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class CoalescingAuthenticatorTests implements TestsConstants {
+
+    private static class SlowAuthenticator implements Authenticator<UsernamePasswordCredentials> {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        private Supplier<CommonProfile> profileSupplier = CommonProfile::new;
+
+        @Override
+        public void validate(final UsernamePasswordCredentials credentials, final WebContext context) {
+            calls.incrementAndGet();
+            try {
+                latch.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!PASSWORD.equals(credentials.getPassword())) {
+                throw new CredentialsException("Bad password");
+            }
+            final CommonProfile profile = profileSupplier.get();
+            profile.setId(credentials.getUsername());
+            profile.addAttribute(KEY, VALUE);
+            credentials.setUserProfile(profile);
+        }
+    }
+
+    private final SlowAuthenticator delegate = new SlowAuthenticator();
+
+    private List<Object> validateConcurrently(final CoalescingAuthenticator<UsernamePasswordCredentials> authenticator,
+                                              final String password, final int nb) throws InterruptedException {
+        final List<Object> results = new CopyOnWriteArrayList<>();
+        final Thread[] threads = new Thread[nb];
+        for (int i = 0; i < nb; i++) {
+            threads[i] = new Thread(() -> {
+                final UsernamePasswordCredentials credentials = new UsernamePasswordCredentials(USERNAME, password);
+                try {
+                    authenticator.validate(credentials, null);
+                    results.add(credentials.getUserProfile());
+                } catch (final RuntimeException e) {
+                    results.add(e);
+                }
+            });
+            threads[i].start();
+        }
+        Thread.sleep(200);
+        delegate.latch.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        return results;
+    }
+
+    @Test
+    public void testMissingDelegate() {
+        TestsHelper.expectException(() -> new CoalescingAuthenticator<>().init(), TechnicalException.class,
+            "delegate cannot be null");
+    }
+
+    @Test
+    public void testCoalescedValidations() throws InterruptedException {
+        final CoalescingAuthenticator<UsernamePasswordCredentials> authenticator = new CoalescingAuthenticator<>(delegate);
+        final List<Object> results = validateConcurrently(authenticator, PASSWORD, 5);
+        assertEquals(1, delegate.calls.get());
+        assertEquals(4, authenticator.getCoalescedCount());
+        assertEquals(5, results.size());
+        for (final Object result : results) {
+            final CommonProfile profile = (CommonProfile) result;
+            assertEquals(USERNAME, profile.getId());
+            assertEquals(VALUE, profile.getAttribute(KEY));
+        }
+        assertEquals(5, results.stream().map(System::identityHashCode).distinct().count());
+    }
+
+    @Test
+    public void testCoalescedFailure() throws InterruptedException {
+        final CoalescingAuthenticator<UsernamePasswordCredentials> authenticator = new CoalescingAuthenticator<>(delegate);
+        final List<Object> results = validateConcurrently(authenticator, VALUE, 3);
+        assertEquals(1, delegate.calls.get());
+        assertEquals(3, results.size());
+        for (final Object result : results) {
+            assertTrue(result instanceof CredentialsException);
+        }
+    }
+
+    @Test
+    public void testKeyExtractor() throws InterruptedException {
+        final CoalescingAuthenticator<UsernamePasswordCredentials> authenticator = new CoalescingAuthenticator<>(delegate);
+        authenticator.setKeyExtractor(credentials -> null);
+        validateConcurrently(authenticator, PASSWORD, 3);
+        assertEquals(3, delegate.calls.get());
+        assertEquals(0, authenticator.getCoalescedCount());
+    }
+
+    @Test
+    public void testWaitTimeout() throws InterruptedException {
+        final CoalescingAuthenticator<UsernamePasswordCredentials> authenticator = new CoalescingAuthenticator<>(delegate);
+        authenticator.setWaitTimeout(50);
+        authenticator.setTimeUnit(TimeUnit.MILLISECONDS);
+        final List<Object> results = validateConcurrently(authenticator, PASSWORD, 3);
+        assertEquals(3, delegate.calls.get());
+        for (final Object result : results) {
+            assertEquals(USERNAME, ((CommonProfile) result).getId());
+        }
+    }
+
+    @Test
+    public void testSubclassProfileIsCopied() throws InterruptedException {
+        delegate.profileSupplier = () -> new BinaryProfileCodecTests.TicketProfile(VALUE);
+        final CoalescingAuthenticator<UsernamePasswordCredentials> authenticator = new CoalescingAuthenticator<>(delegate);
+        final List<Object> results = validateConcurrently(authenticator, PASSWORD, 3);
+        assertEquals(1, delegate.calls.get());
+        for (final Object result : results) {
+            final BinaryProfileCodecTests.TicketProfile profile = (BinaryProfileCodecTests.TicketProfile) result;
+            assertEquals(USERNAME, profile.getId());
+            assertEquals(VALUE, profile.getTicket());
+        }
+        assertEquals(3, results.stream().map(System::identityHashCode).distinct().count());
+    }
+
+    @Test
+    public void testValidatedAgainWhenNotEncodable() throws InterruptedException {
+        final CoalescingAuthenticator<UsernamePasswordCredentials> authenticator = new CoalescingAuthenticator<>(delegate);
+        authenticator.setProfileCodec(new BinaryProfileCodec() {
+            @Override
+            public byte[] encode(final CommonProfile profile) {
+                throw new TechnicalException("Cannot encode");
+            }
+        });
+        final List<Object> results = validateConcurrently(authenticator, PASSWORD, 3);
+        assertEquals(3, delegate.calls.get());
+        assertEquals(2, authenticator.getCoalescedCount());
+        for (final Object result : results) {
+            assertEquals(USERNAME, ((CommonProfile) result).getId());
+        }
+        assertEquals(3, results.stream().map(System::identityHashCode).distinct().count());
+    }
+
+    @Test
+    public void testValidatedAgainWhenNotDecodable() throws InterruptedException {
+        final CoalescingAuthenticator<UsernamePasswordCredentials> authenticator = new CoalescingAuthenticator<>(delegate);
+        authenticator.setProfileCodec(new BinaryProfileCodec() {
+            @Override
+            public CommonProfile decode(final byte[] bytes) {
+                return null;
+            }
+        });
+        final List<Object> results = validateConcurrently(authenticator, PASSWORD, 3);
+        assertEquals(3, delegate.calls.get());
+        assertEquals(3, results.stream().map(System::identityHashCode).distinct().count());
+    }
+}
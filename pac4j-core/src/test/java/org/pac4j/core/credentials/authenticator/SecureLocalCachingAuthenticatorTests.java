@@ -0,0 +1,224 @@
+package org.pac4j.core.credentials.authenticator;
+
+import org.junit.Test;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.credentials.UsernamePasswordCredentials;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link SecureLocalCachingAuthenticator}.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class SecureLocalCachingAuthenticatorTests implements TestsConstants {
+
+    private static class CountingAuthenticator implements Authenticator<UsernamePasswordCredentials> {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private volatile CountDownLatch latch;
+
+        private volatile boolean unavailable;
+
+        @Override
+        public void validate(final UsernamePasswordCredentials credentials, final WebContext context) {
+            calls.incrementAndGet();
+            if (unavailable) {
+                throw new TechnicalException("Unavailable");
+            }
+            if (latch != null) {
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (!PASSWORD.equals(credentials.getPassword())) {
+                throw new CredentialsException("Bad password");
+            }
+            final CommonProfile profile = new CommonProfile();
+            profile.setId(credentials.getUsername());
+            credentials.setUserProfile(profile);
+        }
+    }
+
+    private static class CustomTokenCredentials extends TokenCredentials {
+
+        private static final long serialVersionUID = 1L;
+
+        CustomTokenCredentials(final String token) {
+            super(token);
+        }
+    }
+
+    private final CountingAuthenticator delegate = new CountingAuthenticator();
+
+    private SecureLocalCachingAuthenticator<UsernamePasswordCredentials> build(final int timeout) {
+        final SecureLocalCachingAuthenticator<UsernamePasswordCredentials> authenticator =
+            new SecureLocalCachingAuthenticator<>(delegate, 10, timeout, 1, TimeUnit.SECONDS);
+        authenticator.setRefreshRatio(1);
+        return authenticator;
+    }
+
+    @Test
+    public void testMissingDelegate() {
+        TestsHelper.expectException(() -> new SecureLocalCachingAuthenticator<>().init(), TechnicalException.class,
+            "delegate cannot be null");
+    }
+
+    @Test
+    public void testBadFailureTimeout() {
+        final SecureLocalCachingAuthenticator<UsernamePasswordCredentials> authenticator = build(10);
+        authenticator.setFailureTimeout(20);
+        TestsHelper.expectException(authenticator::init, TechnicalException.class,
+            "failureTimeout must be between zero and timeout");
+    }
+
+    @Test
+    public void testValidateAndCache() {
+        final SecureLocalCachingAuthenticator<UsernamePasswordCredentials> authenticator = build(10);
+        final UsernamePasswordCredentials credentials = new UsernamePasswordCredentials(USERNAME, PASSWORD);
+        assertFalse(authenticator.isCached(credentials));
+        authenticator.validate(credentials, null);
+        assertTrue(authenticator.isCached(credentials));
+
+        final UsernamePasswordCredentials credentials2 = new UsernamePasswordCredentials(USERNAME, PASSWORD);
+        authenticator.validate(credentials2, null);
+        assertEquals(USERNAME, credentials2.getUserProfile().getId());
+        assertEquals(1, delegate.calls.get());
+        assertEquals(1, authenticator.getHitCount());
+        assertEquals(1, authenticator.getMissCount());
+        assertEquals(1, authenticator.getLoadCount());
+        assertTrue(authenticator.getTotalLoadTime() > 0);
+
+        authenticator.removeFromCache(credentials);
+        assertFalse(authenticator.isCached(credentials));
+    }
+
+    @Test
+    public void testDistinctKeys() {
+        final SecureLocalCachingAuthenticator<UsernamePasswordCredentials> authenticator = build(10);
+        authenticator.validate(new UsernamePasswordCredentials(USERNAME, PASSWORD), null);
+        assertFalse(authenticator.isCached(new UsernamePasswordCredentials(USERNAME + PASSWORD, "")));
+        assertNotEquals(authenticator.computeKey(new UsernamePasswordCredentials("ab", "c")),
+            authenticator.computeKey(new UsernamePasswordCredentials("a", "bc")));
+        final String key = authenticator.computeKey(new UsernamePasswordCredentials(USERNAME, PASSWORD));
+        assertFalse(key.contains(PASSWORD));
+    }
+
+    @Test
+    public void testGenericCredentialsKey() {
+        final SecureLocalCachingAuthenticator<TokenCredentials> authenticator = new SecureLocalCachingAuthenticator<>(
+            (credentials, context) -> credentials.setUserProfile(new CommonProfile()), 10, 10, 0, TimeUnit.SECONDS);
+        authenticator.init();
+        final TokenCredentials credentials = new CustomTokenCredentials(VALUE);
+        authenticator.validate(credentials, null);
+        assertNotNull(credentials.getUserProfile());
+        assertEquals(authenticator.computeKey(credentials), authenticator.computeKey(credentials));
+        assertTrue(authenticator.isCached(credentials));
+    }
+
+    @Test
+    public void testCachedFailure() throws InterruptedException {
+        final SecureLocalCachingAuthenticator<UsernamePasswordCredentials> authenticator = build(10);
+        final UsernamePasswordCredentials credentials = new UsernamePasswordCredentials(USERNAME, VALUE);
+        TestsHelper.expectException(() -> authenticator.validate(credentials, null), CredentialsException.class, "Bad password");
+        TestsHelper.expectException(() -> authenticator.validate(credentials, null), CredentialsException.class, "Bad password");
+        assertEquals(1, delegate.calls.get());
+        assertEquals(1, authenticator.getFailureHitCount());
+        assertFalse(authenticator.isCached(credentials));
+
+        Thread.sleep(1100);
+        TestsHelper.expectException(() -> authenticator.validate(credentials, null), CredentialsException.class, "Bad password");
+        assertEquals(2, delegate.calls.get());
+        assertEquals(2, authenticator.getLoadFailureCount());
+    }
+
+    @Test
+    public void testSingleFlight() throws InterruptedException {
+        final SecureLocalCachingAuthenticator<UsernamePasswordCredentials> authenticator = build(10);
+        authenticator.init();
+        delegate.latch = new CountDownLatch(1);
+        final AtomicInteger authenticated = new AtomicInteger();
+        final Thread[] threads = new Thread[5];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                final UsernamePasswordCredentials credentials = new UsernamePasswordCredentials(USERNAME, PASSWORD);
+                authenticator.validate(credentials, null);
+                if (credentials.getUserProfile() != null) {
+                    authenticated.incrementAndGet();
+                }
+            });
+            threads[i].start();
+        }
+        Thread.sleep(200);
+        delegate.latch.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(threads.length, authenticated.get());
+        assertEquals(1, delegate.calls.get());
+    }
+
+    @Test
+    public void testRefreshAhead() throws InterruptedException {
+        final SecureLocalCachingAuthenticator<UsernamePasswordCredentials> authenticator = build(2);
+        authenticator.setRefreshRatio(0.25);
+        authenticator.validate(new UsernamePasswordCredentials(USERNAME, PASSWORD), null);
+        Thread.sleep(600);
+        final UsernamePasswordCredentials credentials = new UsernamePasswordCredentials(USERNAME, PASSWORD);
+        authenticator.validate(credentials, null);
+        assertNotNull(credentials.getUserProfile());
+        for (int i = 0; i < 50 && delegate.calls.get() < 2; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(2, delegate.calls.get());
+        assertEquals(1, authenticator.getRefreshCount());
+        assertTrue(authenticator.isCached(credentials));
+    }
+
+    @Test
+    public void testRefreshDisabledByDefault() throws InterruptedException {
+        final SecureLocalCachingAuthenticator<UsernamePasswordCredentials> authenticator =
+            new SecureLocalCachingAuthenticator<>(delegate, 10, 1, 1, TimeUnit.SECONDS);
+        authenticator.validate(new UsernamePasswordCredentials(USERNAME, PASSWORD), null);
+        Thread.sleep(800);
+        authenticator.validate(new UsernamePasswordCredentials(USERNAME, PASSWORD), null);
+        Thread.sleep(100);
+        assertEquals(1, delegate.calls.get());
+        assertEquals(0, authenticator.getRefreshCount());
+        assertNull(authenticator.getRefreshExecutor());
+    }
+
+    @Test
+    public void testRefreshFailureKeepsEntry() throws InterruptedException {
+        final SecureLocalCachingAuthenticator<UsernamePasswordCredentials> authenticator = build(2);
+        authenticator.setRefreshRatio(0.25);
+        authenticator.validate(new UsernamePasswordCredentials(USERNAME, PASSWORD), null);
+        Thread.sleep(600);
+        delegate.unavailable = true;
+        final UsernamePasswordCredentials credentials = new UsernamePasswordCredentials(USERNAME, PASSWORD);
+        authenticator.validate(credentials, null);
+        for (int i = 0; i < 50 && delegate.calls.get() < 2; i++) {
+            Thread.sleep(20);
+        }
+        Thread.sleep(50);
+        assertEquals(2, delegate.calls.get());
+        assertTrue(authenticator.isCached(credentials));
+        final UsernamePasswordCredentials credentials2 = new UsernamePasswordCredentials(USERNAME, PASSWORD);
+        authenticator.validate(credentials2, null);
+        assertEquals(USERNAME, credentials2.getUserProfile().getId());
+    }
+}
@@ -0,0 +1,206 @@
+package org.pac4j.core.engine;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.client.*;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.Pac4jConstants;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.credentials.MockCredentials;
+import org.pac4j.core.credentials.authenticator.AsyncAuthenticator;
+import org.pac4j.core.credentials.authenticator.Authenticator;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.HttpAction;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.http.adapter.HttpActionAdapter;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link DefaultAsyncSecurityLogic}.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+@SuppressWarnings("unchecked")
+public final class DefaultAsyncSecurityLogicTests implements TestsConstants {
+
+    private DefaultAsyncSecurityLogic<Object, WebContext> logic;
+
+    private MockWebContext context;
+
+    private Config config;
+
+    private SecurityGrantedAccessAdapter<Object, WebContext> securityGrantedAccessAdapter;
+
+    private HttpActionAdapter<Object, WebContext> httpActionAdapter;
+
+    private String clients;
+
+    private Boolean multiProfile;
+
+    private int nbCall;
+
+    private Thread validationThread;
+
+    @Before
+    public void setUp() {
+        logic = new DefaultAsyncSecurityLogic<>();
+        context = MockWebContext.create();
+        config = new Config();
+        securityGrantedAccessAdapter = (context, profiles, parameters) -> { nbCall++; return VALUE; };
+        httpActionAdapter = (code, ctx) -> code;
+        clients = null;
+        multiProfile = null;
+        nbCall = 0;
+        validationThread = null;
+    }
+
+    private Object call() {
+        return logic.performAsync(context, config, securityGrantedAccessAdapter, httpActionAdapter, clients, null, null, multiProfile)
+            .toCompletableFuture().join();
+    }
+
+    private DirectClient newDirectClient(final String name, final CommonProfile profile) {
+        final MockDirectClient client = new MockDirectClient(name, new MockCredentials(), null);
+        client.setAuthenticator((credentials, ctx) -> {
+            validationThread = Thread.currentThread();
+            credentials.setUserProfile(profile);
+        });
+        return client;
+    }
+
+    @Test
+    public void testNullConfig() {
+        config = null;
+        try {
+            call();
+            fail("should fail");
+        } catch (final CompletionException e) {
+            assertTrue(e.getCause() instanceof TechnicalException);
+            assertEquals("config cannot be null", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testNotAuthenticated() {
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, new MockCredentials(), new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        clients = "";
+        assertEquals(401, call());
+        assertEquals(401, context.getResponseStatus());
+    }
+
+    @Test
+    public void testDoubleDirectClient() {
+        final CommonProfile profile = new CommonProfile();
+        profile.setId(NAME);
+        final CommonProfile profile2 = new CommonProfile();
+        profile2.setId(VALUE);
+        config.setClients(new Clients(CALLBACK_URL, newDirectClient(NAME, profile), newDirectClient(VALUE, profile2)));
+        clients = NAME + "," + VALUE;
+        assertEquals(VALUE, call());
+        assertEquals(1, nbCall);
+        assertNotNull(validationThread);
+        assertNotEquals(Thread.currentThread(), validationThread);
+        final LinkedHashMap<String, CommonProfile> profiles =
+            (LinkedHashMap<String, CommonProfile>) context.getRequestAttribute(Pac4jConstants.USER_PROFILES);
+        assertEquals(1, profiles.size());
+        assertTrue(profiles.containsValue(profile));
+    }
+
+    @Test
+    public void testDoubleDirectClientSupportingMultiProfile() {
+        final CommonProfile profile = new CommonProfile();
+        profile.setId(NAME);
+        final CommonProfile profile2 = new CommonProfile();
+        profile2.setId(VALUE);
+        config.setClients(new Clients(CALLBACK_URL, newDirectClient(NAME, profile), newDirectClient(VALUE, profile2)));
+        clients = NAME + "," + VALUE;
+        multiProfile = true;
+        assertEquals(VALUE, call());
+        assertEquals(1, nbCall);
+        final LinkedHashMap<String, CommonProfile> profiles =
+            (LinkedHashMap<String, CommonProfile>) context.getRequestAttribute(Pac4jConstants.USER_PROFILES);
+        assertEquals(2, profiles.size());
+        assertTrue(profiles.containsValue(profile));
+        assertTrue(profiles.containsValue(profile2));
+    }
+
+    @Test
+    public void testInvalidCredentialsThenValidOnes() {
+        final CommonProfile profile = new CommonProfile();
+        profile.setId(VALUE);
+        final MockDirectClient badClient = new MockDirectClient(NAME, new MockCredentials(), null);
+        badClient.setAuthenticator((credentials, ctx) -> { throw new CredentialsException(NAME); });
+        config.setClients(new Clients(CALLBACK_URL, badClient, newDirectClient(VALUE, profile)));
+        clients = NAME + "," + VALUE;
+        assertEquals(VALUE, call());
+        final LinkedHashMap<String, CommonProfile> profiles =
+            (LinkedHashMap<String, CommonProfile>) context.getRequestAttribute(Pac4jConstants.USER_PROFILES);
+        assertEquals(1, profiles.size());
+        assertTrue(profiles.containsValue(profile));
+    }
+
+    @Test
+    public void testDirectClientThrowsRequiresHttpAction() {
+        final DirectClient directClient = new MockDirectClient(NAME, () -> { throw HttpAction.status(400, context); },
+            new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, directClient));
+        clients = NAME;
+        assertEquals(400, call());
+        assertEquals(400, context.getResponseStatus());
+        assertEquals(0, nbCall);
+    }
+
+    @Test
+    public void testAuthenticatorFailsAsynchronouslyWithHttpAction() {
+        final MockDirectClient directClient = new MockDirectClient(NAME, new MockCredentials(), null);
+        directClient.setAuthenticator((credentials, ctx) -> { throw HttpAction.status(400, context); });
+        config.setClients(new Clients(CALLBACK_URL, directClient));
+        clients = NAME;
+        assertEquals(400, call());
+        assertEquals(0, nbCall);
+    }
+
+    @Test
+    public void testAsyncAuthenticator() {
+        final CommonProfile profile = new CommonProfile();
+        profile.setId(NAME);
+        final MockDirectClient directClient = new MockDirectClient(NAME, new MockCredentials(), null);
+        directClient.setAuthenticator(new NonBlockingAuthenticator(profile));
+        config.setClients(new Clients(CALLBACK_URL, directClient));
+        clients = NAME;
+        assertEquals(VALUE, call());
+        assertEquals(1, nbCall);
+    }
+
+    private static final class NonBlockingAuthenticator implements Authenticator<Credentials>, AsyncAuthenticator<Credentials> {
+
+        private final CommonProfile profile;
+
+        private NonBlockingAuthenticator(final CommonProfile profile) {
+            this.profile = profile;
+        }
+
+        @Override
+        public void validate(final Credentials credentials, final WebContext context) {
+            throw new TechnicalException("the blocking method must not be called");
+        }
+
+        @Override
+        public CompletionStage<Void> validateAsync(final Credentials credentials, final WebContext context) {
+            credentials.setUserProfile(profile);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.pac4j.core.engine;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.pac4j.core.client.*;
@@ -16,7 +17,16 @@ import org.pac4j.core.redirect.RedirectAction;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -48,6 +58,8 @@ public final class DefaultSecurityLogicTests implements TestsConstants {
 
     private int nbCall;
 
+    private ExecutorService executor;
+
     @Before
     public void setUp() {
         logic = new DefaultSecurityLogic();
@@ -62,6 +74,19 @@ public final class DefaultSecurityLogicTests implements TestsConstants {
         nbCall = 0;
     }
 
+    @After
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void parallelDirectClients(final int nbThreads, final int queueSize) {
+        executor = new ThreadPoolExecutor(nbThreads, nbThreads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize));
+        logic.setParallelDirectClients(true);
+        logic.setDirectClientsExecutor(executor);
+    }
+
     private void call() {
         logic.perform(context, config, securityGrantedAccessAdapter, httpActionAdapter, clients, authorizers, matchers, multiProfile);
     }
@@ -298,4 +323,205 @@ public final class DefaultSecurityLogicTests implements TestsConstants {
         context.addRequestParameter(Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER, VALUE);
         TestsHelper.expectException(() -> call(), TechnicalException.class, "Client not allowed: " + VALUE);
     }
+
+    @Test
+    public void testSecurityPlanCached() {
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, new MockCredentials(), new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        config.addMatcher(NAME, context -> true);
+        final SecurityPlan plan = logic.getSecurityPlan(config, NAME, null, NAME);
+        assertSame(plan, logic.getSecurityPlan(config, NAME, null, NAME));
+        assertNotSame(plan, logic.getSecurityPlan(config, NAME, null, null));
+    }
+
+    @Test
+    public void testSecurityPlanInvalidatedByConfigChange() {
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, new MockCredentials(), new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        config.addMatcher(NAME, context -> false);
+        matchers = NAME;
+        clients = "";
+        call();
+        assertEquals(-1, context.getResponseStatus());
+        assertEquals(1, nbCall);
+        config.addMatcher(NAME, context -> true);
+        call();
+        assertEquals(401, context.getResponseStatus());
+        assertEquals(1, nbCall);
+    }
+
+    @Test
+    public void testSecurityPlanInvalidatedByClientsChange() {
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, RedirectAction.redirect(PAC4J_URL), new MockCredentials(),
+            new CommonProfile());
+        final IndirectClient indirectClient2 = new MockIndirectClient(VALUE, RedirectAction.redirect(PAC4J_BASE_URL),
+            new MockCredentials(), new CommonProfile());
+        final Clients configClients = new Clients(CALLBACK_URL, indirectClient, indirectClient2);
+        configClients.setDefaultSecurityClients(NAME);
+        config.setClients(configClients);
+        clients = null;
+        call();
+        assertEquals(PAC4J_URL, context.getResponseLocation());
+        configClients.setDefaultSecurityClients(VALUE);
+        context = MockWebContext.create();
+        call();
+        assertEquals(PAC4J_BASE_URL, context.getResponseLocation());
+    }
+
+    private DirectClient newDirectClient(final String name, final CommonProfile profile, final CountDownLatch latch) {
+        final MockDirectClient client = new MockDirectClient(name, new MockCredentials(), null);
+        client.setAuthenticator((credentials, ctx) -> {
+            latch.countDown();
+            try {
+                if (!latch.await(5, TimeUnit.SECONDS)) {
+                    throw new TechnicalException("not authenticated in parallel");
+                }
+            } catch (final InterruptedException e) {
+                throw new TechnicalException(e);
+            }
+            credentials.setUserProfile(profile);
+        });
+        return client;
+    }
+
+    @Test
+    public void testParallelDirectClientsSupportingMultiProfile() {
+        final CommonProfile profile = new CommonProfile();
+        profile.setId(NAME);
+        final CommonProfile profile2 = new CommonProfile();
+        profile2.setId(VALUE);
+        final CountDownLatch latch = new CountDownLatch(2);
+        config.setClients(new Clients(CALLBACK_URL, newDirectClient(NAME, profile, latch), newDirectClient(VALUE, profile2, latch)));
+        clients = NAME + "," + VALUE;
+        multiProfile = true;
+        parallelDirectClients(2, 1);
+        call();
+        assertEquals(-1, context.getResponseStatus());
+        assertEquals(1, nbCall);
+        final LinkedHashMap<String, CommonProfile> profiles =
+            (LinkedHashMap<String, CommonProfile>) context.getRequestAttribute(Pac4jConstants.USER_PROFILES);
+        assertEquals(Arrays.asList(NAME, VALUE), new ArrayList<>(profiles.keySet()));
+    }
+
+    @Test
+    public void testParallelDirectClientsFirstClientWins() {
+        final CommonProfile profile = new CommonProfile();
+        profile.setId(NAME);
+        final CommonProfile profile2 = new CommonProfile();
+        profile2.setId(VALUE);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final MockDirectClient directClient = new MockDirectClient(NAME, new MockCredentials(), null);
+        directClient.setAuthenticator((credentials, ctx) -> {
+            try {
+                Thread.sleep(100);
+            } catch (final InterruptedException e) {
+                throw new TechnicalException(e);
+            }
+            credentials.setUserProfile(profile);
+        });
+        final MockDirectClient directClient2 = new MockDirectClient(VALUE, new MockCredentials(), profile2);
+        final MockDirectClient directClient3 = new MockDirectClient(KEY, new MockCredentials(), null);
+        directClient3.setAuthenticator((credentials, ctx) -> {
+            try {
+                Thread.sleep(5000);
+            } catch (final InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        config.setClients(new Clients(CALLBACK_URL, directClient, directClient2, directClient3));
+        clients = NAME + "," + VALUE + "," + KEY;
+        parallelDirectClients(3, 1);
+        call();
+        assertEquals(-1, context.getResponseStatus());
+        final LinkedHashMap<String, CommonProfile> profiles =
+            (LinkedHashMap<String, CommonProfile>) context.getRequestAttribute(Pac4jConstants.USER_PROFILES);
+        assertEquals(1, profiles.size());
+        assertTrue(profiles.containsValue(profile));
+        try {
+            assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+        } catch (final InterruptedException e) {
+            fail("interrupted");
+        }
+    }
+
+    @Test
+    public void testParallelDirectClientThrowsRequiresHttpAction() {
+        final CommonProfile profile = new CommonProfile();
+        profile.setId(NAME);
+        final DirectClient directClient = new MockDirectClient(NAME, () -> { throw HttpAction.status(400, context); },
+            profile);
+        final DirectClient directClient2 = new MockDirectClient(VALUE, new MockCredentials(), profile);
+        config.setClients(new Clients(CALLBACK_URL, directClient, directClient2));
+        clients = NAME + "," + VALUE;
+        parallelDirectClients(2, 1);
+        call();
+        assertEquals(400, context.getResponseStatus());
+        assertEquals(0, nbCall);
+    }
+
+    @Test
+    public void testParallelDirectClientsExtractCredentialsOnRequestThread() {
+        final CommonProfile profile = new CommonProfile();
+        profile.setId(NAME);
+        final List<Thread> extractionThreads = new CopyOnWriteArrayList<>();
+        final List<Thread> validationThreads = new CopyOnWriteArrayList<>();
+        final MockDirectClient directClient = new MockDirectClient(NAME, () -> {
+            extractionThreads.add(Thread.currentThread());
+            return new MockCredentials();
+        }, null);
+        directClient.setAuthenticator((credentials, ctx) -> validationThreads.add(Thread.currentThread()));
+        final MockDirectClient directClient2 = new MockDirectClient(VALUE, () -> {
+            extractionThreads.add(Thread.currentThread());
+            return new MockCredentials();
+        }, profile);
+        config.setClients(new Clients(CALLBACK_URL, directClient, directClient2));
+        clients = NAME + "," + VALUE;
+        parallelDirectClients(2, 1);
+        call();
+        assertEquals(-1, context.getResponseStatus());
+        assertEquals(1, nbCall);
+        assertEquals(Arrays.asList(Thread.currentThread(), Thread.currentThread()), extractionThreads);
+        assertEquals(1, validationThreads.size());
+        assertNotEquals(Thread.currentThread(), validationThreads.get(0));
+    }
+
+    @Test
+    public void testParallelDirectClientsRequireExecutor() {
+        config.setClients(new Clients(CALLBACK_URL, new MockDirectClient(NAME, new MockCredentials(), null)));
+        logic.setParallelDirectClients(true);
+        TestsHelper.expectException(() -> call(), TechnicalException.class, "directClientsExecutor cannot be null");
+    }
+
+    @Test
+    public void testParallelDirectClientsSaturatedExecutor() {
+        final CommonProfile profile = new CommonProfile();
+        profile.setId(NAME);
+        final List<Thread> validationThreads = new CopyOnWriteArrayList<>();
+        final CountDownLatch release = new CountDownLatch(1);
+        final MockDirectClient directClient = new MockDirectClient(NAME, new MockCredentials(), null);
+        directClient.setAuthenticator((credentials, ctx) -> {
+            validationThreads.add(Thread.currentThread());
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                throw new TechnicalException(e);
+            }
+        });
+        final MockDirectClient directClient2 = new MockDirectClient(VALUE, new MockCredentials(), null);
+        directClient2.setAuthenticator((credentials, ctx) -> validationThreads.add(Thread.currentThread()));
+        final MockDirectClient directClient3 = new MockDirectClient(KEY, new MockCredentials(), null);
+        directClient3.setAuthenticator((credentials, ctx) -> {
+            validationThreads.add(Thread.currentThread());
+            release.countDown();
+            credentials.setUserProfile(profile);
+        });
+        config.setClients(new Clients(CALLBACK_URL, directClient, directClient2, directClient3));
+        clients = NAME + "," + VALUE + "," + KEY;
+        // one thread, one queued task: the third authentication is rejected and performed on the request thread
+        parallelDirectClients(1, 1);
+        call();
+        assertEquals(-1, context.getResponseStatus());
+        assertEquals(1, nbCall);
+        assertTrue(validationThreads.contains(Thread.currentThread()));
+    }
 }
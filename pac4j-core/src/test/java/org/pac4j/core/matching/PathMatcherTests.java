@@ -5,10 +5,13 @@ import org.pac4j.core.context.MockWebContext;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.TestsHelper;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.regex.PatternSyntaxException;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -99,4 +102,62 @@ public class PathMatcherTests {
         assertFalse(matcher.matches(MockWebContext.create().setPath("/img/")));
 
     }
+
+    @Test
+    public void testBranchIsNotPrefix() {
+        final PathMatcher pathMatcher = new PathMatcher().excludeBranch("/foo");
+        assertTrue(pathMatcher.matches(MockWebContext.create().setPath("/foobar")));
+        assertTrue(pathMatcher.matches(MockWebContext.create().setPath("/bar/foo")));
+        assertTrue(pathMatcher.matches(MockWebContext.create().setPath("/")));
+    }
+
+    @Test
+    public void testManyBranches() {
+        final PathMatcher pathMatcher = new PathMatcher();
+        for (int i = 0; i < 500; i++) {
+            pathMatcher.excludeBranch("/static/v" + i);
+        }
+        pathMatcher.excludeBranch("/css/app");
+        assertFalse(pathMatcher.matches(MockWebContext.create().setPath("/static/v42/app.js")));
+        assertFalse(pathMatcher.matches(MockWebContext.create().setPath("/static/v499")));
+        assertFalse(pathMatcher.matches(MockWebContext.create().setPath("/css/app/")));
+        assertTrue(pathMatcher.matches(MockWebContext.create().setPath("/static/v500/app.js")));
+        assertTrue(pathMatcher.matches(MockWebContext.create().setPath("/static")));
+        assertTrue(pathMatcher.matches(MockWebContext.create().setPath("/css")));
+    }
+
+    @Test
+    public void testBranchWithRegexCharacters() {
+        final PathMatcher pathMatcher = new PathMatcher().excludeBranch("/foo.bar");
+        assertFalse(pathMatcher.matches(MockWebContext.create().setPath("/foo.bar/baz")));
+        assertFalse(pathMatcher.matches(MockWebContext.create().setPath("/fooxbar")));
+    }
+
+    @Test
+    public void testRegexWithLiteralPrefix() {
+        final PathMatcher matcher = new PathMatcher().excludeRegex("^/img/.*\\.png$").excludeRegex("^/page\\.html$")
+            .excludeRegex("^/fo?/bar$");
+        assertFalse(matcher.matches(MockWebContext.create().setPath("/img/logo.png")));
+        assertTrue(matcher.matches(MockWebContext.create().setPath("/img/logo.gif")));
+        assertFalse(matcher.matches(MockWebContext.create().setPath("/page.html")));
+        assertFalse(matcher.matches(MockWebContext.create().setPath("/f/bar")));
+        assertFalse(matcher.matches(MockWebContext.create().setPath("/fo/bar")));
+    }
+
+    @Test
+    public void testRegexWithTopLevelAlternation() {
+        final PathMatcher matcher = new PathMatcher().excludeRegex("^/img/logo\\.png$|^/css/.*$");
+        assertFalse(matcher.matches(MockWebContext.create().setPath("/img/logo.png")));
+        assertFalse(matcher.matches(MockWebContext.create().setPath("/css/app.css")));
+        assertTrue(matcher.matches(MockWebContext.create().setPath("/js/app.js")));
+    }
+
+    @Test
+    public void testLiteralSegments() {
+        assertEquals(Arrays.asList("img"), PathSegmentTrie.literalSegments("^/img/.*$"));
+        assertEquals(Arrays.asList("page.html"), PathSegmentTrie.literalSegments("^/page\\.html$"));
+        assertEquals(Arrays.asList("a"), PathSegmentTrie.literalSegments("^/a/bc?/d$"));
+        assertEquals(Collections.emptyList(), PathSegmentTrie.literalSegments("^/(img/.*|css/.*|page\\.html)$"));
+        assertEquals(Collections.emptyList(), PathSegmentTrie.literalSegments("^/a/b$|^/c/d$"));
+    }
 }
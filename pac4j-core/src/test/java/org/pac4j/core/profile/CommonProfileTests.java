@@ -6,6 +6,7 @@ import org.pac4j.core.util.JavaSerializationHelper;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
 
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -192,4 +193,67 @@ public final class CommonProfileTests implements TestsConstants {
             ProfileHelper.getInternalAttributeHandler().setStringify(false);
         }
     }
+
+    @Test
+    public void testAttributesView() {
+        final CommonProfile profile = new CommonProfile();
+        profile.addAttribute(KEY, VALUE);
+        final Map<String, Object> view = profile.getAttributesView();
+        assertSame(view, profile.getAttributesView());
+        assertEquals(VALUE, view.get(KEY));
+        profile.addAttribute(NAME, VALUE);
+        assertEquals(2, view.size());
+        profile.removeAttribute(KEY);
+        assertFalse(view.containsKey(KEY));
+        assertNotNull(TestsHelper.expectException(() -> view.put(KEY, VALUE)));
+        assertNotNull(TestsHelper.expectException(() -> view.entrySet().iterator().next().setValue(VALUE)));
+    }
+
+    @Test
+    public void testAttributesViewCachesImmutableValues() {
+        try {
+            ProfileHelper.getInternalAttributeHandler().setStringify(true);
+            final CommonProfile profile = new CommonProfile();
+            profile.addAttribute(KEY, new Color(1, 2, 3));
+            profile.addAttribute(VALUE, new Date(1000L));
+            profile.addAuthenticationAttribute(NAME, 1000L);
+            final Object color = profile.getAttribute(KEY);
+            assertEquals("010203", color.toString());
+            // a Java-serialized value is restored again on each access
+            assertNotSame(color, profile.getAttribute(KEY));
+            assertEquals(color.toString(), profile.getAttribute(KEY).toString());
+            // a date is cached but copied on each access
+            final Date date = (Date) profile.getAttribute(VALUE);
+            date.setTime(2000L);
+            assertEquals(new Date(1000L), profile.getAttribute(VALUE));
+            assertEquals(1000L, profile.getAuthenticationAttributesView().get(NAME));
+            assertSame(profile.getAuthenticationAttribute(NAME), profile.getAuthenticationAttribute(NAME));
+            profile.addAttribute(KEY, new Color(3, 2, 1));
+            assertEquals("030201", profile.getAttribute(KEY).toString());
+        } finally {
+            ProfileHelper.getInternalAttributeHandler().setStringify(false);
+        }
+    }
+
+    @Test
+    public void testTypedAttributes() {
+        final CommonProfile profile = new CommonProfile();
+        profile.addAttribute("bool", Boolean.TRUE);
+        profile.addAttribute("sbool", "true");
+        profile.addAttribute("int", 12);
+        profile.addAttribute("sint", "13");
+        profile.addAttribute("long", 14L);
+        assertTrue(profile.getAttributeAsBoolean("bool", false));
+        assertTrue(profile.getAttributeAsBoolean("sbool", false));
+        assertTrue(profile.getAttributeAsBoolean(VALUE, true));
+        assertEquals(12, profile.getAttributeAsInt("int", 0));
+        assertEquals(13, profile.getAttributeAsInt("sint", 0));
+        assertEquals(-1, profile.getAttributeAsInt(VALUE, -1));
+        assertEquals(14L, profile.getAttributeAsLong("long", 0L));
+        assertEquals(12L, profile.getAttributeAsLong("int", 0L));
+        assertEquals("12", profile.getAttributeAsString("int"));
+        assertNull(profile.getAttributeAsString(VALUE));
+        final Exception e = TestsHelper.expectException(() -> profile.getAttributeAsBoolean("int", false));
+        assertTrue(e instanceof ClassCastException);
+    }
 }
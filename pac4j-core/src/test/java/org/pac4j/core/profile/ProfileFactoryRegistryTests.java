@@ -0,0 +1,66 @@
+package org.pac4j.core.profile;
+
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link ProfileFactoryRegistry}.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class ProfileFactoryRegistryTests implements TestsConstants {
+
+    public static class MyProfile extends CommonProfile {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    public static class MyOtherProfile extends CommonProfile {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    @Test
+    public void testCoreProfiles() {
+        assertTrue(ProfileFactoryRegistry.isRegistered(CommonProfile.class.getName()));
+        assertTrue(ProfileFactoryRegistry.newProfile(AnonymousProfile.class.getName()) instanceof AnonymousProfile);
+    }
+
+    @Test
+    public void testGeneratedFactory() {
+        final String name = MyProfile.class.getName();
+        final Supplier<? extends CommonProfile> factory = ProfileFactoryRegistry.getFactory(name);
+        assertTrue(ProfileFactoryRegistry.isRegistered(name));
+        assertSame(factory, ProfileFactoryRegistry.getFactory(name));
+        final CommonProfile profile = factory.get();
+        assertTrue(profile instanceof MyProfile);
+        assertNotSame(profile, factory.get());
+    }
+
+    @Test
+    public void testRegisteredFactory() {
+        final MyOtherProfile profile = new MyOtherProfile();
+        ProfileFactoryRegistry.register(MyOtherProfile.class, () -> profile);
+        assertSame(profile, ProfileHelper.buildUserProfileByClassCompleteName(MyOtherProfile.class.getName()));
+    }
+
+    @Test
+    public void testUnknownClass() {
+        final Exception e = TestsHelper.expectException(() -> ProfileFactoryRegistry.newProfile(VALUE));
+        assertTrue(e instanceof TechnicalException);
+        assertFalse(ProfileFactoryRegistry.isRegistered(VALUE));
+    }
+
+    @Test
+    public void testNotAProfileClass() {
+        TestsHelper.expectException(() -> ProfileFactoryRegistry.newProfile(String.class.getName()), TechnicalException.class,
+            "Not a profile class: java.lang.String");
+    }
+}
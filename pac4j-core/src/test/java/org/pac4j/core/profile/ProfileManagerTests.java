@@ -4,9 +4,11 @@ import org.junit.Before;
 import org.junit.Test;
 import org.pac4j.core.context.MockWebContext;
 import org.pac4j.core.context.Pac4jConstants;
+import org.pac4j.core.context.session.MockSessionStore;
 
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -244,4 +246,43 @@ public final class ProfileManagerTests {
         assertEquals(AnonymousProfile.INSTANCE, profileManager.getAll(true).get(0));
         assertFalse(profileManager.isAuthenticated());
     }
+
+    @Test
+    public void testSessionReadOncePerRequest() {
+        profiles.put(CLIENT1, PROFILE1);
+        final AtomicInteger nbReads = new AtomicInteger();
+        final MockSessionStore sessionStore = new MockSessionStore() {
+            @Override
+            public Object get(final MockWebContext context, final String key) {
+                nbReads.incrementAndGet();
+                return super.get(context, key);
+            }
+        };
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        profileManager = new ProfileManager(context, sessionStore);
+        assertEquals(PROFILE1, profileManager.getAll(true).get(0));
+        assertEquals(PROFILE1, profileManager.get(true).get());
+        assertEquals(PROFILE1, new ProfileManager(context, sessionStore).getAllView(true).iterator().next());
+        assertEquals(1, nbReads.get());
+        profileManager.save(true, PROFILE2, true);
+        assertEquals(2, profileManager.getAll(true).size());
+        assertEquals(2, nbReads.get());
+    }
+
+    @Test
+    public void testCacheInvalidatedByLogout() {
+        profiles.put(CLIENT1, PROFILE1);
+        context.getSessionStore().set(context, Pac4jConstants.USER_PROFILES, profiles);
+        assertTrue(profileManager.isAuthenticated());
+        new ProfileManager(context).logout();
+        assertFalse(profileManager.isAuthenticated());
+        assertFalse(profileManager.get(true).isPresent());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnlyView() {
+        profiles.put(CLIENT1, PROFILE1);
+        context.setRequestAttribute(Pac4jConstants.USER_PROFILES, profiles);
+        profileManager.getAllView(false).clear();
+    }
 }
@@ -0,0 +1,192 @@
+package org.pac4j.core.profile.codec;
+
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.Color;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.InternalAttributeHandler;
+import org.pac4j.core.util.JavaSerializationHelper;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link BinaryProfileCodec}.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class BinaryProfileCodecTests implements TestsConstants {
+
+    public static class TicketProfile extends CommonProfile {
+
+        private static final long serialVersionUID = 1L;
+
+        private String ticket;
+
+        public TicketProfile() {}
+
+        public TicketProfile(final String ticket) {
+            this.ticket = ticket;
+        }
+
+        public String getTicket() {
+            return ticket;
+        }
+    }
+
+    public static class ContextProfile extends CommonProfile {
+
+        private static final long serialVersionUID = 1L;
+
+        private Object context;
+
+        private transient Object transientContext;
+    }
+
+    private final BinaryProfileCodec codec = new BinaryProfileCodec();
+
+    private CommonProfile buildProfile() {
+        final CommonProfile profile = new CommonProfile();
+        profile.setId(ID);
+        profile.setClientName(CLIENT_NAME);
+        profile.setLinkedId(VALUE);
+        profile.setRemembered(true);
+        profile.addRole(ROLE);
+        profile.addPermission(VALUE);
+        profile.addAttribute(NAME, VALUE);
+        profile.addAttribute("bool", Boolean.FALSE);
+        profile.addAttribute("int", -12);
+        profile.addAttribute("long", Long.MAX_VALUE);
+        profile.addAttribute("double", 1.5d);
+        profile.addAttribute("float", -2.5f);
+        profile.addAttribute("date", new Date());
+        profile.addAttribute("uri", java.net.URI.create(CALLBACK_URL));
+        profile.addAttribute("list", new ArrayList<>(Arrays.asList(VALUE, 1, null)));
+        profile.addAttribute("set", new HashSet<>(Arrays.asList(KEY, VALUE)));
+        final Map<String, Object> map = new HashMap<>();
+        map.put(KEY, Collections.singletonList(VALUE));
+        profile.addAttribute("map", map);
+        profile.addAttribute("decimal", Locale.FRANCE);
+        profile.addAuthenticationAttribute(KEY, "été");
+        return profile;
+    }
+
+    private void assertSameProfile(final CommonProfile expected, final CommonProfile profile) {
+        assertEquals(expected.getClass(), profile.getClass());
+        assertEquals(expected.getId(), profile.getId());
+        assertEquals(expected.getClientName(), profile.getClientName());
+        assertEquals(expected.getLinkedId(), profile.getLinkedId());
+        assertEquals(expected.isRemembered(), profile.isRemembered());
+        assertEquals(expected.getRoles(), profile.getRoles());
+        assertEquals(expected.getPermissions(), profile.getPermissions());
+        assertEquals(expected.getAttributes(), profile.getAttributes());
+        assertEquals(expected.getAuthenticationAttributes(), profile.getAuthenticationAttributes());
+    }
+
+    @Test
+    public void testEncodeDecode() {
+        final CommonProfile profile = buildProfile();
+        final CommonProfile decoded = codec.decode(codec.encode(profile));
+        assertSameProfile(profile, decoded);
+        assertTrue(decoded.getAttribute("int") instanceof Integer);
+        assertTrue(decoded.getAttribute("float") instanceof Float);
+    }
+
+    @Test
+    public void testEncodeDecodeBase64() {
+        final CommonProfile profile = buildProfile();
+        assertSameProfile(profile, codec.decodeFromBase64(codec.encodeToBase64(profile)));
+    }
+
+    @Test
+    public void testSmallerThanJavaSerialization() {
+        final CommonProfile profile = buildProfile();
+        final byte[] javaBytes = new JavaSerializationHelper().serializeToBytes(profile);
+        assertTrue(codec.encode(profile).length * 2 < javaBytes.length);
+    }
+
+    @Test
+    public void testDecodeJavaSerialization() {
+        final CommonProfile profile = buildProfile();
+        final byte[] javaBytes = new JavaSerializationProfileCodec().encode(profile);
+        assertSameProfile(profile, codec.decode(javaBytes));
+    }
+
+    @Test
+    public void testUntrustedClass() {
+        final CommonProfile profile = buildProfile();
+        final JavaSerializationHelper helper = new JavaSerializationHelper();
+        helper.setTrustedPackages(Collections.singletonList("java."));
+        assertNull(new BinaryProfileCodec(helper).decode(codec.encode(profile)));
+    }
+
+    @Test
+    public void testUntrustedAttributeValue() {
+        final CommonProfile profile = new CommonProfile();
+        profile.setId(ID);
+        profile.addAttribute(KEY, new Color(1, 2, 3));
+        final JavaSerializationHelper helper = new JavaSerializationHelper();
+        helper.setTrustedPackages(Arrays.asList("java.", "org.pac4j.core.profile.CommonProfile"));
+        assertNull(new BinaryProfileCodec(helper).decode(codec.encode(profile)));
+        TestsHelper.expectException(() -> new BinaryProfileCodec(helper).encode(profile), TechnicalException.class,
+            "Value of untrusted class cannot be decoded: " + Color.class.getName());
+    }
+
+    @Test
+    public void testUnsupportedVersion() {
+        final byte[] bytes = codec.encode(buildProfile());
+        bytes[1] = 2;
+        assertNull(codec.decode(bytes));
+    }
+
+    @Test
+    public void testTruncated() {
+        final byte[] bytes = codec.encode(buildProfile());
+        assertNull(codec.decode(Arrays.copyOf(bytes, bytes.length - 3)));
+    }
+
+    @Test
+    public void testInternalAttributeHandler() {
+        final InternalAttributeHandler handler = new InternalAttributeHandler();
+        handler.setStringify(true);
+        handler.setProfileCodec(codec);
+        final CommonProfile profile = buildProfile();
+        final Object prepared = handler.prepare(profile);
+        assertTrue(((String) prepared).startsWith(InternalAttributeHandler.PREFIX_PROFILE));
+        assertSameProfile(profile, (CommonProfile) handler.restore(prepared));
+    }
+
+    @Test
+    public void testSubclassStateIsKept() {
+        final TicketProfile profile = new TicketProfile(VALUE);
+        profile.setId(ID);
+        profile.addAttribute(NAME, VALUE);
+        final CommonProfile decoded = codec.decode(codec.encode(profile));
+        assertSameProfile(profile, decoded);
+        assertEquals(VALUE, ((TicketProfile) decoded).getTicket());
+    }
+
+    @Test
+    public void testNotAnEncodedProfile() {
+        assertNull(codec.decode(new byte[] {1, 2, 3}));
+        assertNull(codec.decode(new byte[] {1}));
+    }
+
+    @Test
+    public void testFieldWhichCannotBeRestored() {
+        final ContextProfile profile = new ContextProfile();
+        profile.setId(ID);
+        profile.context = new Object();
+        TestsHelper.expectException(() -> codec.encode(profile), TechnicalException.class,
+            "Attribute value is not serializable: java.lang.Object");
+        profile.context = null;
+        profile.transientContext = new Object();
+        final ContextProfile decoded = (ContextProfile) codec.decode(codec.encode(profile));
+        assertEquals(ID, decoded.getId());
+        assertNull(decoded.transientContext);
+    }
+}
@@ -0,0 +1,72 @@
+package org.pac4j.core.profile.definition;
+
+import org.junit.Test;
+import org.pac4j.core.profile.AttributeLocation;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.converter.Converters;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link ProfileDefinition}.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class ProfileDefinitionTests implements TestsConstants {
+
+    private static final class TestProfileDefinition extends ProfileDefinition<CommonProfile> {
+
+        private TestProfileDefinition() {
+            primary("int", Converters.INTEGER);
+            secondary("bool", Converters.BOOLEAN);
+            for (int i = 0; i < 50; i++) {
+                secondary("long" + i, Converters.LONG);
+            }
+        }
+
+        private void addConverter(final String name) {
+            getConverters().put(name, Converters.INTEGER);
+        }
+    }
+
+    @Test
+    public void testConvertAndAdd() {
+        final TestProfileDefinition definition = new TestProfileDefinition();
+        final CommonProfile profile = new CommonProfile();
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put("int", "12");
+        attributes.put("bool", "true");
+        attributes.put(NAME, VALUE);
+        attributes.put(KEY, null);
+        for (int i = 0; i < 50; i++) {
+            attributes.put("long" + i, String.valueOf(i));
+        }
+        final Map<String, Object> authenticationAttributes = new HashMap<>();
+        authenticationAttributes.put("int", "13");
+        definition.convertAndAdd(profile, attributes, authenticationAttributes);
+        assertEquals(12, profile.getAttribute("int"));
+        assertEquals(Boolean.TRUE, profile.getAttribute("bool"));
+        assertEquals(VALUE, profile.getAttribute(NAME));
+        assertFalse(profile.containsAttribute(KEY));
+        for (int i = 0; i < 50; i++) {
+            assertEquals((long) i, profile.getAttribute("long" + i));
+        }
+        assertEquals(13, profile.getAuthenticationAttribute("int"));
+    }
+
+    @Test
+    public void testConverterAddedAfterUse() {
+        final TestProfileDefinition definition = new TestProfileDefinition();
+        final CommonProfile profile = new CommonProfile();
+        definition.convertAndAdd(profile, AttributeLocation.PROFILE_ATTRIBUTE, NAME, "1");
+        assertEquals("1", profile.getAttribute(NAME));
+        definition.addConverter(NAME);
+        definition.convertAndAdd(profile, AttributeLocation.PROFILE_ATTRIBUTE, NAME, "2");
+        assertEquals(2, profile.getAttribute(NAME));
+    }
+}
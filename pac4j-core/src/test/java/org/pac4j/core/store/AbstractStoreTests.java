@@ -5,8 +5,12 @@ import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNull;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
 
 /**
  * Test a store.
@@ -49,12 +53,57 @@ public abstract class AbstractStoreTests<S extends Store> implements TestsConsta
         assertNull(store.get(KEY));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSetNonPositiveTtl() {
+        final S store = buildStore();
+        store.set(KEY, VALUE);
+        store.set(KEY, NAME, 0, TimeUnit.SECONDS);
+        assertNull(store.get(KEY));
+        store.set(KEY, VALUE);
+        store.set(KEY, NAME, -1, TimeUnit.SECONDS);
+        assertNull(store.get(KEY));
+    }
+
     @Test
     public void testMissingObject() {
         final S store = buildStore();
         assertNull(store.get(KEY));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSetAllGetAll() {
+        final S store = buildStore();
+        final Map<String, String> values = new HashMap<>();
+        values.put(KEY, VALUE);
+        values.put(NAME, ID);
+        store.setAll(values);
+        final Map<String, String> found = store.getAll(Arrays.asList(KEY, NAME, VALUE));
+        assertEquals(values, found);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPutIfAbsent() {
+        final S store = buildStore();
+        assertTrue(store.putIfAbsent(KEY, VALUE));
+        assertFalse(store.putIfAbsent(KEY, NAME));
+        assertEquals(VALUE, store.get(KEY));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCompareAndRemove() {
+        final S store = buildStore();
+        store.set(KEY, VALUE);
+        assertFalse(store.remove(KEY, NAME));
+        assertEquals(VALUE, store.get(KEY));
+        assertTrue(store.remove(KEY, VALUE));
+        assertNull(store.get(KEY));
+        assertFalse(store.remove(KEY, VALUE));
+    }
+
     @Test
     public void testNullKeyGet() {
         final S store = buildStore();
@@ -0,0 +1,79 @@
+package org.pac4j.core.store;
+
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsHelper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test {@link ExpiringStore}.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class ExpiringStoreTests extends AbstractStoreTests<ExpiringStore> {
+
+    protected ExpiringStore buildStore() {
+        final ExpiringStore store = new ExpiringStore(1000, TimeUnit.MILLISECONDS);
+        store.setTickDuration(10);
+        return store;
+    }
+
+    @Test
+    public void testBadTimeout() {
+        final ExpiringStore store = new ExpiringStore();
+        store.setTimeUnit(TimeUnit.SECONDS);
+        TestsHelper.expectException(store::init, TechnicalException.class, "timeout must be greater than zero");
+    }
+
+    @Test
+    public void testBadTimeUnit() {
+        final ExpiringStore store = new ExpiringStore();
+        store.setTimeout(10);
+        TestsHelper.expectException(store::init, TechnicalException.class, "timeUnit cannot be null");
+    }
+
+    @Test
+    public void testExpirationAcrossLevels() throws InterruptedException {
+        final ExpiringStore<String, String> store = new ExpiringStore<>(10, TimeUnit.SECONDS);
+        store.setTickDuration(1);
+        for (int i = 0; i < 1000; i++) {
+            store.set(KEY + i, VALUE, 50 + i % 3 * 100, TimeUnit.MILLISECONDS);
+        }
+        store.set(NAME, VALUE);
+        assertEquals(1001, store.size());
+        Thread.sleep(150);
+        assertNull(store.get(KEY + 0));
+        assertEquals(VALUE, store.get(KEY + 2));
+        assertTrue(store.size() <= 1001 - 334);
+        Thread.sleep(300);
+        assertEquals(1, store.size());
+        assertEquals(VALUE, store.get(NAME));
+    }
+
+    @Test
+    public void testOverwriteResetsExpiration() throws InterruptedException {
+        final ExpiringStore<String, String> store = new ExpiringStore<>(10, TimeUnit.SECONDS);
+        store.setTickDuration(1);
+        store.set(KEY, VALUE, 50, TimeUnit.MILLISECONDS);
+        store.set(KEY, NAME);
+        Thread.sleep(100);
+        assertEquals(NAME, store.get(KEY));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void testPutIfAbsentAfterExpiration() throws InterruptedException {
+        final ExpiringStore<String, String> store = new ExpiringStore<>(10, TimeUnit.SECONDS);
+        store.set(KEY, VALUE, 50, TimeUnit.MILLISECONDS);
+        assertFalse(store.putIfAbsent(KEY, NAME));
+        Thread.sleep(100);
+        assertTrue(store.putIfAbsent(KEY, NAME));
+        assertEquals(NAME, store.get(KEY));
+        assertFalse(store.remove(KEY, VALUE));
+        assertTrue(store.remove(KEY, NAME));
+    }
+}
@@ -4,8 +4,11 @@ import org.junit.Test;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.TestsHelper;
 
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
+import static org.junit.Assert.*;
+
 /**
  * Test {@link GuavaStore}.
  *
@@ -18,6 +21,71 @@ public final class GuavaStoreTests extends AbstractStoreTests<GuavaStore> {
         return new GuavaStore(10, 1000, TimeUnit.MILLISECONDS);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSetWithTimeToLive() throws InterruptedException {
+        final GuavaStore store = buildStore();
+        store.set(KEY, VALUE, 100, TimeUnit.MILLISECONDS);
+        store.set(NAME, VALUE);
+        assertEquals(VALUE, store.get(KEY));
+        Thread.sleep(200);
+        assertNull(store.get(KEY));
+        assertEquals(VALUE, store.get(NAME));
+        assertEquals(1, store.getAll(Arrays.asList(KEY, NAME)).size());
+        assertTrue(store.putIfAbsent(KEY, NAME));
+        assertEquals(NAME, store.get(KEY));
+    }
+
+    @Test
+    public void testResetTimeToLive() throws InterruptedException {
+        final GuavaStore store = buildStore();
+        store.set(KEY, VALUE, 100, TimeUnit.MILLISECONDS);
+        store.set(KEY, VALUE);
+        Thread.sleep(200);
+        assertEquals(VALUE, store.get(KEY));
+        store.set(KEY, VALUE, 0, TimeUnit.MILLISECONDS);
+        assertNull(store.get(KEY));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStatistics() throws InterruptedException {
+        final GuavaStore store = new GuavaStore(2, 10, TimeUnit.SECONDS);
+        store.set(KEY, VALUE);
+        store.set(KEY, VALUE);
+        store.set(NAME, VALUE, 50, TimeUnit.MILLISECONDS);
+        assertEquals(VALUE, store.get(KEY));
+        Thread.sleep(100);
+        assertNull(store.get(NAME));
+        store.set(ID, VALUE);
+        store.set(VALUE, VALUE);
+        assertNull(store.get(KEY));
+        store.remove(ID);
+
+        final StoreStatistics statistics = store.getStatistics();
+        assertEquals(1, statistics.getHitCount());
+        assertEquals(2, statistics.getMissCount());
+        assertEquals(1, statistics.getEvictionCount(StoreStatistics.EVICTION_REPLACED));
+        assertEquals(1, statistics.getEvictionCount(StoreStatistics.EVICTION_SIZE));
+        assertEquals(1, statistics.getEvictionCount(StoreStatistics.EVICTION_EXPIRED));
+        assertEquals(1, statistics.getEvictionCount(StoreStatistics.EVICTION_EXPLICIT));
+        assertEquals(1, statistics.getSize());
+        assertTrue(statistics.getEstimatedMemory() > 0);
+    }
+
+    @Test
+    public void testEstimatedMemory() {
+        final GuavaStore<String, Object> store = new GuavaStore<>(10, 10, TimeUnit.SECONDS);
+        assertEquals(0, store.getStatistics().getEstimatedMemory());
+        // a value which cannot be serialized is not measured
+        store.set(KEY, new Object());
+        final long memory = store.getStatistics().getEstimatedMemory();
+        assertTrue(memory > 0);
+        // the average size of an entry is reused between the calls
+        store.set(NAME, new String(new char[1000]));
+        assertEquals(2 * memory, store.getStatistics().getEstimatedMemory());
+    }
+
     @Test
     public void testBadSize() {
         final GuavaStore store = new GuavaStore();
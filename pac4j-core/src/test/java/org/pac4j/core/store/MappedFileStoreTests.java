@@ -0,0 +1,183 @@
+package org.pac4j.core.store;
+
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsHelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test {@link MappedFileStore}.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class MappedFileStoreTests extends AbstractStoreTests<MappedFileStore> {
+
+    private static String newPath() {
+        try {
+            final File file = File.createTempFile("pac4j-store", ".dat");
+            file.deleteOnExit();
+            return file.getAbsolutePath();
+        } catch (final IOException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    protected MappedFileStore buildStore() {
+        final MappedFileStore store = new MappedFileStore(newPath(), 1000, TimeUnit.MILLISECONDS);
+        store.setInitialCapacity(1024);
+        return store;
+    }
+
+    @Test
+    public void testMissingPath() {
+        TestsHelper.expectException(() -> new MappedFileStore<>().init(), TechnicalException.class, "path cannot be blank");
+    }
+
+    @Test
+    public void testRestart() {
+        final String path = newPath();
+        final MappedFileStore<String, String> store = new MappedFileStore<>(path);
+        store.set(KEY, VALUE);
+        store.set(NAME, VALUE);
+        store.set(ID, VALUE, 10, TimeUnit.SECONDS);
+        store.remove(NAME);
+        store.close();
+        TestsHelper.expectException(() -> store.get(KEY), TechnicalException.class, "Store is closed: " + path);
+
+        final MappedFileStore<String, String> newStore = new MappedFileStore<>(path);
+        assertEquals(VALUE, newStore.get(KEY));
+        assertNull(newStore.get(NAME));
+        assertEquals(VALUE, newStore.get(ID));
+        assertEquals(2, newStore.size());
+        newStore.close();
+    }
+
+    @Test
+    public void testExpiredOnRestart() throws InterruptedException {
+        final String path = newPath();
+        final MappedFileStore<String, String> store = new MappedFileStore<>(path);
+        store.set(KEY, VALUE, 100, TimeUnit.MILLISECONDS);
+        store.close();
+        Thread.sleep(200);
+
+        final MappedFileStore<String, String> newStore = new MappedFileStore<>(path);
+        assertNull(newStore.get(KEY));
+        assertEquals(0, newStore.size());
+        newStore.close();
+    }
+
+    @Test
+    public void testGrowAndCompact() {
+        final String path = newPath();
+        final MappedFileStore<String, String> store = new MappedFileStore<>(path);
+        store.setInitialCapacity(1024);
+        store.setMinCompactionSize(4096);
+        for (int i = 0; i < 1000; i++) {
+            store.set(KEY + (i % 10), VALUE + i);
+        }
+        assertEquals(10, store.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(VALUE + (990 + i), store.get(KEY + i));
+        }
+        assertTrue(new File(path).length() <= 16384);
+        assertFalse(new File(path + ".compact").exists());
+        store.close();
+
+        final MappedFileStore<String, String> newStore = new MappedFileStore<>(path);
+        assertEquals(VALUE + 995, newStore.get(KEY + 5));
+        newStore.close();
+    }
+
+    @Test
+    public void testExpiredCompactedWithoutRead() throws InterruptedException {
+        final String path = newPath();
+        final MappedFileStore<String, String> store = new MappedFileStore<>(path, 50, TimeUnit.MILLISECONDS);
+        store.setInitialCapacity(1024);
+        store.setMinCompactionSize(4096);
+        for (int i = 0; i < 1000; i++) {
+            store.set(KEY + i, VALUE);
+        }
+        Thread.sleep(100);
+        for (int i = 0; i < 100; i++) {
+            store.set(NAME + i, VALUE, 10, TimeUnit.SECONDS);
+        }
+        assertEquals(100, store.size());
+        assertEquals(VALUE, store.get(NAME + 50));
+        assertTrue(new File(path).length() <= 16384);
+        store.close();
+    }
+
+    @Test
+    public void testMaxEntries() {
+        final String path = newPath();
+        final MappedFileStore<String, String> store = new MappedFileStore<>(path);
+        store.setMaxEntries(100);
+        for (int i = 0; i < 101; i++) {
+            store.set(KEY + i, VALUE);
+        }
+        assertEquals(90, store.size());
+        assertNull(store.get(KEY + 10));
+        assertEquals(VALUE, store.get(KEY + 11));
+        assertEquals(VALUE, store.get(KEY + 100));
+        store.close();
+
+        final MappedFileStore<String, String> newStore = new MappedFileStore<>(path);
+        newStore.setMaxEntries(50);
+        assertEquals(45, newStore.size());
+        assertEquals(VALUE, newStore.get(KEY + 100));
+        newStore.close();
+    }
+
+    @Test
+    public void testCorruptedTail() throws IOException {
+        final String path = newPath();
+        final MappedFileStore<String, String> store = new MappedFileStore<>(path);
+        store.set(KEY, VALUE);
+        store.set(NAME, VALUE);
+        store.close();
+
+        try (final RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            // find the end of the records and write a torn record
+            long pos = 8;
+            while (true) {
+                file.seek(pos);
+                final int recordLength = file.readInt();
+                if (recordLength == 0) {
+                    break;
+                }
+                pos += 8 + recordLength;
+            }
+            file.seek(pos);
+            file.writeInt(100);
+            file.writeInt(12345);
+            file.write(new byte[] {1, 2, 3});
+        }
+
+        final MappedFileStore<String, String> newStore = new MappedFileStore<>(path);
+        assertEquals(VALUE, newStore.get(KEY));
+        assertEquals(VALUE, newStore.get(NAME));
+        newStore.set(ID, VALUE);
+        newStore.close();
+
+        final MappedFileStore<String, String> lastStore = new MappedFileStore<>(path);
+        assertEquals(VALUE, lastStore.get(ID));
+        assertEquals(3, lastStore.size());
+        lastStore.close();
+    }
+
+    @Test
+    public void testNotAStoreFile() throws IOException {
+        final String path = newPath();
+        Files.write(new File(path).toPath(), VALUE.getBytes("UTF-8"));
+        TestsHelper.expectException(() -> new MappedFileStore<>(path).init(), TechnicalException.class,
+            "Not a store file: " + path);
+    }
+}
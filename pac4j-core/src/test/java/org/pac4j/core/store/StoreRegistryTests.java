@@ -0,0 +1,43 @@
+package org.pac4j.core.store;
+
+import org.junit.Test;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test {@link StoreRegistry}.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class StoreRegistryTests implements TestsConstants {
+
+    @Test
+    public void testRegisterAndStatistics() {
+        final GuavaStore<String, String> store = StoreRegistry.register(KEY, new GuavaStore<>(10, 10, TimeUnit.SECONDS));
+        store.set(KEY, VALUE);
+        store.get(KEY);
+        assertSame(store, StoreRegistry.getStores().get(KEY));
+        assertEquals(1, StoreRegistry.getStatistics().get(KEY).getHitCount());
+
+        StoreRegistry.register(NAME, new ExpiringStore<>(10, TimeUnit.SECONDS));
+        assertTrue(StoreRegistry.getStores().containsKey(NAME));
+        assertFalse(StoreRegistry.getStatistics().containsKey(NAME));
+
+        StoreRegistry.unregister(KEY);
+        StoreRegistry.unregister(NAME);
+        assertFalse(StoreRegistry.getStores().containsKey(KEY));
+    }
+
+    @Test
+    public void testRegisterByOwner() {
+        final Object owner = new Object();
+        final GuavaStore<String, String> store = StoreRegistry.register(owner, new GuavaStore<>(10, 10, TimeUnit.SECONDS));
+        final String name = "Object@" + Integer.toHexString(System.identityHashCode(owner));
+        assertSame(store, StoreRegistry.getStores().get(name));
+        StoreRegistry.unregister(name);
+    }
+}
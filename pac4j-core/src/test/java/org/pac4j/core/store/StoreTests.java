@@ -0,0 +1,54 @@
+package org.pac4j.core.store;
+
+import org.junit.Test;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the default methods of {@link Store}.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class StoreTests implements TestsConstants {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    private final Store<String, String> store = new Store<String, String>() {
+        @Override
+        public String get(final String key) {
+            return values.get(key);
+        }
+
+        @Override
+        public void set(final String key, final String value) {
+            values.put(key, value);
+        }
+
+        @Override
+        public void remove(final String key) {
+            values.remove(key);
+        }
+    };
+
+    @Test
+    public void testSetWithTtl() {
+        store.set(KEY, VALUE, 1, TimeUnit.SECONDS);
+        assertEquals(VALUE, store.get(KEY));
+    }
+
+    @Test
+    public void testSetNonPositiveTtl() {
+        store.set(KEY, VALUE);
+        store.set(KEY, NAME, 0, TimeUnit.SECONDS);
+        assertNull(store.get(KEY));
+        store.set(KEY, VALUE);
+        store.set(KEY, NAME, -1, TimeUnit.SECONDS);
+        assertNull(store.get(KEY));
+    }
+}
@@ -0,0 +1,134 @@
+package org.pac4j.core.store;
+
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsHelper;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test {@link TieredStore}.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class TieredStoreTests extends AbstractStoreTests<TieredStore> {
+
+    private static class LocalNotifier implements StoreInvalidationNotifier<String> {
+
+        private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void addListener(final Consumer<String> listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void notifyInvalidation(final String key) {
+            listeners.forEach(l -> l.accept(key));
+        }
+    }
+
+    protected TieredStore buildStore() {
+        final TieredStore store = new TieredStore(new GuavaStore(10, 1000, TimeUnit.MILLISECONDS));
+        store.setL1Timeout(500);
+        return store;
+    }
+
+    @Test
+    public void testMissingL2() {
+        TestsHelper.expectException(() -> new TieredStore<>().init(), TechnicalException.class, "l2 cannot be null");
+    }
+
+    @Test
+    public void testHitRates() {
+        final GuavaStore<String, String> l2 = new GuavaStore<>(10, 10, TimeUnit.SECONDS);
+        final TieredStore<String, String> store = new TieredStore<>(l2);
+        l2.set(KEY, VALUE);
+        assertEquals(VALUE, store.get(KEY));
+        assertEquals(VALUE, store.get(KEY));
+        assertEquals(VALUE, store.get(KEY));
+        assertNull(store.get(NAME));
+        assertEquals(2, store.getL1HitCount());
+        assertEquals(1, store.getL2HitCount());
+        assertEquals(1, store.getMissCount());
+        assertEquals(0.5, store.getL1HitRate(), 0.001);
+        assertEquals(0.25, store.getL2HitRate(), 0.001);
+    }
+
+    @Test
+    public void testRemoteInvalidation() {
+        final GuavaStore<String, String> l2 = new GuavaStore<>(10, 10, TimeUnit.SECONDS);
+        final LocalNotifier notifier = new LocalNotifier();
+        final TieredStore<String, String> node1 = new TieredStore<>(l2, notifier);
+        final TieredStore<String, String> node2 = new TieredStore<>(l2, notifier);
+        node1.set(KEY, VALUE);
+        assertEquals(VALUE, node2.get(KEY));
+        node1.set(KEY, NAME);
+        assertEquals(NAME, node2.get(KEY));
+        node1.remove(KEY);
+        assertNull(node2.get(KEY));
+        assertNull(l2.get(KEY));
+    }
+
+    @Test
+    public void testNoInvalidation() {
+        final GuavaStore<String, String> l2 = new GuavaStore<>(10, 10, TimeUnit.SECONDS);
+        final TieredStore<String, String> node1 = new TieredStore<>(l2);
+        final TieredStore<String, String> node2 = new TieredStore<>(l2);
+        node1.set(KEY, VALUE);
+        assertEquals(VALUE, node2.get(KEY));
+        node1.remove(KEY);
+        assertEquals(VALUE, node2.get(KEY));
+        node2.invalidate(KEY);
+        assertNull(node2.get(KEY));
+    }
+
+    @Test
+    public void testInvalidationDuringRead() {
+        final TieredStore<String, String>[] node = new TieredStore[1];
+        final GuavaStore<String, String> l2 = new GuavaStore<String, String>(10, 10, TimeUnit.SECONDS) {
+            @Override
+            protected String internalGet(final String key) {
+                final String value = super.internalGet(key);
+                // the key is removed by another node while this one is reading it
+                super.internalRemove(key);
+                node[0].invalidate(key);
+                return value;
+            }
+        };
+        node[0] = new TieredStore<>(l2);
+        l2.set(KEY, VALUE);
+        assertEquals(VALUE, node[0].get(KEY));
+        assertNull(node[0].getL1().get(KEY));
+        assertNull(node[0].get(KEY));
+    }
+
+    @Test
+    public void testInvalidationDuringReadAll() {
+        final TieredStore<String, String>[] node = new TieredStore[1];
+        final GuavaStore<String, String> l2 = new GuavaStore<String, String>(10, 10, TimeUnit.SECONDS) {
+            @Override
+            protected Map<String, String> internalGetAll(final Collection<String> keys) {
+                final Map<String, String> values = super.internalGetAll(keys);
+                super.internalRemove(KEY);
+                node[0].invalidate(KEY);
+                return values;
+            }
+        };
+        node[0] = new TieredStore<>(l2);
+        l2.set(KEY, VALUE);
+        l2.set(NAME, VALUE);
+        assertEquals(2, node[0].getAll(Arrays.asList(KEY, NAME)).size());
+        assertNull(node[0].getL1().get(KEY));
+        assertNull(node[0].get(KEY));
+    }
+}
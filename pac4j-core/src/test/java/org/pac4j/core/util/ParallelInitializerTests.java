@@ -0,0 +1,92 @@
+package org.pac4j.core.util;
+
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link ParallelInitializer}.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class ParallelInitializerTests implements TestsConstants {
+
+    private static final class FailingInitializableObject extends InitializableObject {
+
+        @Override
+        protected void internalInit() {
+            throw new TechnicalException(VALUE);
+        }
+    }
+
+    private static final class LatchInitializableObject extends InitializableObject {
+
+        private final CountDownLatch latch;
+
+        private LatchInitializableObject(final CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        protected void internalInit() {
+            latch.countDown();
+            try {
+                if (!latch.await(5, TimeUnit.SECONDS)) {
+                    throw new TechnicalException("Not initialized in parallel");
+                }
+            } catch (final InterruptedException e) {
+                throw new TechnicalException(e);
+            }
+        }
+    }
+
+    @Test
+    public void testBadParallelism() {
+        TestsHelper.expectException(() -> ParallelInitializer.initialize(new LinkedHashMap<>(), 0), TechnicalException.class,
+            "parallelism must be greater than zero");
+    }
+
+    @Test
+    public void testInitializeOnce() {
+        final CounterInitializableObject counter = new CounterInitializableObject();
+        final Map<String, InitializableObject> components = new LinkedHashMap<>();
+        components.put(KEY, counter);
+        components.put(NAME, counter);
+        final InitializationReport report = ParallelInitializer.initialize(components, 4);
+        assertTrue(report.isSuccessful());
+        assertEquals(1, counter.getCounter());
+        assertEquals(1, report.getDurations().size());
+        assertTrue(report.getDurations().containsKey(KEY));
+    }
+
+    @Test
+    public void testParallelInitialization() {
+        final CountDownLatch latch = new CountDownLatch(3);
+        final Map<String, InitializableObject> components = new LinkedHashMap<>();
+        components.put(KEY, new LatchInitializableObject(latch));
+        components.put(NAME, new LatchInitializableObject(latch));
+        components.put(VALUE, new LatchInitializableObject(latch));
+        final InitializationReport report = ParallelInitializer.initialize(components, 3);
+        assertTrue(report.isSuccessful());
+        assertEquals(3, report.getDurations().size());
+    }
+
+    @Test
+    public void testFailure() {
+        final Map<String, InitializableObject> components = new LinkedHashMap<>();
+        components.put(KEY, new FailingInitializableObject());
+        components.put(NAME, new CounterInitializableObject());
+        final InitializationReport report = ParallelInitializer.initialize(components, 2);
+        assertFalse(report.isSuccessful());
+        assertEquals(2, report.getDurations().size());
+        assertEquals(1, report.getFailures().size());
+        assertEquals(VALUE, report.getFailures().get(KEY).getMessage());
+    }
+}
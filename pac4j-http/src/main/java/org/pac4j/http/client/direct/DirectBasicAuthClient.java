@@ -43,11 +43,11 @@ public class DirectBasicAuthClient extends DirectClient<UsernamePasswordCredenti
     }
 
     @Override
-    protected UsernamePasswordCredentials retrieveCredentials(final WebContext context) {
+    protected UsernamePasswordCredentials extractCredentials(final WebContext context) {
         // set the www-authenticate in case of error
         context.setResponseHeader(HttpConstants.AUTHENTICATE_HEADER, "Basic realm=\"" + realmName + "\"");
 
-        return super.retrieveCredentials(context);
+        return super.extractCredentials(context);
     }
 
     public String getRealmName() {
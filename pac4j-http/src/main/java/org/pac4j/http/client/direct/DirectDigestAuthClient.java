@@ -14,6 +14,7 @@ import org.pac4j.http.credentials.extractor.DigestAuthExtractor;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletionStage;
 
 /**
  * <p>This class is the client to authenticate users directly through HTTP digest auth.</p>
@@ -51,7 +52,15 @@ public class DirectDigestAuthClient extends DirectClient<DigestCredentials, Comm
      */
     @Override
     protected DigestCredentials retrieveCredentials(final WebContext context) {
-        DigestCredentials credentials = super.retrieveCredentials(context);
+        return challengeIfMissing(super.retrieveCredentials(context), context);
+    }
+
+    @Override
+    protected CompletionStage<DigestCredentials> retrieveCredentialsAsync(final WebContext context) {
+        return super.retrieveCredentialsAsync(context).thenApply(credentials -> challengeIfMissing(credentials, context));
+    }
+
+    private DigestCredentials challengeIfMissing(final DigestCredentials credentials, final WebContext context) {
         if (credentials == null) {
             String nonce = calculateNonce();
             context.setResponseHeader(HttpConstants.AUTHENTICATE_HEADER, "Digest realm=\"" + realm + "\", qop=\"auth\", nonce=\""
@@ -61,6 +70,11 @@ public class DirectDigestAuthClient extends DirectClient<DigestCredentials, Comm
         return credentials;
     }
 
+    @Override
+    public boolean isValidationSeparable() {
+        return false;
+    }
+
     /**
      * A server-specified data string which should be uniquely generated each time a 401 response is made (RFC 2617)
      * Based on current time including nanoseconds
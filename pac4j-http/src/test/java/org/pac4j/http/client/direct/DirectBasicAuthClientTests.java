@@ -54,4 +54,28 @@ public final class DirectBasicAuthClientTests implements TestsConstants {
         final CommonProfile profile = client.getUserProfile(credentials, context);
         assertEquals(USERNAME, profile.getId());
     }
+
+    @Test
+    public void testAsyncAuthentication() {
+        final DirectBasicAuthClient client = new DirectBasicAuthClient(new SimpleTestUsernamePasswordAuthenticator());
+        final MockWebContext context = MockWebContext.create();
+        final String header = USERNAME + ":" + USERNAME;
+        context.addRequestHeader(HttpConstants.AUTHORIZATION_HEADER,
+            "Basic " + Base64.getEncoder().encodeToString(header.getBytes(StandardCharsets.UTF_8)));
+        final UsernamePasswordCredentials credentials = client.getCredentialsAsync(context).toCompletableFuture().join();
+        final CommonProfile profile = client.getUserProfileAsync(credentials, context).toCompletableFuture().join();
+        assertEquals(USERNAME, profile.getId());
+    }
+
+    @Test
+    public void testAsyncAuthenticationFailureSetsAuthenticateHeader() {
+        final DirectBasicAuthClient client = new DirectBasicAuthClient(new SimpleTestUsernamePasswordAuthenticator());
+        client.setRealmName(NAME);
+        final MockWebContext context = MockWebContext.create();
+        final String header = USERNAME + ":" + PASSWORD;
+        context.addRequestHeader(HttpConstants.AUTHORIZATION_HEADER,
+            "Basic " + Base64.getEncoder().encodeToString(header.getBytes(StandardCharsets.UTF_8)));
+        assertNull(client.getCredentialsAsync(context).toCompletableFuture().join());
+        assertEquals("Basic realm=\"" + NAME + "\"", context.getResponseHeaders().get(HttpConstants.AUTHENTICATE_HEADER));
+    }
 }
@@ -2,6 +2,7 @@ package org.pac4j.http.client.direct;
 
 import org.junit.Test;
 import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.exception.HttpAction;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.util.TestsConstants;
@@ -11,7 +12,10 @@ import org.pac4j.http.credentials.DigestCredentials;
 import org.pac4j.http.credentials.authenticator.test.SimpleTestDigestAuthenticator;
 import org.pac4j.http.credentials.authenticator.test.SimpleTestTokenAuthenticator;
 
+import java.util.concurrent.CompletionException;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.pac4j.core.context.HttpConstants.*;
 
 /**
@@ -63,4 +67,15 @@ public class DirectDigestAuthClientTests implements TestsConstants {
         assertEquals(DIGEST_RESPONSE, serverDigest2);
         assertEquals(USERNAME, profile.getId());
     }
+
+    @Test
+    public void testAsyncMissingCredentialsChallenge() {
+        final DirectDigestAuthClient client = new DirectDigestAuthClient(new SimpleTestDigestAuthenticator());
+        client.setRealm(REALM);
+        final MockWebContext context = MockWebContext.create();
+        final Exception e = TestsHelper.expectException(() -> client.getCredentialsAsync(context).toCompletableFuture().join());
+        assertTrue(e instanceof CompletionException);
+        assertEquals(401, ((HttpAction) e.getCause()).getCode());
+        assertTrue(context.getResponseHeaders().get(AUTHENTICATE_HEADER).startsWith("Digest realm=\"" + REALM + "\""));
+    }
 }
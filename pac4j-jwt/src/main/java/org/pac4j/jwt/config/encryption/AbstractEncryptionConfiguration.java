@@ -6,12 +6,17 @@ import com.nimbusds.jwt.JWT;
 import com.nimbusds.jwt.SignedJWT;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.InitializableObject;
+import org.pac4j.jwt.util.KeyBoundComponent;
 
 import java.text.ParseException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Abstract encryption configuration.
  *
+ * The encrypter and the decrypter are thread-safe: they are built on first use and reused until the keys, the algorithm
+ * or the method change (which increments the key generation).
+ *
  * @author Jerome Leleu
  * @since 1.9.2
  */
@@ -21,6 +26,14 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
 
     protected EncryptionMethod method;
 
+    private String keyId;
+
+    private final AtomicLong keyGeneration = new AtomicLong();
+
+    private final KeyBoundComponent<JWEEncrypter> encrypter = new KeyBoundComponent<>(this::buildEncrypter, keyGeneration);
+
+    private final KeyBoundComponent<JWEDecrypter> decrypter = new KeyBoundComponent<>(this::buildDecrypter, keyGeneration);
+
     @Override
     public String encrypt(final JWT jwt) {
         init();
@@ -28,12 +41,12 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
         if (jwt instanceof SignedJWT) {
             // Create JWE object with signed JWT as payload
             final JWEObject jweObject = new JWEObject(
-                    new JWEHeader.Builder(this.algorithm, this.method).contentType("JWT").build(),
+                    new JWEHeader.Builder(this.algorithm, this.method).contentType("JWT").keyID(keyId).build(),
                     new Payload((SignedJWT) jwt));
 
             try {
                 // Perform encryption
-                jweObject.encrypt(buildEncrypter());
+                jweObject.encrypt(getEncrypter());
             } catch (final JOSEException e) {
                 throw new TechnicalException(e);
             }
@@ -42,14 +55,14 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
             return jweObject.serialize();
         } else {
             // create header
-            final JWEHeader header = new JWEHeader(this.algorithm, this.method);
+            final JWEHeader header = new JWEHeader.Builder(this.algorithm, this.method).keyID(keyId).build();
 
             try {
                 // encrypted jwt
                 EncryptedJWT encryptedJwt = new EncryptedJWT(header, jwt.getJWTClaimsSet());
 
                 // Perform encryption
-                encryptedJwt.encrypt(buildEncrypter());
+                encryptedJwt.encrypt(getEncrypter());
 
                 // serialize
                 return encryptedJwt.serialize();
@@ -59,6 +72,19 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
         }
     }
 
+    /**
+     * Get the encrypter, built on first use.
+     *
+     * @return the encrypter
+     */
+    protected JWEEncrypter getEncrypter() {
+        try {
+            return encrypter.get();
+        } catch (final JOSEException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
     /**
      * Build the appropriate encrypter.
      *
@@ -71,7 +97,20 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
         init();
 
         // decrypt
-        encryptedJWT.decrypt(buildDecrypter());
+        encryptedJWT.decrypt(getDecrypter());
+    }
+
+    /**
+     * Get the decrypter, built on first use.
+     *
+     * @return the decrypter
+     */
+    protected JWEDecrypter getDecrypter() {
+        try {
+            return decrypter.get();
+        } catch (final JOSEException e) {
+            throw new TechnicalException(e);
+        }
     }
 
     /**
@@ -81,12 +120,29 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
      */
     protected abstract JWEDecrypter buildDecrypter();
 
+    /**
+     * Discard the encrypter and the decrypter after a change of keys: to be called once the keys are changed.
+     */
+    protected void resetEncrypterAndDecrypter() {
+        keyGeneration.incrementAndGet();
+    }
+
+    /**
+     * Get the generation of the keys, incremented on each change of the keys, the key identifier, the algorithm or the method.
+     *
+     * @return the key generation
+     */
+    public long getKeyGeneration() {
+        return keyGeneration.get();
+    }
+
     public JWEAlgorithm getAlgorithm() {
         return algorithm;
     }
 
     public void setAlgorithm(final JWEAlgorithm algorithm) {
         this.algorithm = algorithm;
+        resetEncrypterAndDecrypter();
     }
 
     public EncryptionMethod getMethod() {
@@ -95,5 +151,16 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
 
     public void setMethod(final EncryptionMethod method) {
         this.method = method;
+        resetEncrypterAndDecrypter();
+    }
+
+    @Override
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public void setKeyId(final String keyId) {
+        this.keyId = keyId;
+        resetEncrypterAndDecrypter();
     }
 }
@@ -5,6 +5,7 @@ import com.nimbusds.jose.crypto.ECDHDecrypter;
 import com.nimbusds.jose.crypto.ECDHEncrypter;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.CommonHelper;
+import org.pac4j.jwt.util.JWKHelper;
 
 import java.security.KeyPair;
 import java.security.interfaces.ECPrivateKey;
@@ -74,11 +75,16 @@ public class ECEncryptionConfiguration extends AbstractEncryptionConfiguration {
         }
     }
 
+    @Override
+    public String getKeyThumbprint() {
+        return JWKHelper.computeThumbprint(publicKey);
+    }
 
     public void setKeyPair(final KeyPair keyPair) {
         CommonHelper.assertNotNull("keyPair", keyPair);
         this.privateKey = (ECPrivateKey) keyPair.getPrivate();
         this.publicKey = (ECPublicKey) keyPair.getPublic();
+        resetEncrypterAndDecrypter();
     }
 
     public ECPublicKey getPublicKey() {
@@ -87,6 +93,7 @@ public class ECEncryptionConfiguration extends AbstractEncryptionConfiguration {
 
     public void setPublicKey(final ECPublicKey publicKey) {
         this.publicKey = publicKey;
+        resetEncrypterAndDecrypter();
     }
 
     public ECPrivateKey getPrivateKey() {
@@ -95,6 +102,7 @@ public class ECEncryptionConfiguration extends AbstractEncryptionConfiguration {
 
     public void setPrivateKey(final ECPrivateKey privateKey) {
         this.privateKey = privateKey;
+        resetEncrypterAndDecrypter();
     }
 
     @Override
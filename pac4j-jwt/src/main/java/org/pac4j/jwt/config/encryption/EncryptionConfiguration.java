@@ -38,4 +38,22 @@ public interface EncryptionConfiguration {
      * @throws JOSEException exception when decrypting the JWT
      */
     void decrypt(EncryptedJWT encryptedJWT) throws JOSEException;
+
+    /**
+     * Get the identifier of the key (the <code>kid</code> header of the JWT).
+     *
+     * @return the identifier of the key, <code>null</code> if not defined
+     */
+    default String getKeyId() {
+        return null;
+    }
+
+    /**
+     * Get the JWK thumbprint (RFC 7638) of the key, used as its identifier when no key identifier is defined.
+     *
+     * @return the thumbprint of the key, <code>null</code> if not available
+     */
+    default String getKeyThumbprint() {
+        return null;
+    }
 }
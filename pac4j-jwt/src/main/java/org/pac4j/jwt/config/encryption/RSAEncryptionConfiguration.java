@@ -4,6 +4,7 @@ import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.*;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.CommonHelper;
+import org.pac4j.jwt.util.JWKHelper;
 
 import java.security.KeyPair;
 import java.security.interfaces.RSAPrivateKey;
@@ -65,10 +66,16 @@ public class RSAEncryptionConfiguration extends AbstractEncryptionConfiguration
         return new RSADecrypter(this.privateKey);
     }
 
+    @Override
+    public String getKeyThumbprint() {
+        return JWKHelper.computeThumbprint(publicKey);
+    }
+
     public void setKeyPair(final KeyPair keyPair) {
         CommonHelper.assertNotNull("keyPair", keyPair);
         this.privateKey = (RSAPrivateKey) keyPair.getPrivate();
         this.publicKey = (RSAPublicKey) keyPair.getPublic();
+        resetEncrypterAndDecrypter();
     }
 
     public RSAPublicKey getPublicKey() {
@@ -77,6 +84,7 @@ public class RSAEncryptionConfiguration extends AbstractEncryptionConfiguration
 
     public void setPublicKey(final RSAPublicKey publicKey) {
         this.publicKey = publicKey;
+        resetEncrypterAndDecrypter();
     }
 
     public RSAPrivateKey getPrivateKey() {
@@ -85,6 +93,7 @@ public class RSAEncryptionConfiguration extends AbstractEncryptionConfiguration
 
     public void setPrivateKey(final RSAPrivateKey privateKey) {
         this.privateKey = privateKey;
+        resetEncrypterAndDecrypter();
     }
 
     @Override
@@ -1,11 +1,20 @@
 package org.pac4j.jwt.config.signature;
 
 import com.nimbusds.jose.*;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.InitializableObject;
+import org.pac4j.jwt.util.KeyBoundComponent;
+
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Abstract signature configuration.
  *
+ * The signer and the verifier are thread-safe: they are built on first use and reused until the keys or the algorithm change
+ * (which increments the key generation).
+ *
  * @author Jerome Leleu
  * @since 1.9.2
  */
@@ -13,11 +22,102 @@ public abstract class AbstractSignatureConfiguration extends InitializableObject
 
     protected JWSAlgorithm algorithm = JWSAlgorithm.HS256;
 
+    private String keyId;
+
+    private final AtomicLong keyGeneration = new AtomicLong();
+
+    private final KeyBoundComponent<JWSSigner> signer = new KeyBoundComponent<>(this::buildSigner, keyGeneration);
+
+    private final KeyBoundComponent<JWSVerifier> verifier = new KeyBoundComponent<>(this::buildVerifier, keyGeneration);
+
+    @Override
+    public SignedJWT sign(final JWTClaimsSet claims) {
+        init();
+
+        try {
+            final SignedJWT signedJWT = new SignedJWT(new JWSHeader.Builder(algorithm).keyID(keyId).build(), claims);
+            signedJWT.sign(getSigner());
+            return signedJWT;
+        } catch (final JOSEException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    @Override
+    public boolean verify(final SignedJWT jwt) throws JOSEException {
+        init();
+
+        return jwt.verify(getVerifier());
+    }
+
+    /**
+     * Get the signer, built on first use.
+     *
+     * @return the signer
+     * @throws JOSEException exception when building the signer
+     */
+    protected JWSSigner getSigner() throws JOSEException {
+        return signer.get();
+    }
+
+    /**
+     * Get the verifier, built on first use.
+     *
+     * @return the verifier
+     * @throws JOSEException exception when building the verifier
+     */
+    protected JWSVerifier getVerifier() throws JOSEException {
+        return verifier.get();
+    }
+
+    /**
+     * Build the appropriate signer.
+     *
+     * @return the appropriate signer
+     * @throws JOSEException exception when building the signer
+     */
+    protected abstract JWSSigner buildSigner() throws JOSEException;
+
+    /**
+     * Build the appropriate verifier.
+     *
+     * @return the appropriate verifier
+     * @throws JOSEException exception when building the verifier
+     */
+    protected abstract JWSVerifier buildVerifier() throws JOSEException;
+
+    /**
+     * Discard the signer and the verifier after a change of keys: to be called once the keys are changed.
+     */
+    protected void resetSignerAndVerifier() {
+        keyGeneration.incrementAndGet();
+    }
+
+    /**
+     * Get the generation of the keys, incremented on each change of the keys, the key identifier or the algorithm.
+     *
+     * @return the key generation
+     */
+    public long getKeyGeneration() {
+        return keyGeneration.get();
+    }
+
     public JWSAlgorithm getAlgorithm() {
         return algorithm;
     }
 
     public void setAlgorithm(final JWSAlgorithm algorithm) {
         this.algorithm = algorithm;
+        resetSignerAndVerifier();
+    }
+
+    @Override
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public void setKeyId(final String keyId) {
+        this.keyId = keyId;
+        resetSignerAndVerifier();
     }
 }
@@ -3,10 +3,9 @@ package org.pac4j.jwt.config.signature;
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jose.crypto.RSASSAVerifier;
-import com.nimbusds.jwt.JWTClaimsSet;
-import com.nimbusds.jwt.SignedJWT;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.CommonHelper;
+import org.pac4j.jwt.util.JWKHelper;
 
 import java.security.KeyPair;
 import java.security.interfaces.RSAPrivateKey;
@@ -53,33 +52,29 @@ public class RSASignatureConfiguration extends AbstractSignatureConfiguration {
     }
 
     @Override
-    public SignedJWT sign(JWTClaimsSet claims) {
-        init();
+    protected JWSSigner buildSigner() throws JOSEException {
         CommonHelper.assertNotNull("privateKey", privateKey);
 
-        try {
-            final JWSSigner signer = new RSASSASigner(this.privateKey);
-            final SignedJWT signedJWT = new SignedJWT(new JWSHeader(algorithm), claims);
-            signedJWT.sign(signer);
-            return signedJWT;
-        } catch (final JOSEException e) {
-            throw new TechnicalException(e);
-        }
+        return new RSASSASigner(this.privateKey);
     }
 
     @Override
-    public boolean verify(final SignedJWT jwt) throws JOSEException {
-        init();
+    protected JWSVerifier buildVerifier() throws JOSEException {
         CommonHelper.assertNotNull("publicKey", publicKey);
 
-        final JWSVerifier verifier = new RSASSAVerifier(this.publicKey);
-        return jwt.verify(verifier);
+        return new RSASSAVerifier(this.publicKey);
+    }
+
+    @Override
+    public String getKeyThumbprint() {
+        return JWKHelper.computeThumbprint(publicKey);
     }
 
     public void setKeyPair(final KeyPair keyPair) {
         CommonHelper.assertNotNull("keyPair", keyPair);
         this.privateKey = (RSAPrivateKey) keyPair.getPrivate();
         this.publicKey = (RSAPublicKey) keyPair.getPublic();
+        resetSignerAndVerifier();
     }
 
     public RSAPublicKey getPublicKey() {
@@ -88,6 +83,7 @@ public class RSASignatureConfiguration extends AbstractSignatureConfiguration {
 
     public void setPublicKey(final RSAPublicKey publicKey) {
         this.publicKey = publicKey;
+        resetSignerAndVerifier();
     }
 
     public RSAPrivateKey getPrivateKey() {
@@ -96,6 +92,7 @@ public class RSASignatureConfiguration extends AbstractSignatureConfiguration {
 
     public void setPrivateKey(final RSAPrivateKey privateKey) {
         this.privateKey = privateKey;
+        resetSignerAndVerifier();
     }
 
     @Override
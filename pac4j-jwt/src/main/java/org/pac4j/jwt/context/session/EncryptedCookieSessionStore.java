@@ -0,0 +1,505 @@
+package org.pac4j.jwt.context.session;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jwt.EncryptedJWT;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import org.pac4j.core.context.Cookie;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+import org.pac4j.core.util.JavaSerializationHelper;
+import org.pac4j.jwt.config.encryption.EncryptionConfiguration;
+import org.pac4j.jwt.config.encryption.SecretEncryptionConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stateless session store: the session data are serialized, compressed and encrypted as a JWT (JWE) which is saved
+ * in one or several cookies (chunks), so that no server-side session is necessary.
+ *
+ * The first encryption configuration is used to encrypt the session, all of them are tried to decrypt it (key rotation):
+ * a session decrypted with an old key is re-encrypted with the current one. Only secret encryption configurations are
+ * accepted: with a public key, anyone could forge a session.
+ *
+ * The <code>timeout</code> is an idle timeout: the session expires if it is not used during this time.
+ *
+ * The uncompressed session data are limited to {@value #MAX_COMPRESSION_RATIO} times the maximum size of the cookies.
+ *
+ * The cookies are rewritten when the session data have changed, and when the session is read if it has been decrypted
+ * with an old key or if less than half of the timeout is left before it expires: so the cookies are only written
+ * once per half timeout for the requests which do not update the session. As they are rewritten for each update,
+ * this session store should be wrapped in a {@link org.pac4j.core.context.session.BufferedSessionStore}
+ * to write them only once per request.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public class EncryptedCookieSessionStore<C extends WebContext> extends InitializableObject implements SessionStore<C> {
+
+    private static final String SESSION_ID_CLAIM = "sid";
+
+    private static final String SESSION_DATA_CLAIM = "data";
+
+    private static final int MAX_COMPRESSION_RATIO = 10;
+
+    protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private List<EncryptionConfiguration> encryptionConfigurations = new ArrayList<>();
+
+    private JavaSerializationHelper javaSerializationHelper = new JavaSerializationHelper();
+
+    private String cookieName = "pac4jSession";
+
+    private String domain;
+
+    private String path = "/";
+
+    private boolean secure = true;
+
+    private boolean httpOnly = true;
+
+    private int chunkSize = 3800;
+
+    private int maxChunks = 5;
+
+    private int timeout = 1800;
+
+    public EncryptedCookieSessionStore() {}
+
+    public EncryptedCookieSessionStore(final EncryptionConfiguration... encryptionConfigurations) {
+        this.encryptionConfigurations = new ArrayList<>(Arrays.asList(encryptionConfigurations));
+    }
+
+    @Override
+    protected void internalInit() {
+        CommonHelper.assertTrue(CommonHelper.isNotEmpty(encryptionConfigurations),
+            "encryptionConfigurations cannot be empty");
+        for (final EncryptionConfiguration configuration : encryptionConfigurations) {
+            CommonHelper.assertTrue(configuration instanceof SecretEncryptionConfiguration,
+                "Only secret encryption configurations can be used: " + configuration);
+        }
+        CommonHelper.assertNotBlank("cookieName", cookieName);
+        CommonHelper.assertTrue(chunkSize > 0, "chunkSize must be greater than zero");
+        CommonHelper.assertTrue(maxChunks > 0, "maxChunks must be greater than zero");
+    }
+
+    @Override
+    public String getOrCreateSessionId(final C context) {
+        final SessionData session = getSession(context);
+        if (session.id == null) {
+            session.id = UUID.randomUUID().toString();
+            save(context, session);
+        }
+        return session.id;
+    }
+
+    @Override
+    public Object get(final C context, final String key) {
+        return getSession(context).values.get(key);
+    }
+
+    @Override
+    public void set(final C context, final String key, final Object value) {
+        final Map<String, Object> values = new HashMap<>();
+        values.put(key, value);
+        setAll(context, values);
+    }
+
+    @Override
+    public void setAll(final C context, final Map<String, Object> values) {
+        final SessionData session = getSession(context);
+        for (final Map.Entry<String, Object> entry : values.entrySet()) {
+            if (entry.getValue() == null) {
+                session.values.remove(entry.getKey());
+            } else {
+                session.values.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (session.id == null) {
+            session.id = UUID.randomUUID().toString();
+        }
+        save(context, session);
+    }
+
+    @Override
+    public boolean destroySession(final C context) {
+        final SessionData session = getSession(context);
+        for (int i = 0; i < session.nbChunks; i++) {
+            context.addResponseCookie(buildCookie(i, "", 0));
+        }
+        context.setRequestAttribute(getSessionAttributeName(), new SessionData());
+        return true;
+    }
+
+    /**
+     * There is no native session.
+     *
+     * @param context the web context
+     * @return <code>null</code>
+     */
+    @Override
+    public Object getTrackableSession(final C context) {
+        return null;
+    }
+
+    @Override
+    public SessionStore<C> buildFromTrackableSession(final C context, final Object trackableSession) {
+        return null;
+    }
+
+    @Override
+    public boolean renewSession(final C context) {
+        final SessionData session = getSession(context);
+        logger.debug("Discard old session: {}", session.id);
+        session.id = UUID.randomUUID().toString();
+        logger.debug("And copy all data to the new one: {}", session.id);
+        save(context, session);
+        return true;
+    }
+
+    /**
+     * Get the session of the current request, read from the cookies the first time.
+     *
+     * @param context the web context
+     * @return the session data
+     */
+    protected SessionData getSession(final C context) {
+        init();
+
+        final String attributeName = getSessionAttributeName();
+        final Object attribute = context.getRequestAttribute(attributeName);
+        if (attribute instanceof SessionData) {
+            return (SessionData) attribute;
+        }
+
+        final Map<String, String> chunks = new HashMap<>();
+        for (final Cookie cookie : context.getRequestCookies()) {
+            if (cookie.getName().startsWith(cookieName)) {
+                chunks.put(cookie.getName(), cookie.getValue());
+            }
+        }
+        final StringBuilder token = new StringBuilder();
+        int nbChunks = 0;
+        String chunk;
+        while ((chunk = chunks.get(getChunkName(nbChunks))) != null) {
+            token.append(chunk);
+            nbChunks++;
+        }
+
+        SessionData session = null;
+        if (nbChunks > 0) {
+            session = decode(token.toString());
+        }
+        if (session == null) {
+            session = new SessionData();
+        }
+        session.nbChunks = nbChunks;
+        context.setRequestAttribute(attributeName, session);
+        if (session.id != null && (!CommonHelper.areEquals(session.id, session.writtenId) || isHalfExpired(session))) {
+            logger.debug("Rewrite the cookies of the session: {}", session.id);
+            save(context, session);
+        }
+        return session;
+    }
+
+    /**
+     * Decrypt and read the session data from the JWT.
+     *
+     * @param token the JWT
+     * @return the session data or <code>null</code> if the JWT is invalid or expired
+     */
+    protected SessionData decode(final String token) {
+        try {
+            final JWEHeader header = EncryptedJWT.parse(token).getHeader();
+            for (int i = 0; i < encryptionConfigurations.size(); i++) {
+                final EncryptionConfiguration configuration = encryptionConfigurations.get(i);
+                if (configuration instanceof SecretEncryptionConfiguration
+                    && configuration.supports(header.getAlgorithm(), header.getEncryptionMethod())) {
+                    final EncryptedJWT jwt = EncryptedJWT.parse(token);
+                    try {
+                        configuration.decrypt(jwt);
+                    } catch (final JOSEException e) {
+                        logger.debug("Cannot decrypt the session with configuration: {}", configuration);
+                        continue;
+                    }
+                    return readClaims(jwt.getJWTClaimsSet(), i > 0);
+                }
+            }
+            logger.debug("No encryption configuration can decrypt the session");
+        } catch (final ParseException | IOException | RuntimeException e) {
+            logger.warn("Cannot decode the session: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private SessionData readClaims(final JWTClaimsSet claims, final boolean rotated) throws ParseException, IOException {
+        final Date expirationTime = claims.getExpirationTime();
+        if (expirationTime != null && expirationTime.before(new Date())) {
+            logger.debug("The session has expired");
+            return null;
+        }
+        final byte[] serialized = uncompress(Base64.getUrlDecoder().decode(claims.getStringClaim(SESSION_DATA_CLAIM)));
+        final Serializable values = javaSerializationHelper.unserializeFromBytes(serialized);
+        if (!(values instanceof LinkedHashMap)) {
+            logger.warn("Unexpected session data: {}", values);
+            return null;
+        }
+        final SessionData session = new SessionData();
+        session.id = claims.getStringClaim(SESSION_ID_CLAIM);
+        session.values = (LinkedHashMap<String, Object>) values;
+        // re-encrypt the session with the current key
+        session.writtenId = rotated ? null : session.id;
+        session.serialized = serialized;
+        session.issueTime = claims.getIssueTime();
+        session.expirationTime = expirationTime;
+        return session;
+    }
+
+    /**
+     * Whether less than half of the timeout is left before the session expires.
+     *
+     * @param session the session data
+     * @return whether the expiration time must be extended
+     */
+    protected boolean isHalfExpired(final SessionData session) {
+        if (timeout <= 0) {
+            return false;
+        }
+        return session.expirationTime == null
+            || session.expirationTime.getTime() - System.currentTimeMillis() < timeout * 1000L / 2;
+    }
+
+    /**
+     * Write the session data as cookies if they have changed or if the expiration time must be extended.
+     *
+     * @param context the web context
+     * @param session the session data
+     */
+    protected void save(final C context, final SessionData session) {
+        final byte[] serialized = javaSerializationHelper.serializeToBytes(session.values);
+        if (serialized == null) {
+            throw new TechnicalException("Session attributes must be serializable");
+        }
+        if (serialized.length > getMaxDataSize()) {
+            throw new TechnicalException("Session too large: " + serialized.length + " bytes for at most " + getMaxDataSize());
+        }
+        if (CommonHelper.areEquals(session.id, session.writtenId) && Arrays.equals(serialized, session.serialized)
+            && !isHalfExpired(session)) {
+            logger.debug("Session unchanged, no need to rewrite the cookies");
+            return;
+        }
+
+        final Date issueTime = new Date();
+        final Date expirationTime = timeout > 0 ? new Date(issueTime.getTime() + timeout * 1000L) : null;
+        final JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder()
+            .claim(SESSION_ID_CLAIM, session.id)
+            .claim(SESSION_DATA_CLAIM, Base64.getUrlEncoder().withoutPadding().encodeToString(compress(serialized)))
+            .issueTime(issueTime);
+        if (expirationTime != null) {
+            builder.expirationTime(expirationTime);
+        }
+        final String token = encryptionConfigurations.get(0).encrypt(new PlainJWT(builder.build()));
+
+        final int nbChunks = (token.length() + chunkSize - 1) / chunkSize;
+        if (nbChunks > maxChunks) {
+            throw new TechnicalException("Session too large: " + token.length() + " characters for at most " + maxChunks
+                + " cookies of " + chunkSize + " characters");
+        }
+        for (int i = 0; i < nbChunks; i++) {
+            context.addResponseCookie(buildCookie(i, token.substring(i * chunkSize, Math.min(token.length(), (i + 1) * chunkSize)),
+                -1));
+        }
+        // expire the remaining chunks of a previous larger session
+        for (int i = nbChunks; i < session.nbChunks; i++) {
+            context.addResponseCookie(buildCookie(i, "", 0));
+        }
+        session.nbChunks = nbChunks;
+        session.writtenId = session.id;
+        session.serialized = serialized;
+        session.issueTime = issueTime;
+        session.expirationTime = expirationTime;
+    }
+
+    private long getMaxDataSize() {
+        return (long) maxChunks * chunkSize * MAX_COMPRESSION_RATIO;
+    }
+
+    protected Cookie buildCookie(final int index, final String value, final int maxAge) {
+        final Cookie cookie = new Cookie(getChunkName(index), value);
+        cookie.setDomain(domain);
+        cookie.setPath(path);
+        cookie.setSecure(secure);
+        cookie.setHttpOnly(httpOnly);
+        cookie.setMaxAge(maxAge);
+        return cookie;
+    }
+
+    protected String getChunkName(final int index) {
+        return cookieName + "_" + index;
+    }
+
+    protected String getSessionAttributeName() {
+        return getClass().getName() + "#" + cookieName;
+    }
+
+    private static byte[] compress(final byte[] bytes) {
+        try (final ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+            try (final GZIPOutputStream gzip = new GZIPOutputStream(baos)) {
+                gzip.write(bytes);
+            }
+            return baos.toByteArray();
+        } catch (final IOException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    private byte[] uncompress(final byte[] bytes) throws IOException {
+        final long maxSize = getMaxDataSize();
+        try (final GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes));
+             final ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+            final byte[] buffer = new byte[1024];
+            int nb;
+            while ((nb = gzip.read(buffer)) > 0) {
+                if (baos.size() + nb > maxSize) {
+                    throw new IOException("Session data larger than " + maxSize + " bytes");
+                }
+                baos.write(buffer, 0, nb);
+            }
+            return baos.toByteArray();
+        }
+    }
+
+    public List<EncryptionConfiguration> getEncryptionConfigurations() {
+        return encryptionConfigurations;
+    }
+
+    public void setEncryptionConfigurations(final List<EncryptionConfiguration> encryptionConfigurations) {
+        this.encryptionConfigurations = encryptionConfigurations;
+    }
+
+    public void setEncryptionConfiguration(final EncryptionConfiguration encryptionConfiguration) {
+        this.encryptionConfigurations = new ArrayList<>();
+        this.encryptionConfigurations.add(encryptionConfiguration);
+    }
+
+    public JavaSerializationHelper getJavaSerializationHelper() {
+        return javaSerializationHelper;
+    }
+
+    public void setJavaSerializationHelper(final JavaSerializationHelper javaSerializationHelper) {
+        this.javaSerializationHelper = javaSerializationHelper;
+    }
+
+    public String getCookieName() {
+        return cookieName;
+    }
+
+    public void setCookieName(final String cookieName) {
+        this.cookieName = cookieName;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public void setDomain(final String domain) {
+        this.domain = domain;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(final String path) {
+        this.path = path;
+    }
+
+    public boolean isSecure() {
+        return secure;
+    }
+
+    public void setSecure(final boolean secure) {
+        this.secure = secure;
+    }
+
+    public boolean isHttpOnly() {
+        return httpOnly;
+    }
+
+    public void setHttpOnly(final boolean httpOnly) {
+        this.httpOnly = httpOnly;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(final int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getMaxChunks() {
+        return maxChunks;
+    }
+
+    public void setMaxChunks(final int maxChunks) {
+        this.maxChunks = maxChunks;
+    }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(final int timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "encryptionConfigurations", encryptionConfigurations,
+            "cookieName", cookieName, "domain", domain, "path", path, "secure", secure, "httpOnly", httpOnly,
+            "chunkSize", chunkSize, "maxChunks", maxChunks, "timeout", timeout);
+    }
+
+    /**
+     * The session data of the current request.
+     */
+    protected static final class SessionData {
+
+        private String id;
+
+        private LinkedHashMap<String, Object> values = new LinkedHashMap<>();
+
+        private String writtenId;
+
+        private byte[] serialized;
+
+        private Date issueTime;
+
+        private Date expirationTime;
+
+        private int nbChunks;
+    }
+}
@@ -1,11 +1,20 @@
 package org.pac4j.jwt.credentials.authenticator;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import org.pac4j.core.context.HttpConstants;
 import org.pac4j.core.context.Pac4jConstants;
@@ -16,23 +25,31 @@ import org.pac4j.core.exception.CredentialsException;
 import org.pac4j.core.exception.HttpAction;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.ProfileFactoryRegistry;
 import org.pac4j.core.profile.ProfileHelper;
+import org.pac4j.core.profile.codec.BinaryProfileCodec;
+import org.pac4j.core.profile.codec.ProfileCodec;
 import org.pac4j.core.profile.creator.AuthenticatorProfileCreator;
 import org.pac4j.core.profile.definition.CommonProfileDefinition;
 import org.pac4j.core.profile.definition.ProfileDefinitionAware;
 import org.pac4j.core.profile.jwt.JwtClaims;
+import org.pac4j.jwt.config.encryption.AbstractEncryptionConfiguration;
 import org.pac4j.jwt.config.encryption.EncryptionConfiguration;
+import org.pac4j.jwt.config.signature.AbstractSignatureConfiguration;
 import org.pac4j.jwt.config.signature.SignatureConfiguration;
 import org.pac4j.jwt.profile.JwtGenerator;
 import org.pac4j.jwt.profile.JwtProfile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.nimbusds.jose.EncryptionMethod;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWEAlgorithm;
 import com.nimbusds.jose.JWEHeader;
 import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jwt.EncryptedJWT;
 import com.nimbusds.jwt.JWT;
 import com.nimbusds.jwt.JWTClaimsSet;
@@ -46,11 +63,36 @@ import static org.pac4j.core.util.CommonHelper.*;
  * Authenticator for JWT. It creates the user profile and stores it in the credentials
  * for the {@link AuthenticatorProfileCreator}.
  *
+ * If the <code>verifiedTokenCacheSize</code> is greater than zero, the verified tokens are cached (keyed by a SHA-256 digest)
+ * with their encoded profiles, so that the same token presented again is neither decrypted nor verified: a copy of its profile
+ * is returned. An entry lives up to <code>verifiedTokenCacheTimeout</code> seconds, never after the expiration of the token.
+ * The cache is bounded by its size and by <code>verifiedTokenCacheMaxMemory</code> bytes, and is cleared when the signature or
+ * encryption configurations change, including when the keys of a configuration are replaced in place. A profile which cannot be
+ * encoded is not cached, an entry which cannot be decoded is ignored.
+ *
+ * The signature and encryption configurations are indexed by their key identifier: a JWT with a <code>kid</code> header is only
+ * verified / decrypted by the matching configurations and by the ones without key identifier. The configurations without key
+ * identifier are also indexed by the thumbprint of their key, so that they are tried first for a <code>kid</code> equal to it.
+ * All the configurations supporting the algorithm are tried for a JWT without <code>kid</code> header, or if
+ * <code>fullScanOnUnknownKeyId</code> is enabled and no configuration matches.
+ * The changes of keys of the {@link AbstractSignatureConfiguration} and {@link AbstractEncryptionConfiguration} are detected
+ * through their key generation: call {@link #refreshConfigurations()} after modifying any other configuration in place.
+ *
+ * Before any decryption or verification, the tokens longer than <code>maxTokenLength</code> characters are rejected, as well as
+ * the tokens whose claims are outside of their time window (given a <code>clockSkew</code> in seconds) or have an issuer / audience
+ * not in the <code>allowedIssuers</code> / <code>allowedAudiences</code> lists (if defined), see {@link #preValidate(JWTClaimsSet)}.
+ * These claims are not trusted at this stage: the accepted tokens are still fully verified. The claims of an encrypted JWT are
+ * only checked after decryption, before the signature verification.
+ *
  * @author Jerome Leleu
  * @since 1.8.0
  */
 public class JwtAuthenticator extends ProfileDefinitionAware<JwtProfile> implements Authenticator<TokenCredentials> {
 
+    static {
+        ProfileFactoryRegistry.register(JwtProfile.class, JwtProfile::new);
+    }
+
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
     private List<EncryptionConfiguration> encryptionConfigurations = new ArrayList<>();
@@ -59,6 +101,28 @@ public class JwtAuthenticator extends ProfileDefinitionAware<JwtProfile> impleme
 
     private String realmName = Pac4jConstants.DEFAULT_REALM_NAME;
 
+    private boolean fullScanOnUnknownKeyId = false;
+
+    private int maxTokenLength = 0;
+
+    private int clockSkew = 0;
+
+    private List<String> allowedIssuers = new ArrayList<>();
+
+    private List<String> allowedAudiences = new ArrayList<>();
+
+    private int verifiedTokenCacheSize = 0;
+
+    private long verifiedTokenCacheMaxMemory = 10 * 1024 * 1024;
+
+    private int verifiedTokenCacheTimeout = 300;
+
+    private ProfileCodec profileCodec = new BinaryProfileCodec();
+
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    private volatile IndexedConfigurations indexedConfigurations;
+
     public JwtAuthenticator() {}
 
     public JwtAuthenticator(final List<SignatureConfiguration> signatureConfigurations) {
@@ -89,6 +153,24 @@ public class JwtAuthenticator extends ProfileDefinitionAware<JwtProfile> impleme
         if (signatureConfigurations.isEmpty()) {
             logger.warn("No signature configurations have been defined: non-signed JWT will be accepted!");
         }
+
+        assertTrue(maxTokenLength >= 0, "maxTokenLength cannot be negative");
+        assertTrue(clockSkew >= 0, "clockSkew cannot be negative");
+        assertNotNull("allowedIssuers", allowedIssuers);
+        assertNotNull("allowedAudiences", allowedAudiences);
+
+        if (verifiedTokenCacheSize > 0) {
+            assertTrue(verifiedTokenCacheMaxMemory > 0, "verifiedTokenCacheMaxMemory must be greater than zero");
+            assertTrue(verifiedTokenCacheTimeout > 0, "verifiedTokenCacheTimeout must be greater than zero");
+            assertNotNull("profileCodec", profileCodec);
+            // each entry weighs at least maxMemory / size so that both bounds are enforced
+            final long minWeight = Math.max(1, verifiedTokenCacheMaxMemory / verifiedTokenCacheSize);
+            verifiedTokens = CacheBuilder.newBuilder()
+                .maximumWeight(verifiedTokenCacheMaxMemory)
+                .<String, VerifiedToken>weigher((key, value) -> (int) Math.min(Integer.MAX_VALUE, Math.max(minWeight, value.weight)))
+                .expireAfterWrite(verifiedTokenCacheTimeout, TimeUnit.SECONDS)
+                .build();
+        }
     }
 
     /**
@@ -100,7 +182,7 @@ public class JwtAuthenticator extends ProfileDefinitionAware<JwtProfile> impleme
     public Map<String, Object> validateTokenAndGetClaims(final String token) {
         final CommonProfile profile = validateToken(token);
 
-        final Map<String, Object> claims = new HashMap<>(profile.getAttributes());
+        final Map<String, Object> claims = new HashMap<>(profile.getAttributesView());
         claims.put(JwtClaims.SUBJECT, profile.getId());
 
         return claims;
@@ -136,10 +218,36 @@ public class JwtAuthenticator extends ProfileDefinitionAware<JwtProfile> impleme
             context.setResponseHeader(HttpConstants.AUTHENTICATE_HEADER, "Bearer realm=\"" + realmName + "\"");
         }
 
+        if (maxTokenLength > 0 && token.length() > maxTokenLength) {
+            throw new CredentialsException("JWT too large: " + token.length() + " characters");
+        }
+
+        final IndexedConfigurations configurations = getIndexedConfigurations();
+        String cacheKey = null;
+        if (verifiedTokens != null) {
+            cacheKey = digest(token);
+            final VerifiedToken verifiedToken = verifiedTokens.getIfPresent(cacheKey);
+            if (verifiedToken != null) {
+                if (verifiedToken.configurations == configurations && System.currentTimeMillis() < verifiedToken.expiresAt) {
+                    final CommonProfile profile = decodeVerifiedProfile(verifiedToken);
+                    if (profile != null) {
+                        logger.debug("JWT already verified");
+                        credentials.setUserProfile(profile);
+                        return;
+                    }
+                }
+                verifiedTokens.asMap().remove(cacheKey, verifiedToken);
+            }
+        }
+
         try {
             // Parse the token
             JWT jwt = JWTParser.parse(token);
 
+            if (!(jwt instanceof EncryptedJWT)) {
+                preValidate(jwt.getJWTClaimsSet());
+            }
+
             if (jwt instanceof PlainJWT) {
                 if (signatureConfigurations.isEmpty()) {
                     logger.debug("JWT is not signed and no signature configurations -> verified");
@@ -162,25 +270,25 @@ public class JwtAuthenticator extends ProfileDefinitionAware<JwtProfile> impleme
                     final JWEHeader header = encryptedJWT.getHeader();
                     final JWEAlgorithm algorithm = header.getAlgorithm();
                     final EncryptionMethod method = header.getEncryptionMethod();
-                    for (final EncryptionConfiguration config : encryptionConfigurations) {
-                        if (config.supports(algorithm, method)) {
-                            logger.debug("Using encryption configuration: {}", config);
-                            try {
-                                config.decrypt(encryptedJWT);
-                                signedJWT = encryptedJWT.getPayload().toSignedJWT();
-                                if (signedJWT != null) {
-                                    jwt = signedJWT;
-                                }
-                                found = true;
-                                break;
-                            } catch (final JOSEException e) {
-                                logger.debug("Decryption fails with encryption configuration: {}, passing to the next one", config);
+                    for (final EncryptionConfiguration config : select(configurations.encryptionConfigurations,
+                        configurations.encryptionConfigurationsByKeyId, header.getKeyID(), c -> c.supports(algorithm, method))) {
+                        logger.debug("Using encryption configuration: {}", config);
+                        try {
+                            config.decrypt(encryptedJWT);
+                            signedJWT = encryptedJWT.getPayload().toSignedJWT();
+                            if (signedJWT != null) {
+                                jwt = signedJWT;
                             }
+                            found = true;
+                            break;
+                        } catch (final JOSEException e) {
+                            logger.debug("Decryption fails with encryption configuration: {}, passing to the next one", config);
                         }
                     }
                     if (!found) {
                         throw new CredentialsException("No encryption algorithm found for JWT: " + token);
                     }
+                    preValidate(jwt.getJWTClaimsSet());
                 }
 
                 // signed?
@@ -189,19 +297,19 @@ public class JwtAuthenticator extends ProfileDefinitionAware<JwtProfile> impleme
 
                     boolean verified = false;
                     boolean found = false;
-                    final JWSAlgorithm algorithm = signedJWT.getHeader().getAlgorithm();
-                    for (final SignatureConfiguration config : signatureConfigurations) {
-                        if (config.supports(algorithm)) {
-                            logger.debug("Using signature configuration: {}", config);
-                            try {
-                                verified = config.verify(signedJWT);
-                                found = true;
-                                if (verified) {
-                                    break;
-                                }
-                            } catch (final JOSEException e) {
-                                logger.debug("Verification fails with signature configuration: {}, passing to the next one", config);
+                    final JWSHeader header = signedJWT.getHeader();
+                    final JWSAlgorithm algorithm = header.getAlgorithm();
+                    for (final SignatureConfiguration config : select(configurations.signatureConfigurations,
+                        configurations.signatureConfigurationsByKeyId, header.getKeyID(), c -> c.supports(algorithm))) {
+                        logger.debug("Using signature configuration: {}", config);
+                        try {
+                            verified = config.verify(signedJWT);
+                            found = true;
+                            if (verified) {
+                                break;
                             }
+                        } catch (final JOSEException e) {
+                            logger.debug("Verification fails with signature configuration: {}, passing to the next one", config);
                         }
                     }
                     if (!found) {
@@ -215,11 +323,175 @@ public class JwtAuthenticator extends ProfileDefinitionAware<JwtProfile> impleme
 
             createJwtProfile(credentials, jwt);
 
+            if (cacheKey != null) {
+                cacheVerifiedToken(cacheKey, configurations, credentials.getUserProfile(), jwt);
+            }
+
         } catch (final ParseException e) {
             throw new CredentialsException("Cannot decrypt / verify JWT", e);
         }
     }
 
+    /**
+     * Check the claims of the JWT before its signature is verified: its time window, its issuer and its audience.
+     *
+     * @param claims the claims, which are not verified yet
+     */
+    protected void preValidate(final JWTClaimsSet claims) {
+        final long now = System.currentTimeMillis();
+        final long skew = TimeUnit.SECONDS.toMillis(clockSkew);
+
+        final Date expirationTime = claims.getExpirationTime();
+        if (expirationTime != null && expirationTime.getTime() + skew < now) {
+            throw new CredentialsException("The JWT is expired");
+        }
+        final Date notBeforeTime = claims.getNotBeforeTime();
+        if (notBeforeTime != null && notBeforeTime.getTime() - skew > now) {
+            throw new CredentialsException("The JWT is not valid yet");
+        }
+
+        if (!allowedIssuers.isEmpty() && !allowedIssuers.contains(claims.getIssuer())) {
+            throw new CredentialsException("Issuer not allowed: " + claims.getIssuer());
+        }
+        if (!allowedAudiences.isEmpty()) {
+            final List<String> audience = claims.getAudience();
+            if (audience.stream().noneMatch(allowedAudiences::contains)) {
+                throw new CredentialsException("Audience not allowed: " + audience);
+            }
+        }
+    }
+
+    /**
+     * Select the configurations supporting the algorithm to use for a key identifier: the identified ones first (by key identifier
+     * or thumbprint), then the unidentified ones.
+     */
+    private <C> List<C> select(final List<C> configurations, final Map<String, List<C>> configurationsByKeyId, final String keyId,
+                               final Predicate<C> supports) {
+        final List<C> selected = new ArrayList<>();
+        if (keyId == null) {
+            for (final C config : configurations) {
+                if (supports.test(config)) {
+                    selected.add(config);
+                }
+            }
+            return selected;
+        }
+        for (final C config : configurationsByKeyId.getOrDefault(keyId, Collections.emptyList())) {
+            if (supports.test(config)) {
+                selected.add(config);
+            }
+        }
+        final int nbIdentified = selected.size();
+        for (final C config : configurationsByKeyId.getOrDefault(null, Collections.emptyList())) {
+            if (supports.test(config) && !containsSame(selected.subList(0, nbIdentified), config)) {
+                selected.add(config);
+            }
+        }
+        if (selected.isEmpty() && fullScanOnUnknownKeyId) {
+            logger.debug("No configuration found for key: {}, trying all of them", keyId);
+            return select(configurations, configurationsByKeyId, null, supports);
+        }
+        return selected;
+    }
+
+    private static <C> boolean containsSame(final List<C> configurations, final C config) {
+        for (final C c : configurations) {
+            if (c == config) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void cacheVerifiedToken(final String cacheKey, final IndexedConfigurations configurations, final CommonProfile profile,
+                                    final JWT jwt) throws ParseException {
+        if (profile == null) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        long expiresAt = now + TimeUnit.SECONDS.toMillis(verifiedTokenCacheTimeout);
+        final Date expirationTime = jwt.getJWTClaimsSet().getExpirationTime();
+        if (expirationTime != null) {
+            expiresAt = Math.min(expiresAt, expirationTime.getTime());
+        }
+        if (expiresAt > now) {
+            final byte[] encodedProfile;
+            try {
+                encodedProfile = profileCodec.encode(profile);
+            } catch (final TechnicalException e) {
+                logger.debug("Cannot encode profile, the JWT is not cached", e);
+                return;
+            }
+            verifiedTokens.put(cacheKey, new VerifiedToken(encodedProfile, expiresAt, configurations,
+                encodedProfile.length + 2 * cacheKey.length() + VerifiedToken.OVERHEAD));
+        }
+    }
+
+    private CommonProfile decodeVerifiedProfile(final VerifiedToken verifiedToken) {
+        final CommonProfile profile = profileCodec.decode(verifiedToken.profile);
+        if (profile == null) {
+            logger.debug("Cannot decode cached profile, verifying the JWT again");
+        }
+        return profile;
+    }
+
+    /**
+     * Get the current signature and encryption configurations indexed by key, clearing the verified tokens if they have changed.
+     */
+    private IndexedConfigurations getIndexedConfigurations() {
+        final IndexedConfigurations current = indexedConfigurations;
+        if (current != null && current.isIndexOf(signatureConfigurations, encryptionConfigurations)) {
+            return current;
+        }
+        synchronized (this) {
+            if (indexedConfigurations != null && indexedConfigurations.isIndexOf(signatureConfigurations, encryptionConfigurations)) {
+                return indexedConfigurations;
+            }
+            final IndexedConfigurations newConfigurations = new IndexedConfigurations(signatureConfigurations, encryptionConfigurations);
+            clearVerifiedTokenCache();
+            indexedConfigurations = newConfigurations;
+            return newConfigurations;
+        }
+    }
+
+    /**
+     * Re-index the signature and encryption configurations and clear the verified tokens, after a configuration has been
+     * modified in place.
+     */
+    public synchronized void refreshConfigurations() {
+        indexedConfigurations = null;
+        clearVerifiedTokenCache();
+    }
+
+    private static String digest(final String token) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    /**
+     * Clear the verified tokens.
+     */
+    public void clearVerifiedTokenCache() {
+        final Cache<String, VerifiedToken> cache = verifiedTokens;
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Get the number of verified tokens in cache.
+     *
+     * @return the number of verified tokens
+     */
+    public long getVerifiedTokenCount() {
+        final Cache<String, VerifiedToken> cache = verifiedTokens;
+        return cache != null ? cache.size() : 0;
+    }
+
     @SuppressWarnings("unchecked")
     protected void createJwtProfile(final TokenCredentials credentials, final JWT jwt) throws ParseException {
         final JWTClaimsSet claimSet = jwt.getJWTClaimsSet();
@@ -230,7 +502,7 @@ public class JwtAuthenticator extends ProfileDefinitionAware<JwtProfile> impleme
 
         final Date expirationTime = claimSet.getExpirationTime();
         if (expirationTime != null) {
-            final Date now = new Date();
+            final Date now = new Date(System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(clockSkew));
             if (expirationTime.before(now)) {
                 logger.error("The JWT is expired: no profile is built");
                 return;
@@ -300,9 +572,196 @@ public class JwtAuthenticator extends ProfileDefinitionAware<JwtProfile> impleme
         this.realmName = realmName;
     }
 
+    public boolean isFullScanOnUnknownKeyId() {
+        return fullScanOnUnknownKeyId;
+    }
+
+    public void setFullScanOnUnknownKeyId(final boolean fullScanOnUnknownKeyId) {
+        this.fullScanOnUnknownKeyId = fullScanOnUnknownKeyId;
+    }
+
+    public int getMaxTokenLength() {
+        return maxTokenLength;
+    }
+
+    public void setMaxTokenLength(final int maxTokenLength) {
+        this.maxTokenLength = maxTokenLength;
+    }
+
+    public int getClockSkew() {
+        return clockSkew;
+    }
+
+    public void setClockSkew(final int clockSkew) {
+        this.clockSkew = clockSkew;
+    }
+
+    public List<String> getAllowedIssuers() {
+        return allowedIssuers;
+    }
+
+    public void setAllowedIssuers(final List<String> allowedIssuers) {
+        assertNotNull("allowedIssuers", allowedIssuers);
+        this.allowedIssuers = allowedIssuers;
+    }
+
+    public List<String> getAllowedAudiences() {
+        return allowedAudiences;
+    }
+
+    public void setAllowedAudiences(final List<String> allowedAudiences) {
+        assertNotNull("allowedAudiences", allowedAudiences);
+        this.allowedAudiences = allowedAudiences;
+    }
+
+    public int getVerifiedTokenCacheSize() {
+        return verifiedTokenCacheSize;
+    }
+
+    public void setVerifiedTokenCacheSize(final int verifiedTokenCacheSize) {
+        this.verifiedTokenCacheSize = verifiedTokenCacheSize;
+    }
+
+    public long getVerifiedTokenCacheMaxMemory() {
+        return verifiedTokenCacheMaxMemory;
+    }
+
+    public void setVerifiedTokenCacheMaxMemory(final long verifiedTokenCacheMaxMemory) {
+        this.verifiedTokenCacheMaxMemory = verifiedTokenCacheMaxMemory;
+    }
+
+    public int getVerifiedTokenCacheTimeout() {
+        return verifiedTokenCacheTimeout;
+    }
+
+    public void setVerifiedTokenCacheTimeout(final int verifiedTokenCacheTimeout) {
+        this.verifiedTokenCacheTimeout = verifiedTokenCacheTimeout;
+    }
+
+    public ProfileCodec getProfileCodec() {
+        return profileCodec;
+    }
+
+    public void setProfileCodec(final ProfileCodec profileCodec) {
+        this.profileCodec = profileCodec;
+    }
+
     @Override
     public String toString() {
         return toNiceString(this.getClass(), "signatureConfigurations", signatureConfigurations,
-            "encryptionConfigurations", encryptionConfigurations, "realmName", this.realmName);
+            "encryptionConfigurations", encryptionConfigurations, "realmName", this.realmName,
+            "fullScanOnUnknownKeyId", fullScanOnUnknownKeyId, "maxTokenLength", maxTokenLength, "clockSkew", clockSkew,
+            "allowedIssuers", allowedIssuers, "allowedAudiences", allowedAudiences, "verifiedTokenCacheSize", verifiedTokenCacheSize,
+            "verifiedTokenCacheMaxMemory", verifiedTokenCacheMaxMemory, "verifiedTokenCacheTimeout", verifiedTokenCacheTimeout,
+            "profileCodec", profileCodec);
+    }
+
+    /**
+     * A verified token: its encoded profile, its expiration and the configurations used to verify it.
+     */
+    private static final class VerifiedToken {
+
+        private static final int OVERHEAD = 128;
+
+        private final byte[] profile;
+
+        private final long expiresAt;
+
+        private final IndexedConfigurations configurations;
+
+        private final long weight;
+
+        private VerifiedToken(final byte[] profile, final long expiresAt, final IndexedConfigurations configurations,
+                              final long weight) {
+            this.profile = profile;
+            this.expiresAt = expiresAt;
+            this.configurations = configurations;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * A snapshot of the signature and encryption configurations, indexed by key identifier (the <code>null</code> key
+     * gathers the configurations without key identifier, which are also indexed by the thumbprint of their key).
+     */
+    private static final class IndexedConfigurations {
+
+        private final List<SignatureConfiguration> signatureConfigurations;
+
+        private final List<EncryptionConfiguration> encryptionConfigurations;
+
+        private final Map<String, List<SignatureConfiguration>> signatureConfigurationsByKeyId;
+
+        private final Map<String, List<EncryptionConfiguration>> encryptionConfigurationsByKeyId;
+
+        private final long[] signatureKeyGenerations;
+
+        private final long[] encryptionKeyGenerations;
+
+        private IndexedConfigurations(final List<SignatureConfiguration> signatureConfigurations,
+                                      final List<EncryptionConfiguration> encryptionConfigurations) {
+            this.signatureConfigurations = new ArrayList<>(signatureConfigurations);
+            this.encryptionConfigurations = new ArrayList<>(encryptionConfigurations);
+            // read the key generations before the keys so that a concurrent change is always detected
+            this.signatureKeyGenerations = keyGenerations(this.signatureConfigurations);
+            this.encryptionKeyGenerations = keyGenerations(this.encryptionConfigurations);
+            this.signatureConfigurationsByKeyId = index(this.signatureConfigurations, SignatureConfiguration::getKeyId,
+                SignatureConfiguration::getKeyThumbprint);
+            this.encryptionConfigurationsByKeyId = index(this.encryptionConfigurations, EncryptionConfiguration::getKeyId,
+                EncryptionConfiguration::getKeyThumbprint);
+        }
+
+        private static <C> Map<String, List<C>> index(final List<C> configurations, final Function<C, String> keyId,
+                                                      final Function<C, String> keyThumbprint) {
+            final Map<String, List<C>> index = new LinkedHashMap<>();
+            for (final C config : configurations) {
+                final String id = keyId.apply(config);
+                index.computeIfAbsent(id, k -> new ArrayList<>()).add(config);
+                if (id == null) {
+                    final String thumbprint = keyThumbprint.apply(config);
+                    if (thumbprint != null) {
+                        index.computeIfAbsent(thumbprint, k -> new ArrayList<>()).add(config);
+                    }
+                }
+            }
+            return index;
+        }
+
+        private static <C> long[] keyGenerations(final List<C> configurations) {
+            final long[] generations = new long[configurations.size()];
+            for (int i = 0; i < generations.length; i++) {
+                generations[i] = keyGeneration(configurations.get(i));
+            }
+            return generations;
+        }
+
+        private static long keyGeneration(final Object config) {
+            if (config instanceof AbstractSignatureConfiguration) {
+                return ((AbstractSignatureConfiguration) config).getKeyGeneration();
+            } else if (config instanceof AbstractEncryptionConfiguration) {
+                return ((AbstractEncryptionConfiguration) config).getKeyGeneration();
+            }
+            return 0;
+        }
+
+        private boolean isIndexOf(final List<SignatureConfiguration> currentSignatureConfigurations,
+                                  final List<EncryptionConfiguration> currentEncryptionConfigurations) {
+            return isSnapshotOf(signatureConfigurations, signatureKeyGenerations, currentSignatureConfigurations)
+                && isSnapshotOf(encryptionConfigurations, encryptionKeyGenerations, currentEncryptionConfigurations);
+        }
+
+        private static <C> boolean isSnapshotOf(final List<C> snapshot, final long[] keyGenerations, final List<C> configurations) {
+            if (snapshot.size() != configurations.size()) {
+                return false;
+            }
+            int i = 0;
+            for (final C config : configurations) {
+                if (snapshot.get(i) != config || keyGenerations[i] != keyGeneration(config)) {
+                    return false;
+                }
+                i++;
+            }
+            return true;
+        }
     }
 }
@@ -109,7 +109,7 @@ public class JwtGenerator<U extends CommonProfile> {
                 .issueTime(new Date());
 
         // add attributes
-        final Map<String, Object> attributes = profile.getAttributes();
+        final Map<String, Object> attributes = profile.getAttributesView();
         for (final Map.Entry<String, Object> entry : attributes.entrySet()) {
             builder.claim(entry.getKey(), entry.getValue());
         }
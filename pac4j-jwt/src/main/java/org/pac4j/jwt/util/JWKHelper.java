@@ -1,6 +1,7 @@
 package org.pac4j.jwt.util;
 
 import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
 import com.nimbusds.jose.jwk.ECKey;
 import com.nimbusds.jose.jwk.OctetSequenceKey;
 import com.nimbusds.jose.jwk.RSAKey;
@@ -9,6 +10,8 @@ import org.pac4j.core.util.CommonHelper;
 
 import java.io.UnsupportedEncodingException;
 import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
 import java.text.ParseException;
 
 /**
@@ -69,4 +72,44 @@ public final class JWKHelper {
             throw new TechnicalException(e);
         }
     }
+
+    /**
+     * Compute the JWK thumbprint (RFC 7638) of a RSA public key.
+     *
+     * @param publicKey the public key
+     * @return the thumbprint, <code>null</code> if the key is <code>null</code>
+     */
+    public static String computeThumbprint(final RSAPublicKey publicKey) {
+        if (publicKey == null) {
+            return null;
+        }
+
+        try {
+            return new RSAKey.Builder(publicKey).build().computeThumbprint().toString();
+        } catch (final JOSEException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    /**
+     * Compute the JWK thumbprint (RFC 7638) of an EC public key.
+     *
+     * @param publicKey the public key
+     * @return the thumbprint, <code>null</code> if the key is <code>null</code> or its curve is not a standard one
+     */
+    public static String computeThumbprint(final ECPublicKey publicKey) {
+        if (publicKey == null) {
+            return null;
+        }
+        final Curve curve = Curve.forECParameterSpec(publicKey.getParams());
+        if (curve == null) {
+            return null;
+        }
+
+        try {
+            return new ECKey.Builder(curve, publicKey).build().computeThumbprint().toString();
+        } catch (final JOSEException e) {
+            throw new TechnicalException(e);
+        }
+    }
 }
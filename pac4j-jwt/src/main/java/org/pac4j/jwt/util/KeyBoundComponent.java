@@ -0,0 +1,82 @@
+package org.pac4j.jwt.util;
+
+import com.nimbusds.jose.JOSEException;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A thread-safe JOSE component (signer, verifier, encrypter, decrypter) built on first use from the keys of a configuration
+ * and reused until they change.
+ *
+ * Each change of the keys increments the generation: a component is published with the generation read before it was built,
+ * so a component built from replaced keys is never reused, even if it is published after the change.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class KeyBoundComponent<T> {
+
+    /**
+     * The builder of the component.
+     */
+    @FunctionalInterface
+    public interface Builder<T> {
+
+        T build() throws JOSEException;
+    }
+
+    private final Builder<T> builder;
+
+    private final AtomicLong generation;
+
+    private final AtomicReference<Generation<T>> current = new AtomicReference<>();
+
+    /**
+     * Define the component.
+     *
+     * @param builder the builder of the component
+     * @param generation the generation of the keys, shared by the components built from the same keys
+     */
+    public KeyBoundComponent(final Builder<T> builder, final AtomicLong generation) {
+        CommonHelper.assertNotNull("builder", builder);
+        CommonHelper.assertNotNull("generation", generation);
+        this.builder = builder;
+        this.generation = generation;
+    }
+
+    /**
+     * Get the component for the current keys.
+     *
+     * @return the component
+     * @throws JOSEException exception when building the component
+     */
+    public T get() throws JOSEException {
+        final long expectedGeneration = generation.get();
+        final Generation<T> published = current.get();
+        if (published != null && published.number == expectedGeneration) {
+            return published.component;
+        }
+        final T component = builder.build();
+        if (published == null || published.number < expectedGeneration) {
+            current.compareAndSet(published, new Generation<>(expectedGeneration, component));
+        }
+        return component;
+    }
+
+    /**
+     * A component and the generation of the keys it has been built from.
+     */
+    private static final class Generation<T> {
+
+        private final long number;
+
+        private final T component;
+
+        private Generation(final long number, final T component) {
+            this.number = number;
+            this.component = component;
+        }
+    }
+}
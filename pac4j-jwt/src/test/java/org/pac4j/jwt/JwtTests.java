@@ -5,6 +5,7 @@ import org.junit.Test;
 import org.pac4j.core.exception.CredentialsException;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.codec.BinaryProfileCodec;
 import org.pac4j.core.profile.jwt.JwtClaims;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.credentials.TokenCredentials;
@@ -12,6 +13,7 @@ import org.pac4j.core.util.TestsHelper;
 import org.pac4j.jwt.config.encryption.SecretEncryptionConfiguration;
 import org.pac4j.jwt.config.encryption.EncryptionConfiguration;
 import org.pac4j.jwt.config.signature.ECSignatureConfiguration;
+import org.pac4j.jwt.config.signature.RSASignatureConfiguration;
 import org.pac4j.jwt.config.signature.SecretSignatureConfiguration;
 import org.pac4j.jwt.config.signature.SignatureConfiguration;
 import org.pac4j.jwt.credentials.authenticator.JwtAuthenticator;
@@ -25,6 +27,7 @@ import com.nimbusds.jose.JWSAlgorithm;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
 import java.util.*;
 
 import static org.junit.Assert.*;
@@ -164,6 +167,247 @@ public final class JwtTests implements TestsConstants {
         assertEquals(tomorrow.getTime() / 1000, ((Date) claims2.get(JwtClaims.EXPIRATION_TIME)).getTime() / 1000);
     }
 
+    @Test
+    public void testVerifiedTokenCache() {
+        final JwtGenerator<FacebookProfile> generator = new JwtGenerator<>(new SecretSignatureConfiguration(MAC_SECRET),
+            new SecretEncryptionConfiguration(MAC_SECRET));
+        final FacebookProfile profile = createProfile();
+        final String token = generator.generate(profile);
+        final JwtAuthenticator authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET),
+            new SecretEncryptionConfiguration(MAC_SECRET));
+        authenticator.setVerifiedTokenCacheSize(10);
+        final CommonProfile profile1 = assertToken(profile, token, authenticator);
+        assertEquals(1, authenticator.getVerifiedTokenCount());
+        final CommonProfile profile2 = assertToken(profile, token, authenticator);
+        assertNotSame(profile1, profile2);
+        assertEquals(1, authenticator.getVerifiedTokenCount());
+
+        authenticator.setSignatureConfigurations(new ArrayList<>(Collections.singletonList(new SecretSignatureConfiguration(KEY2))));
+        TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(token), null), CredentialsException.class,
+            "JWT verification failed: " + token);
+        assertEquals(0, authenticator.getVerifiedTokenCount());
+    }
+
+    @Test
+    public void testVerifiedTokenCacheBoundedByExpiration() throws InterruptedException {
+        final JwtGenerator<JwtProfile> generator = new JwtGenerator<>(new SecretSignatureConfiguration(MAC_SECRET));
+        final Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtClaims.SUBJECT, VALUE);
+        claims.put(JwtClaims.EXPIRATION_TIME, new Date(System.currentTimeMillis() + 2000));
+        final String token = generator.generate(claims);
+        final JwtAuthenticator authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        authenticator.setVerifiedTokenCacheSize(10);
+        assertNotNull(authenticator.validateToken(token));
+        assertNotNull(authenticator.validateToken(token));
+        assertEquals(1, authenticator.getVerifiedTokenCount());
+        Thread.sleep(2100);
+        assertNull(authenticator.validateToken(token));
+        assertEquals(0, authenticator.getVerifiedTokenCount());
+    }
+
+    @Test
+    public void testVerifiedTokenNotCachedWhenNotEncodable() {
+        final String token = new JwtGenerator<>(new SecretSignatureConfiguration(MAC_SECRET)).generate(createProfile());
+        final JwtAuthenticator authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        authenticator.setVerifiedTokenCacheSize(10);
+        authenticator.setProfileCodec(new BinaryProfileCodec() {
+            @Override
+            public byte[] encode(final CommonProfile profile) {
+                throw new TechnicalException("Cannot encode");
+            }
+        });
+        assertNotNull(authenticator.validateToken(token));
+        assertEquals(0, authenticator.getVerifiedTokenCount());
+    }
+
+    @Test
+    public void testVerifiedTokenNotDecodable() {
+        final String token = new JwtGenerator<>(new SecretSignatureConfiguration(MAC_SECRET)).generate(createProfile());
+        final JwtAuthenticator authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        authenticator.setVerifiedTokenCacheSize(10);
+        authenticator.setProfileCodec(new BinaryProfileCodec() {
+            @Override
+            public CommonProfile decode(final byte[] bytes) {
+                return null;
+            }
+        });
+        assertNotNull(authenticator.validateToken(token));
+        assertEquals(1, authenticator.getVerifiedTokenCount());
+        assertNotNull(authenticator.validateToken(token));
+        assertEquals(1, authenticator.getVerifiedTokenCount());
+    }
+
+    @Test
+    public void testVerifiedTokenCacheClearedOnKeyChange() {
+        final String token = new JwtGenerator<>(new SecretSignatureConfiguration(MAC_SECRET)).generate(createProfile());
+        final SecretSignatureConfiguration signatureConfiguration = new SecretSignatureConfiguration(MAC_SECRET);
+        final JwtAuthenticator authenticator = new JwtAuthenticator(signatureConfiguration);
+        authenticator.setVerifiedTokenCacheSize(10);
+        assertNotNull(authenticator.validateToken(token));
+        assertEquals(1, authenticator.getVerifiedTokenCount());
+        signatureConfiguration.setSecret(KEY2);
+        TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(token), null), CredentialsException.class,
+            "JWT verification failed: " + token);
+        assertEquals(0, authenticator.getVerifiedTokenCount());
+    }
+
+    @Test
+    public void testKeyIdSelection() throws NoSuchAlgorithmException {
+        final KeyPair keyPair = buildRSAKeyPair();
+        final RSASignatureConfiguration signatureConfiguration = new RSASignatureConfiguration(keyPair);
+        signatureConfiguration.setKeyId(VALUE);
+        final String token = new JwtGenerator<>(signatureConfiguration).generate(createProfile());
+
+        // the first configuration cannot verify: it would fail if it were used
+        final RSASignatureConfiguration otherConfiguration = new RSASignatureConfiguration();
+        otherConfiguration.setPrivateKey((RSAPrivateKey) buildRSAKeyPair().getPrivate());
+        otherConfiguration.setKeyId(NAME);
+        final RSASignatureConfiguration verifyingConfiguration = new RSASignatureConfiguration(keyPair);
+        verifyingConfiguration.setKeyId(VALUE);
+        final JwtAuthenticator authenticator = new JwtAuthenticator(Arrays.asList(otherConfiguration, verifyingConfiguration));
+        assertNotNull(authenticator.validateToken(token));
+    }
+
+    @Test
+    public void testKeyIdChangeReindexed() throws NoSuchAlgorithmException {
+        final KeyPair keyPair = buildRSAKeyPair();
+        final RSASignatureConfiguration signatureConfiguration = new RSASignatureConfiguration(keyPair);
+        signatureConfiguration.setKeyId(VALUE);
+        final String token = new JwtGenerator<>(signatureConfiguration).generate(createProfile());
+
+        final RSASignatureConfiguration verifyingConfiguration = new RSASignatureConfiguration(keyPair);
+        verifyingConfiguration.setKeyId(NAME);
+        final JwtAuthenticator authenticator = new JwtAuthenticator(verifyingConfiguration);
+        TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(token), null), CredentialsException.class,
+            "No signature algorithm found for JWT: " + token);
+        verifyingConfiguration.setKeyId(VALUE);
+        assertNotNull(authenticator.validateToken(token));
+    }
+
+    @Test
+    public void testKeyThumbprintSelection()throws NoSuchAlgorithmException {
+        final KeyPair keyPair = buildRSAKeyPair();
+        final RSASignatureConfiguration signatureConfiguration = new RSASignatureConfiguration(keyPair);
+        signatureConfiguration.setKeyId(signatureConfiguration.getKeyThumbprint());
+        final String token = new JwtGenerator<>(signatureConfiguration).generate(createProfile());
+
+        final RSASignatureConfiguration otherConfiguration = new RSASignatureConfiguration();
+        otherConfiguration.setPrivateKey((RSAPrivateKey) buildRSAKeyPair().getPrivate());
+        otherConfiguration.setKeyId(NAME);
+        final JwtAuthenticator authenticator = new JwtAuthenticator(Arrays.asList(otherConfiguration,
+            new RSASignatureConfiguration(keyPair)));
+        assertNotNull(authenticator.validateToken(token));
+    }
+
+    @Test
+    public void testUnidentifiedRSAConfigurationWithArbitraryKeyId() throws NoSuchAlgorithmException {
+        final KeyPair keyPair = buildRSAKeyPair();
+        final RSASignatureConfiguration signatureConfiguration = new RSASignatureConfiguration(keyPair);
+        signatureConfiguration.setKeyId("foo");
+        final String token = new JwtGenerator<>(signatureConfiguration).generate(createProfile());
+        assertNotNull(new JwtAuthenticator(new RSASignatureConfiguration(keyPair)).validateToken(token));
+    }
+
+    @Test
+    public void testUnknownKeyId() throws NoSuchAlgorithmException {
+        final KeyPair keyPair = buildRSAKeyPair();
+        final RSASignatureConfiguration signatureConfiguration = new RSASignatureConfiguration(keyPair);
+        signatureConfiguration.setKeyId(VALUE);
+        final String token = new JwtGenerator<>(signatureConfiguration).generate(createProfile());
+
+        final RSASignatureConfiguration verifyingConfiguration = new RSASignatureConfiguration(keyPair);
+        verifyingConfiguration.setKeyId(NAME);
+        final JwtAuthenticator authenticator = new JwtAuthenticator(verifyingConfiguration);
+        TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(token), null), CredentialsException.class,
+            "No signature algorithm found for JWT: " + token);
+        authenticator.setFullScanOnUnknownKeyId(true);
+        assertNotNull(authenticator.validateToken(token));
+    }
+
+    @Test
+    public void testUnidentifiedConfigurationWithKeyId() {
+        final SecretSignatureConfiguration signatureConfiguration = new SecretSignatureConfiguration(MAC_SECRET);
+        signatureConfiguration.setKeyId(VALUE);
+        final String token = new JwtGenerator<>(signatureConfiguration).generate(createProfile());
+        assertNotNull(new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET)).validateToken(token));
+    }
+
+    @Test
+    public void testExpiredTokenRejectedBeforeVerification() throws NoSuchAlgorithmException {
+        final JwtGenerator<JwtProfile> generator = new JwtGenerator<>(new RSASignatureConfiguration(buildRSAKeyPair()));
+        final Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtClaims.SUBJECT, VALUE);
+        claims.put(JwtClaims.EXPIRATION_TIME, yesterday());
+        final String token = generator.generate(claims);
+
+        // this configuration cannot verify: it would fail if it were used
+        final RSASignatureConfiguration signatureConfiguration = new RSASignatureConfiguration();
+        signatureConfiguration.setPrivateKey((RSAPrivateKey) buildRSAKeyPair().getPrivate());
+        final JwtAuthenticator authenticator = new JwtAuthenticator(signatureConfiguration);
+        TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(token), null), CredentialsException.class,
+            "The JWT is expired");
+    }
+
+    @Test
+    public void testNotYetValidToken() {
+        final JwtGenerator<JwtProfile> generator = new JwtGenerator<>(new SecretSignatureConfiguration(MAC_SECRET));
+        final Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtClaims.SUBJECT, VALUE);
+        claims.put(JwtClaims.NOT_BEFORE, new Date(System.currentTimeMillis() + 60 * 1000));
+        final String token = generator.generate(claims);
+        final JwtAuthenticator authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(token), null), CredentialsException.class,
+            "The JWT is not valid yet");
+        authenticator.setClockSkew(120);
+        assertNotNull(authenticator.validateToken(token));
+    }
+
+    @Test
+    public void testAllowedIssuersAndAudiences() {
+        final JwtGenerator<JwtProfile> generator = new JwtGenerator<>(new SecretSignatureConfiguration(MAC_SECRET));
+        final Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtClaims.SUBJECT, VALUE);
+        claims.put(JwtClaims.ISSUER, CALLBACK_URL);
+        claims.put(JwtClaims.AUDIENCE, Arrays.asList(NAME, VALUE));
+        final String token = generator.generate(claims);
+        final JwtAuthenticator authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        authenticator.setAllowedIssuers(Collections.singletonList(PAC4J_URL));
+        TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(token), null), CredentialsException.class,
+            "Issuer not allowed: " + CALLBACK_URL);
+        authenticator.setAllowedIssuers(Arrays.asList(PAC4J_URL, CALLBACK_URL));
+        authenticator.setAllowedAudiences(Collections.singletonList(KEY));
+        TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(token), null), CredentialsException.class,
+            "Audience not allowed: [" + NAME + ", " + VALUE + "]");
+        authenticator.setAllowedAudiences(Collections.singletonList(VALUE));
+        assertNotNull(authenticator.validateToken(token));
+    }
+
+    @Test
+    public void testMaxTokenLength() {
+        final String token = new JwtGenerator<>(new SecretSignatureConfiguration(MAC_SECRET)).generate(createProfile());
+        final JwtAuthenticator authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        authenticator.setMaxTokenLength(token.length() - 1);
+        TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(token), null), CredentialsException.class,
+            "JWT too large: " + token.length() + " characters");
+        authenticator.setMaxTokenLength(token.length());
+        assertNotNull(authenticator.validateToken(token));
+    }
+
+    @Test
+    public void testEncryptedTokenClaimsCheckedAfterDecryption() {
+        final JwtGenerator<JwtProfile> generator = new JwtGenerator<>(new SecretSignatureConfiguration(MAC_SECRET),
+            new SecretEncryptionConfiguration(MAC_SECRET));
+        final Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtClaims.SUBJECT, VALUE);
+        claims.put(JwtClaims.ISSUER, CALLBACK_URL);
+        final String token = generator.generate(claims);
+        final JwtAuthenticator authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET),
+            new SecretEncryptionConfiguration(MAC_SECRET));
+        authenticator.setAllowedIssuers(Collections.singletonList(PAC4J_URL));
+        TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(token), null), CredentialsException.class,
+            "Issuer not allowed: " + CALLBACK_URL);
+    }
+
     private Date tomorrow() {
         final Date now = new Date();
         long tomorrow = now.getTime() + 24 * 3600 * 1000;
@@ -322,6 +566,10 @@ public final class JwtTests implements TestsConstants {
         assertNotNull(g1);
     }
 
+    private KeyPair buildRSAKeyPair() throws NoSuchAlgorithmException {
+        return KeyPairGenerator.getInstance("RSA").generateKeyPair();
+    }
+
     private ECSignatureConfiguration buildECSignatureConfiguration() throws NoSuchAlgorithmException {
         final KeyPairGenerator keyGen = KeyPairGenerator.getInstance("EC");
         final KeyPair keyPair = keyGen.generateKeyPair();
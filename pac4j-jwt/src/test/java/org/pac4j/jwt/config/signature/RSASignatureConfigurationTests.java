@@ -2,6 +2,7 @@ package org.pac4j.jwt.config.signature;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
@@ -18,7 +19,7 @@ import java.security.NoSuchAlgorithmException;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /**
  * Tests {@link RSASignatureConfiguration}.
@@ -81,4 +82,16 @@ public final class RSASignatureConfigurationTests implements TestsConstants {
         final SignedJWT signedJwt = config.sign(claims);
         assertTrue(config.verify(signedJwt));
     }
+
+    @Test
+    public void testVerifierReused() throws JOSEException {
+        final RSASignatureConfiguration config = new RSASignatureConfiguration(buildKeyPair());
+        final SignedJWT signedJwt = config.sign(buildClaims());
+        assertTrue(config.verify(signedJwt));
+        final JWSVerifier verifier = config.getVerifier();
+        assertSame(verifier, config.getVerifier());
+        config.setKeyPair(buildKeyPair());
+        assertNotSame(verifier, config.getVerifier());
+        assertFalse(config.verify(signedJwt));
+    }
 }
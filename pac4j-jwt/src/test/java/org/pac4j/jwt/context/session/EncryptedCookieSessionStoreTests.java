@@ -0,0 +1,230 @@
+package org.pac4j.jwt.context.session;
+
+import org.junit.Test;
+import org.pac4j.core.context.Cookie;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.jwt.config.encryption.EncryptionConfiguration;
+import org.pac4j.jwt.config.encryption.RSAEncryptionConfiguration;
+import org.pac4j.jwt.config.encryption.SecretEncryptionConfiguration;
+
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link EncryptedCookieSessionStore}.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class EncryptedCookieSessionStoreTests implements TestsConstants {
+
+    private static final String OTHER_SECRET = "abcdefghijklmnopqrstuvwxyz123456";
+
+    private EncryptedCookieSessionStore<MockWebContext> buildSessionStore(final String... secrets) {
+        final EncryptedCookieSessionStore<MockWebContext> sessionStore = new EncryptedCookieSessionStore<>();
+        final List<EncryptionConfiguration> configurations = new ArrayList<>();
+        for (final String secret : secrets) {
+            configurations.add(new SecretEncryptionConfiguration(secret));
+        }
+        sessionStore.setEncryptionConfigurations(configurations);
+        return sessionStore;
+    }
+
+    private MockWebContext nextRequest(final MockWebContext context) {
+        final MockWebContext next = MockWebContext.create();
+        for (final Cookie cookie : context.getResponseCookies()) {
+            next.getRequestCookies().removeIf(c -> c.getName().equals(cookie.getName()));
+            if (cookie.getMaxAge() != 0) {
+                next.getRequestCookies().add(cookie);
+            }
+        }
+        return next;
+    }
+
+    @Test
+    public void testMissingEncryptionConfiguration() {
+        final EncryptedCookieSessionStore<MockWebContext> sessionStore = new EncryptedCookieSessionStore<>();
+        TestsHelper.expectException(sessionStore::init, TechnicalException.class, "encryptionConfigurations cannot be empty");
+    }
+
+    @Test
+    public void testNoSession() {
+        final EncryptedCookieSessionStore<MockWebContext> sessionStore = buildSessionStore(MAC_SECRET);
+        final MockWebContext context = MockWebContext.create();
+        assertNull(sessionStore.get(context, KEY));
+        assertTrue(context.getResponseCookies().isEmpty());
+    }
+
+    @Test
+    public void testSetAndGetAcrossRequests() {
+        final EncryptedCookieSessionStore<MockWebContext> sessionStore = buildSessionStore(MAC_SECRET);
+        final MockWebContext context = MockWebContext.create();
+        sessionStore.set(context, KEY, VALUE);
+        final String id = sessionStore.getOrCreateSessionId(context);
+        assertEquals(1, context.getResponseCookies().size());
+        assertFalse(context.getResponseCookies().iterator().next().getValue().contains(VALUE));
+
+        final MockWebContext next = nextRequest(context);
+        assertEquals(VALUE, sessionStore.get(next, KEY));
+        assertEquals(id, sessionStore.getOrCreateSessionId(next));
+        // unchanged session: no new cookie
+        sessionStore.set(next, KEY, VALUE);
+        assertTrue(next.getResponseCookies().isEmpty());
+    }
+
+    @Test
+    public void testChunks() {
+        final EncryptedCookieSessionStore<MockWebContext> sessionStore = buildSessionStore(MAC_SECRET);
+        sessionStore.setChunkSize(300);
+        final MockWebContext context = MockWebContext.create();
+        sessionStore.set(context, KEY, randomValue(2000));
+        assertTrue(context.getResponseCookies().size() > 1);
+
+        final MockWebContext next = nextRequest(context);
+        assertEquals(2000, ((String) sessionStore.get(next, KEY)).length());
+        sessionStore.set(next, KEY, VALUE);
+        assertTrue(next.getResponseCookies().stream().anyMatch(c -> c.getMaxAge() == 0));
+
+        final MockWebContext last = nextRequest(next);
+        assertEquals(VALUE, sessionStore.get(last, KEY));
+    }
+
+    @Test
+    public void testSessionTooLarge() {
+        final EncryptedCookieSessionStore<MockWebContext> sessionStore = buildSessionStore(MAC_SECRET);
+        sessionStore.setChunkSize(300);
+        sessionStore.setMaxChunks(1);
+        final MockWebContext context = MockWebContext.create();
+        final Exception e = TestsHelper.expectException(() -> sessionStore.set(context, KEY, randomValue(2000)));
+        assertTrue(e instanceof TechnicalException);
+        assertTrue(e.getMessage().startsWith("Session too large"));
+    }
+
+    @Test
+    public void testKeyRotation() {
+        final EncryptedCookieSessionStore<MockWebContext> oldSessionStore = buildSessionStore(MAC_SECRET);
+        final MockWebContext context = MockWebContext.create();
+        oldSessionStore.set(context, KEY, VALUE);
+
+        final EncryptedCookieSessionStore<MockWebContext> sessionStore = buildSessionStore(OTHER_SECRET, MAC_SECRET);
+        final MockWebContext next = nextRequest(context);
+        // re-encrypted with the new key, even if the session is only read
+        assertEquals(VALUE, sessionStore.get(next, KEY));
+        assertEquals(1, next.getResponseCookies().size());
+        sessionStore.set(next, KEY, VALUE);
+        assertEquals(1, next.getResponseCookies().size());
+
+        final MockWebContext last = nextRequest(next);
+        assertEquals(VALUE, buildSessionStore(OTHER_SECRET).get(last, KEY));
+        assertNull(buildSessionStore(MAC_SECRET).get(nextRequest(next), KEY));
+    }
+
+    @Test
+    public void testRenewSession() {
+        final EncryptedCookieSessionStore<MockWebContext> sessionStore = buildSessionStore(MAC_SECRET);
+        final MockWebContext context = MockWebContext.create();
+        sessionStore.set(context, KEY, VALUE);
+        final String id = sessionStore.getOrCreateSessionId(context);
+        assertTrue(sessionStore.renewSession(context));
+        final String newId = sessionStore.getOrCreateSessionId(context);
+        assertNotEquals(id, newId);
+
+        final MockWebContext next = nextRequest(context);
+        assertEquals(newId, sessionStore.getOrCreateSessionId(next));
+        assertEquals(VALUE, sessionStore.get(next, KEY));
+    }
+
+    @Test
+    public void testDestroySession() {
+        final EncryptedCookieSessionStore<MockWebContext> sessionStore = buildSessionStore(MAC_SECRET);
+        final MockWebContext context = MockWebContext.create();
+        sessionStore.set(context, KEY, VALUE);
+
+        final MockWebContext next = nextRequest(context);
+        assertTrue(sessionStore.destroySession(next));
+        assertNull(sessionStore.get(next, KEY));
+        assertTrue(nextRequest(next).getRequestCookies().isEmpty());
+    }
+
+    @Test
+    public void testExpiredSession() throws InterruptedException {
+        final EncryptedCookieSessionStore<MockWebContext> sessionStore = buildSessionStore(MAC_SECRET);
+        sessionStore.setTimeout(1);
+        final MockWebContext context = MockWebContext.create();
+        sessionStore.set(context, KEY, VALUE);
+        Thread.sleep(1100);
+        assertNull(sessionStore.get(nextRequest(context), KEY));
+    }
+
+    @Test
+    public void testIdleTimeout() throws InterruptedException {
+        final EncryptedCookieSessionStore<MockWebContext> sessionStore = buildSessionStore(MAC_SECRET);
+        sessionStore.setTimeout(4);
+        final MockWebContext context = MockWebContext.create();
+        sessionStore.set(context, KEY, VALUE);
+
+        // more than half of the timeout left: the cookies are not rewritten
+        final MockWebContext next = nextRequest(context);
+        assertEquals(VALUE, sessionStore.get(next, KEY));
+        assertTrue(next.getResponseCookies().isEmpty());
+
+        // less than half of the timeout left: the expiration time is extended on read
+        Thread.sleep(3000);
+        final MockWebContext later = nextRequest(context);
+        assertEquals(VALUE, sessionStore.get(later, KEY));
+        assertEquals(1, later.getResponseCookies().size());
+
+        // used within the timeout, the session is still alive after the initial expiration time
+        Thread.sleep(2000);
+        assertEquals(VALUE, sessionStore.get(nextRequest(later), KEY));
+    }
+
+    private static String randomValue(final int size) {
+        final StringBuilder sb = new StringBuilder();
+        while (sb.length() < size) {
+            sb.append(CommonHelper.randomString(10));
+        }
+        return sb.substring(0, size);
+    }
+
+    @Test
+    public void testAsymmetricEncryptionConfigurationRejected() throws NoSuchAlgorithmException {
+        final EncryptedCookieSessionStore<MockWebContext> sessionStore = new EncryptedCookieSessionStore<>(
+            new RSAEncryptionConfiguration(KeyPairGenerator.getInstance("RSA").generateKeyPair()));
+        TestsHelper.expectException(sessionStore::init, TechnicalException.class,
+            "Only secret encryption configurations can be used: " + sessionStore.getEncryptionConfigurations().get(0));
+    }
+
+    @Test
+    public void testDecompressedSizeIsBounded() {
+        final EncryptedCookieSessionStore<MockWebContext> largeSessionStore = buildSessionStore(MAC_SECRET);
+        largeSessionStore.setChunkSize(100000);
+        final char[] chars = new char[500000];
+        Arrays.fill(chars, 'a');
+        final MockWebContext context = MockWebContext.create();
+        largeSessionStore.set(context, KEY, new String(chars));
+
+        final MockWebContext next = nextRequest(context);
+        assertEquals(new String(chars), largeSessionStore.get(next, KEY));
+        assertNull(buildSessionStore(MAC_SECRET).get(nextRequest(context), KEY));
+    }
+
+    @Test
+    public void testTooLargeSessionData() {
+        final EncryptedCookieSessionStore<MockWebContext> sessionStore = buildSessionStore(MAC_SECRET);
+        final char[] chars = new char[500000];
+        Arrays.fill(chars, 'a');
+        final Exception e = TestsHelper.expectException(() -> sessionStore.set(MockWebContext.create(), KEY, new String(chars)));
+        assertTrue(e instanceof TechnicalException);
+        assertTrue(e.getMessage().startsWith("Session too large: "));
+    }
+}
@@ -0,0 +1,100 @@
+package org.pac4j.jwt.run;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.jwt.config.signature.AbstractSignatureConfiguration;
+import org.pac4j.jwt.config.signature.ECSignatureConfiguration;
+import org.pac4j.jwt.config.signature.RSASignatureConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+
+/**
+ * Run manually a benchmark of the JWT signature verifications: a new verifier per call versus the verifier
+ * shared by the signature configuration (see {@link org.pac4j.jwt.util.KeyBoundComponent}), for RSA and EC keys.
+ *
+ * It is not a test (it asserts nothing and takes time), so it is not part of the build.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class RunSignatureVerificationBenchmark implements TestsConstants {
+
+    private static final Logger logger = LoggerFactory.getLogger(RunSignatureVerificationBenchmark.class);
+
+    private static final int WARMUP_ITERATIONS = 2000;
+
+    private static final int ITERATIONS = 10000;
+
+    @FunctionalInterface
+    private interface Verification {
+
+        boolean verify() throws JOSEException;
+    }
+
+    @FunctionalInterface
+    private interface VerifierFactory {
+
+        JWSVerifier build() throws JOSEException;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final KeyPair rsaKeyPair = buildKeyPair("RSA", null);
+        final RSASignatureConfiguration rsaConfig = new RSASignatureConfiguration(rsaKeyPair);
+        benchmark("RS256", rsaConfig, () -> new RSASSAVerifier((RSAPublicKey) rsaKeyPair.getPublic()));
+
+        final KeyPair ecKeyPair = buildKeyPair("EC", new ECGenParameterSpec("secp256r1"));
+        final ECSignatureConfiguration ecConfig = new ECSignatureConfiguration(ecKeyPair, JWSAlgorithm.ES256);
+        benchmark("ES256", ecConfig, () -> new ECDSAVerifier((ECPublicKey) ecKeyPair.getPublic()));
+    }
+
+    private static void benchmark(final String name, final AbstractSignatureConfiguration config, final VerifierFactory factory)
+        throws JOSEException {
+        final SignedJWT signedJwt = config.sign(new JWTClaimsSet.Builder().subject(VALUE).build());
+        final Verification newVerifier = () -> signedJwt.verify(factory.build());
+        final Verification sharedVerifier = () -> config.verify(signedJwt);
+
+        run(newVerifier, WARMUP_ITERATIONS);
+        run(sharedVerifier, WARMUP_ITERATIONS);
+
+        final long newVerifierNanos = run(newVerifier, ITERATIONS);
+        final long sharedVerifierNanos = run(sharedVerifier, ITERATIONS);
+        logger.info("{} verifications: {} ops/s with a new verifier per call, {} ops/s with the shared verifier", name,
+            opsPerSecond(newVerifierNanos), opsPerSecond(sharedVerifierNanos));
+    }
+
+    private static long run(final Verification verification, final int iterations) throws JOSEException {
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (!verification.verify()) {
+                throw new TechnicalException("Verification failed");
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long opsPerSecond(final long nanos) {
+        return ITERATIONS * 1_000_000_000L / Math.max(nanos, 1);
+    }
+
+    private static KeyPair buildKeyPair(final String algorithm, final ECGenParameterSpec spec) throws GeneralSecurityException {
+        final KeyPairGenerator keyGen = KeyPairGenerator.getInstance(algorithm);
+        if (spec != null) {
+            keyGen.initialize(spec);
+        }
+        return keyGen.generateKeyPair();
+    }
+}
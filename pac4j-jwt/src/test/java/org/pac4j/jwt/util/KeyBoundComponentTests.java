@@ -0,0 +1,48 @@
+package org.pac4j.jwt.util;
+
+import com.nimbusds.jose.JOSEException;
+import org.junit.Test;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link KeyBoundComponent}.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class KeyBoundComponentTests implements TestsConstants {
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicInteger builds = new AtomicInteger();
+
+    @Test
+    public void testReusedUntilKeysChange() throws JOSEException {
+        final KeyBoundComponent<Integer> component = new KeyBoundComponent<>(builds::incrementAndGet, generation);
+        assertEquals(1, (int) component.get());
+        assertEquals(1, (int) component.get());
+        generation.incrementAndGet();
+        assertEquals(2, (int) component.get());
+        assertEquals(2, (int) component.get());
+    }
+
+    @Test
+    public void testComponentBuiltFromReplacedKeysNotReused() throws JOSEException {
+        final KeyBoundComponent<Integer> component = new KeyBoundComponent<>(() -> {
+            final int build = builds.incrementAndGet();
+            if (build == 1) {
+                // the keys change while the component is built from the old ones
+                generation.incrementAndGet();
+            }
+            return build;
+        }, generation);
+        assertEquals(1, (int) component.get());
+        assertEquals(2, (int) component.get());
+        assertEquals(2, (int) component.get());
+    }
+}
@@ -12,7 +12,7 @@ import org.pac4j.core.profile.CommonProfile;
 public class KerberosProfile extends CommonProfile {
 
     private static final long serialVersionUID = -1388563485891552197L;
-    private GSSContext gssContext = null;
+    private transient GSSContext gssContext = null;
 
     public KerberosProfile() {
     }
@@ -21,6 +21,11 @@ public class KerberosProfile extends CommonProfile {
         this.gssContext = gssContext;
     }
 
+    /**
+     * Get the security context established during the authentication: it is not kept when the profile is encoded or serialized.
+     *
+     * @return the security context
+     */
     public GSSContext getGssContext() {
         return gssContext;
     }
@@ -0,0 +1,531 @@
+package org.pac4j.sql.store;
+
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.store.AbstractStore;
+import org.pac4j.core.store.GuavaStore;
+import org.pac4j.core.store.JavaSerializationStoreCodec;
+import org.pac4j.core.store.Store;
+import org.pac4j.core.store.StoreRegistry;
+import org.pac4j.core.store.StoreCodec;
+import org.pac4j.core.util.CommonHelper;
+import org.skife.jdbi.v2.DBI;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.PreparedBatch;
+import org.skife.jdbi.v2.Query;
+import org.skife.jdbi.v2.exceptions.UnableToExecuteStatementException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Store data in a database table, to share them between the nodes of a cluster.
+ *
+ * The table must exist, for example: <code>create table pac4j_store (store_key varchar(255) primary key,
+ * store_value blob, expires_at bigint)</code>.
+ *
+ * The entries expire after the timeout (0 means no expiration) or the specific time to live they have been set with.
+ * The expired rows are ignored on read and deleted in batches by a background sweeper. The values are encoded with a
+ * {@link StoreCodec} (Java serialization by default), the keys are mapped to strings (<code>toString</code> by default).
+ *
+ * Values are written with the <code>upsertQuery</code> if it is defined (with the <code>:key</code>, <code>:value</code>
+ * and <code>:expiresAt</code> parameters), otherwise with an update followed by an insert if no row was updated.
+ *
+ * The read values are kept in a small local near-cache for <code>nearCacheTimeout</code> milliseconds: the writes made
+ * by the other nodes may be seen after this delay.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public class DbStore<K, O> extends AbstractStore<K, O> implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DbStore.class);
+
+    private static final long NO_EXPIRATION = Long.MAX_VALUE;
+
+    protected DBI dbi;
+
+    private DataSource dataSource;
+
+    private String table = "pac4j_store";
+
+    private String upsertQuery;
+
+    private int timeout = 0;
+
+    private TimeUnit timeUnit = TimeUnit.SECONDS;
+
+    private Function<K, String> keyMapper = Object::toString;
+
+    private StoreCodec<O> valueCodec = new JavaSerializationStoreCodec<>();
+
+    private int nearCacheSize = 1000;
+
+    private int nearCacheTimeout = 1000;
+
+    private Store<K, O> nearCache;
+
+    private int sweepInterval = 60;
+
+    private int batchSize = 500;
+
+    private ScheduledExecutorService sweeper;
+
+    public DbStore() {}
+
+    public DbStore(final DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public DbStore(final DataSource dataSource, final int timeout, final TimeUnit timeUnit) {
+        this.dataSource = dataSource;
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+    }
+
+    @Override
+    protected void internalInit() {
+        CommonHelper.assertNotNull("dataSource", dataSource);
+        CommonHelper.assertNotBlank("table", table);
+        CommonHelper.assertTrue(timeout >= 0, "timeout cannot be negative");
+        CommonHelper.assertNotNull("timeUnit", timeUnit);
+        CommonHelper.assertNotNull("keyMapper", keyMapper);
+        CommonHelper.assertNotNull("valueCodec", valueCodec);
+        CommonHelper.assertTrue(batchSize > 0, "batchSize must be greater than zero");
+
+        this.dbi = new DBI(dataSource);
+        if (nearCache == null && nearCacheSize > 0 && nearCacheTimeout > 0) {
+            nearCache = StoreRegistry.register(this, new GuavaStore<>(nearCacheSize, nearCacheTimeout, TimeUnit.MILLISECONDS));
+        }
+        if (sweepInterval > 0) {
+            sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+                final Thread thread = new Thread(r, "pac4j-db-store-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sweeper.scheduleWithFixedDelay(this::sweepQuietly, sweepInterval, sweepInterval, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    protected O internalGet(final K key) {
+        return internalGetAll(Collections.singletonList(key)).get(key);
+    }
+
+    @Override
+    protected Map<K, O> internalGetAll(final Collection<K> keys) {
+        final Map<K, O> values = new LinkedHashMap<>();
+        final Map<String, K> missingKeys = new LinkedHashMap<>();
+        for (final K key : keys) {
+            CommonHelper.assertNotNull("key", key);
+            final O value = nearCache != null ? nearCache.get(key) : null;
+            if (value != null) {
+                values.put(key, value);
+            } else {
+                missingKeys.put(keyMapper.apply(key), key);
+            }
+        }
+        if (missingKeys.isEmpty()) {
+            return values;
+        }
+
+        final long now = System.currentTimeMillis();
+        final List<String> dbKeys = new ArrayList<>(missingKeys.keySet());
+        try (final Handle h = dbi.open()) {
+            for (int start = 0; start < dbKeys.size(); start += batchSize) {
+                final List<String> chunk = dbKeys.subList(start, Math.min(dbKeys.size(), start + batchSize));
+                final StringBuilder sb = new StringBuilder("select store_key, store_value, expires_at from ")
+                    .append(table).append(" where expires_at > :now and store_key in (");
+                for (int i = 0; i < chunk.size(); i++) {
+                    sb.append(i > 0 ? ", :k" : ":k").append(i);
+                }
+                sb.append(")");
+                final Query<Map<String, Object>> query = h.createQuery(sb.toString()).bind("now", now);
+                for (int i = 0; i < chunk.size(); i++) {
+                    query.bind("k" + i, chunk.get(i));
+                }
+                logger.debug("Query: {} for keys: {}", sb, chunk);
+                for (final Row row : query.map((index, r, ctx) -> new Row(r.getString(1), r.getBytes(2), r.getLong(3))).list()) {
+                    final K key = missingKeys.get(row.key);
+                    final O value = decode(row.value);
+                    if (key != null && value != null) {
+                        values.put(key, value);
+                        cacheLocally(key, value, row.expiresAt, now);
+                    }
+                }
+            }
+        }
+        return values;
+    }
+
+    private O decode(final byte[] bytes) {
+        try {
+            return bytes != null ? valueCodec.decode(bytes) : null;
+        } catch (final RuntimeException e) {
+            logger.warn("Cannot decode stored value", e);
+            return null;
+        }
+    }
+
+    private void cacheLocally(final K key, final O value, final long expiresAt, final long now) {
+        if (nearCache != null) {
+            if (expiresAt - now < nearCacheTimeout) {
+                nearCache.set(key, value, expiresAt - now, TimeUnit.MILLISECONDS);
+            } else {
+                nearCache.set(key, value);
+            }
+        }
+    }
+
+    @Override
+    protected void internalSet(final K key, final O value) {
+        internalSet(key, value, timeout, timeUnit);
+    }
+
+    @Override
+    protected void internalSet(final K key, final O value, final long ttl, final TimeUnit ttlUnit) {
+        final long expiresAt = expiresAt(ttl, ttlUnit);
+        try (final Handle h = dbi.open()) {
+            upsert(h, keyMapper.apply(key), valueCodec.encode(value), expiresAt);
+        }
+        cacheLocally(key, value, expiresAt, System.currentTimeMillis());
+    }
+
+    @Override
+    protected void internalSetAll(final Map<K, O> values) {
+        final long expiresAt = expiresAt(timeout, timeUnit);
+        final Map<String, byte[]> encodedValues = new LinkedHashMap<>();
+        final List<String> removedKeys = new ArrayList<>();
+        for (final Map.Entry<K, O> entry : values.entrySet()) {
+            CommonHelper.assertNotNull("key", entry.getKey());
+            if (nearCache != null) {
+                nearCache.remove(entry.getKey());
+            }
+            if (entry.getValue() == null) {
+                removedKeys.add(keyMapper.apply(entry.getKey()));
+            } else {
+                encodedValues.put(keyMapper.apply(entry.getKey()), valueCodec.encode(entry.getValue()));
+            }
+        }
+
+        try (final Handle h = dbi.open()) {
+            h.inTransaction((handle, status) -> {
+                if (upsertQuery != null && !encodedValues.isEmpty()) {
+                    final PreparedBatch batch = handle.prepareBatch(upsertQuery);
+                    for (final Map.Entry<String, byte[]> entry : encodedValues.entrySet()) {
+                        batch.add().bind("key", entry.getKey()).bind("value", entry.getValue()).bind("expiresAt", expiresAt);
+                    }
+                    batch.execute();
+                } else {
+                    for (final Map.Entry<String, byte[]> entry : encodedValues.entrySet()) {
+                        upsert(handle, entry.getKey(), entry.getValue(), expiresAt);
+                    }
+                }
+                if (!removedKeys.isEmpty()) {
+                    final PreparedBatch batch = handle.prepareBatch("delete from " + table + " where store_key = :key");
+                    for (final String key : removedKeys) {
+                        batch.add().bind("key", key);
+                    }
+                    batch.execute();
+                }
+                return null;
+            });
+        }
+    }
+
+    private void upsert(final Handle h, final String key, final byte[] value, final long expiresAt) {
+        if (upsertQuery != null) {
+            h.createStatement(upsertQuery).bind("key", key).bind("value", value).bind("expiresAt", expiresAt).execute();
+            return;
+        }
+        if (update(h, key, value, expiresAt) == 0) {
+            try {
+                insert(h, key, value, expiresAt);
+            } catch (final UnableToExecuteStatementException e) {
+                if (!isDuplicateKey(e)) {
+                    throw e;
+                }
+                logger.debug("Concurrent insert for key: {}, updating the row", key);
+                if (update(h, key, value, expiresAt) == 0) {
+                    throw new TechnicalException("Cannot write the value for key: " + key, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether the statement has failed on a duplicate key, i.e. an integrity constraint violation (SQLState class 23).
+     *
+     * @param e the statement failure
+     * @return whether it is a duplicate key
+     */
+    protected boolean isDuplicateKey(final UnableToExecuteStatementException e) {
+        for (Throwable t = e.getCause(); t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                final String sqlState = ((SQLException) t).getSQLState();
+                return sqlState != null && sqlState.startsWith("23");
+            }
+        }
+        return false;
+    }
+
+    private int update(final Handle h, final String key, final byte[] value, final long expiresAt) {
+        return h.createStatement("update " + table + " set store_value = :value, expires_at = :expiresAt where store_key = :key")
+            .bind("key", key).bind("value", value).bind("expiresAt", expiresAt).execute();
+    }
+
+    private void insert(final Handle h, final String key, final byte[] value, final long expiresAt) {
+        h.createStatement("insert into " + table + " (store_key, store_value, expires_at) values (:key, :value, :expiresAt)")
+            .bind("key", key).bind("value", value).bind("expiresAt", expiresAt).execute();
+    }
+
+    @Override
+    protected boolean internalPutIfAbsent(final K key, final O value) {
+        final String dbKey = keyMapper.apply(key);
+        final long now = System.currentTimeMillis();
+        final long expiresAt = expiresAt(timeout, timeUnit);
+        try (final Handle h = dbi.open()) {
+            h.createStatement("delete from " + table + " where store_key = :key and expires_at <= :now")
+                .bind("key", dbKey).bind("now", now).execute();
+            insert(h, dbKey, valueCodec.encode(value), expiresAt);
+        } catch (final UnableToExecuteStatementException e) {
+            if (!isDuplicateKey(e)) {
+                throw e;
+            }
+            logger.debug("Value already present for key: {}", dbKey);
+            return false;
+        }
+        cacheLocally(key, value, expiresAt, now);
+        return true;
+    }
+
+    @Override
+    protected void internalRemove(final K key) {
+        if (nearCache != null) {
+            nearCache.remove(key);
+        }
+        try (final Handle h = dbi.open()) {
+            h.createStatement("delete from " + table + " where store_key = :key").bind("key", keyMapper.apply(key)).execute();
+        }
+    }
+
+    @Override
+    protected boolean internalRemove(final K key, final O expectedValue) {
+        if (nearCache != null) {
+            nearCache.remove(key);
+        }
+        final String dbKey = keyMapper.apply(key);
+        final long now = System.currentTimeMillis();
+        try (final Handle h = dbi.open()) {
+            return h.inTransaction((handle, status) -> {
+                final Row row = handle.createQuery("select store_key, store_value, expires_at from " + table
+                    + " where store_key = :key for update").bind("key", dbKey)
+                    .map((index, r, ctx) -> new Row(r.getString(1), r.getBytes(2), r.getLong(3))).first();
+                if (row == null || row.expiresAt <= now || !Objects.equals(decode(row.value), expectedValue)) {
+                    return false;
+                }
+                handle.createStatement("delete from " + table + " where store_key = :key").bind("key", dbKey).execute();
+                return true;
+            });
+        }
+    }
+
+    private long expiresAt(final long ttl, final TimeUnit ttlUnit) {
+        return ttl > 0 ? System.currentTimeMillis() + ttlUnit.toMillis(ttl) : NO_EXPIRATION;
+    }
+
+    /**
+     * Delete the expired rows, by batches of <code>batchSize</code> rows.
+     *
+     * @return the number of deleted rows
+     */
+    public int sweep() {
+        init();
+        final long now = System.currentTimeMillis();
+        int deleted = 0;
+        try (final Handle h = dbi.open()) {
+            while (true) {
+                final List<String> keys = h.createQuery("select store_key from " + table + " where expires_at <= :now")
+                    .bind("now", now).setMaxRows(batchSize).map((index, r, ctx) -> r.getString(1)).list();
+                if (keys.isEmpty()) {
+                    break;
+                }
+                final PreparedBatch batch = h.prepareBatch("delete from " + table
+                    + " where store_key = :key and expires_at <= :now");
+                for (final String key : keys) {
+                    batch.add().bind("key", key).bind("now", now);
+                }
+                for (final int count : batch.execute()) {
+                    deleted += Math.max(count, 0);
+                }
+                if (keys.size() < batchSize) {
+                    break;
+                }
+            }
+        }
+        logger.debug("Swept {} expired rows from table: {}", deleted, table);
+        return deleted;
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweep();
+        } catch (final RuntimeException e) {
+            logger.warn("Cannot sweep the expired rows of table: {}", table, e);
+        }
+    }
+
+    /**
+     * Stop the background sweeper.
+     */
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public void setDataSource(final DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public void setTable(final String table) {
+        this.table = table;
+    }
+
+    public String getUpsertQuery() {
+        return upsertQuery;
+    }
+
+    public void setUpsertQuery(final String upsertQuery) {
+        this.upsertQuery = upsertQuery;
+    }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(final int timeout) {
+        this.timeout = timeout;
+    }
+
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+
+    public void setTimeUnit(final TimeUnit timeUnit) {
+        this.timeUnit = timeUnit;
+    }
+
+    public Function<K, String> getKeyMapper() {
+        return keyMapper;
+    }
+
+    public void setKeyMapper(final Function<K, String> keyMapper) {
+        this.keyMapper = keyMapper;
+    }
+
+    public StoreCodec<O> getValueCodec() {
+        return valueCodec;
+    }
+
+    public void setValueCodec(final StoreCodec<O> valueCodec) {
+        this.valueCodec = valueCodec;
+    }
+
+    public int getNearCacheSize() {
+        return nearCacheSize;
+    }
+
+    public void setNearCacheSize(final int nearCacheSize) {
+        this.nearCacheSize = nearCacheSize;
+    }
+
+    public int getNearCacheTimeout() {
+        return nearCacheTimeout;
+    }
+
+    public void setNearCacheTimeout(final int nearCacheTimeout) {
+        this.nearCacheTimeout = nearCacheTimeout;
+    }
+
+    public Store<K, O> getNearCache() {
+        return nearCache;
+    }
+
+    public void setNearCache(final Store<K, O> nearCache) {
+        this.nearCache = nearCache;
+    }
+
+    public int getSweepInterval() {
+        return sweepInterval;
+    }
+
+    /**
+     * Define the interval between two sweeps of the expired rows, in seconds (0 disables the background sweeper).
+     *
+     * @param sweepInterval the sweep interval
+     */
+    public void setSweepInterval(final int sweepInterval) {
+        this.sweepInterval = sweepInterval;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public DBI getDbi() {
+        return dbi;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "dataSource", dataSource, "table", table, "upsertQuery", upsertQuery,
+            "timeout", timeout, "timeUnit", timeUnit, "valueCodec", valueCodec, "nearCacheSize", nearCacheSize,
+            "nearCacheTimeout", nearCacheTimeout, "sweepInterval", sweepInterval, "batchSize", batchSize);
+    }
+
+    /**
+     * A row of the table.
+     */
+    private static final class Row {
+
+        private final String key;
+
+        private final byte[] value;
+
+        private final long expiresAt;
+
+        private Row(final String key, final byte[] value, final long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
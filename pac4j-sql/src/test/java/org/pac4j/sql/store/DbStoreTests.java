@@ -0,0 +1,133 @@
+package org.pac4j.sql.store;
+
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.store.AbstractStoreTests;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.sql.test.tools.DbServer;
+import org.skife.jdbi.v2.DBI;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.exceptions.UnableToExecuteStatementException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link DbStore}.
+ *
+ * @author agent
+ * @since 3.0.0
+ */
+public final class DbStoreTests extends AbstractStoreTests<DbStore> {
+
+    private static String createTable() {
+        final String table = "store_" + CommonHelper.randomString(10);
+        try (final Handle h = new DBI(DbServer.getInstance()).open()) {
+            h.execute("create table " + table + " (store_key varchar(255) primary key, store_value blob, expires_at bigint)");
+        }
+        return table;
+    }
+
+    private static int countRows(final String table) {
+        try (final Handle h = new DBI(DbServer.getInstance()).open()) {
+            return h.createQuery("select count(*) from " + table).map((index, r, ctx) -> r.getInt(1)).first();
+        }
+    }
+
+    private static DbStore<String, String> newStore(final String table) {
+        final DbStore<String, String> store = new DbStore<>(DbServer.getInstance(), 1000, TimeUnit.MILLISECONDS);
+        store.setTable(table);
+        store.setSweepInterval(0);
+        return store;
+    }
+
+    protected DbStore buildStore() {
+        return newStore(createTable());
+    }
+
+    @Test
+    public void testMissingDataSource() {
+        TestsHelper.expectException(() -> new DbStore<>().init(), TechnicalException.class, "dataSource cannot be null");
+    }
+
+    @Test
+    public void testSharedBetweenStores() {
+        final String table = createTable();
+        final DbStore<String, String> store1 = newStore(table);
+        final DbStore<String, String> store2 = newStore(table);
+        store2.setNearCacheSize(0);
+        store1.set(KEY, VALUE);
+        assertEquals(VALUE, store2.get(KEY));
+        store2.set(KEY, NAME);
+        assertEquals(NAME, store2.get(KEY));
+        // near-cache of the first store
+        assertEquals(VALUE, store1.get(KEY));
+        store1.getNearCache().remove(KEY);
+        assertEquals(NAME, store1.get(KEY));
+    }
+
+    @Test
+    public void testUpsertQuery() {
+        final String table = createTable();
+        final DbStore<String, String> store = newStore(table);
+        store.setUpsertQuery("merge into " + table + " (store_key, store_value, expires_at) key (store_key) "
+            + "values (:key, :value, :expiresAt)");
+        store.set(KEY, VALUE);
+        store.set(KEY, NAME);
+        final Map<String, String> values = new HashMap<>();
+        values.put(ID, VALUE);
+        values.put(KEY, VALUE);
+        store.setAll(values);
+        assertEquals(2, countRows(table));
+        assertEquals(VALUE, newStore(table).get(KEY));
+    }
+
+    @Test
+    public void testSweep() throws InterruptedException {
+        final String table = createTable();
+        final DbStore<String, String> store = newStore(table);
+        store.setBatchSize(2);
+        for (int i = 0; i < 5; i++) {
+            store.set(KEY + i, VALUE, 100, TimeUnit.MILLISECONDS);
+        }
+        store.set(NAME, VALUE);
+        assertEquals(6, countRows(table));
+        Thread.sleep(200);
+        assertEquals(5, store.sweep());
+        assertEquals(1, countRows(table));
+        assertEquals(VALUE, store.get(NAME));
+    }
+
+    @Test
+    public void testPutIfAbsentAfterExpiration() throws InterruptedException {
+        final DbStore<String, String> store = newStore(createTable());
+        store.set(KEY, VALUE, 100, TimeUnit.MILLISECONDS);
+        assertFalse(store.putIfAbsent(KEY, NAME));
+        Thread.sleep(200);
+        assertTrue(store.putIfAbsent(KEY, NAME));
+        assertEquals(NAME, store.get(KEY));
+    }
+
+    @Test
+    public void testPutIfAbsentOnlyHidesDuplicateKeys() {
+        final DbStore<String, String> store = newStore("missing_" + CommonHelper.randomString(10));
+        store.setNearCacheSize(0);
+        assertTrue(TestsHelper.expectException(() -> store.putIfAbsent(KEY, VALUE)) instanceof UnableToExecuteStatementException);
+    }
+
+    @Test
+    public void testFailedInsertIsNotHidden() {
+        final String table = "store_" + CommonHelper.randomString(10);
+        try (final Handle h = new DBI(DbServer.getInstance()).open()) {
+            h.execute("create table " + table
+                + " (store_key varchar(255) primary key, store_value varbinary(4), expires_at bigint)");
+        }
+        final DbStore<String, String> store = newStore(table);
+        assertTrue(TestsHelper.expectException(() -> store.set(KEY, VALUE)) instanceof UnableToExecuteStatementException);
+        assertEquals(0, countRows(table));
+    }
+}